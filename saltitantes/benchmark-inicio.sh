@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Benchmark de partida: mede o tempo até o primeiro POST /api/v1/simular bem
+# sucedido e a memória residente (RSS) do processo nesse instante, comparando
+# o jar padrão com o build de partida rápida (AppCDS + inicialização
+# preguiçosa).
+#
+# Pré-requisito: mvn package -Pinicio-rapido -DskipTests
+# Uso: ./benchmark-inicio.sh [repeticoes]   (padrão 5)
+# Resultado: target/benchmark-inicio.csv (uma linha por partida)
+
+set -euo pipefail
+cd "$(dirname "$0")"
+
+REPETICOES="${1:-5}"
+PORTA="${PORTA:-18080}"
+JAR="saltitantes-0.0.1-SNAPSHOT.jar"
+SAIDA="target/benchmark-inicio.csv"
+
+# Banco H2 em memória: o benchmark não depende de PostgreSQL
+PROPRIEDADES=(
+    "-Dserver.port=${PORTA}"
+    "-Dspring.datasource.url=jdbc:h2:mem:benchmark"
+    "-Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+    "-Dspring.sql.init.mode=never"
+)
+
+if [[ ! -f "target/${JAR}" || ! -f "target/inicio-rapido/app.jsa" ]]; then
+    echo "Execute antes: mvn package -Pinicio-rapido -DskipTests" >&2
+    exit 1
+fi
+
+# Sobe a aplicação, espera o primeiro /simular com HTTP 200 e imprime
+# "<ms>,<rss_kb>". Argumentos: diretório de trabalho e comando java.
+medir() {
+    local diretorio="$1"
+    shift
+    local inicio fim pid rss
+    inicio=$(date +%s%N)
+    (cd "${diretorio}" && exec "$@" >/dev/null 2>&1) &
+    pid=$!
+
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' -X POST \
+        -H 'Content-Type: application/json' \
+        -d '{"quantidade":10,"iteracoes":10,"semente":1}' \
+        "http://localhost:${PORTA}/api/v1/simular")" == "200" ]]; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "A aplicação encerrou antes de responder" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    fim=$(date +%s%N)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")
+
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    echo "$(((fim - inicio) / 1000000)),${rss}"
+}
+
+echo "modo,repeticao,tempo_primeiro_simular_ms,rss_kb" > "${SAIDA}"
+for i in $(seq 1 "${REPETICOES}"); do
+    echo "padrao,${i},$(medir target java "${PROPRIEDADES[@]}" -jar "${JAR}")" >> "${SAIDA}"
+    echo "inicio-rapido,${i},$(medir target/inicio-rapido java -XX:SharedArchiveFile=app.jsa \
+        -Dspring.profiles.active=inicio-rapido "${PROPRIEDADES[@]}" -jar "${JAR}")" >> "${SAIDA}"
+done
+
+# Mediana por modo
+for modo in padrao inicio-rapido; do
+    grep "^${modo}," "${SAIDA}" | sort -t, -k3 -n | awk -F, -v modo="${modo}" \
+        '{t[NR]=$3; r[NR]=$4} END {m=int((NR+1)/2); printf "%-14s mediana: %5d ms ate o primeiro /simular, RSS %6d KB\n", modo, t[m], r[m]}'
+done
+echo "Detalhes em ${SAIDA}"
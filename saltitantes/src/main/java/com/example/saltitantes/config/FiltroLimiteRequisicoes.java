@@ -0,0 +1,200 @@
+package com.example.saltitantes.config;
+
+import com.example.saltitantes.service.LimitadorRequisicoes;
+import com.example.saltitantes.service.LimitadorRequisicoes.Regra;
+import com.example.saltitantes.service.TokensSessao.Sessao;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import lombok.AllArgsConstructor;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Filtro que aplica os limites do {@link LimitadorRequisicoes} antes de a
+ * requisição chegar ao controlador, respondendo 429 com
+ * {@code Retry-After} quando o cliente ou o login esgotam os tokens.
+ *
+ * O login vem da sessão ({@link FiltroTokenSessao}), nos endpoints em que
+ * ela identifica quem faz a requisição ({@link Regra#isLoginDaSessao()}),
+ * ou do corpo JSON: o filtro lê só o início do corpo e o devolve intacto ao
+ * controlador, seguido do restante ainda não lido.
+ *
+ * O endpoint é reconhecido pelo caminho como o Spring MVC o roteia: sem o
+ * context path, decodificado e normalizado. Pela URI crua, variantes como
+ * {@code /api/v1/%73imular} chegariam ao controlador sem limite.
+ */
+@Component
+@Order(2)
+@AllArgsConstructor
+public class FiltroLimiteRequisicoes extends OncePerRequestFilter {
+
+    private static final int LIMITE_LEITURA = 8 * 1024;
+    private static final UrlPathHelper CAMINHOS = new UrlPathHelper();
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final byte[] MENSAGEM = "Limite de requisições excedido. Tente novamente mais tarde."
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final LimitadorRequisicoes limitador;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limitador.regraPara(request.getMethod(), caminho(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Regra regra = limitador.regraPara(request.getMethod(), caminho(request));
+        HttpServletRequest requisicao = request;
+        String login;
+        Object sessao = request.getAttribute(FiltroTokenSessao.ATRIBUTO_SESSAO);
+        if (regra.isLoginDaSessao() && sessao instanceof Sessao sessaoValida) {
+            login = sessaoValida.getLogin();
+        } else {
+            ServletInputStream entrada = request.getInputStream();
+            CorpoRelido relido = new CorpoRelido(request, entrada.readNBytes(LIMITE_LEITURA), entrada);
+            login = extrairLogin(relido.inicio, regra.getCampoLogin());
+            requisicao = relido;
+        }
+
+        long espera = limitador.consumir(regra, request.getRemoteAddr(), login);
+        if (espera > 0) {
+            long segundos = (espera + 999_999_999L) / 1_000_000_000L;
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(segundos));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getOutputStream().write(MENSAGEM);
+            return;
+        }
+        chain.doFilter(requisicao, response);
+    }
+
+    /**
+     * Obtém o caminho da requisição dentro da aplicação: sem o context path
+     * nem parâmetros de caminho (;...), decodificado e sem segmentos . e ..
+     *
+     * @param request requisição
+     * @return caminho normalizado
+     */
+    static String caminho(HttpServletRequest request) {
+        return StringUtils.cleanPath(CAMINHOS.getPathWithinApplication(request));
+    }
+
+    /**
+     * Lê o campo de login do objeto JSON de nível mais alto.
+     *
+     * @param corpo início do corpo da requisição
+     * @param campo nome do campo
+     * @return login, ou null se o corpo não trouxer o campo como texto
+     */
+    static String extrairLogin(byte[] corpo, String campo) {
+        try (JsonParser parser = JSON.createParser(corpo)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String nome = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if (campo.equals(nome)) {
+                    return valor == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Corpo truncado ou inválido: limita só pelo endereço
+        }
+        return null;
+    }
+
+    /**
+     * Requisição que devolve o início já lido do corpo e depois o restante.
+     */
+    private static final class CorpoRelido extends HttpServletRequestWrapper {
+
+        private final byte[] inicio;
+        private final ServletInputStream original;
+        private ServletInputStream entrada;
+
+        private CorpoRelido(HttpServletRequest request, byte[] inicio, ServletInputStream original) {
+            super(request);
+            this.inicio = inicio;
+            this.original = original;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            if (entrada == null) {
+                entrada = new EntradaRelida(new ByteArrayInputStream(inicio), original);
+            }
+            return entrada;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String codificacao = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    codificacao != null ? Charset.forName(codificacao) : StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class EntradaRelida extends ServletInputStream {
+
+        private final ByteArrayInputStream inicio;
+        private final ServletInputStream restante;
+        private final InputStream sequencia;
+
+        private EntradaRelida(ByteArrayInputStream inicio, ServletInputStream restante) {
+            this.inicio = inicio;
+            this.restante = restante;
+            this.sequencia = new SequenceInputStream(inicio, restante);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return sequencia.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return sequencia.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inicio.available() == 0 && restante.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return inicio.available() > 0 || restante.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            restante.setReadListener(listener);
+        }
+    }
+}
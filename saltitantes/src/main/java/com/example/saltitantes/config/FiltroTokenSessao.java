@@ -0,0 +1,64 @@
+package com.example.saltitantes.config;
+
+import com.example.saltitantes.service.TokensSessao;
+import com.example.saltitantes.service.TokensSessao.Sessao;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.AllArgsConstructor;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filtro que valida o token de sessão do cabeçalho
+ * {@code Authorization: Bearer} e deixa a {@link Sessao} no atributo
+ * {@link #ATRIBUTO_SESSAO} da requisição, sem acessar o banco.
+ *
+ * Requisições sem token seguem anônimas; com token inválido ou expirado,
+ * recebem 401. Roda antes do {@link FiltroLimiteRequisicoes}, que usa o
+ * login da sessão.
+ */
+@Component
+@Order(1)
+@AllArgsConstructor
+public class FiltroTokenSessao extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_SESSAO = "saltitantes.sessao";
+
+    private static final String PREFIXO = "Bearer ";
+    private static final byte[] MENSAGEM = "Token de sessão inválido ou expirado."
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final TokensSessao tokensSessao;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return autorizacao == null || !autorizacao.startsWith(PREFIXO);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(PREFIXO.length()).trim();
+        Sessao sessao = tokensSessao.validar(token);
+        if (sessao == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getOutputStream().write(MENSAGEM);
+            return;
+        }
+        request.setAttribute(ATRIBUTO_SESSAO, sessao);
+        chain.doFilter(request, response);
+    }
+}
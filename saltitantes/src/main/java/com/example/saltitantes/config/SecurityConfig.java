@@ -48,6 +48,10 @@ public class SecurityConfig {
         // Cabeçalhos permitidos (usar "*" é comum para desenvolvimento)
         configuration.setAllowedHeaders(List.of("*"));
 
+        // Cabeçalhos que o frontend pode ler (cursor da listagem paginada e
+        // total/ETag das faixas de iterações)
+        configuration.setExposedHeaders(List.of("X-Proximo-Cursor", "X-Total-Iteracoes", "ETag"));
+
         // Permitir credenciais (cookies, etc.)
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,202 @@
+package com.example.saltitantes.controller;
+
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.SaidaEmBlocos;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversor que escreve respostas do tipo {@link EscritorSimulacao} sem
+ * passar pela serialização reflexiva do Jackson.
+ *
+ * A codificação segue o Content-Type da resposta: JSON (inclusive o
+ * colunar), CBOR ou Smile. Nos formatos binários as posições vão como
+ * double de 64 bits, sem conversão para texto decimal. O gerador JSON é
+ * criado pelo ObjectMapper da aplicação, então as configurações de saída
+ * (ex.: indentação) continuam valendo. Registrado como bean, o Spring Boot o
+ * coloca antes dos conversores padrão.
+ *
+ * A resposta passa por uma {@link SaidaEmBlocos}: a simulação calcula cada
+ * bloco com a vaga do escalonador ocupada e o escreve no cliente depois de
+ * devolvê-la.
+ */
+@Component
+public class ConversorSimulacao extends AbstractHttpMessageConverter<EscritorSimulacao> {
+
+    // Resposta do /simular no formato colunar (vetores paralelos por campo)
+    public static final MediaType APPLICATION_COLUNAR_JSON = MediaType
+            .parseMediaType("application/vnd.saltitantes.colunar+json");
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper objectMapper;
+    private final CBORFactory cborFactory;
+    private final SmileFactory smileFactory;
+    private final int tamanhoBloco;
+
+    public ConversorSimulacao(ObjectMapper objectMapper) {
+        this(objectMapper, 256);
+    }
+
+    @Autowired
+    public ConversorSimulacao(ObjectMapper objectMapper,
+            @Value("${saltitantes.simulacao.bloco-resposta-kb:256}") int blocoRespostaKb) {
+        super(MediaType.APPLICATION_JSON, APPLICATION_COLUNAR_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+        this.objectMapper = objectMapper;
+        // Com o ObjectMapper como codec, writeObject funciona em qualquer codificação
+        this.cborFactory = new CBORFactory(objectMapper);
+        this.smileFactory = new SmileFactory(objectMapper);
+        this.tamanhoBloco = blocoRespostaKb * 1024;
+    }
+
+    /**
+     * Escolhe o Content-Type da resposta do /simular pelo cabeçalho Accept:
+     * JSON, CBOR ou Smile, o de maior qualidade (empates ficam com o
+     * primeiro listado). Sem Accept ou sem nenhum tipo suportado, responde
+     * JSON. O JSON colunar usa o tipo próprio.
+     *
+     * @param accept  cabeçalho Accept (pode ser null)
+     * @param colunar true para o formato colunar
+     * @return tipo da resposta
+     */
+    public static MediaType negociar(String accept, boolean colunar) {
+        MediaType escolhido = MediaType.APPLICATION_JSON;
+        double melhorQualidade = 0.0;
+        if (accept != null) {
+            for (MediaType aceito : MediaType.parseMediaTypes(accept)) {
+                MediaType codificacao = codificacao(aceito);
+                if (codificacao != null && aceito.getQualityValue() > melhorQualidade) {
+                    escolhido = codificacao;
+                    melhorQualidade = aceito.getQualityValue();
+                }
+            }
+        }
+        return colunar && escolhido == MediaType.APPLICATION_JSON ? APPLICATION_COLUNAR_JSON : escolhido;
+    }
+
+    /**
+     * Indica se a resposta deve usar o formato colunar: pelo parâmetro
+     * formato (objetos ou colunar) ou, sem ele, pelo tipo colunar no Accept.
+     *
+     * @param formato parâmetro formato da requisição (pode ser null)
+     * @param accept  cabeçalho Accept (pode ser null)
+     * @return true para o formato colunar
+     * @throws IllegalArgumentException se o formato for inválido
+     *
+     * MC/DC para a condição: (formato == null && accept != null)
+     * ---------------------------------------------------------
+     * Caso | formato == null | accept != null | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | Formato escolhido pelo Accept
+     * 2 | true | false | false | Testa a 2ª condição (sem Accept)
+     * 3 | false | (não avaliado) | false | Testa a 1ª condição (parâmetro tem prioridade)
+     * ---------------------------------------------------------
+     */
+    public static boolean formatoColunar(String formato, String accept) {
+        if (formato == null && accept != null) {
+            // Só o tipo colunar explícito conta; */* e application/json mantêm o padrão
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(APPLICATION_COLUNAR_JSON::equalsTypeAndSubtype);
+        }
+        if (formato == null || "objetos".equals(formato)) {
+            return false;
+        }
+        if ("colunar".equals(formato)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Formato inválido: use objetos, colunar, histograma ou maiores.");
+    }
+
+    /**
+     * Indica se a resposta deve trazer histogramas das posições
+     * ({@code formato=histograma}). Tem prioridade sobre o tipo colunar no
+     * Accept.
+     *
+     * @param formato parâmetro formato da requisição (pode ser null)
+     * @return true para o formato histograma
+     */
+    public static boolean formatoHistograma(String formato) {
+        return "histograma".equals(formato);
+    }
+
+    /**
+     * Indica se a resposta deve trazer só as K criaturas e os K clusters com
+     * mais ouro ({@code formato=maiores}). Tem prioridade sobre o tipo
+     * colunar no Accept.
+     *
+     * @param formato parâmetro formato da requisição (pode ser null)
+     * @return true para o formato maiores
+     */
+    public static boolean formatoMaiores(String formato) {
+        return "maiores".equals(formato);
+    }
+
+    private static MediaType codificacao(MediaType aceito) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(aceito)) {
+            return MediaType.APPLICATION_CBOR;
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(aceito)) {
+            return APPLICATION_SMILE;
+        }
+        if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON) || APPLICATION_COLUNAR_JSON.equalsTypeAndSubtype(aceito)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EscritorSimulacao.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EscritorSimulacao readInternal(Class<? extends EscritorSimulacao> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Tipo somente de escrita.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(EscritorSimulacao escritor, HttpOutputMessage outputMessage) throws IOException {
+        SaidaEmBlocos saida = new SaidaEmBlocos(outputMessage.getBody(), tamanhoBloco);
+        JsonGenerator json = criarGerador(outputMessage.getHeaders().getContentType(), saida);
+        escritor.escrever(json);
+        json.flush();
+    }
+
+    /**
+     * Cria o gerador da codificação do tipo dado (JSON, CBOR ou Smile).
+     *
+     * @param tipo  Content-Type da resposta (null para JSON)
+     * @param saida destino dos bytes
+     * @return gerador sobre a saída
+     * @throws IOException se o gerador não puder ser criado
+     */
+    public JsonGenerator criarGerador(MediaType tipo, OutputStream saida) throws IOException {
+        if (tipo != null && MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(tipo)) {
+            return cborFactory.createGenerator(saida);
+        }
+        if (tipo != null && APPLICATION_SMILE.equalsTypeAndSubtype(tipo)) {
+            return smileFactory.createGenerator(saida);
+        }
+        return objectMapper.createGenerator(saida, JsonEncoding.UTF8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.saltitantes.controller;
+
+import com.example.saltitantes.model.dto.GravacaoJfrDTO;
+import com.example.saltitantes.service.GravacaoJfrService;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para gravações do Java Flight Recorder. Só é registrado
+ * com {@code saltitantes.jfr.endpoint.habilitado=true}, pois grava arquivos
+ * no disco do servidor.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/v1/jfr")
+@ConditionalOnProperty(name = "saltitantes.jfr.endpoint.habilitado", havingValue = "true")
+public class GravacaoJfrController {
+
+    private final GravacaoJfrService gravacaoJfrService;
+
+    /**
+     * Inicia uma gravação.
+     * 
+     * @param configuracao "default" ou "profile"
+     * @return estado da gravação ou 409 se já houver uma em andamento
+     */
+    @PostMapping("/iniciar")
+    public ResponseEntity<?> iniciar(@RequestParam(defaultValue = "profile") String configuracao) {
+        try {
+            return ResponseEntity.ok(gravacaoJfrService.iniciar(configuracao));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Para a gravação e grava o arquivo .jfr no servidor.
+     * 
+     * @return estado final com o caminho do arquivo ou 409 se não houver
+     *         gravação
+     */
+    @PostMapping("/parar")
+    public ResponseEntity<?> parar() {
+        try {
+            return ResponseEntity.ok(gravacaoJfrService.parar());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtém o estado da gravação.
+     * 
+     * @return estado atual
+     */
+    @GetMapping
+    public ResponseEntity<GravacaoJfrDTO> status() {
+        return ResponseEntity.ok(gravacaoJfrService.status());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.saltitantes.controller;
+
+import com.example.saltitantes.model.dto.MetricasCacheDTO;
+import com.example.saltitantes.model.dto.MetricasEscalonadorDTO;
+import com.example.saltitantes.model.dto.MetricasHistoricoDTO;
+import com.example.saltitantes.model.dto.MetricasLimiteDTO;
+import com.example.saltitantes.service.CacheUsuarios;
+import com.example.saltitantes.service.EscalonadorSimulacoes;
+import com.example.saltitantes.service.LimitadorRequisicoes;
+import com.example.saltitantes.service.SimuladorService;
+
+import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST com métricas internas da aplicação.
+ */
+@CrossOrigin(origins = "*")
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/v1/metricas")
+public class MetricasController {
+
+    private final Optional<CacheUsuarios> cacheUsuarios;
+    private final SimuladorService simuladorService;
+    private final EscalonadorSimulacoes escalonador;
+    private final LimitadorRequisicoes limitadorRequisicoes;
+
+    /**
+     * Obtém as métricas do cache de usuários.
+     * 
+     * @return métricas do cache ou 404 se o cache estiver desabilitado
+     */
+    @GetMapping("/cache-usuarios")
+    public ResponseEntity<MetricasCacheDTO> obterMetricasCache() {
+        return cacheUsuarios
+                .map(cache -> ResponseEntity.ok(cache.metricas()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Obtém a ocupação de memória do histórico da última simulação, no heap
+     * e fora dele.
+     *
+     * @return métricas do histórico
+     */
+    @GetMapping("/historico-simulacao")
+    public ResponseEntity<MetricasHistoricoDTO> obterMetricasHistorico() {
+        return ResponseEntity.ok(simuladorService.metricasHistorico());
+    }
+
+    /**
+     * Obtém a ocupação do escalonador de simulações e, por usuário, a
+     * profundidade da fila e o tempo de espera.
+     *
+     * @return métricas do escalonador
+     */
+    @GetMapping("/escalonador")
+    public ResponseEntity<MetricasEscalonadorDTO> obterMetricasEscalonador() {
+        return ResponseEntity.ok(escalonador.metricas());
+    }
+
+    /**
+     * Obtém, por endpoint limitado, as requisições permitidas e recusadas por
+     * excesso e a ocupação dos baldes de tokens.
+     *
+     * @return métricas dos limites de requisições
+     */
+    @GetMapping("/limite-requisicoes")
+    public ResponseEntity<List<MetricasLimiteDTO>> obterMetricasLimite() {
+        return ResponseEntity.ok(limitadorRequisicoes.metricas());
+    }
+}
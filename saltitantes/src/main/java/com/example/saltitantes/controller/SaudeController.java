@@ -0,0 +1,66 @@
+package com.example.saltitantes.controller;
+
+import com.example.saltitantes.model.dto.AquecimentoDTO;
+import com.example.saltitantes.service.AquecimentoService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST com as sondas de vivacidade e prontidão (ex.: probes do
+ * Kubernetes).
+ */
+@CrossOrigin(origins = "*")
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/v1/saude")
+public class SaudeController {
+
+    private final ApplicationAvailability disponibilidade;
+    private final Optional<AquecimentoService> aquecimentoService;
+
+    /**
+     * Indica se a aplicação está viva.
+     * 
+     * @return 200 se viva, 503 caso contrário
+     */
+    @GetMapping("/vivacidade")
+    public ResponseEntity<Map<String, Object>> vivacidade() {
+        LivenessState estado = disponibilidade.getLivenessState();
+        return responder(estado == LivenessState.CORRECT, estado.name());
+    }
+
+    /**
+     * Indica se a aplicação pode receber tráfego. Com o aquecimento
+     * habilitado, só responde 200 depois que ele termina.
+     * 
+     * @return 200 se pronta, 503 caso contrário
+     */
+    @GetMapping("/prontidao")
+    public ResponseEntity<Map<String, Object>> prontidao() {
+        ReadinessState estado = disponibilidade.getReadinessState();
+        return responder(estado == ReadinessState.ACCEPTING_TRAFFIC, estado.name());
+    }
+
+    private ResponseEntity<Map<String, Object>> responder(boolean ok, String estado) {
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("estado", estado);
+        AquecimentoDTO aquecimento = aquecimentoService.map(AquecimentoService::getUltimoResultado).orElse(null);
+        if (aquecimento != null) {
+            corpo.put("aquecimento", aquecimento);
+        }
+        return ResponseEntity.status(ok ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(corpo);
+    }
+}
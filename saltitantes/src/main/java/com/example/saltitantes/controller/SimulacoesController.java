@@ -0,0 +1,164 @@
+package com.example.saltitantes.controller;
+
+import com.example.saltitantes.model.dto.AnaliseRoubosDTO;
+import com.example.saltitantes.service.AnaliseRoubosService;
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.HistoricoIteracoesService;
+import com.example.saltitantes.service.HistoricoIteracoesService.FaixaIteracoes;
+import com.example.saltitantes.service.TrajetoriasExecucao;
+import com.example.saltitantes.service.TrajetoriasService;
+import com.example.saltitantes.service.TrajetoriasService.TrechoTrajetoria;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST com o histórico das execuções registradas no catálogo.
+ */
+@CrossOrigin(origins = "*")
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/v1/simulacoes")
+public class SimulacoesController {
+
+    private final HistoricoIteracoesService historicoIteracoesService;
+    private final TrajetoriasService trajetoriasService;
+    private final AnaliseRoubosService analiseRoubosService;
+
+    /**
+     * Obtém uma faixa de iterações de uma execução, no formato do /simular
+     * (objetos ou colunar; JSON, CBOR ou Smile pelo Accept).
+     *
+     * As iterações de uma execução nunca mudam, então a resposta vai com
+     * Cache-Control immutable e ETag; com If-None-Match igual, o Spring
+     * responde 304 sem escrever o corpo (e sem reproduzir a execução). O
+     * total de iterações executadas vai no cabeçalho X-Total-Iteracoes.
+     *
+     * @param id      id da execução
+     * @param de      primeira iteração (padrão 1)
+     * @param ate     última iteração (padrão: uma página a partir de de)
+     * @param formato objetos (padrão) ou colunar
+     * @param accept  cabeçalho Accept da requisição
+     * @return iterações da faixa, 400 se a faixa for inválida ou 404 se a
+     *         execução não existir
+     */
+    @GetMapping("/{id}/iteracoes")
+    public ResponseEntity<?> listarIteracoes(@PathVariable long id,
+            @RequestParam(required = false) Integer de,
+            @RequestParam(required = false) Integer ate,
+            @RequestParam(required = false) String formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            boolean colunar = ConversorSimulacao.formatoColunar(formato, accept);
+            Optional<FaixaIteracoes> faixa = historicoIteracoesService.buscarFaixa(id, de, ate);
+            if (faixa.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Execução não encontrada: " + id);
+            }
+
+            MediaType tipo = ConversorSimulacao.negociar(accept, colunar);
+            EscritorSimulacao corpo = json -> historicoIteracoesService.escrever(faixa.get(), json, colunar);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(tipo)
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .eTag(etag(faixa.get(), colunar, tipo))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .header("X-Total-Iteracoes", String.valueOf(faixa.get().getExecucao().getIteracoesExecutadas()))
+                    .body(corpo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtém a trajetória de uma entidade numa execução: posição, ouro e alvo
+     * do roubo (criatura roubada, ou cluster eliminado pelo guardião) em cada
+     * iteração em que ela esteve viva, em vetores paralelos (JSON, CBOR ou
+     * Smile pelo Accept).
+     *
+     * A primeira consulta a uma execução a reproduz uma vez e guarda a série
+     * de cada entidade ({@link TrajetoriasService}); as seguintes custam só o
+     * tamanho da série. Como as iterações, a resposta é imutável.
+     *
+     * @param id       id da execução
+     * @param tipo     criatura, cluster ou guardiao
+     * @param entidade id da entidade
+     * @param de       primeira iteração (padrão: início da série)
+     * @param ate      última iteração (padrão: fim da série)
+     * @param accept   cabeçalho Accept da requisição
+     * @return trajetória, 400 se o tipo ou a faixa forem inválidos ou 404 se
+     *         a execução ou a entidade não existirem
+     */
+    @GetMapping("/{id}/trajetorias/{tipo}/{entidade}")
+    public ResponseEntity<?> obterTrajetoria(@PathVariable long id, @PathVariable String tipo,
+            @PathVariable int entidade,
+            @RequestParam(required = false) Integer de,
+            @RequestParam(required = false) Integer ate,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            TrajetoriasExecucao.Tipo tipoEntidade = TrajetoriasExecucao.Tipo.doNome(tipo);
+            if (ate != null && de != null && ate < de) {
+                throw new IllegalArgumentException("O fim da faixa deve ser maior ou igual ao início.");
+            }
+            Optional<TrechoTrajetoria> trecho = trajetoriasService.buscar(id, tipoEntidade, entidade, de, ate);
+            if (trecho.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Entidade não encontrada na execução " + id + ": " + tipo + " " + entidade);
+            }
+
+            TrechoTrajetoria t = trecho.get();
+            MediaType tipoResposta = ConversorSimulacao.negociar(accept, false);
+            EscritorSimulacao corpo = json -> TrajetoriasExecucao.escrever(json, t.getTipo(), t.getId(),
+                    t.getSerie(), t.getDe(), t.getAte());
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(tipoResposta)
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .eTag("\"" + id + "-" + tipoEntidade.nome() + "-" + entidade + "-" + t.getDe() + "-" + t.getAte()
+                            + "-" + tipoResposta.getSubtype() + "\"")
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(corpo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtém a análise dos roubos de uma execução: os maiores ladrões e as
+     * maiores vítimas pelo ouro roubado (criaturas, clusters e o guardião,
+     * que rouba os clusters que elimina), com a quantidade de roubos, e o
+     * fluxo de ouro por iteração por tipo de roubo.
+     *
+     * @param id      id da execução
+     * @param maiores quantidade de ladrões e de vítimas (padrão 10, até 100)
+     * @return análise, 400 se maiores for inválido ou 404 se a execução não
+     *         existir
+     */
+    @GetMapping("/{id}/roubos")
+    public ResponseEntity<?> analisarRoubos(@PathVariable long id,
+            @RequestParam(required = false) Integer maiores) {
+        try {
+            Optional<AnaliseRoubosDTO> analise = analiseRoubosService.analisar(id, maiores);
+            if (analise.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Execução não encontrada: " + id);
+            }
+            return ResponseEntity.status(HttpStatus.OK)
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .body(analise.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Uma ETag por faixa efetiva e representação (formato e codificação)
+    private static String etag(FaixaIteracoes faixa, boolean colunar, MediaType tipo) {
+        return "\"" + faixa.getExecucao().getId() + "-" + faixa.getDe() + "-" + faixa.getAte()
+                + (colunar ? "-colunar-" : "-objetos-") + tipo.getSubtype() + "\"";
+    }
+}
@@ -1,31 +1,184 @@
 package com.example.saltitantes.controller;
 
+import com.example.saltitantes.config.FiltroTokenSessao;
 import com.example.saltitantes.model.dto.ParametrosDTO;
 import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.FormatoIteracao;
+import com.example.saltitantes.service.HistogramaPosicoes;
+import com.example.saltitantes.service.HistoricoForaDoHeap;
+import com.example.saltitantes.service.SaidaEmBlocos;
+import com.example.saltitantes.service.SelecaoMaiores;
+import com.example.saltitantes.service.SimulacoesCompartilhadas;
 import com.example.saltitantes.service.SimuladorService;
+import com.example.saltitantes.service.TokensSessao.Sessao;
 
-import lombok.AllArgsConstructor;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
 @CrossOrigin(origins = "*")
-@AllArgsConstructor
 @RestController
 @RequestMapping("/api/v1")
 public class SimuladorController {
 
     private final SimuladorService simuladorService;
+    private final boolean serializacaoDireta;
+    private final SimulacoesCompartilhadas simulacoesCompartilhadas; // null sem coalescência
+    private final ConversorSimulacao conversor;
+    private final boolean exigirToken; // loginUsuario só com token de sessão
 
+    public SimuladorController(SimuladorService simuladorService, boolean serializacaoDireta) {
+        this(simuladorService, serializacaoDireta, false, null, null, false);
+    }
+
+    @Autowired
+    public SimuladorController(SimuladorService simuladorService,
+            @Value("${saltitantes.simulacao.serializacao-direta:true}") boolean serializacaoDireta,
+            @Value("${saltitantes.simulacao.coalescencia:true}") boolean coalescencia,
+            SimulacoesCompartilhadas simulacoesCompartilhadas, ConversorSimulacao conversor,
+            @Value("${saltitantes.sessao.exigir-token:false}") boolean exigirToken) {
+        this.simuladorService = simuladorService;
+        this.serializacaoDireta = serializacaoDireta;
+        this.simulacoesCompartilhadas = coalescencia ? simulacoesCompartilhadas : null;
+        this.conversor = conversor;
+        this.exigirToken = exigirToken;
+    }
+
+    /**
+     * Executa uma simulação sem token de sessão.
+     *
+     * @param parametros parâmetros da simulação
+     * @param formato    objetos (padrão) ou colunar
+     * @param accept     cabeçalho Accept da requisição
+     * @return histórico da simulação
+     */
+    public ResponseEntity<?> simular(ParametrosDTO parametros, String formato, String accept) {
+        return simular(parametros, formato, accept, null);
+    }
+
+    /**
+     * Executa uma simulação nos formatos objetos ou colunar.
+     *
+     * @param parametros parâmetros da simulação
+     * @param formato    objetos (padrão) ou colunar
+     * @param accept     cabeçalho Accept da requisição
+     * @param sessao     sessão do token (null sem token)
+     * @return histórico da simulação
+     */
+    public ResponseEntity<?> simular(ParametrosDTO parametros, String formato, String accept, Sessao sessao) {
+        return simular(parametros, formato, null, null, null, null, accept, sessao);
+    }
+
+    /**
+     * Executa uma simulação.
+     *
+     * O formato colunar (vetores paralelos em vez de um objeto por criatura e
+     * por cluster) é escolhido com formato=colunar ou com o cabeçalho
+     * Accept: application/vnd.saltitantes.colunar+json, e sempre usa a
+     * serialização direta. A codificação (JSON, CBOR ou Smile) é negociada
+     * pelo Accept ({@link ConversorSimulacao#negociar}).
+     *
+     * Com semente, requisições idênticas simultâneas compartilham uma única
+     * execução ({@link SimulacoesCompartilhadas}); cada uma é registrada para
+     * o seu usuário. A primeira escreve direto na própria resposta; só
+     * respostas até o limite de coalescência são copiadas para as demais.
+     *
+     * Com formato=histograma cada iteração traz, em vez das entidades, o
+     * histograma das posições de criaturas e de clusters
+     * ({@link HistogramaPosicoes}): faixas com intervalo fixo quando minimo e
+     * maximo são informados, ou adaptadas às posições de cada iteração. A
+     * resposta cresce com o número de faixas, não com o de criaturas. Com
+     * formato=maiores cada iteração traz só as k criaturas e os k clusters
+     * com mais ouro ({@link SelecaoMaiores}), do maior para o menor. Esses
+     * formatos resumidos não são compartilhados entre requisições.
+     *
+     * Com token de sessão ({@link FiltroTokenSessao}) o usuário é o do token,
+     * registrado pelo id sem consultar o login; um loginUsuario diferente no
+     * corpo é recusado com 403.
+     *
+     * @param parametros parâmetros da simulação
+     * @param formato    objetos (padrão), colunar, histograma ou maiores
+     * @param faixas     quantidade de faixas do histograma
+     * @param minimo     início do intervalo fixo do histograma
+     * @param maximo     fim do intervalo fixo do histograma
+     * @param k          quantidade de entidades por grupo no formato maiores
+     * @param accept     cabeçalho Accept da requisição
+     * @param sessao     sessão do token (null sem token)
+     * @return histórico da simulação
+     */
     @PostMapping("/simular")
-    public ResponseEntity<?> simular(@RequestBody ParametrosDTO parametros) {
+    public ResponseEntity<?> simular(@RequestBody ParametrosDTO parametros,
+            @RequestParam(required = false) String formato,
+            @RequestParam(required = false) Integer faixas,
+            @RequestParam(required = false) Double minimo,
+            @RequestParam(required = false) Double maximo,
+            @RequestParam(required = false) Integer k,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestAttribute(name = FiltroTokenSessao.ATRIBUTO_SESSAO, required = false) Sessao sessao) {
+        String login = parametros.getLoginUsuario();
+        Long idUsuario = null;
+        if (sessao != null) {
+            if (login != null && !login.equals(sessao.getLogin())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body("O login não corresponde ao token de sessão.");
+            }
+            login = sessao.getLogin();
+            idUsuario = sessao.getIdUsuario();
+        } else if (exigirToken && login != null && !login.trim().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Simulações com login exigem o token de sessão.");
+        }
+        String loginUsuario = login;
+        Long id = idUsuario;
+
         try {
-            simuladorService.inicializar(parametros.getQuantidade());
+            FormatoIteracao resumo = formatoResumido(formato, faixas, minimo, maximo, k);
+            boolean colunar = resumo == null && ConversorSimulacao.formatoColunar(formato, accept);
+            if (resumo == null && compartilhavel(parametros, colunar)) {
+                return simularCompartilhada(parametros, loginUsuario, id, colunar,
+                        ConversorSimulacao.negociar(accept, colunar));
+            }
+            if (serializacaoDireta || colunar || resumo != null) {
+                // Valida antes de começar a escrever a resposta; a simulação
+                // roda durante a escrita (ConversorSimulacao), com estado
+                // próprio criado a partir dos parâmetros da requisição
+                simuladorService.validarQuantidade(parametros.getQuantidade());
+                simuladorService.validarIteracoes(parametros.getIteracoes());
+                EscritorSimulacao corpo = json -> simuladorService.simular(parametros.getQuantidade(),
+                        parametros.getSemente(), parametros.getIteracoes(), loginUsuario, id, json, colunar,
+                        resumo);
+                return ResponseEntity.status(HttpStatus.OK)
+                        .contentType(ConversorSimulacao.negociar(accept, colunar))
+                        .body(corpo);
+            }
+
             List<SimularResponseDTO> response = simuladorService.simular(
+                    parametros.getQuantidade(),
+                    parametros.getSemente(),
                     parametros.getIteracoes(),
-                    parametros.getLoginUsuario());
+                    loginUsuario,
+                    id);
 
+            if (response instanceof HistoricoForaDoHeap historico) {
+                // O histórico fora do heap é liberado assim que a resposta é
+                // escrita, e não quando o GC recolher a lista
+                EscritorSimulacao corpo = json -> {
+                    try {
+                        json.writeObject(historico);
+                    } finally {
+                        simuladorService.liberarHistorico(historico);
+                    }
+                };
+                return ResponseEntity.status(HttpStatus.OK)
+                        .contentType(ConversorSimulacao.negociar(accept, false))
+                        .body(corpo);
+            }
             return ResponseEntity.status(HttpStatus.OK).body(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -34,4 +187,47 @@ public class SimuladorController {
                     .body("Erro interno do servidor: " + e.getMessage());
         }
     }
+
+    // Formato resumido pedido, ou null para objetos ou colunar
+    private static FormatoIteracao formatoResumido(String formato, Integer faixas, Double minimo, Double maximo,
+            Integer k) {
+        if (ConversorSimulacao.formatoHistograma(formato)) {
+            return HistogramaPosicoes.criar(faixas, minimo, maximo);
+        }
+        if (ConversorSimulacao.formatoMaiores(formato)) {
+            return SelecaoMaiores.criar(k);
+        }
+        return null;
+    }
+
+    /**
+     * MC/DC para a condição: (simulacoesCompartilhadas != null &&
+     * parametros.getSemente() != null && (serializacaoDireta || colunar))
+     * ---------------------------------------------------------
+     * Caso | coalescência | semente | direta | colunar | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | (não avaliado) | true | Caminho principal
+     * 2 | true | true | false | true | true | Colunar sempre é direto
+     * 3 | true | true | false | false | false | Testa as condições 3 e 4 (Jackson)
+     * 4 | true | false | (não avaliado) | (não avaliado) | false | Testa a 2ª condição (sem semente)
+     * 5 | false | (não avaliado) | (não avaliado) | (não avaliado) | false | Testa a 1ª condição
+     * ---------------------------------------------------------
+     */
+    private boolean compartilhavel(ParametrosDTO parametros, boolean colunar) {
+        // Sem semente a execução não é determinística e não pode ser compartilhada
+        return simulacoesCompartilhadas != null && parametros.getSemente() != null
+                && (serializacaoDireta || colunar);
+    }
+
+    private ResponseEntity<?> simularCompartilhada(ParametrosDTO parametros, String loginUsuario, Long idUsuario,
+            boolean colunar, MediaType tipo) {
+        simuladorService.validarQuantidade(parametros.getQuantidade());
+        simuladorService.validarIteracoes(parametros.getIteracoes());
+        // O ConversorSimulacao entrega o corpo numa SaidaEmBlocos; a execução
+        // escreve nela com o próprio gerador
+        EscritorSimulacao corpo = json -> simulacoesCompartilhadas.simular(parametros.getQuantidade(),
+                parametros.getIteracoes(), parametros.getSemente(), loginUsuario, idUsuario, colunar,
+                tipo.toString(), SaidaEmBlocos.de(json), saida -> conversor.criarGerador(tipo, saida));
+        return ResponseEntity.status(HttpStatus.OK).contentType(tipo).body(corpo);
+    }
 }
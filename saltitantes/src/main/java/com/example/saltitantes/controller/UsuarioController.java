@@ -4,13 +4,20 @@ import com.example.saltitantes.model.dto.CriarUsuarioDTO;
 import com.example.saltitantes.model.dto.EstatisticasDTO;
 import com.example.saltitantes.model.dto.LoginDTO;
 import com.example.saltitantes.model.dto.LoginResponse;
+import com.example.saltitantes.model.dto.PaginaUsuariosDTO;
+import com.example.saltitantes.model.dto.SimulacaoExecucaoDTO;
+import com.example.saltitantes.model.dto.UsuarioAutenticadoDTO;
 import com.example.saltitantes.model.dto.UsuarioDTO;
+import com.example.saltitantes.service.ExportacaoUsuariosService;
+import com.example.saltitantes.service.RegistroExecucaoService;
+import com.example.saltitantes.service.TokensSessao;
 import com.example.saltitantes.service.UsuarioService;
 
-import java.util.List;
 import lombok.AllArgsConstructor;
 
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,7 +26,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controlador REST para operações relacionadas a usuários.
@@ -30,7 +39,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/usuarios")
 public class UsuarioController {
 
+    // Cabeçalho com o cursor da próxima página da listagem
+    static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UsuarioService usuarioService;
+    private final RegistroExecucaoService registroExecucaoService;
+    private final ExportacaoUsuariosService exportacaoUsuariosService;
+    private final TokensSessao tokensSessao;
 
     /**
      * Cria um novo usuário.
@@ -49,16 +66,19 @@ public class UsuarioController {
     }
 
     /**
-     * Realiza login do usuário.
+     * Realiza login do usuário. A resposta traz um token de sessão para o
+     * cabeçalho {@code Authorization: Bearer} das requisições seguintes.
      * 
      * @param loginDTO credenciais de login
-     * @return resposta com informações do usuário
+     * @return resposta com informações do usuário e o token
      */
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginDTO loginDTO) {
         try {
-            UsuarioDTO usuario = usuarioService.login(loginDTO);
-            return ResponseEntity.ok(new LoginResponse("Login realizado com sucesso!", true, usuario));
+            UsuarioAutenticadoDTO autenticado = usuarioService.autenticar(loginDTO);
+            String token = tokensSessao.emitir(autenticado.getId(), autenticado.getUsuario().getLogin());
+            return ResponseEntity.ok(
+                    new LoginResponse("Login realizado com sucesso!", true, autenticado.getUsuario(), token));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new LoginResponse(e.getMessage(), false, null));
@@ -66,14 +86,56 @@ public class UsuarioController {
     }
 
     /**
-     * Lista todos os usuários cadastrados.
+     * Lista os usuários cadastrados. Sem parâmetros, devolve todos eles, até
+     * o limite da listagem sem paginação; acima dele responde 400 pedindo a
+     * listagem paginada. Com qualquer parâmetro, devolve uma página e o
+     * cursor da próxima, quando houver, vai no cabeçalho
+     * {@code X-Proximo-Cursor}.
      * 
-     * @return lista de usuários
+     * @param ordenacao "id" ou "login" (padrão "id")
+     * @param cursor    cursor da página anterior (opcional)
+     * @param tamanho   quantidade de usuários por página (opcional)
+     * @return lista de usuários (todos ou da página)
      */
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> listarUsuarios() {
-        List<UsuarioDTO> usuarios = usuarioService.listarUsuarios();
-        return ResponseEntity.ok(usuarios);
+    public ResponseEntity<?> listarUsuarios(
+            @RequestParam(required = false) String ordenacao,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        if (ordenacao == null && cursor == null && tamanho == null) {
+            try {
+                return ResponseEntity.ok(usuarioService.listarUsuarios());
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            }
+        }
+        try {
+            PaginaUsuariosDTO pagina = usuarioService.listarUsuarios(
+                    ordenacao != null ? ordenacao : "id",
+                    cursor,
+                    tamanho != null ? tamanho : usuarioService.getTamanhoPaginaPadrao());
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+            if (pagina.getProximoCursor() != null) {
+                resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+            }
+            return resposta.body(pagina.getUsuarios());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    /**
+     * Exporta todos os usuários em NDJSON (um usuário por linha), lendo o
+     * banco por streaming.
+     * 
+     * @return corpo da resposta escrito sob demanda
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios() {
+        StreamingResponseBody corpo = saida -> exportacaoUsuariosService.exportar(saida);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     /**
@@ -95,12 +157,20 @@ public class UsuarioController {
     /**
      * Obtém as estatísticas do sistema.
      * 
+     * @param pagina  página da lista de pontuações (começando em 0)
+     * @param tamanho quantidade de usuários na lista de pontuações
      * @return estatísticas da simulação
      */
     @GetMapping("/estatisticas")
-    public ResponseEntity<EstatisticasDTO> obterEstatisticas() {
-        EstatisticasDTO estatisticas = usuarioService.obterEstatisticas();
-        return ResponseEntity.ok(estatisticas);
+    public ResponseEntity<EstatisticasDTO> obterEstatisticas(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "1000") int tamanho) {
+        try {
+            EstatisticasDTO estatisticas = usuarioService.obterEstatisticas(pagina, tamanho);
+            return ResponseEntity.ok(estatisticas);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
     }
 
     /**
@@ -118,4 +188,26 @@ public class UsuarioController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
+
+    /**
+     * Lista as execuções de simulação de um usuário, da mais recente para a
+     * mais antiga.
+     * 
+     * @param login   login do usuário
+     * @param pagina  número da página (começando em 0)
+     * @param tamanho quantidade de execuções por página
+     * @return página de execuções
+     */
+    @GetMapping("/{login}/simulacoes")
+    public ResponseEntity<?> listarSimulacoes(@PathVariable String login,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            PagedModel<SimulacaoExecucaoDTO> execucoes = new PagedModel<>(
+                    registroExecucaoService.listarPorUsuario(login, pagina, tamanho));
+            return ResponseEntity.ok(execucoes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
 }
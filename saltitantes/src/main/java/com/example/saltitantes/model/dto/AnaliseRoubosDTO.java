@@ -0,0 +1,29 @@
+package com.example.saltitantes.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com a análise dos roubos de uma execução: maiores ladrões e vítimas
+ * e o fluxo de ouro por iteração (posição i = iteração i + 1).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnaliseRoubosDTO {
+
+    private long idExecucao;
+    private int iteracoes;
+    private long totalRoubos;
+    private long ouroRoubado;
+    private List<RoubosEntidadeDTO> maioresLadroes;
+    private List<RoubosEntidadeDTO> maioresVitimas;
+    private long[] roubosPorIteracao;
+    private long[] ouroEntreCriaturas; // Criatura rouba criatura
+    private long[] ouroParaClusters; // Cluster rouba criatura
+    private long[] ouroParaGuardiao; // Guardião elimina cluster
+}
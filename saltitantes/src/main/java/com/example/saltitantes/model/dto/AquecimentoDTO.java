@@ -0,0 +1,21 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com o resultado do aquecimento executado na partida.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AquecimentoDTO {
+
+    private int execucoes; // Simulações executadas
+    private long iteracoes; // Iterações somadas de todas as simulações
+    private long duracaoMs;
+    private boolean orcamentoEsgotado; // Se parou pelo tempo e não pelo limite de execuções
+}
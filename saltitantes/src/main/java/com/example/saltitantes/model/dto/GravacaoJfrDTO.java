@@ -0,0 +1,23 @@
+package com.example.saltitantes.model.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com o estado de uma gravação JFR.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GravacaoJfrDTO {
+
+    private boolean emAndamento;
+    private String configuracao; // "default" ou "profile"
+    private Instant inicio;
+    private String arquivo; // Caminho do dump (apenas após parar)
+    private long tamanhoBytes;
+}
@@ -0,0 +1,19 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Projeção de uma linha da tabela de usuários usada na listagem paginada.
+ * Inclui o id para montar o cursor da próxima página.
+ */
+@Getter
+@AllArgsConstructor
+public class LinhaUsuarioDTO {
+
+    private Long id;
+    private String login;
+    private String avatar;
+    private int pontuacao;
+    private int totalSimulacoes;
+}
@@ -15,4 +15,9 @@ public class LoginResponse {
     private String message;
     private boolean success;
     private UsuarioDTO usuario;
+    private String token; // Token de sessão (null se o login falhou)
+
+    public LoginResponse(String message, boolean success, UsuarioDTO usuario) {
+        this(message, success, usuario, null);
+    }
 }
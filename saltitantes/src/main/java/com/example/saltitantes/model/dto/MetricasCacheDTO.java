@@ -0,0 +1,23 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com as métricas do cache de usuários.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasCacheDTO {
+
+    private int tamanho;
+    private int capacidade;
+    private long acertos;
+    private long faltas;
+    private long remocoes; // Entradas removidas por falta de espaço
+    private double taxaAcerto; // Percentual de buscas atendidas pelo cache
+}
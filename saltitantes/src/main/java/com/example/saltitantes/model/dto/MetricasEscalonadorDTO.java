@@ -0,0 +1,24 @@
+package com.example.saltitantes.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com a ocupação do escalonador de simulações e as filas por usuário.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasEscalonadorDTO {
+
+    private boolean habilitado;
+    private int capacidade; // Simulações simultâneas
+    private int emExecucao;
+    private int aguardando; // Total de pedidos na fila
+    private int aguardandoPequenas; // Na fila prioritária de execuções pequenas
+    private List<MetricasFilaUsuarioDTO> usuarios;
+}
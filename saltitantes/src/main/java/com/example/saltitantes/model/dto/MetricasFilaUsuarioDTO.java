@@ -0,0 +1,22 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com a fila de um usuário no escalonador de simulações.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasFilaUsuarioDTO {
+
+    private String loginUsuario; // null para as simulações anônimas
+    private int aguardando; // Profundidade atual da fila
+    private long atendidosAposEspera; // Pedidos que precisaram esperar vaga
+    private double esperaMediaMs;
+    private double esperaMaximaMs;
+}
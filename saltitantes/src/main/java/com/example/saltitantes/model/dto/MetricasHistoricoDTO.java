@@ -0,0 +1,27 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com a ocupação de memória do histórico retido da última simulação e
+ * com o transbordo dele para o disco.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasHistoricoDTO {
+
+    private boolean foraDoHeap; // Histórico em buffers diretos
+    private int iteracoes;
+    private long bytesHeap; // Estimativa pelo tamanho dos objetos
+    private long bytesForaDoHeap;
+    private long bytesTransbordados; // Da execução atual, no arquivo temporário
+    private long totalBytesTransbordados; // Desde a partida
+    private long leiturasTransbordadas; // Iterações lidas do arquivo desde a partida
+    private long latenciaMediaLeituraNs;
+    private long latenciaMaximaLeituraNs;
+}
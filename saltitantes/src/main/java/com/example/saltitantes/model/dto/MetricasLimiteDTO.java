@@ -0,0 +1,25 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com os limites de requisições de um endpoint e as recusas por excesso.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricasLimiteDTO {
+
+    private String endpoint; // Método e caminho
+    private int capacidade; // Rajada máxima por chave
+    private int porMinuto; // Reposição por chave
+    private long permitidas;
+    private long rejeitadas; // Respondidas com 429
+    private int baldesAtivos; // Chaves com tokens ainda não repostos
+    private int tamanhoTabela;
+    private long despejos; // Baldes substituídos por falta de espaço
+}
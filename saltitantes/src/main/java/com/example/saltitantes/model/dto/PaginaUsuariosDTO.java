@@ -0,0 +1,18 @@
+package com.example.saltitantes.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Página da listagem de usuários com o cursor da próxima página.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaginaUsuariosDTO {
+
+    private List<UsuarioDTO> usuarios;
+    private String proximoCursor; // null quando não há mais páginas
+}
@@ -18,4 +18,6 @@ public class ParametrosDTO {
     private int iteracoes;
 
     private String loginUsuario; // Login do usuário executando a simulação (opcional)
+
+    private Long semente; // Semente do gerador aleatório (opcional, sorteada se ausente)
 }
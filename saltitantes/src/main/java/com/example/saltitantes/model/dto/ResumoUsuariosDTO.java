@@ -0,0 +1,17 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Agregados dos usuários calculados diretamente no banco.
+ */
+@Getter
+@AllArgsConstructor
+public class ResumoUsuariosDTO {
+
+    private Long totalUsuarios;
+    private Long totalSimulacoes;
+    private Long totalSimulacoesSucesso;
+    private Double mediaTaxaSucesso; // Média das taxas de sucesso individuais (%)
+}
@@ -0,0 +1,21 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO com os roubos de uma entidade numa execução, como ladra ou vítima.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoubosEntidadeDTO {
+
+    private String tipo; // criatura, cluster ou guardiao
+    private int id;
+    private long roubos; // Quantidade de roubos
+    private long ouro; // Ouro total roubado
+}
@@ -0,0 +1,27 @@
+package com.example.saltitantes.model.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para listar as execuções de simulação de um usuário.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimulacaoExecucaoDTO {
+
+    private Long id;
+    private int quantidade;
+    private int iteracoesSolicitadas;
+    private long semente;
+    private boolean bemSucedida;
+    private int iteracoesExecutadas;
+    private long duracaoMs;
+    private int ouroFinalGuardiao;
+    private Instant executadaEm;
+}
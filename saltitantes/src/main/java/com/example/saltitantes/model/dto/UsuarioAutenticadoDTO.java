@@ -0,0 +1,19 @@
+package com.example.saltitantes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO do usuário autenticado com o id, usado para emitir o token de sessão.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsuarioAutenticadoDTO {
+
+    private Long id;
+    private UsuarioDTO usuario;
+}
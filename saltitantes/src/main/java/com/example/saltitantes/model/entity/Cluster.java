@@ -3,6 +3,7 @@ package com.example.saltitantes.model.entity;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -50,7 +51,17 @@ public class Cluster {
      * @return nova posição do cluster
      */
     public double moverX() {
-        double r = ThreadLocalRandom.current().nextDouble(-1.0, 1.0);
+        return moverX(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Move o cluster usando o gerador informado (permite simulações reproduzíveis).
+     * 
+     * @param gerador gerador de números aleatórios da simulação
+     * @return nova posição do cluster
+     */
+    public double moverX(RandomGenerator gerador) {
+        double r = gerador.nextDouble(-1.0, 1.0);
         this.posicaox += r * this.ouroTotal;
         return this.posicaox;
     }
@@ -1,6 +1,7 @@
 package com.example.saltitantes.model.entity;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,13 +23,27 @@ public class Criaturas {
         this.posicaox = 0;
     }
 
+    /**
+     * Cria uma criatura com o id informado, sem passar pelo contador global
+     * (para reproduzir uma execução enquanto outras simulações rodam).
+     *
+     * @param id id da criatura
+     */
+    public Criaturas(int id) {
+        this(id, 1000000, 0);
+    }
+
     public int count() {
         contador = contador + 1;
         return contador;
     }
 
     public void moverX() {
-        double r = ThreadLocalRandom.current().nextDouble(-1, 1);
+        moverX(ThreadLocalRandom.current());
+    }
+
+    public void moverX(RandomGenerator gerador) {
+        double r = gerador.nextDouble(-1, 1);
         this.posicaox += r * this.ouro;
     }
 
@@ -1,6 +1,7 @@
 package com.example.saltitantes.model.entity;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -35,7 +36,17 @@ public class Guardiao {
      * onde r é um número aleatório entre -1 e 1.
      */
     public void moverX() {
-        double r = ThreadLocalRandom.current().nextDouble(-1.0, 1.0);
+        moverX(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Move o guardião usando o gerador informado (permite simulações
+     * reproduzíveis).
+     * 
+     * @param gerador gerador de números aleatórios da simulação
+     */
+    public void moverX(RandomGenerator gerador) {
+        double r = gerador.nextDouble(-1.0, 1.0);
         this.posicaox += r * this.ouro;
     }
 
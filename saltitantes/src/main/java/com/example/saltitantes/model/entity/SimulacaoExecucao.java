@@ -0,0 +1,61 @@
+package com.example.saltitantes.model.entity;
+
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+/**
+ * Registro persistido de uma execução da simulação.
+ * O id usa sequência (e não IDENTITY) para que o Hibernate consiga agrupar os
+ * INSERTs em lotes JDBC.
+ */
+@Entity
+@Table(name = "simulacoes_execucoes", indexes = @Index(name = "idx_execucao_login", columnList = "loginUsuario, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SimulacaoExecucao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulacao_execucao_seq")
+    @SequenceGenerator(name = "simulacao_execucao_seq", sequenceName = "simulacao_execucao_seq", allocationSize = 50)
+    private Long id;
+
+    private String loginUsuario; // Login de quem executou (null se anônimo)
+    private int quantidade; // Quantidade inicial de criaturas
+    private int iteracoesSolicitadas;
+    private long semente; // Semente do gerador aleatório da simulação
+    private boolean bemSucedida;
+    private int iteracoesExecutadas;
+    private long duracaoMs;
+    private int ouroFinalGuardiao;
+    private Instant executadaEm;
+
+    /**
+     * Construtor com todos os dados de uma execução.
+     * 
+     * @param loginUsuario         login do usuário (pode ser null)
+     * @param quantidade           quantidade inicial de criaturas
+     * @param iteracoesSolicitadas iterações pedidas
+     * @param semente              semente usada na simulação
+     * @param bemSucedida          se a simulação terminou com ganhador
+     * @param iteracoesExecutadas  iterações efetivamente executadas
+     * @param duracaoMs            duração da simulação em milissegundos
+     * @param ouroFinalGuardiao    ouro do guardião ao final
+     */
+    public SimulacaoExecucao(String loginUsuario, int quantidade, int iteracoesSolicitadas, long semente,
+            boolean bemSucedida, int iteracoesExecutadas, long duracaoMs, int ouroFinalGuardiao) {
+        this.loginUsuario = loginUsuario;
+        this.quantidade = quantidade;
+        this.iteracoesSolicitadas = iteracoesSolicitadas;
+        this.semente = semente;
+        this.bemSucedida = bemSucedida;
+        this.iteracoesExecutadas = iteracoesExecutadas;
+        this.duracaoMs = duracaoMs;
+        this.ouroFinalGuardiao = ouroFinalGuardiao;
+        this.executadaEm = Instant.now();
+    }
+}
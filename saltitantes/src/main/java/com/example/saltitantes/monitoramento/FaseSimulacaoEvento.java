@@ -0,0 +1,65 @@
+package com.example.saltitantes.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma fase de uma iteração da simulação.
+ */
+@Name(FaseSimulacaoEvento.NOME)
+@Label("Fase da iteração")
+@Category({ "Saltitantes", "Simulação" })
+@Description("Uma fase (movimento, roubo, eliminação, agrupamento, clusters, guardião ou snapshot) de uma iteração")
+public class FaseSimulacaoEvento extends Event {
+
+    public static final String NOME = "saltitantes.FaseSimulacao";
+
+    public static final String MOVIMENTO = "movimento";
+    public static final String ROUBO = "roubo";
+    public static final String ELIMINACAO = "eliminacao";
+    public static final String AGRUPAMENTO = "agrupamento";
+    public static final String CLUSTERS = "clusters";
+    public static final String GUARDIAO = "guardiao";
+    public static final String SNAPSHOT = "snapshot";
+
+    @Label("Fase")
+    String fase;
+
+    @Label("Criaturas iniciais")
+    int quantidade;
+
+    @Label("Iteração")
+    int iteracao;
+
+    @Label("Entidades processadas")
+    int entidadesProcessadas;
+
+    /**
+     * Cria o evento e marca o início da medição.
+     *
+     * @return evento iniciado
+     */
+    public static FaseSimulacaoEvento iniciar() {
+        FaseSimulacaoEvento evento = new FaseSimulacaoEvento();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Encerra a medição e grava o evento, se ele estiver habilitado na
+     * gravação em andamento.
+     */
+    public void concluir(String fase, int quantidade, int iteracao, int entidadesProcessadas) {
+        end();
+        if (shouldCommit()) {
+            this.fase = fase;
+            this.quantidade = quantidade;
+            this.iteracao = iteracao;
+            this.entidadesProcessadas = entidadesProcessadas;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.saltitantes.monitoramento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jdk.jfr.EventType;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filtro que emite um {@link RespostaHttpEvento} por requisição à API,
+ * contando os bytes escritos no corpo da resposta.
+ *
+ * Só envolve a resposta enquanto o evento estiver habilitado em uma
+ * gravação JFR; fora disso o custo é uma leitura de flag. Respostas
+ * assíncronas (ex.: exportação em streaming) não são contadas.
+ */
+@Component
+public class FiltroRespostaHttpJfr extends OncePerRequestFilter {
+
+    private static final EventType TIPO = EventType.getEventType(RespostaHttpEvento.class);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !TIPO.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RespostaHttpEvento evento = RespostaHttpEvento.iniciar();
+        RespostaContada contada = new RespostaContada(response);
+        try {
+            chain.doFilter(request, contada);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                evento.concluir(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        contada.bytes());
+            }
+        }
+    }
+
+    /**
+     * Resposta que conta os bytes escritos no stream de saída.
+     */
+    private static final class RespostaContada extends HttpServletResponseWrapper {
+
+        private ContadorSaida saida;
+
+        private RespostaContada(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (saida == null) {
+                saida = new ContadorSaida(super.getOutputStream());
+            }
+            return saida;
+        }
+
+        private long bytes() {
+            return saida != null ? saida.bytes : 0;
+        }
+    }
+
+    private static final class ContadorSaida extends ServletOutputStream {
+
+        private final ServletOutputStream destino;
+        private long bytes;
+
+        private ContadorSaida(ServletOutputStream destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            destino.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            destino.write(b, off, len);
+            bytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            destino.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            destino.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return destino.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            destino.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.saltitantes.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma operação de banco feita pelo serviço de usuários.
+ */
+@Name(OperacaoUsuarioEvento.NOME)
+@Label("Operação de usuário no banco")
+@Category({ "Saltitantes", "Usuários" })
+@Description("Consulta ou escrita no banco feita pelo UsuarioService")
+public class OperacaoUsuarioEvento extends Event {
+
+    public static final String NOME = "saltitantes.OperacaoUsuario";
+
+    @Label("Operação")
+    String operacao;
+
+    @Label("Login")
+    String login;
+
+    @Label("Linhas")
+    @Description("Linhas retornadas ou afetadas")
+    int linhas;
+
+    /**
+     * Cria o evento e marca o início da medição.
+     *
+     * @return evento iniciado
+     */
+    public static OperacaoUsuarioEvento iniciar() {
+        OperacaoUsuarioEvento evento = new OperacaoUsuarioEvento();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Encerra a medição e grava o evento, se ele estiver habilitado na
+     * gravação em andamento.
+     */
+    public void concluir(String operacao, String login, int linhas) {
+        end();
+        if (shouldCommit()) {
+            this.operacao = operacao;
+            this.login = login;
+            this.linhas = linhas;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.saltitantes.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma requisição à API, com os bytes escritos na resposta.
+ */
+@Name(RespostaHttpEvento.NOME)
+@Label("Resposta HTTP")
+@Category({ "Saltitantes", "HTTP" })
+@Description("Requisição à API e bytes produzidos na resposta")
+public class RespostaHttpEvento extends Event {
+
+    public static final String NOME = "saltitantes.RespostaHttp";
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Caminho")
+    String caminho;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes produzidos")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Cria o evento e marca o início da medição.
+     *
+     * @return evento iniciado
+     */
+    public static RespostaHttpEvento iniciar() {
+        RespostaHttpEvento evento = new RespostaHttpEvento();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Encerra a medição e grava o evento, se ele estiver habilitado na
+     * gravação em andamento.
+     */
+    public void concluir(String metodo, String caminho, int status, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.metodo = metodo;
+            this.caminho = caminho;
+            this.status = status;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.saltitantes.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma execução completa de simulação (do início da primeira
+ * iteração ao registro do resultado).
+ */
+@Name(SimulacaoEvento.NOME)
+@Label("Simulação")
+@Category({ "Saltitantes", "Simulação" })
+@Description("Execução completa de uma simulação")
+public class SimulacaoEvento extends Event {
+
+    public static final String NOME = "saltitantes.Simulacao";
+
+    @Label("Criaturas")
+    int quantidade;
+
+    @Label("Iterações solicitadas")
+    int iteracoesSolicitadas;
+
+    @Label("Iterações executadas")
+    int iteracoesExecutadas;
+
+    @Label("Semente")
+    long semente;
+
+    @Label("Bem-sucedida")
+    boolean bemSucedida;
+
+    @Label("Usuário")
+    String loginUsuario;
+
+    /**
+     * Cria o evento e marca o início da medição.
+     *
+     * @return evento iniciado
+     */
+    public static SimulacaoEvento iniciar() {
+        SimulacaoEvento evento = new SimulacaoEvento();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Encerra a medição e grava o evento, se ele estiver habilitado na
+     * gravação em andamento.
+     */
+    public void concluir(int quantidade, int iteracoesSolicitadas, int iteracoesExecutadas, long semente,
+            boolean bemSucedida, String loginUsuario) {
+        end();
+        if (shouldCommit()) {
+            this.quantidade = quantidade;
+            this.iteracoesSolicitadas = iteracoesSolicitadas;
+            this.iteracoesExecutadas = iteracoesExecutadas;
+            this.semente = semente;
+            this.bemSucedida = bemSucedida;
+            this.loginUsuario = loginUsuario;
+            commit();
+        }
+    }
+}
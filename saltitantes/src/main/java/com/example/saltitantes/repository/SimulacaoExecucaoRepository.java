@@ -0,0 +1,18 @@
+package com.example.saltitantes.repository;
+
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SimulacaoExecucaoRepository extends JpaRepository<SimulacaoExecucao, Long> {
+
+    /**
+     * Lista as execuções de um usuário, da mais recente para a mais antiga.
+     *
+     * @param loginUsuario login do usuário
+     * @param pageable     página desejada
+     * @return página de execuções
+     */
+    Page<SimulacaoExecucao> findByLoginUsuarioOrderByIdDesc(String loginUsuario, Pageable pageable);
+}
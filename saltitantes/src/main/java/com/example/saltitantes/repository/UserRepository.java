@@ -1,11 +1,102 @@
 package com.example.saltitantes.repository;
 
+import com.example.saltitantes.model.dto.LinhaUsuarioDTO;
+import com.example.saltitantes.model.dto.ResumoUsuariosDTO;
+import com.example.saltitantes.model.dto.UsuarioDTO;
 import com.example.saltitantes.model.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<Usuario, Long> {
 
     Optional<Usuario> findByLogin(String login);
+
+    /**
+     * Incrementa atomicamente, em um único UPDATE, o total de simulações e a
+     * pontuação de um usuário.
+     *
+     * @param login   login do usuário
+     * @param sucesso 1 se a simulação foi bem-sucedida, 0 caso contrário
+     * @return quantidade de linhas atualizadas (0 se o usuário não existe)
+     */
+    @Modifying
+    @Transactional
+    @Query("update Usuario u set u.totalSimulacoes = u.totalSimulacoes + 1, "
+            + "u.pontuacao = u.pontuacao + :sucesso where u.login = :login")
+    int incrementarSimulacoes(@Param("login") String login, @Param("sucesso") int sucesso);
+
+    /**
+     * Igual a {@link #incrementarSimulacoes}, localizando o usuário pela
+     * chave primária (id do token de sessão).
+     *
+     * @param id      id do usuário
+     * @param sucesso 1 se a simulação foi bem-sucedida, 0 caso contrário
+     * @return quantidade de linhas atualizadas (0 se o usuário não existe)
+     */
+    @Modifying
+    @Transactional
+    @Query("update Usuario u set u.totalSimulacoes = u.totalSimulacoes + 1, "
+            + "u.pontuacao = u.pontuacao + :sucesso where u.id = :id")
+    int incrementarSimulacoesPorId(@Param("id") Long id, @Param("sucesso") int sucesso);
+
+    /**
+     * Calcula no banco os totais e a média das taxas de sucesso de todos os
+     * usuários, sem carregar as entidades.
+     *
+     * @return resumo agregado dos usuários
+     */
+    @Query("select new com.example.saltitantes.model.dto.ResumoUsuariosDTO("
+            + "count(u), "
+            + "coalesce(sum(u.totalSimulacoes), 0), "
+            + "coalesce(sum(u.pontuacao), 0), "
+            + "coalesce(avg(case when u.totalSimulacoes = 0 then 0.0 "
+            + "else cast(u.pontuacao as Double) / u.totalSimulacoes * 100.0 end), 0.0)) "
+            + "from Usuario u")
+    ResumoUsuariosDTO calcularResumo();
+
+    /**
+     * Lista a pontuação dos usuários já projetada em DTO, página a página.
+     *
+     * @param pageable página desejada
+     * @return DTOs dos usuários da página
+     */
+    @Query("select new com.example.saltitantes.model.dto.UsuarioDTO("
+            + "u.login, u.avatar, u.pontuacao, u.totalSimulacoes, "
+            + "case when u.totalSimulacoes = 0 then 0.0 "
+            + "else cast(u.pontuacao as Double) / u.totalSimulacoes * 100.0 end) "
+            + "from Usuario u order by u.id")
+    List<UsuarioDTO> listarPontuacoes(Pageable pageable);
+
+    /**
+     * Lista usuários com login maior que o cursor, em ordem de login
+     * (paginação por keyset).
+     *
+     * @param cursor último login da página anterior ("" para a primeira)
+     * @param limite tamanho da página (use a página 0)
+     * @return linhas projetadas da página
+     */
+    @Query("select new com.example.saltitantes.model.dto.LinhaUsuarioDTO("
+            + "u.id, u.login, u.avatar, u.pontuacao, u.totalSimulacoes) "
+            + "from Usuario u where u.login > :cursor order by u.login")
+    List<LinhaUsuarioDTO> listarAposLogin(@Param("cursor") String cursor, Pageable limite);
+
+    /**
+     * Lista usuários com id maior que o cursor, em ordem de id (paginação por
+     * keyset).
+     *
+     * @param cursor último id da página anterior (0 para a primeira)
+     * @param limite tamanho da página (use a página 0)
+     * @return linhas projetadas da página
+     */
+    @Query("select new com.example.saltitantes.model.dto.LinhaUsuarioDTO("
+            + "u.id, u.login, u.avatar, u.pontuacao, u.totalSimulacoes) "
+            + "from Usuario u where u.id > :cursor order by u.id")
+    List<LinhaUsuarioDTO> listarAposId(@Param("cursor") Long cursor, Pageable limite);
 }
@@ -0,0 +1,180 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.AnaliseRoubosDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que analisa os roubos de uma execução registrada: quem roubou
+ * quem, quanto e quantas vezes.
+ *
+ * A execução é reproduzida a partir da semente com o {@link GrafoRoubos}
+ * habilitado no {@link MotorSimulacaoEnxuto}; as arestas são agregadas numa
+ * passada e descartadas. Só o resumo (do tamanho das entidades e das
+ * iterações, não dos roubos) fica num cache das execuções consultadas por
+ * último, então consultas com outro limite de maiores não reproduzem de
+ * novo; consultas simultâneas à mesma execução aguardam uma só reprodução.
+ * As simulações do /simular não registram o grafo.
+ */
+@Service
+public class AnaliseRoubosService {
+
+    public static final int MAIORES_PADRAO = 10;
+    public static final int MAIORES_MAXIMO = 100;
+
+    @Autowired
+    private SimulacaoExecucaoRepository execucaoRepository;
+
+    @Autowired
+    private EscalonadorSimulacoes escalonador;
+
+    @Value("${saltitantes.simulacoes.roubos.execucoes-em-cache:32}")
+    private int execucoesEmCache = 32;
+
+    // Ordem de acesso: a primeira entrada é a usada há mais tempo
+    private final LinkedHashMap<Long, CompletableFuture<GrafoRoubos.Resumo>> cache = new LinkedHashMap<>(16,
+            0.75f, true);
+
+    /**
+     * Analisa os roubos de uma execução.
+     *
+     * @param idExecucao id da execução no catálogo
+     * @param maiores    quantidade de ladrões e de vítimas na resposta (null
+     *                   para {@link #MAIORES_PADRAO})
+     * @return análise, ou vazio se a execução não existir
+     * @throws IllegalArgumentException se maiores estiver fora de
+     *                                  1..{@link #MAIORES_MAXIMO}
+     */
+    public Optional<AnaliseRoubosDTO> analisar(long idExecucao, Integer maiores) {
+        int limite = maiores != null ? maiores : MAIORES_PADRAO;
+        if (limite < 1 || limite > MAIORES_MAXIMO) {
+            throw new IllegalArgumentException("O valor de maiores deve estar entre 1 e " + MAIORES_MAXIMO + ".");
+        }
+
+        GrafoRoubos.Resumo resumo = resumo(idExecucao);
+        if (resumo == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AnaliseRoubosDTO(idExecucao, resumo.getIteracoes(), resumo.getTotalRoubos(),
+                resumo.getOuroRoubado(),
+                List.copyOf(resumo.getLadroes().subList(0, Math.min(limite, resumo.getLadroes().size()))),
+                List.copyOf(resumo.getVitimas().subList(0, Math.min(limite, resumo.getVitimas().size()))),
+                resumo.getRoubosPorIteracao(),
+                resumo.getOuroPorIteracao(GrafoRoubos.ENTRE_CRIATURAS),
+                resumo.getOuroPorIteracao(GrafoRoubos.CLUSTER_CRIATURA),
+                resumo.getOuroPorIteracao(GrafoRoubos.GUARDIAO_CLUSTER)));
+    }
+
+    /**
+     * Obtém o resumo da execução, do cache ou reproduzindo-a.
+     *
+     * @param idExecucao id da execução no catálogo
+     * @return resumo, ou null se a execução não existir
+     */
+    private GrafoRoubos.Resumo resumo(long idExecucao) {
+        CompletableFuture<GrafoRoubos.Resumo> futura;
+        boolean reproduzir = false;
+        synchronized (cache) {
+            futura = cache.get(idExecucao);
+            if (futura == null) {
+                futura = new CompletableFuture<>();
+                cache.put(idExecucao, futura);
+                reproduzir = true;
+            }
+        }
+
+        if (reproduzir) {
+            try {
+                Optional<SimulacaoExecucao> execucao = execucaoRepository.findById(idExecucao);
+                if (execucao.isEmpty()) {
+                    synchronized (cache) {
+                        cache.remove(idExecucao, futura);
+                    }
+                    futura.complete(null);
+                    return null;
+                }
+                futura.complete(reproduzir(execucao.get()));
+                guardar(idExecucao);
+            } catch (RuntimeException | Error e) {
+                synchronized (cache) {
+                    cache.remove(idExecucao, futura);
+                }
+                futura.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return futura.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a reprodução da execução.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao reproduzir a execução " + idExecucao + ".",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * @return quantidade de execuções no cache
+     */
+    public int execucoesEmCache() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Define quantas execuções o cache guarda.
+     *
+     * @param execucoes máximo de execuções
+     */
+    public void setExecucoesEmCache(int execucoes) {
+        this.execucoesEmCache = execucoes;
+    }
+
+    private GrafoRoubos.Resumo reproduzir(SimulacaoExecucao execucao) {
+        int executadas = execucao.getIteracoesExecutadas();
+        try (EscalonadorSimulacoes.Vez vez = EscalonadorSimulacoes.aguardarReproducao(escalonador, execucao,
+                executadas)) {
+            MotorSimulacaoEnxuto motor = MotorSimulacaoEnxuto.novaExecucao(execucao.getQuantidade(),
+                    execucao.getSemente());
+            // Cerca de um roubo por criatura nas primeiras iterações
+            GrafoRoubos grafo = new GrafoRoubos(execucao.getQuantidade() * 4);
+            motor.registrarRoubos(grafo);
+            for (int iteracao = 1; iteracao <= executadas; iteracao++) {
+                motor.avancarIteracao(iteracao);
+            }
+            return grafo.resumir(executadas);
+        }
+    }
+
+    // Despeja as execuções usadas há mais tempo até caber no limite; a
+    // recém-guardada fica mesmo sozinha acima dele
+    private void guardar(long idExecucao) {
+        synchronized (cache) {
+            Iterator<Map.Entry<Long, CompletableFuture<GrafoRoubos.Resumo>>> entradas = cache.entrySet()
+                    .iterator();
+            while (cache.size() > execucoesEmCache && entradas.hasNext()) {
+                Map.Entry<Long, CompletableFuture<GrafoRoubos.Resumo>> entrada = entradas.next();
+                // Reproduções em andamento têm quem as aguarde; saem só depois
+                if (entrada.getKey() == idExecucao || !entrada.getValue().isDone()) {
+                    continue;
+                }
+                entradas.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.AquecimentoDTO;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aquecimento do JIT na partida.
+ *
+ * Executa simulações representativas e a serialização JSON da resposta pelos
+ * mesmos caminhos do /simular, para que o código já esteja compilado quando
+ * o tráfego chegar. Usa um {@link SimuladorService} descartável, sem
+ * repositórios nem login, e portanto não grava nada no banco nem altera
+ * estatísticas de usuários.
+ *
+ * Roda como {@link ApplicationRunner}: o Spring Boot só publica a prontidão
+ * (ReadinessState.ACCEPTING_TRAFFIC) depois que os runners terminam. Só é
+ * criado quando {@code saltitantes.aquecimento.habilitado=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "saltitantes.aquecimento.habilitado", havingValue = "true")
+public class AquecimentoService implements ApplicationRunner {
+
+    // Combinações de parâmetros sorteadas, cobrindo simulações curtas e longas
+    private static final int[] QUANTIDADES = { 2, 10, 50, 100, 300 };
+    private static final int[] ITERACOES = { 10, 100, 500, 1000 };
+
+    private final ObjectMapper objectMapper;
+    private final long orcamentoMs;
+    private final int maxExecucoes;
+    private final boolean serializacaoDireta;
+
+    private volatile AquecimentoDTO ultimoResultado;
+
+    public AquecimentoService(ObjectMapper objectMapper, long orcamentoMs, int maxExecucoes) {
+        this(objectMapper, orcamentoMs, maxExecucoes, true);
+    }
+
+    @Autowired
+    public AquecimentoService(ObjectMapper objectMapper,
+            @Value("${saltitantes.aquecimento.orcamento-ms:15000}") long orcamentoMs,
+            @Value("${saltitantes.aquecimento.max-execucoes:500}") int maxExecucoes,
+            @Value("${saltitantes.simulacao.serializacao-direta:true}") boolean serializacaoDireta) {
+        this.objectMapper = objectMapper;
+        this.orcamentoMs = orcamentoMs;
+        this.maxExecucoes = maxExecucoes;
+        this.serializacaoDireta = serializacaoDireta;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // O resumo fica disponível em getUltimoResultado()
+        aquecer();
+    }
+
+    /**
+     * Executa simulações até esgotar o orçamento de tempo ou o limite de
+     * execuções. O orçamento é verificado entre simulações, então a última
+     * pode ultrapassá-lo um pouco.
+     *
+     * @return resumo do aquecimento
+     */
+    public AquecimentoDTO aquecer() {
+        SplittableRandom sorteio = new SplittableRandom(0);
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+        int execucoes = 0;
+        long iteracoes = 0;
+
+        while (execucoes < maxExecucoes && System.nanoTime() - limite < 0) {
+            int quantidade = QUANTIDADES[sorteio.nextInt(QUANTIDADES.length)];
+            int maxIteracoes = ITERACOES[sorteio.nextInt(ITERACOES.length)];
+
+            try {
+                // Mesmo caminho do controlador: desserializa os parâmetros,
+                // simula e serializa a resposta (descartada)
+                ParametrosDTO parametros = objectMapper.readValue("{\"quantidade\":" + quantidade
+                        + ",\"iteracoes\":" + maxIteracoes + ",\"semente\":" + sorteio.nextLong() + "}",
+                        ParametrosDTO.class);
+
+                SimuladorService simulador = new SimuladorService();
+                if (serializacaoDireta) {
+                    try (JsonGenerator json = objectMapper.createGenerator(OutputStream.nullOutputStream(),
+                            JsonEncoding.UTF8)) {
+                        iteracoes += simulador.simular(parametros.getQuantidade(), parametros.getSemente(),
+                                parametros.getIteracoes(), null, null, json, false, null);
+                    }
+                } else {
+                    List<SimularResponseDTO> resposta = simulador.simular(parametros.getQuantidade(),
+                            parametros.getSemente(), parametros.getIteracoes(), null, null);
+                    objectMapper.writeValue(OutputStream.nullOutputStream(), resposta);
+                    iteracoes += resposta.size();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            execucoes++;
+        }
+
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        ultimoResultado = new AquecimentoDTO(execucoes, iteracoes, duracaoMs, execucoes < maxExecucoes);
+        return ultimoResultado;
+    }
+
+    /**
+     * Retorna o resultado do último aquecimento.
+     *
+     * @return resumo do aquecimento ou null se ainda não terminou
+     */
+    public AquecimentoDTO getUltimoResultado() {
+        return ultimoResultado;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.saltitantes.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Baldes de tokens por chave, em uma tabela de tamanho fixo e sem travas.
+ *
+ * Cada balde guarda um só instante, o "tempo teórico de chegada" (GCRA):
+ * consumir um token o adianta de um intervalo, e o pedido é recusado se ele
+ * passar de capacidade x intervalo à frente do agora. É o mesmo balde de
+ * tokens (rajada de até {@code capacidade}, reposição de um token por
+ * intervalo) atualizado com um compareAndSet.
+ *
+ * A tabela é endereçada pelo hash da chave, sondando poucas posições. Sem
+ * posição livre, o balde substituído é o mais próximo de cheio; um balde
+ * ocioso (instante no passado) está cheio, igual a um novo, então
+ * despejá-lo não perde nada. Só sob muitas chaves ativas ao mesmo tempo um
+ * balde parcialmente usado é despejado, o que favorece quem foi despejado.
+ */
+public final class BaldesTokens {
+
+    private static final int SONDAGEM = 8;
+
+    private final AtomicReferenceArray<Balde> tabela;
+    private final int mascara;
+    private final int capacidade;
+    private final long intervaloNanos;
+    private final long limiteNanos;
+    private final LongAdder despejos = new LongAdder();
+
+    private static final class Balde {
+        private final String chave;
+        private final AtomicLong chegadaTeorica;
+
+        private Balde(String chave, long agora) {
+            this.chave = chave;
+            this.chegadaTeorica = new AtomicLong(agora);
+        }
+    }
+
+    /**
+     * @param tamanho    quantidade máxima de baldes (arredondada para potência
+     *                   de 2)
+     * @param capacidade tokens do balde cheio (rajada máxima)
+     * @param porMinuto  tokens repostos por minuto
+     * @throws IllegalArgumentException se algum parâmetro não for positivo
+     */
+    public BaldesTokens(int tamanho, int capacidade, int porMinuto) {
+        if (tamanho <= 0 || capacidade <= 0 || porMinuto <= 0) {
+            throw new IllegalArgumentException("Tamanho, capacidade e taxa dos baldes devem ser maiores que zero.");
+        }
+        int potencia = Integer.highestOneBit(Math.max(tamanho, SONDAGEM) - 1) << 1;
+        this.tabela = new AtomicReferenceArray<>(potencia);
+        this.mascara = potencia - 1;
+        this.capacidade = capacidade;
+        this.intervaloNanos = 60_000_000_000L / porMinuto;
+        this.limiteNanos = intervaloNanos * capacidade;
+    }
+
+    /**
+     * Tenta consumir um token do balde da chave.
+     *
+     * @param chave chave do balde
+     * @param agora instante atual ({@link System#nanoTime()})
+     * @return 0 se o token foi consumido; senão, nanossegundos até haver um
+     */
+    public long consumir(String chave, long agora) {
+        AtomicLong chegadaTeorica = obter(chave, agora).chegadaTeorica;
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long proxima = Math.max(atual, agora) + intervaloNanos;
+            long excesso = proxima - agora - limiteNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (chegadaTeorica.compareAndSet(atual, proxima)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devolve um token consumido do balde da chave, quando a requisição é
+     * recusada por outro balde logo depois. Sem efeito se o balde já estiver
+     * cheio ou tiver sido despejado.
+     *
+     * @param chave chave do balde
+     * @param agora instante atual ({@link System#nanoTime()})
+     */
+    public void devolver(String chave, long agora) {
+        Balde balde = procurar(chave);
+        if (balde == null) {
+            return;
+        }
+        AtomicLong chegadaTeorica = balde.chegadaTeorica;
+        while (true) {
+            long atual = chegadaTeorica.get();
+            if (atual <= agora) {
+                return;
+            }
+            if (chegadaTeorica.compareAndSet(atual, Math.max(atual - intervaloNanos, agora))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param agora instante atual ({@link System#nanoTime()})
+     * @return baldes com tokens consumidos ainda não repostos
+     */
+    public int ativos(long agora) {
+        int ativos = 0;
+        for (int i = 0; i < tabela.length(); i++) {
+            Balde balde = tabela.get(i);
+            if (balde != null && balde.chegadaTeorica.get() > agora) {
+                ativos++;
+            }
+        }
+        return ativos;
+    }
+
+    /**
+     * @return baldes substituídos por falta de posição livre
+     */
+    public long despejos() {
+        return despejos.sum();
+    }
+
+    /**
+     * @return quantidade máxima de baldes
+     */
+    public int tamanho() {
+        return tabela.length();
+    }
+
+    /**
+     * @return tokens do balde cheio
+     */
+    public int capacidade() {
+        return capacidade;
+    }
+
+    private Balde obter(String chave, long agora) {
+        int inicio = espalhar(chave.hashCode());
+        Balde novo = null;
+        for (int tentativa = 0; tentativa < SONDAGEM; tentativa++) {
+            int vitima = -1;
+            long menorChegada = Long.MAX_VALUE;
+            for (int i = 0; i < SONDAGEM; i++) {
+                int posicao = (inicio + i) & mascara;
+                Balde balde = tabela.get(posicao);
+                if (balde == null) {
+                    novo = novo != null ? novo : new Balde(chave, agora);
+                    if (tabela.compareAndSet(posicao, null, novo)) {
+                        return novo;
+                    }
+                    balde = tabela.get(posicao);
+                }
+                if (balde.chave.equals(chave)) {
+                    return balde;
+                }
+                long chegada = balde.chegadaTeorica.get();
+                if (chegada < menorChegada) {
+                    menorChegada = chegada;
+                    vitima = posicao;
+                }
+            }
+
+            Balde substituido = tabela.get(vitima);
+            if (substituido.chegadaTeorica.get() == menorChegada) {
+                novo = novo != null ? novo : new Balde(chave, agora);
+                if (tabela.compareAndSet(vitima, substituido, novo)) {
+                    despejos.increment();
+                    return novo;
+                }
+            }
+        }
+        // Disputa contínua pelas mesmas posições: balde avulso, fora da tabela
+        return novo != null ? novo : new Balde(chave, agora);
+    }
+
+    // Balde da chave na tabela, sem criar nem despejar
+    private Balde procurar(String chave) {
+        int inicio = espalhar(chave.hashCode());
+        for (int i = 0; i < SONDAGEM; i++) {
+            Balde balde = tabela.get((inicio + i) & mascara);
+            if (balde != null && balde.chave.equals(chave)) {
+                return balde;
+            }
+        }
+        return null;
+    }
+
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
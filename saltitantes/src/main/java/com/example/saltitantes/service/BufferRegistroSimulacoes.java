@@ -0,0 +1,201 @@
+package com.example.saltitantes.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffer write-behind dos registros de simulação.
+ *
+ * Cada registro apenas acumula os incrementos (total e sucessos) do login em
+ * memória; os incrementos de um mesmo login são coalescidos e gravados
+ * periodicamente, ou quando há muitos logins pendentes, em um único UPDATE em
+ * lote. Só é criado quando
+ * {@code saltitantes.usuarios.write-behind.habilitado=true}.
+ *
+ * É criado na partida mesmo com inicialização preguiçosa, para que o flush
+ * agendado rode desde o início.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "saltitantes.usuarios.write-behind.habilitado", havingValue = "true")
+public class BufferRegistroSimulacoes {
+
+    static final String SQL_INCREMENTO = "update usuarios set total_simulacoes = total_simulacoes + ?, "
+            + "pontuacao = pontuacao + ? where login = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPendentes;
+
+    @Autowired(required = false)
+    private CacheUsuarios cacheUsuarios;
+
+    // Os bins do ConcurrentHashMap fazem o papel de "stripes": cada login é
+    // atualizado sob o lock do seu bin, sem um lock global.
+    private final Map<String, Incrementos> pendentes = new ConcurrentHashMap<>();
+
+    // Leitores seguram a trava de leitura enquanto leem o banco e os
+    // pendentes; o flush segura a de escrita entre o commit e o desconto dos
+    // pendentes, para que nenhuma leitura conte o mesmo incremento duas vezes.
+    private final ReentrantReadWriteLock travaConsistencia = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean flushAgendado = new AtomicBoolean();
+    private final ExecutorService executorFlush = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "flush-registro-simulacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BufferRegistroSimulacoes(JdbcTemplate jdbcTemplate,
+            @Value("${saltitantes.usuarios.write-behind.max-pendentes:500}") int maxPendentes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPendentes = maxPendentes;
+    }
+
+    /**
+     * Acumula uma simulação para o login, sem acessar o banco.
+     *
+     * @param login       login do usuário
+     * @param bemSucedida se a simulação foi bem-sucedida
+     */
+    public void registrar(String login, boolean bemSucedida) {
+        pendentes.compute(login, (chave, incrementos) -> {
+            Incrementos atual = incrementos != null ? incrementos : new Incrementos();
+            atual.total++;
+            if (bemSucedida) {
+                atual.sucessos++;
+            }
+            return atual;
+        });
+
+        if (pendentes.size() >= maxPendentes && flushAgendado.compareAndSet(false, true)) {
+            executorFlush.execute(() -> {
+                flushAgendado.set(false);
+                descarregar();
+            });
+        }
+    }
+
+    /**
+     * Retorna os incrementos ainda não gravados de um login.
+     *
+     * @param login login do usuário
+     * @return vetor {total, sucessos} pendentes (zeros se não houver)
+     */
+    public long[] pendentes(String login) {
+        long[] resultado = new long[2];
+        pendentes.computeIfPresent(login, (chave, incrementos) -> {
+            resultado[0] = incrementos.total;
+            resultado[1] = incrementos.sucessos;
+            return incrementos;
+        });
+        return resultado;
+    }
+
+    /**
+     * Executa uma leitura do banco que será combinada com os pendentes, sem
+     * que um flush concorrente seja contado duas vezes.
+     *
+     * @param leitura leitura do banco e dos pendentes
+     * @return resultado da leitura
+     */
+    public <T> T lerConsistente(Supplier<T> leitura) {
+        travaConsistencia.readLock().lock();
+        try {
+            return leitura.get();
+        } finally {
+            travaConsistencia.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grava todos os incrementos pendentes em um único UPDATE em lote.
+     * Se a gravação falhar, os incrementos continuam pendentes para a próxima
+     * tentativa.
+     *
+     * @return quantidade de logins gravados
+     */
+    @Scheduled(fixedDelayString = "${saltitantes.usuarios.write-behind.intervalo-ms:200}")
+    public synchronized int descarregar() {
+        Map<String, long[]> lote = new LinkedHashMap<>();
+        for (String login : pendentes.keySet()) {
+            pendentes.computeIfPresent(login, (chave, incrementos) -> {
+                lote.put(chave, new long[] { incrementos.total, incrementos.sucessos });
+                return incrementos;
+            });
+        }
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> argumentos = new ArrayList<>(lote.size());
+        lote.forEach((login, incrementos) -> argumentos.add(new Object[] { incrementos[0], incrementos[1], login }));
+
+        travaConsistencia.writeLock().lock();
+        try {
+            int[] atualizados = jdbcTemplate.batchUpdate(SQL_INCREMENTO, argumentos);
+
+            int i = 0;
+            for (Map.Entry<String, long[]> entrada : lote.entrySet()) {
+                if (i < atualizados.length && atualizados[i] == 0) {
+                    System.err.println("Erro ao registrar simulações pendentes: usuário "
+                            + entrada.getKey() + " não encontrado.");
+                }
+                descontar(entrada.getKey(), entrada.getValue());
+                if (cacheUsuarios != null) {
+                    cacheUsuarios.invalidar(entrada.getKey());
+                }
+                i++;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao gravar simulações pendentes: " + e.getMessage());
+            return 0;
+        } finally {
+            travaConsistencia.writeLock().unlock();
+        }
+
+        return lote.size();
+    }
+
+    /**
+     * Grava os pendentes ao desligar a aplicação.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executorFlush.shutdown();
+        descarregar();
+    }
+
+    private void descontar(String login, long[] gravados) {
+        pendentes.computeIfPresent(login, (chave, incrementos) -> {
+            incrementos.total -= gravados[0];
+            incrementos.sucessos -= gravados[1];
+            return incrementos.total == 0 && incrementos.sucessos == 0 ? null : incrementos;
+        });
+    }
+
+    /**
+     * Incrementos acumulados de um login. Só é alterado dentro de operações
+     * compute do mapa, sob o lock do bin correspondente.
+     */
+    private static final class Incrementos {
+        private long total;
+        private long sucessos;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.MetricasCacheDTO;
+import com.example.saltitantes.model.entity.Usuario;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache em memória, limitado e com expiração, das buscas de usuário por login.
+ *
+ * Buscas simultâneas do mesmo login que não estão no cache compartilham uma
+ * única consulta ao banco. Somente usuários existentes são guardados. As
+ * instâncias guardadas são compartilhadas e não devem ser alteradas.
+ */
+@Component
+@ConditionalOnProperty(name = "saltitantes.usuarios.cache.habilitado", havingValue = "true", matchIfMissing = true)
+public class CacheUsuarios {
+
+    // Quantidade de entradas examinadas para escolher a vítima de uma remoção
+    private static final int AMOSTRA_REMOCAO = 8;
+
+    private final int capacidade;
+    private final long ttlNanos;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<Usuario>>> carregando = new ConcurrentHashMap<>();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    public CacheUsuarios(@Value("${saltitantes.usuarios.cache.capacidade:10000}") int capacidade,
+            @Value("${saltitantes.usuarios.cache.ttl-ms:30000}") long ttlMs) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade do cache deve ser maior que zero.");
+        }
+        this.capacidade = capacidade;
+        this.ttlNanos = ttlMs * 1_000_000;
+    }
+
+    /**
+     * Busca um usuário no cache, consultando o banco em caso de falta.
+     *
+     * @param login      login do usuário
+     * @param carregador consulta ao banco usada em caso de falta
+     * @return usuário encontrado ou vazio
+     */
+    public Optional<Usuario> buscar(String login, Function<String, Optional<Usuario>> carregador) {
+        Entrada entrada = entradas.get(login);
+        if (entrada != null && entrada.expiraEm - System.nanoTime() > 0) {
+            acertos.increment();
+            return Optional.of(entrada.usuario);
+        }
+        faltas.increment();
+
+        CompletableFuture<Optional<Usuario>> novo = new CompletableFuture<>();
+        CompletableFuture<Optional<Usuario>> existente = carregando.putIfAbsent(login, novo);
+        if (existente != null) {
+            // Outra thread já está consultando este login
+            return aguardar(existente);
+        }
+
+        try {
+            // Outra thread pode ter concluído a carga entre a consulta ao cache e o putIfAbsent
+            Entrada recente = entradas.get(login);
+            Optional<Usuario> usuario = recente != null && recente.expiraEm - System.nanoTime() > 0
+                    ? Optional.of(recente.usuario)
+                    : carregador.apply(login);
+            // Só guarda se nenhuma invalidação aconteceu durante a consulta
+            carregando.computeIfPresent(login, (chave, futuro) -> {
+                if (futuro != novo) {
+                    return futuro;
+                }
+                usuario.ifPresent(this::guardar);
+                return null;
+            });
+            novo.complete(usuario);
+            return usuario;
+        } catch (RuntimeException e) {
+            carregando.remove(login, novo);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Remove um login do cache e descarta consultas em andamento para ele.
+     * Deve ser chamado depois de qualquer escrita do usuário no banco.
+     *
+     * @param login login do usuário
+     */
+    public void invalidar(String login) {
+        carregando.compute(login, (chave, futuro) -> {
+            entradas.remove(chave);
+            return null;
+        });
+    }
+
+    /**
+     * Retorna as métricas de uso do cache.
+     *
+     * @return DTO com tamanho, acertos, faltas e taxa de acerto
+     */
+    public MetricasCacheDTO metricas() {
+        long totalAcertos = acertos.sum();
+        long totalFaltas = faltas.sum();
+        long consultas = totalAcertos + totalFaltas;
+        return new MetricasCacheDTO(
+                entradas.size(),
+                capacidade,
+                totalAcertos,
+                totalFaltas,
+                remocoes.sum(),
+                consultas == 0 ? 0.0 : (double) totalAcertos / consultas * 100.0);
+    }
+
+    private void guardar(Usuario usuario) {
+        if (entradas.size() >= capacidade) {
+            removerUma();
+        }
+        entradas.put(usuario.getLogin(), new Entrada(usuario, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Remove, entre algumas entradas amostradas, a que expira primeiro.
+     */
+    private void removerUma() {
+        String vitima = null;
+        long menorExpiracao = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, Entrada>> iterator = entradas.entrySet().iterator();
+        for (int i = 0; i < AMOSTRA_REMOCAO && iterator.hasNext(); i++) {
+            Map.Entry<String, Entrada> candidata = iterator.next();
+            if (vitima == null || candidata.getValue().expiraEm - menorExpiracao < 0) {
+                vitima = candidata.getKey();
+                menorExpiracao = candidata.getValue().expiraEm;
+            }
+        }
+        if (vitima != null && entradas.remove(vitima) != null) {
+            remocoes.increment();
+        }
+    }
+
+    private Optional<Usuario> aguardar(CompletableFuture<Optional<Usuario>> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entrada {
+        private final Usuario usuario;
+        private final long expiraEm;
+
+        private Entrada(Usuario usuario, long expiraEm) {
+            this.usuario = usuario;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.MetricasEscalonadorDTO;
+import com.example.saltitantes.model.dto.MetricasFilaUsuarioDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Escalonador justo das simulações entre usuários.
+ *
+ * Limita quantas simulações rodam ao mesmo tempo. Quando não há vaga, os
+ * pedidos esperam em uma fila por usuário, atendidas por deficit round robin:
+ * a cada volta cada fila ganha um quantum de crédito e é atendida enquanto o
+ * crédito cobre o custo (criaturas x iterações) do próximo pedido. Assim um
+ * usuário com muitas execuções grandes não toma a capacidade de todos.
+ * Execuções pequenas têm uma fila prioritária, atendida antes das demais.
+ *
+ * Com vaga livre e ninguém esperando, a vez é concedida na hora: uma trava
+ * sem disputa e nenhum registro de espera.
+ */
+@Service
+public class EscalonadorSimulacoes {
+
+    /**
+     * Vez de executar uma simulação; fechar devolve a vaga.
+     */
+    @FunctionalInterface
+    public interface Vez extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // Vez de quem roda sem escalonador (desabilitado ou ausente em testes)
+    public static final Vez SEM_ESPERA = () -> {
+    };
+
+    private static final String ANONIMO = "";
+
+    private final boolean habilitado;
+    private final int capacidade;
+    private final long quantum;
+    private final long limiteExecucaoPequena;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private int emExecucao;
+    private int aguardando;
+    private final ArrayDeque<Pedido> pequenas = new ArrayDeque<>();
+    private final Map<String, FilaUsuario> filas = new HashMap<>();
+    private final ArrayDeque<FilaUsuario> rodada = new ArrayDeque<>();
+    private final ConcurrentHashMap<String, EsperaUsuario> esperas = new ConcurrentHashMap<>();
+    private final Vez vaga = this::liberar;
+
+    private static final class Pedido {
+        private final String login;
+        private final long custo;
+        private final long enfileiradoEm = System.nanoTime();
+        private final Condition sinal;
+        private boolean concedido;
+
+        private Pedido(String login, long custo, Condition sinal) {
+            this.login = login;
+            this.custo = custo;
+            this.sinal = sinal;
+        }
+    }
+
+    private static final class FilaUsuario {
+        private final String login;
+        private final ArrayDeque<Pedido> pedidos = new ArrayDeque<>();
+        private long deficit;
+        private boolean emAtendimento; // Já recebeu o quantum desta volta
+
+        private FilaUsuario(String login) {
+            this.login = login;
+        }
+    }
+
+    private static final class EsperaUsuario {
+        private final LongAdder atendidos = new LongAdder();
+        private final LongAdder nanosEspera = new LongAdder();
+        private final AtomicLong maiorEsperaNanos = new AtomicLong();
+    }
+
+    public EscalonadorSimulacoes(
+            @Value("${saltitantes.simulacao.escalonador.habilitado:true}") boolean habilitado,
+            @Value("${saltitantes.simulacao.escalonador.capacidade:0}") int capacidade,
+            @Value("${saltitantes.simulacao.escalonador.quantum:100000}") long quantum,
+            @Value("${saltitantes.simulacao.escalonador.limite-execucao-pequena:10000}") long limiteExecucaoPequena) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("O quantum do escalonador deve ser maior que zero.");
+        }
+        this.habilitado = habilitado;
+        this.capacidade = capacidade > 0 ? capacidade : Runtime.getRuntime().availableProcessors();
+        this.quantum = quantum;
+        this.limiteExecucaoPequena = limiteExecucaoPequena;
+    }
+
+    /**
+     * Espera a vez de executar uma simulação. Use com try-with-resources para
+     * devolver a vaga ao terminar.
+     *
+     * @param loginUsuario login do usuário (null para anônimo)
+     * @param custo        custo estimado (criaturas x iterações)
+     * @return vez concedida
+     * @throws IllegalStateException se a thread for interrompida esperando
+     *
+     * MC/DC para a condição: (emExecucao < capacidade && aguardando == 0)
+     * ---------------------------------------------------------
+     * Caso | emExecucao < capacidade | aguardando == 0 | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | Caminho rápido (sistema ocioso)
+     * 2 | true | false | false | Testa a 2ª condição (não fura a fila)
+     * 3 | false | (não avaliado) | false | Testa a 1ª condição (sem vaga)
+     * ---------------------------------------------------------
+     */
+    public Vez aguardarVez(String loginUsuario, long custo) {
+        if (!habilitado) {
+            return SEM_ESPERA;
+        }
+        String login = loginUsuario != null ? loginUsuario : ANONIMO;
+
+        Pedido pedido = null;
+        trava.lock();
+        try {
+            if (emExecucao < capacidade && aguardando == 0) {
+                emExecucao++;
+                return vaga;
+            }
+
+            pedido = new Pedido(login, custo, trava.newCondition());
+            enfileirar(pedido);
+            despachar();
+            while (!pedido.concedido) {
+                pedido.sinal.await();
+            }
+        } catch (InterruptedException e) {
+            desistir(pedido);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a vez da simulação.", e);
+        } finally {
+            trava.unlock();
+        }
+
+        long espera = System.nanoTime() - pedido.enfileiradoEm;
+        EsperaUsuario estatistica = esperas.computeIfAbsent(login, chave -> new EsperaUsuario());
+        estatistica.atendidos.increment();
+        estatistica.nanosEspera.add(espera);
+        estatistica.maiorEsperaNanos.accumulateAndGet(espera, Math::max);
+        return vaga;
+    }
+
+    /**
+     * Espera a vez no escalonador, se houver um; sem ele (ausente em testes)
+     * a simulação roda sem espera.
+     *
+     * @param escalonador  escalonador (pode ser null)
+     * @param loginUsuario login do usuário (null para anônimo)
+     * @param custo        custo estimado (criaturas x iterações)
+     * @return vez concedida
+     */
+    public static Vez aguardarVez(EscalonadorSimulacoes escalonador, String loginUsuario, long custo) {
+        return escalonador != null ? escalonador.aguardarVez(loginUsuario, custo) : SEM_ESPERA;
+    }
+
+    /**
+     * Espera a vez de reproduzir uma execução registrada. A reprodução entra
+     * na fila de quem fez a execução, com o custo das iterações reproduzidas.
+     *
+     * @param escalonador escalonador (pode ser null)
+     * @param execucao    execução registrada
+     * @param iteracoes   iterações reproduzidas
+     * @return vez concedida
+     */
+    public static Vez aguardarReproducao(EscalonadorSimulacoes escalonador, SimulacaoExecucao execucao,
+            int iteracoes) {
+        return aguardarVez(escalonador, execucao.getLoginUsuario(), (long) execucao.getQuantidade() * iteracoes);
+    }
+
+    /**
+     * Obtém o estado das filas: vagas em uso, pedidos aguardando e, por
+     * usuário, a profundidade da fila e o tempo de espera dos pedidos que
+     * precisaram esperar.
+     *
+     * @return métricas do escalonador
+     */
+    public MetricasEscalonadorDTO metricas() {
+        Map<String, Integer> profundidade = new HashMap<>();
+        int emExecucaoAgora;
+        int aguardandoAgora;
+        int pequenasAgora;
+        trava.lock();
+        try {
+            emExecucaoAgora = emExecucao;
+            aguardandoAgora = aguardando;
+            pequenasAgora = pequenas.size();
+            for (Pedido pedido : pequenas) {
+                profundidade.merge(pedido.login, 1, Integer::sum);
+            }
+            for (FilaUsuario fila : filas.values()) {
+                profundidade.merge(fila.login, fila.pedidos.size(), Integer::sum);
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        TreeSet<String> logins = new TreeSet<>(profundidade.keySet());
+        logins.addAll(esperas.keySet());
+        List<MetricasFilaUsuarioDTO> usuarios = new ArrayList<>(logins.size());
+        for (String login : logins) {
+            EsperaUsuario espera = esperas.get(login);
+            long atendidos = espera != null ? espera.atendidos.sum() : 0;
+            double mediaMs = atendidos > 0 ? espera.nanosEspera.sum() / 1e6 / atendidos : 0.0;
+            double maximaMs = espera != null ? espera.maiorEsperaNanos.get() / 1e6 : 0.0;
+            usuarios.add(new MetricasFilaUsuarioDTO(login.equals(ANONIMO) ? null : login,
+                    profundidade.getOrDefault(login, 0), atendidos, mediaMs, maximaMs));
+        }
+        return new MetricasEscalonadorDTO(habilitado, capacidade, emExecucaoAgora, aguardandoAgora, pequenasAgora,
+                usuarios);
+    }
+
+    private void liberar() {
+        trava.lock();
+        try {
+            emExecucao--;
+            despachar();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void enfileirar(Pedido pedido) {
+        aguardando++;
+        if (pedido.custo <= limiteExecucaoPequena) {
+            pequenas.addLast(pedido);
+            return;
+        }
+        FilaUsuario fila = filas.get(pedido.login);
+        if (fila == null) {
+            fila = new FilaUsuario(pedido.login);
+            filas.put(pedido.login, fila);
+            rodada.addLast(fila);
+        }
+        fila.pedidos.addLast(pedido);
+    }
+
+    // Concede vagas livres; chamado com a trava
+    private void despachar() {
+        while (emExecucao < capacidade) {
+            Pedido pedido = proximo();
+            if (pedido == null) {
+                return;
+            }
+            aguardando--;
+            emExecucao++;
+            pedido.concedido = true;
+            pedido.sinal.signal();
+        }
+    }
+
+    // Fila prioritária primeiro; depois deficit round robin entre usuários
+    private Pedido proximo() {
+        Pedido pequena = pequenas.pollFirst();
+        if (pequena != null) {
+            return pequena;
+        }
+        while (!rodada.isEmpty()) {
+            FilaUsuario fila = rodada.peekFirst();
+            if (!fila.emAtendimento) {
+                fila.deficit += quantum;
+                fila.emAtendimento = true;
+            }
+            Pedido cabeca = fila.pedidos.peekFirst();
+            if (cabeca.custo <= fila.deficit) {
+                fila.deficit -= cabeca.custo;
+                fila.pedidos.pollFirst();
+                if (fila.pedidos.isEmpty()) {
+                    // Fila vazia não acumula crédito
+                    rodada.pollFirst();
+                    filas.remove(fila.login);
+                }
+                return cabeca;
+            }
+            fila.emAtendimento = false;
+            rodada.addLast(rodada.pollFirst());
+        }
+        return null;
+    }
+
+    // Pedido interrompido: sai da fila ou, se já tinha vaga, a devolve
+    private void desistir(Pedido pedido) {
+        if (pedido == null) {
+            return;
+        }
+        if (pedido.concedido) {
+            emExecucao--;
+            despachar();
+            return;
+        }
+        aguardando--;
+        if (!pequenas.remove(pedido)) {
+            FilaUsuario fila = filas.get(pedido.login);
+            fila.pedidos.remove(pedido);
+            if (fila.pedidos.isEmpty()) {
+                rodada.remove(fila);
+                filas.remove(fila.login);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Corpo de resposta que escreve a simulação direto no gerador JSON da
+ * resposta HTTP, no momento da escrita.
+ */
+@FunctionalInterface
+public interface EscritorSimulacao {
+
+    /**
+     * Escreve o corpo no gerador.
+     *
+     * @param json gerador de destino
+     * @throws IOException se a escrita falhar
+     */
+    void escrever(JsonGenerator json) throws IOException;
+}
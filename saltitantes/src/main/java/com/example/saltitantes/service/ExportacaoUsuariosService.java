@@ -0,0 +1,80 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serviço de exportação da tabela de usuários em NDJSON (um objeto JSON por
+ * linha).
+ *
+ * As linhas são lidas por um cursor JDBC com fetch size e escritas
+ * diretamente na saída, sem montar a lista inteira em memória.
+ */
+@Service
+public class ExportacaoUsuariosService {
+
+    static final String SQL_EXPORTACAO = "select login, avatar, pontuacao, total_simulacoes "
+            + "from usuarios order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportacaoUsuariosService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            @Value("${saltitantes.usuarios.exportacao.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Escreve todos os usuários na saída, um JSON por linha, com os mesmos
+     * campos de {@code UsuarioDTO}. Roda em uma transação somente leitura
+     * para que o driver use cursor (no PostgreSQL o fetch size só vale com
+     * autocommit desligado).
+     *
+     * @param saida stream de saída da resposta
+     * @return quantidade de usuários exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream saida) {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            long[] exportados = new long[1];
+            JdbcTemplate consulta = new JdbcTemplate(jdbcTemplate.getDataSource());
+            consulta.setFetchSize(fetchSize);
+
+            consulta.query(SQL_EXPORTACAO, rs -> {
+                int pontuacao = rs.getInt("pontuacao");
+                int totalSimulacoes = rs.getInt("total_simulacoes");
+                try {
+                    gerador.writeStartObject();
+                    gerador.writeStringField("login", rs.getString("login"));
+                    gerador.writeStringField("avatar", rs.getString("avatar"));
+                    gerador.writeNumberField("pontuacao", pontuacao);
+                    gerador.writeNumberField("totalSimulacoes", totalSimulacoes);
+                    gerador.writeNumberField("taxaSucesso", totalSimulacoes == 0 ? 0.0
+                            : (double) pontuacao / totalSimulacoes * 100.0);
+                    gerador.writeEndObject();
+                    gerador.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exportados[0]++;
+            });
+
+            gerador.flush();
+            return exportados[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
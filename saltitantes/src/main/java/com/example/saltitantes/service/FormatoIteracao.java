@@ -0,0 +1,26 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Formato resumido de cada iteração da serialização direta, calculado a
+ * partir das colunas do {@link MotorSimulacaoEnxuto} (ex.:
+ * {@link HistogramaPosicoes}, {@link SelecaoMaiores}).
+ */
+@FunctionalInterface
+public interface FormatoIteracao {
+
+    /**
+     * Escreve a iteração atual do motor.
+     *
+     * @param motor       motor já avançado até a iteração
+     * @param json        gerador de destino
+     * @param iteracao    número da iteração
+     * @param bemSucedida valor do campo simulacaoBemSucedida
+     * @throws IOException se a escrita falhar
+     */
+    void escreverIteracao(MotorSimulacaoEnxuto motor, JsonGenerator json, int iteracao, boolean bemSucedida)
+            throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.example.saltitantes.service;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Gerador aleatório com a mesma sequência de um {@link SplittableRandom}
+ * criado com a mesma semente (SplitMix64 com o gama padrão), mas cujo
+ * estado pode ser copiado: a cópia continua a sequência do ponto em que o
+ * original estava. É o que permite guardar o {@link MotorSimulacaoEnxuto}
+ * no meio de uma execução e retomá-lo depois ({@link MotorSimulacaoEnxuto#copiar}).
+ *
+ * Não é thread-safe.
+ */
+final class GeradorReproduzivel implements RandomGenerator {
+
+    // Mesmo gama do SplittableRandom criado a partir de uma semente
+    private static final long GAMA = 0x9e3779b97f4a7c15L;
+
+    private long semente;
+
+    GeradorReproduzivel(long semente) {
+        this.semente = semente;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (semente += GAMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return gerador no mesmo ponto da sequência, independente deste
+     */
+    GeradorReproduzivel copiar() {
+        return new GeradorReproduzivel(semente);
+    }
+}
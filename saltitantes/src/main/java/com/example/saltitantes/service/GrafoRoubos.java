@@ -0,0 +1,199 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.RoubosEntidadeDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista de arestas dos roubos de uma execução, em vetores primitivos
+ * paralelos: tipo, ladrão, vítima, iteração e quantia, uma posição por
+ * roubo. Cerca de 17 bytes por aresta, sem um objeto por roubo.
+ *
+ * Preenchida pelo {@link MotorSimulacaoEnxuto} quando habilitada
+ * ({@link MotorSimulacaoEnxuto#registrarRoubos}); sem ela o motor só faz
+ * uma comparação com null por roubo. Tentativas sem vítima não entram.
+ */
+public final class GrafoRoubos {
+
+    // Tipos de aresta: quem rouba e quem é roubado
+    public static final byte ENTRE_CRIATURAS = 0;
+    public static final byte CLUSTER_CRIATURA = 1;
+    public static final byte GUARDIAO_CLUSTER = 2;
+
+    private byte[] tipo;
+    private int[] ladrao;
+    private int[] vitima;
+    private int[] iteracao;
+    private int[] quantia;
+    private int total;
+
+    /**
+     * @param capacidadeInicial arestas antes do primeiro crescimento
+     */
+    public GrafoRoubos(int capacidadeInicial) {
+        int capacidade = Math.max(16, capacidadeInicial);
+        tipo = new byte[capacidade];
+        ladrao = new int[capacidade];
+        vitima = new int[capacidade];
+        iteracao = new int[capacidade];
+        quantia = new int[capacidade];
+    }
+
+    /**
+     * Resumo dos roubos de uma execução: totais por ladrão e por vítima, do
+     * maior para o menor ouro roubado, e o fluxo de ouro por iteração.
+     */
+    public static final class Resumo {
+        private final int iteracoes;
+        private final long totalRoubos;
+        private final long ouroRoubado;
+        private final List<RoubosEntidadeDTO> ladroes;
+        private final List<RoubosEntidadeDTO> vitimas;
+        private final long[] roubosPorIteracao;
+        private final long[][] ouroPorTipo;
+
+        private Resumo(int iteracoes, long totalRoubos, long ouroRoubado, List<RoubosEntidadeDTO> ladroes,
+                List<RoubosEntidadeDTO> vitimas, long[] roubosPorIteracao, long[][] ouroPorTipo) {
+            this.iteracoes = iteracoes;
+            this.totalRoubos = totalRoubos;
+            this.ouroRoubado = ouroRoubado;
+            this.ladroes = ladroes;
+            this.vitimas = vitimas;
+            this.roubosPorIteracao = roubosPorIteracao;
+            this.ouroPorTipo = ouroPorTipo;
+        }
+
+        public int getIteracoes() {
+            return iteracoes;
+        }
+
+        public long getTotalRoubos() {
+            return totalRoubos;
+        }
+
+        public long getOuroRoubado() {
+            return ouroRoubado;
+        }
+
+        public List<RoubosEntidadeDTO> getLadroes() {
+            return ladroes;
+        }
+
+        public List<RoubosEntidadeDTO> getVitimas() {
+            return vitimas;
+        }
+
+        public long[] getRoubosPorIteracao() {
+            return roubosPorIteracao;
+        }
+
+        /**
+         * @param tipoAresta {@link #ENTRE_CRIATURAS}, {@link #CLUSTER_CRIATURA}
+         *                   ou {@link #GUARDIAO_CLUSTER}
+         * @return ouro roubado por iteração com esse tipo de aresta
+         */
+        public long[] getOuroPorIteracao(byte tipoAresta) {
+            return ouroPorTipo[tipoAresta];
+        }
+    }
+
+    /**
+     * Acrescenta um roubo.
+     *
+     * @param tipoAresta tipo da aresta
+     * @param idLadrao   id de quem roubou
+     * @param idVitima   id de quem foi roubado
+     * @param numero     número da iteração
+     * @param ouro       quantia roubada
+     */
+    void adicionar(byte tipoAresta, int idLadrao, int idVitima, int numero, int ouro) {
+        if (total == tipo.length) {
+            int capacidade = total * 2;
+            tipo = Arrays.copyOf(tipo, capacidade);
+            ladrao = Arrays.copyOf(ladrao, capacidade);
+            vitima = Arrays.copyOf(vitima, capacidade);
+            iteracao = Arrays.copyOf(iteracao, capacidade);
+            quantia = Arrays.copyOf(quantia, capacidade);
+        }
+        tipo[total] = tipoAresta;
+        ladrao[total] = idLadrao;
+        vitima[total] = idVitima;
+        iteracao[total] = numero;
+        quantia[total] = ouro;
+        total++;
+    }
+
+    /**
+     * @return quantidade de arestas
+     */
+    public int tamanho() {
+        return total;
+    }
+
+    /**
+     * Agrega as arestas numa única passada.
+     *
+     * @param iteracoes iterações executadas (tamanho do fluxo)
+     * @return resumo com todos os ladrões e vítimas
+     */
+    public Resumo resumir(int iteracoes) {
+        Map<Long, long[]> porLadrao = new HashMap<>();
+        Map<Long, long[]> porVitima = new HashMap<>();
+        long[] roubosPorIteracao = new long[iteracoes];
+        long[][] ouroPorTipo = new long[3][iteracoes];
+        long ouroRoubado = 0;
+
+        for (int i = 0; i < total; i++) {
+            byte t = tipo[i];
+            int ouro = quantia[i];
+            ouroRoubado += ouro;
+            acumular(porLadrao, chave(tipoLadrao(t), ladrao[i]), ouro);
+            acumular(porVitima, chave(tipoVitima(t), vitima[i]), ouro);
+            int posicao = iteracao[i] - 1;
+            if (posicao < iteracoes) {
+                roubosPorIteracao[posicao]++;
+                ouroPorTipo[t][posicao] += ouro;
+            }
+        }
+        return new Resumo(iteracoes, total, ouroRoubado, ordenar(porLadrao), ordenar(porVitima), roubosPorIteracao,
+                ouroPorTipo);
+    }
+
+    // Tipo de entidade na chave: 0 criatura, 1 cluster, 2 guardião
+    private static int tipoLadrao(byte tipoAresta) {
+        return tipoAresta;
+    }
+
+    private static int tipoVitima(byte tipoAresta) {
+        return tipoAresta == GUARDIAO_CLUSTER ? 1 : 0;
+    }
+
+    private static long chave(int tipoEntidade, int id) {
+        return ((long) tipoEntidade << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static void acumular(Map<Long, long[]> totais, long chave, int ouro) {
+        long[] total = totais.computeIfAbsent(chave, c -> new long[2]);
+        total[0]++;
+        total[1] += ouro;
+    }
+
+    private static List<RoubosEntidadeDTO> ordenar(Map<Long, long[]> totais) {
+        List<RoubosEntidadeDTO> entidades = new ArrayList<>(totais.size());
+        for (Map.Entry<Long, long[]> total : totais.entrySet()) {
+            long chave = total.getKey();
+            String nome = TrajetoriasExecucao.Tipo.values()[(int) (chave >>> 32)].nome();
+            entidades.add(new RoubosEntidadeDTO(nome, (int) chave, total.getValue()[0], total.getValue()[1]));
+        }
+        entidades.sort(Comparator.comparingLong(RoubosEntidadeDTO::getOuro).reversed()
+                .thenComparing(Comparator.comparingLong(RoubosEntidadeDTO::getRoubos).reversed())
+                .thenComparing(RoubosEntidadeDTO::getTipo)
+                .thenComparingInt(RoubosEntidadeDTO::getId));
+        return entidades;
+    }
+}
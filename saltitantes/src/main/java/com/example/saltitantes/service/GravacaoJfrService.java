@@ -0,0 +1,140 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.GravacaoJfrDTO;
+import com.example.saltitantes.monitoramento.FaseSimulacaoEvento;
+import com.example.saltitantes.monitoramento.OperacaoUsuarioEvento;
+import com.example.saltitantes.monitoramento.RespostaHttpEvento;
+import com.example.saltitantes.monitoramento.SimulacaoEvento;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que inicia, para e grava em arquivo local uma gravação do Java
+ * Flight Recorder com os eventos da aplicação habilitados.
+ *
+ * Só uma gravação pode estar em andamento por vez.
+ */
+@Service
+public class GravacaoJfrService {
+
+    static final Set<String> CONFIGURACOES = Set.of("default", "profile");
+
+    private static final DateTimeFormatter FORMATO_ARQUIVO = DateTimeFormatter
+            .ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path diretorio;
+    private final long tamanhoMaximoBytes;
+
+    private Recording gravacao;
+    private String configuracao;
+
+    public GravacaoJfrService(@Value("${saltitantes.jfr.diretorio:${java.io.tmpdir}/saltitantes-jfr}") String diretorio,
+            @Value("${saltitantes.jfr.tamanho-maximo-mb:256}") long tamanhoMaximoMb) {
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoMaximoBytes = tamanhoMaximoMb * 1024 * 1024;
+    }
+
+    /**
+     * Inicia uma gravação.
+     *
+     * @param configuracao configuração do JDK: "default" (baixo custo) ou
+     *                     "profile" (mais detalhes)
+     * @return estado da gravação iniciada
+     * @throws IllegalArgumentException se a configuração for desconhecida
+     * @throws IllegalStateException    se já houver gravação em andamento
+     */
+    public synchronized GravacaoJfrDTO iniciar(String configuracao) {
+        if (!CONFIGURACOES.contains(configuracao)) {
+            throw new IllegalArgumentException("Configuração deve ser 'default' ou 'profile'.");
+        }
+        if (gravacao != null) {
+            throw new IllegalStateException("Já existe uma gravação em andamento.");
+        }
+
+        Recording nova;
+        try {
+            nova = new Recording(Configuration.getConfiguration(configuracao));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Não foi possível carregar a configuração JFR: " + e.getMessage(), e);
+        }
+        nova.setName("saltitantes");
+        nova.setToDisk(true);
+        nova.setMaxSize(tamanhoMaximoBytes);
+        nova.enable(SimulacaoEvento.class);
+        nova.enable(FaseSimulacaoEvento.class);
+        nova.enable(OperacaoUsuarioEvento.class);
+        nova.enable(RespostaHttpEvento.class);
+        nova.start();
+
+        gravacao = nova;
+        this.configuracao = configuracao;
+        return status();
+    }
+
+    /**
+     * Para a gravação em andamento e grava o conteúdo em um arquivo
+     * {@code .jfr} no diretório configurado.
+     *
+     * @return estado final com o caminho e o tamanho do arquivo
+     * @throws IllegalStateException se não houver gravação em andamento
+     */
+    public synchronized GravacaoJfrDTO parar() {
+        if (gravacao == null) {
+            throw new IllegalStateException("Nenhuma gravação em andamento.");
+        }
+
+        Recording atual = gravacao;
+        Instant inicio = atual.getStartTime();
+        gravacao = null;
+        try {
+            atual.stop();
+            Files.createDirectories(diretorio);
+            Path arquivo = diretorio.resolve("saltitantes-" + FORMATO_ARQUIVO.format(Instant.now()) + ".jfr");
+            atual.dump(arquivo);
+            return new GravacaoJfrDTO(false, configuracao, inicio, arquivo.toAbsolutePath().toString(),
+                    Files.size(arquivo));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar o arquivo JFR.", e);
+        } finally {
+            atual.close();
+        }
+    }
+
+    /**
+     * Retorna o estado da gravação.
+     *
+     * @return estado atual (sem arquivo enquanto não for parada)
+     */
+    public synchronized GravacaoJfrDTO status() {
+        if (gravacao == null) {
+            return new GravacaoJfrDTO(false, null, null, null, 0);
+        }
+        return new GravacaoJfrDTO(true, configuracao, gravacao.getStartTime(), null, gravacao.getSize());
+    }
+
+    /**
+     * Descarta a gravação em andamento ao desligar a aplicação.
+     */
+    @PreDestroy
+    public synchronized void encerrar() {
+        if (gravacao != null) {
+            gravacao.close();
+            gravacao = null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma das posições (posicaox) de um grupo de entidades, com a
+ * quantidade e a soma do ouro por faixa, calculado direto das colunas do
+ * {@link MotorSimulacaoEnxuto}: a resposta tem tamanho proporcional ao
+ * número de faixas, e não ao de entidades.
+ *
+ * As faixas têm largura fixa e podem ser:
+ * - fixas: intervalo [minimo, maximo] informado pelo cliente, igual em
+ * todas as iterações; posições fora dele são contadas em abaixo e acima.
+ * Uma única passada pelas entidades.
+ * - adaptativas: intervalo da menor à maior posição da iteração. Uma
+ * leitura da coluna de posições para o intervalo e uma passada para as
+ * faixas.
+ *
+ * Os vetores são reaproveitados entre iterações; uma instância atende a
+ * uma única simulação por vez (não é thread-safe).
+ *
+ * <pre>
+ * {"inicio":-1.5E7,"largura":1.2E6,"contagem":[..],"ouro":[..],"abaixo":0,"acima":0}
+ * </pre>
+ */
+public final class HistogramaPosicoes implements FormatoIteracao {
+
+    public static final int FAIXAS_PADRAO = 32;
+    public static final int FAIXAS_MAXIMAS = 4096;
+
+    private static final SerializableString CAMPO_INICIO = new SerializedString("inicio");
+    private static final SerializableString CAMPO_LARGURA = new SerializedString("largura");
+    private static final SerializableString CAMPO_CONTAGEM = new SerializedString("contagem");
+    private static final SerializableString CAMPO_OURO = new SerializedString("ouro");
+    private static final SerializableString CAMPO_ABAIXO = new SerializedString("abaixo");
+    private static final SerializableString CAMPO_ACIMA = new SerializedString("acima");
+
+    private final int faixas;
+    private final boolean fixo;
+    private final double minimo;
+    private final double maximo;
+
+    private final long[] contagem;
+    private final long[] ouro;
+    private double inicio;
+    private double largura;
+    private long abaixo;
+    private long acima;
+
+    private HistogramaPosicoes(int faixas, boolean fixo, double minimo, double maximo) {
+        this.faixas = faixas;
+        this.fixo = fixo;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.contagem = new long[faixas];
+        this.ouro = new long[faixas];
+    }
+
+    /**
+     * Cria o histograma a partir dos parâmetros da requisição.
+     *
+     * @param faixas quantidade de faixas (null para {@link #FAIXAS_PADRAO})
+     * @param minimo início do intervalo fixo (null para faixas adaptativas)
+     * @param maximo fim do intervalo fixo (null para faixas adaptativas)
+     * @return histograma vazio
+     * @throws IllegalArgumentException se as faixas estiverem fora de
+     *                                  1..{@link #FAIXAS_MAXIMAS}, se só um
+     *                                  dos limites for informado ou se o
+     *                                  intervalo for vazio
+     *
+     * MC/DC para a condição: (minimo == null && maximo == null)
+     * ---------------------------------------------------------
+     * Caso | minimo == null | maximo == null | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | Faixas adaptativas
+     * 2 | true | false | false | Testa a 2ª condição (só o máximo: erro)
+     * 3 | false | (não avaliado) | false | Testa a 1ª condição (intervalo fixo)
+     * ---------------------------------------------------------
+     */
+    public static HistogramaPosicoes criar(Integer faixas, Double minimo, Double maximo) {
+        int quantidade = faixas != null ? faixas : FAIXAS_PADRAO;
+        if (quantidade < 1 || quantidade > FAIXAS_MAXIMAS) {
+            throw new IllegalArgumentException("A quantidade de faixas deve estar entre 1 e " + FAIXAS_MAXIMAS + ".");
+        }
+        if (minimo == null && maximo == null) {
+            return new HistogramaPosicoes(quantidade, false, 0.0, 0.0);
+        }
+        if (minimo == null || maximo == null) {
+            throw new IllegalArgumentException("Informe o mínimo e o máximo do histograma, ou nenhum dos dois.");
+        }
+        // !(a < b) também recusa NaN
+        if (!(minimo < maximo) || Double.isInfinite(minimo) || Double.isInfinite(maximo)) {
+            throw new IllegalArgumentException("O mínimo do histograma deve ser menor que o máximo.");
+        }
+        return new HistogramaPosicoes(quantidade, true, minimo, maximo);
+    }
+
+    @Override
+    public void escreverIteracao(MotorSimulacaoEnxuto motor, JsonGenerator json, int iteracao, boolean bemSucedida)
+            throws IOException {
+        motor.escreverSnapshotHistograma(json, iteracao, bemSucedida, this);
+    }
+
+    /**
+     * Recalcula as faixas com as entidades indicadas, descartando o
+     * conteúdo anterior.
+     *
+     * @param posicao colunas de posição do motor
+     * @param ouros   colunas de ouro do motor
+     * @param slots   slots das entidades vivas
+     * @param total   quantidade de slots válidos
+     */
+    void acumular(double[] posicao, int[] ouros, int[] slots, int total) {
+        Arrays.fill(contagem, 0L);
+        Arrays.fill(ouro, 0L);
+        abaixo = 0;
+        acima = 0;
+
+        double fim;
+        if (fixo) {
+            inicio = minimo;
+            fim = maximo;
+        } else if (total == 0) {
+            inicio = 0.0;
+            largura = 0.0;
+            return;
+        } else {
+            inicio = Double.POSITIVE_INFINITY;
+            fim = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < total; k++) {
+                double x = posicao[slots[k]];
+                inicio = Math.min(inicio, x);
+                fim = Math.max(fim, x);
+            }
+        }
+        largura = (fim - inicio) / faixas;
+        // Todas na mesma posição: largura zero, tudo na primeira faixa
+        double escala = largura > 0.0 ? 1.0 / largura : 0.0;
+
+        int ultima = faixas - 1;
+        for (int k = 0; k < total; k++) {
+            int slot = slots[k];
+            double x = posicao[slot];
+            if (x < inicio) {
+                abaixo++;
+            } else if (x > fim) {
+                acima++;
+            } else {
+                // A última faixa é fechada à direita; o arredondamento pode
+                // passar do fim
+                int faixa = Math.min((int) ((x - inicio) * escala), ultima);
+                contagem[faixa]++;
+                ouro[faixa] += ouros[slot];
+            }
+        }
+    }
+
+    /**
+     * Escreve o histograma calculado em {@link #acumular} como um objeto.
+     *
+     * @param json gerador de destino
+     * @throws IOException se a escrita falhar
+     */
+    void escrever(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_INICIO);
+        json.writeNumber(inicio);
+        json.writeFieldName(CAMPO_LARGURA);
+        json.writeNumber(largura);
+        json.writeFieldName(CAMPO_CONTAGEM);
+        json.writeArray(contagem, 0, faixas);
+        json.writeFieldName(CAMPO_OURO);
+        json.writeArray(ouro, 0, faixas);
+        json.writeFieldName(CAMPO_ABAIXO);
+        json.writeNumber(abaixo);
+        json.writeFieldName(CAMPO_ACIMA);
+        json.writeNumber(acima);
+        json.writeEndObject();
+    }
+
+    /**
+     * @return quantidade de faixas
+     */
+    public int getFaixas() {
+        return faixas;
+    }
+
+    /**
+     * @return true se o intervalo for fixo
+     */
+    public boolean isFixo() {
+        return fixo;
+    }
+}
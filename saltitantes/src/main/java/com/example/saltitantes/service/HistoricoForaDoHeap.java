@@ -0,0 +1,498 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.GuardiaoDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Histórico de uma simulação guardado fora do heap, em blocos de
+ * {@link ByteBuffer} diretos.
+ *
+ * Cada iteração adicionada é codificada num layout binário fixo e o DTO
+ * original vira lixo jovem; {@link #get(int)} monta um DTO novo a cada
+ * chamada. Assim um histórico de 1000x1000 não deixa cerca de um milhão de
+ * objetos pequenos na geração velha.
+ *
+ * Layout de uma iteração (ordem de bytes nativa):
+ *
+ * <pre>
+ * cabeçalho (36 bytes): iteracao, bemSucedida (0/1), nCriaturas, nClusters,
+ *                       guardião: id, ouro, posicaox (double), idClusterEliminado
+ * nCriaturas x (20 bytes): id, ouro, posicaox (double), idCriaturaRoubada
+ * nClusters x (24 + 4 * nIds bytes): idCluster, ouroTotal, posicaox (double),
+ *                       idCriaturaRoubada, nIds, ids...
+ * </pre>
+ *
+ * Com um orçamento de memória, quando os blocos em memória passam dele os
+ * mais antigos (as iterações mais antigas) são copiados para um arquivo
+ * temporário e mapeados em memória; a leitura continua transparente, pelo
+ * cache de páginas do sistema. O bloco em escrita nunca sai da memória, então
+ * o orçamento efetivo é de pelo menos um bloco.
+ *
+ * {@link #clear()} devolve a memória e apaga o arquivo na hora, sem esperar o
+ * GC. Leituras e liberação são protegidas por uma trava de leitura/escrita,
+ * então um DTO nunca é montado a partir de memória já liberada. Não é
+ * thread-safe para escritas concorrentes, assim como o
+ * {@link SimuladorService}.
+ */
+public final class HistoricoForaDoHeap extends AbstractList<SimularResponseDTO>
+        implements RandomAccess, AutoCloseable {
+
+    // Uma iteração de 1000 criaturas ocupa cerca de 20 KB
+    static final int TAMANHO_BLOCO = 1 << 20;
+
+    private static final int CABECALHO = 36;
+    private static final int CRIATURA = 20;
+    private static final int CLUSTER = 24;
+
+    // Arquivos de transbordo: historico-<pid>-<aleatório>.bin
+    private static final String PREFIXO_ARQUIVO = "historico-";
+
+    // Liberação imediata de buffers diretos (sun.misc.Unsafe#invokeCleaner)
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> classe = Class.forName("sun.misc.Unsafe");
+            Field campo = classe.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            unsafe = campo.get(null);
+            invokeCleaner = classe.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Sem o Unsafe os blocos são liberados pelo GC
+            System.err.println("Liberação imediata de buffers diretos indisponível: " + e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final List<ByteBuffer> blocos = new ArrayList<>();
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Bloco e posição do início de cada iteração
+    private int[] blocoIteracao = new int[64];
+    private int[] inicioIteracao = new int[64];
+    private int tamanho;
+    private int posicaoEscrita;
+    private long bytesForaDoHeap;
+
+    // Orçamento dos blocos em memória (0 = sem limite) e transbordo para disco
+    private final long orcamentoBytes;
+    private final Path diretorioTransbordo;
+    private FileChannel arquivoTransbordo;
+    private Path caminhoTransbordo;
+    private int blocosTransbordados; // Os primeiros blocos da lista estão no arquivo
+    private long bytesTransbordados;
+    private long totalBytesTransbordados;
+    private final LongAdder leiturasTransbordadas = new LongAdder();
+    private final LongAdder nanosLeituraTransbordada = new LongAdder();
+    private final AtomicLong maiorLeituraTransbordadaNanos = new AtomicLong();
+
+    /**
+     * Cria um histórico fora do heap sem limite de memória.
+     */
+    public HistoricoForaDoHeap() {
+        this(0, null);
+    }
+
+    /**
+     * Cria um histórico fora do heap com orçamento de memória.
+     *
+     * @param orcamentoBytes      bytes de blocos em memória antes de transbordar
+     *                            para o disco (0 = sem limite)
+     * @param diretorioTransbordo diretório dos arquivos temporários
+     */
+    public HistoricoForaDoHeap(long orcamentoBytes, Path diretorioTransbordo) {
+        this.orcamentoBytes = orcamentoBytes;
+        this.diretorioTransbordo = diretorioTransbordo;
+    }
+
+    @Override
+    public boolean add(SimularResponseDTO iteracao) {
+        trava.writeLock().lock();
+        try {
+            ByteBuffer bloco = reservar(bytesIteracao(iteracao));
+            if (tamanho == blocoIteracao.length) {
+                blocoIteracao = Arrays.copyOf(blocoIteracao, tamanho * 2);
+                inicioIteracao = Arrays.copyOf(inicioIteracao, tamanho * 2);
+            }
+            blocoIteracao[tamanho] = blocos.size() - 1;
+            inicioIteracao[tamanho] = posicaoEscrita;
+            posicaoEscrita = codificar(iteracao, bloco, posicaoEscrita);
+            tamanho++;
+            modCount++;
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public SimularResponseDTO get(int indice) {
+        trava.readLock().lock();
+        try {
+            Objects.checkIndex(indice, tamanho);
+            int bloco = blocoIteracao[indice];
+            if (bloco >= blocosTransbordados) {
+                return decodificar(blocos.get(bloco), inicioIteracao[indice]);
+            }
+            long inicio = System.nanoTime();
+            SimularResponseDTO iteracao = decodificar(blocos.get(bloco), inicioIteracao[indice]);
+            long nanos = System.nanoTime() - inicio;
+            leiturasTransbordadas.increment();
+            nanosLeituraTransbordada.add(nanos);
+            maiorLeituraTransbordadaNanos.accumulateAndGet(nanos, Math::max);
+            return iteracao;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Altera o flag de sucesso de uma iteração já guardada (os DTOs
+     * devolvidos por {@link #get(int)} são cópias).
+     *
+     * @param indice      índice da iteração
+     * @param bemSucedida novo valor do flag
+     */
+    public void definirBemSucedida(int indice, boolean bemSucedida) {
+        trava.writeLock().lock();
+        try {
+            Objects.checkIndex(indice, tamanho);
+            blocos.get(blocoIteracao[indice]).putInt(inicioIteracao[indice] + 4, bemSucedida ? 1 : 0);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta as iterações, libera imediatamente a memória fora do heap e
+     * apaga o arquivo de transbordo.
+     */
+    @Override
+    public void clear() {
+        trava.writeLock().lock();
+        try {
+            for (ByteBuffer bloco : blocos) {
+                liberar(bloco);
+            }
+            blocos.clear();
+            tamanho = 0;
+            posicaoEscrita = 0;
+            bytesForaDoHeap = 0;
+            blocosTransbordados = 0;
+            bytesTransbordados = 0;
+            fecharArquivoTransbordo();
+            modCount++;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * @return bytes reservados fora do heap pelos blocos atuais
+     */
+    public long bytesForaDoHeap() {
+        return bytesForaDoHeap;
+    }
+
+    /**
+     * @return bytes da execução atual que estão no arquivo de transbordo
+     */
+    public long bytesTransbordados() {
+        return bytesTransbordados;
+    }
+
+    /**
+     * @return bytes transbordados para o disco desde a criação
+     */
+    public long totalBytesTransbordados() {
+        return totalBytesTransbordados;
+    }
+
+    /**
+     * @return iterações lidas de blocos transbordados desde a criação
+     */
+    public long leiturasTransbordadas() {
+        return leiturasTransbordadas.sum();
+    }
+
+    /**
+     * @return tempo total das leituras de blocos transbordados, em nanossegundos
+     */
+    public long nanosLeituraTransbordada() {
+        return nanosLeituraTransbordada.sum();
+    }
+
+    /**
+     * @return maior tempo de uma leitura de bloco transbordado, em nanossegundos
+     */
+    public long maiorLeituraTransbordadaNanos() {
+        return maiorLeituraTransbordadaNanos.get();
+    }
+
+    /**
+     * Apaga arquivos de transbordo deixados por processos que já terminaram
+     * (ex.: queda do processo antes do {@link #clear()}). Arquivos de
+     * processos vivos, inclusive o atual, são mantidos.
+     *
+     * @param diretorio diretório dos arquivos de transbordo
+     * @return quantidade de arquivos apagados
+     */
+    public static int limparArquivosOrfaos(Path diretorio) {
+        if (!Files.isDirectory(diretorio)) {
+            return 0;
+        }
+        int apagados = 0;
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO_ARQUIVO + "*.bin")) {
+            for (Path arquivo : arquivos) {
+                if (!processoVivo(arquivo) && Files.deleteIfExists(arquivo)) {
+                    apagados++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao limpar arquivos de transbordo do histórico: " + e.getMessage());
+        }
+        return apagados;
+    }
+
+    private static boolean processoVivo(Path arquivo) {
+        String nome = arquivo.getFileName().toString().substring(PREFIXO_ARQUIVO.length());
+        int fimPid = nome.indexOf('-');
+        if (fimPid <= 0) {
+            return false;
+        }
+        try {
+            long pid = Long.parseLong(nome.substring(0, fimPid));
+            return pid == ProcessHandle.current().pid()
+                    || ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Estimativa dos bytes que o histórico ocupa no heap: os índices por
+     * iteração e os objetos dos blocos (o conteúdo fica fora do heap).
+     *
+     * @return bytes estimados no heap
+     */
+    public long bytesHeap() {
+        return 64 + 2 * (16 + 4L * blocoIteracao.length) + blocos.size() * 64L;
+    }
+
+    /**
+     * Estimativa dos bytes que uma iteração em DTOs ocupa no heap (JVM de 64
+     * bits com referências comprimidas): o DTO, o vetor de criaturas, a lista
+     * de clusters com as listas de ids (Integer fora do cache contam 16
+     * bytes) e o guardião.
+     *
+     * @param iteracao iteração em DTOs
+     * @return bytes estimados
+     */
+    public static long estimarBytesHeap(SimularResponseDTO iteracao) {
+        // DTO da iteração, guardião e vetor de criaturas
+        long bytes = 32 + 32 + alinhar(16 + 4L * iteracao.getCriaturas().length);
+        bytes += 32L * iteracao.getCriaturas().length;
+        // ArrayList de clusters e seu vetor interno
+        bytes += 24 + alinhar(16 + 4L * iteracao.getClusters().size());
+        for (ClusterDTO cluster : iteracao.getClusters()) {
+            int ids = cluster.getIdsCriaturas().size();
+            bytes += 40 + 24 + alinhar(16 + 4L * ids);
+            for (Integer id : cluster.getIdsCriaturas()) {
+                bytes += id >= -128 && id <= 127 ? 0 : 16;
+            }
+        }
+        return bytes;
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static int bytesIteracao(SimularResponseDTO iteracao) {
+        int bytes = CABECALHO + CRIATURA * iteracao.getCriaturas().length;
+        for (ClusterDTO cluster : iteracao.getClusters()) {
+            bytes += CLUSTER + 4 * cluster.getIdsCriaturas().size();
+        }
+        return bytes;
+    }
+
+    // Bloco com espaço para a iteração (um bloco maior se ela não couber em um)
+    private ByteBuffer reservar(int bytes) {
+        if (!blocos.isEmpty() && posicaoEscrita + bytes <= blocos.get(blocos.size() - 1).capacity()) {
+            return blocos.get(blocos.size() - 1);
+        }
+        ByteBuffer bloco = ByteBuffer.allocateDirect(Math.max(TAMANHO_BLOCO, bytes)).order(ByteOrder.nativeOrder());
+        blocos.add(bloco);
+        bytesForaDoHeap += bloco.capacity();
+        posicaoEscrita = 0;
+
+        // Transborda os blocos mais antigos, nunca o bloco em escrita
+        while (orcamentoBytes > 0 && bytesForaDoHeap > orcamentoBytes && blocosTransbordados < blocos.size() - 1) {
+            if (!transbordar(blocosTransbordados)) {
+                break;
+            }
+        }
+        return bloco;
+    }
+
+    // Copia o bloco para o fim do arquivo e o troca pelo trecho mapeado
+    private boolean transbordar(int indice) {
+        ByteBuffer bloco = blocos.get(indice);
+        try {
+            if (arquivoTransbordo == null) {
+                Files.createDirectories(diretorioTransbordo);
+                caminhoTransbordo = Files.createTempFile(diretorioTransbordo,
+                        PREFIXO_ARQUIVO + ProcessHandle.current().pid() + "-", ".bin");
+                arquivoTransbordo = FileChannel.open(caminhoTransbordo, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            long posicao = arquivoTransbordo.size();
+            ByteBuffer origem = bloco.duplicate();
+            origem.clear();
+            while (origem.hasRemaining()) {
+                arquivoTransbordo.write(origem, posicao + origem.position());
+            }
+            ByteBuffer mapeado = arquivoTransbordo.map(FileChannel.MapMode.READ_WRITE, posicao, bloco.capacity())
+                    .order(ByteOrder.nativeOrder());
+
+            blocos.set(indice, mapeado);
+            liberar(bloco);
+            blocosTransbordados++;
+            bytesForaDoHeap -= bloco.capacity();
+            bytesTransbordados += bloco.capacity();
+            totalBytesTransbordados += bloco.capacity();
+            return true;
+        } catch (IOException e) {
+            // Sem disco o histórico continua em memória, acima do orçamento
+            System.err.println("Erro ao transbordar histórico para o disco: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void fecharArquivoTransbordo() {
+        if (arquivoTransbordo == null) {
+            return;
+        }
+        try {
+            arquivoTransbordo.close();
+            Files.deleteIfExists(caminhoTransbordo);
+        } catch (IOException e) {
+            System.err.println("Erro ao apagar arquivo de transbordo do histórico: " + e.getMessage());
+        }
+        arquivoTransbordo = null;
+        caminhoTransbordo = null;
+    }
+
+    private static int codificar(SimularResponseDTO iteracao, ByteBuffer bloco, int posicao) {
+        GuardiaoDTO guardiao = iteracao.getGuardiao();
+        bloco.putInt(posicao, iteracao.getIteracao());
+        bloco.putInt(posicao + 4, iteracao.isSimulacaoBemSucedida() ? 1 : 0);
+        bloco.putInt(posicao + 8, iteracao.getCriaturas().length);
+        bloco.putInt(posicao + 12, iteracao.getClusters().size());
+        bloco.putInt(posicao + 16, guardiao.getId());
+        bloco.putInt(posicao + 20, guardiao.getOuro());
+        bloco.putDouble(posicao + 24, guardiao.getPosicaox());
+        bloco.putInt(posicao + 32, guardiao.getIdClusterEliminado());
+        posicao += CABECALHO;
+
+        for (CriaturasDTO criatura : iteracao.getCriaturas()) {
+            bloco.putInt(posicao, criatura.getId());
+            bloco.putInt(posicao + 4, criatura.getOuro());
+            bloco.putDouble(posicao + 8, criatura.getPosicaox());
+            bloco.putInt(posicao + 16, criatura.getIdCriaturaRoubada());
+            posicao += CRIATURA;
+        }
+
+        for (ClusterDTO cluster : iteracao.getClusters()) {
+            bloco.putInt(posicao, cluster.getIdCluster());
+            bloco.putInt(posicao + 4, cluster.getOuroTotal());
+            bloco.putDouble(posicao + 8, cluster.getPosicaox());
+            bloco.putInt(posicao + 16, cluster.getIdCriaturaRoubada());
+            bloco.putInt(posicao + 20, cluster.getIdsCriaturas().size());
+            posicao += CLUSTER;
+            for (Integer id : cluster.getIdsCriaturas()) {
+                bloco.putInt(posicao, id);
+                posicao += 4;
+            }
+        }
+        return posicao;
+    }
+
+    private static SimularResponseDTO decodificar(ByteBuffer bloco, int posicao) {
+        int iteracao = bloco.getInt(posicao);
+        boolean bemSucedida = bloco.getInt(posicao + 4) != 0;
+        int totalCriaturas = bloco.getInt(posicao + 8);
+        int totalClusters = bloco.getInt(posicao + 12);
+        GuardiaoDTO guardiao = new GuardiaoDTO(bloco.getInt(posicao + 16), bloco.getInt(posicao + 20),
+                bloco.getDouble(posicao + 24), bloco.getInt(posicao + 32));
+        posicao += CABECALHO;
+
+        CriaturasDTO[] criaturas = new CriaturasDTO[totalCriaturas];
+        for (int i = 0; i < totalCriaturas; i++) {
+            criaturas[i] = new CriaturasDTO(bloco.getInt(posicao), bloco.getInt(posicao + 4),
+                    bloco.getDouble(posicao + 8), bloco.getInt(posicao + 16));
+            posicao += CRIATURA;
+        }
+
+        List<ClusterDTO> clusters = new ArrayList<>(totalClusters);
+        for (int i = 0; i < totalClusters; i++) {
+            int totalIds = bloco.getInt(posicao + 20);
+            List<Integer> ids = new ArrayList<>(totalIds);
+            for (int j = 0; j < totalIds; j++) {
+                ids.add(bloco.getInt(posicao + CLUSTER + 4 * j));
+            }
+            clusters.add(new ClusterDTO(bloco.getInt(posicao), ids, bloco.getInt(posicao + 4),
+                    bloco.getDouble(posicao + 8), bloco.getInt(posicao + 16)));
+            posicao += CLUSTER + 4 * totalIds;
+        }
+
+        return new SimularResponseDTO(iteracao, criaturas, clusters, guardiao, bemSucedida);
+    }
+
+    private static void liberar(ByteBuffer bloco) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, bloco);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Erro ao liberar bloco do histórico: " + e.getMessage());
+        }
+    }
+}
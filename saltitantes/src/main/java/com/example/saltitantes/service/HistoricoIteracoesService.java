@@ -0,0 +1,221 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que lê uma faixa de iterações de uma execução já registrada.
+ *
+ * O catálogo guarda a quantidade de criaturas e a semente de cada execução,
+ * e a simulação é determinística: a faixa é obtida reproduzindo a execução
+ * no {@link MotorSimulacaoEnxuto} só até a última iteração pedida, e apenas
+ * as iterações da faixa são escritas. Iterações já executadas nunca mudam.
+ *
+ * Para que uma faixa no fim de uma execução longa não custe a execução
+ * inteira, a reprodução guarda uma cópia do motor a cada
+ * {@code intervalo-checkpoint} iterações (pontos de retomada) das execuções
+ * lidas mais recentemente; a próxima faixa da mesma execução parte do ponto
+ * anterior mais próximo do início dela.
+ */
+@Service
+public class HistoricoIteracoesService {
+
+    @Autowired
+    private SimulacaoExecucaoRepository execucaoRepository;
+
+    @Autowired
+    private EscalonadorSimulacoes escalonador;
+
+    @Value("${saltitantes.simulacoes.iteracoes.tamanho-maximo-pagina:100}")
+    private int tamanhoMaximoPagina = 100;
+
+    @Value("${saltitantes.simulacoes.iteracoes.intervalo-checkpoint:100}")
+    private int intervaloCheckpoint = 100;
+
+    @Value("${saltitantes.simulacoes.iteracoes.execucoes-em-cache:16}")
+    private int execucoesEmCache = 16;
+
+    // Pontos de retomada por execução (iteração -> motor parado nela, nunca
+    // avançado: cada faixa avança uma cópia). Ordem de acesso: a primeira
+    // entrada é a usada há mais tempo
+    private final LinkedHashMap<Long, TreeMap<Integer, MotorSimulacaoEnxuto>> checkpoints = new LinkedHashMap<>(16,
+            0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TreeMap<Integer, MotorSimulacaoEnxuto>> maisAntiga) {
+            return size() > execucoesEmCache;
+        }
+    };
+
+    /**
+     * Faixa de iterações [de, ate] de uma execução, já validada.
+     */
+    public static final class FaixaIteracoes {
+        private final SimulacaoExecucao execucao;
+        private final int de;
+        private final int ate;
+
+        public FaixaIteracoes(SimulacaoExecucao execucao, int de, int ate) {
+            this.execucao = execucao;
+            this.de = de;
+            this.ate = ate;
+        }
+
+        public SimulacaoExecucao getExecucao() {
+            return execucao;
+        }
+
+        public int getDe() {
+            return de;
+        }
+
+        public int getAte() {
+            return ate;
+        }
+    }
+
+    /**
+     * Busca a execução e valida a faixa pedida.
+     *
+     * @param idExecucao id da execução no catálogo
+     * @param de         primeira iteração (null para 1)
+     * @param ate        última iteração (null para uma página inteira)
+     * @return faixa validada, ou vazio se a execução não existir
+     * @throws IllegalArgumentException se a faixa for inválida ou maior que
+     *                                  uma página
+     */
+    public Optional<FaixaIteracoes> buscarFaixa(long idExecucao, Integer de, Integer ate) {
+        return execucaoRepository.findById(idExecucao).map(execucao -> validarFaixa(execucao, de, ate));
+    }
+
+    /**
+     * MC/DC para a condição: (ate != null && ate < inicio)
+     * ---------------------------------------------------------
+     * Caso | ate != null | ate < inicio | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | Faixa invertida
+     * 2 | true | false | false | Testa a 2ª condição (faixa válida)
+     * 3 | false | (não avaliado) | false | Testa a 1ª condição (fim padrão)
+     * ---------------------------------------------------------
+     */
+    public FaixaIteracoes validarFaixa(SimulacaoExecucao execucao, Integer de, Integer ate) {
+        int executadas = execucao.getIteracoesExecutadas();
+        int inicio = de != null ? de : 1;
+        if (inicio < 1) {
+            throw new IllegalArgumentException("O início da faixa deve ser maior que zero.");
+        }
+        if (inicio > executadas) {
+            throw new IllegalArgumentException("A execução tem apenas " + executadas + " iterações.");
+        }
+        if (ate != null && ate < inicio) {
+            throw new IllegalArgumentException("O fim da faixa deve ser maior ou igual ao início.");
+        }
+
+        // O fim é limitado às iterações executadas
+        int fim = Math.min(ate != null ? ate : inicio + tamanhoMaximoPagina - 1, executadas);
+        if (fim - inicio + 1 > tamanhoMaximoPagina) {
+            throw new IllegalArgumentException(
+                    "A faixa pode ter no máximo " + tamanhoMaximoPagina + " iterações.");
+        }
+        return new FaixaIteracoes(execucao, inicio, fim);
+    }
+
+    /**
+     * Escreve as iterações da faixa como um vetor, no mesmo formato da
+     * resposta do /simular. A execução é reproduzida a partir da semente sem
+     * usar o estado do {@link SimuladorService}, então pode rodar em paralelo
+     * com outras simulações, a partir do ponto de retomada mais próximo antes
+     * da faixa. A vaga no escalonador é devolvida enquanto cada bloco da
+     * resposta é escrito no cliente ({@link VezEmBlocos}).
+     *
+     * @param faixa   faixa validada por {@link #buscarFaixa}
+     * @param json    gerador de destino (não é fechado)
+     * @param colunar true para o formato colunar
+     * @throws IOException se a escrita falhar
+     */
+    public void escrever(FaixaIteracoes faixa, JsonGenerator json, boolean colunar) throws IOException {
+        SimulacaoExecucao execucao = faixa.getExecucao();
+        Map.Entry<Integer, MotorSimulacaoEnxuto> retomada = buscarCheckpoint(execucao.getId(), faixa.getDe() - 1);
+        int inicio = retomada != null ? retomada.getKey() : 0;
+        try (VezEmBlocos vez = VezEmBlocos.aguardar(escalonador, execucao.getLoginUsuario(),
+                execucao.getQuantidade(), faixa.getAte() - inicio, json)) {
+            MotorSimulacaoEnxuto motor = retomada != null
+                    ? retomada.getValue().copiar()
+                    : MotorSimulacaoEnxuto.novaExecucaoCopiavel(execucao.getQuantidade(), execucao.getSemente());
+
+            json.writeStartArray();
+            for (int iteracao = inicio + 1; iteracao <= faixa.getAte(); iteracao++) {
+                motor.avancarIteracao(iteracao);
+                if (iteracao % intervaloCheckpoint == 0) {
+                    guardarCheckpoint(execucao.getId(), iteracao, motor);
+                }
+                if (iteracao < faixa.getDe()) {
+                    continue;
+                }
+                // Como na execução original, o flag só é verdadeiro na última iteração
+                if (colunar) {
+                    motor.escreverSnapshotColunar(json, iteracao, motor.temGanhador());
+                } else {
+                    motor.escreverSnapshot(json, iteracao, motor.temGanhador());
+                }
+                vez.aposIteracao(json, faixa.getAte() - iteracao);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Define o intervalo entre os pontos de retomada.
+     *
+     * @param intervalo iterações entre dois pontos
+     */
+    public void setIntervaloCheckpoint(int intervalo) {
+        this.intervaloCheckpoint = intervalo;
+    }
+
+    /**
+     * @param idExecucao id da execução no catálogo
+     * @return iterações com ponto de retomada guardado, em ordem
+     */
+    public int[] checkpoints(long idExecucao) {
+        synchronized (checkpoints) {
+            TreeMap<Integer, MotorSimulacaoEnxuto> pontos = checkpoints.get(idExecucao);
+            return pontos != null ? pontos.keySet().stream().mapToInt(Integer::intValue).toArray() : new int[0];
+        }
+    }
+
+    // Ponto de retomada mais avançado até a iteração dada (null se não houver
+    // ou se a execução não tiver id)
+    private Map.Entry<Integer, MotorSimulacaoEnxuto> buscarCheckpoint(Long idExecucao, int ate) {
+        if (idExecucao == null) {
+            return null;
+        }
+        synchronized (checkpoints) {
+            TreeMap<Integer, MotorSimulacaoEnxuto> pontos = checkpoints.get(idExecucao);
+            return pontos != null ? pontos.floorEntry(ate) : null;
+        }
+    }
+
+    private void guardarCheckpoint(Long idExecucao, int iteracao, MotorSimulacaoEnxuto motor) {
+        if (idExecucao == null) {
+            return;
+        }
+        synchronized (checkpoints) {
+            TreeMap<Integer, MotorSimulacaoEnxuto> pontos = checkpoints.computeIfAbsent(idExecucao,
+                    id -> new TreeMap<>());
+            if (!pontos.containsKey(iteracao)) {
+                pontos.put(iteracao, motor.copiar());
+            }
+        }
+    }
+}
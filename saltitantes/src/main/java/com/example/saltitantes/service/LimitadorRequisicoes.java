@@ -0,0 +1,161 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.MetricasLimiteDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limites de requisições por endpoint, com um balde de tokens para cada
+ * endereço do cliente e outro para cada login.
+ *
+ * Protege o /simular (simulações caras) e o login (tentativas de senha).
+ * A requisição passa se houver token nos dois baldes; o do login, quando a
+ * requisição não traz login, é ignorado. Recusada, ela não consome token de
+ * nenhum dos dois. Capacidade ou taxa zero desliga o limite do endpoint.
+ *
+ * No /simular o login é o de quem simula: o da sessão, quando houver. No
+ * login é sempre o do corpo, a conta cuja senha está sendo tentada, mesmo
+ * que a requisição traga a sessão de outro usuário.
+ */
+@Service
+public class LimitadorRequisicoes {
+
+    /**
+     * Limite de um endpoint.
+     */
+    public static final class Regra {
+        private final String metodo;
+        private final String caminho;
+        private final String campoLogin;
+        private final boolean loginDaSessao;
+        private final int porMinuto;
+        private final BaldesTokens baldes;
+        private final LongAdder permitidas = new LongAdder();
+        private final LongAdder rejeitadas = new LongAdder();
+
+        private Regra(String metodo, String caminho, String campoLogin, boolean loginDaSessao, int tamanho,
+                int capacidade, int porMinuto) {
+            this.metodo = metodo;
+            this.caminho = caminho;
+            this.campoLogin = campoLogin;
+            this.loginDaSessao = loginDaSessao;
+            this.porMinuto = porMinuto;
+            this.baldes = new BaldesTokens(tamanho, capacidade, porMinuto);
+        }
+
+        /**
+         * @return campo do corpo JSON com o login
+         */
+        public String getCampoLogin() {
+            return campoLogin;
+        }
+
+        /**
+         * @return true se o login da sessão, quando houver, substitui o do
+         *         corpo
+         */
+        public boolean isLoginDaSessao() {
+            return loginDaSessao;
+        }
+    }
+
+    private final List<Regra> regras = new ArrayList<>();
+
+    public LimitadorRequisicoes(
+            @Value("${saltitantes.limite.habilitado:true}") boolean habilitado,
+            @Value("${saltitantes.limite.tamanho-tabela:4096}") int tamanhoTabela,
+            @Value("${saltitantes.limite.simular.capacidade:20}") int capacidadeSimular,
+            @Value("${saltitantes.limite.simular.por-minuto:60}") int porMinutoSimular,
+            @Value("${saltitantes.limite.login.capacidade:5}") int capacidadeLogin,
+            @Value("${saltitantes.limite.login.por-minuto:10}") int porMinutoLogin) {
+        if (!habilitado) {
+            return;
+        }
+        adicionar("POST", "/api/v1/simular", "loginUsuario", true, tamanhoTabela, capacidadeSimular,
+                porMinutoSimular);
+        adicionar("POST", "/api/v1/usuarios/login", "login", false, tamanhoTabela, capacidadeLogin, porMinutoLogin);
+    }
+
+    private void adicionar(String metodo, String caminho, String campoLogin, boolean loginDaSessao, int tamanho,
+            int capacidade, int porMinuto) {
+        if (capacidade > 0 && porMinuto > 0) {
+            regras.add(new Regra(metodo, caminho, campoLogin, loginDaSessao, tamanho, capacidade, porMinuto));
+        }
+    }
+
+    /**
+     * Obtém o limite do endpoint da requisição.
+     *
+     * @param metodo  método HTTP
+     * @param caminho caminho da requisição dentro da aplicação, decodificado
+     *                e normalizado
+     * @return limite do endpoint, ou null se ele não for limitado
+     */
+    public Regra regraPara(String metodo, String caminho) {
+        for (Regra regra : regras) {
+            if (regra.caminho.equals(caminho) && regra.metodo.equals(metodo)) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Consome um token do endereço e, se houver, um do login. Se o login
+     * recusar, o token do endereço é devolvido: a requisição recusada não
+     * gasta o limite do endereço.
+     *
+     * @param regra    limite do endpoint
+     * @param endereco endereço do cliente
+     * @param login    login da requisição (pode ser null)
+     * @return 0 se a requisição pode seguir; senão, nanossegundos até haver
+     *         token
+     *
+     * MC/DC para a condição: (espera == 0 && login != null)
+     * ---------------------------------------------------------
+     * Caso | espera == 0 | login != null | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | true | true | Endereço liberado, consome do login
+     * 2 | true | false | false | Testa a 2ª condição (sem login)
+     * 3 | false | (não avaliado) | false | Testa a 1ª condição (endereço esgotado)
+     * ---------------------------------------------------------
+     */
+    public long consumir(Regra regra, String endereco, String login) {
+        long agora = System.nanoTime();
+        long espera = regra.baldes.consumir("e:" + endereco, agora);
+        if (espera == 0 && login != null) {
+            espera = regra.baldes.consumir("u:" + login, agora);
+            if (espera > 0) {
+                regra.baldes.devolver("e:" + endereco, agora);
+            }
+        }
+        if (espera == 0) {
+            regra.permitidas.increment();
+        } else {
+            regra.rejeitadas.increment();
+        }
+        return espera;
+    }
+
+    /**
+     * Obtém, por endpoint limitado, os limites, as requisições permitidas e
+     * recusadas e a ocupação da tabela de baldes.
+     *
+     * @return métricas dos limites
+     */
+    public List<MetricasLimiteDTO> metricas() {
+        long agora = System.nanoTime();
+        List<MetricasLimiteDTO> metricas = new ArrayList<>(regras.size());
+        for (Regra regra : regras) {
+            metricas.add(new MetricasLimiteDTO(regra.metodo + " " + regra.caminho, regra.baldes.capacidade(),
+                    regra.porMinuto, regra.permitidas.sum(), regra.rejeitadas.sum(), regra.baldes.ativos(agora),
+                    regra.baldes.tamanho(), regra.baldes.despejos()));
+        }
+        return metricas;
+    }
+}
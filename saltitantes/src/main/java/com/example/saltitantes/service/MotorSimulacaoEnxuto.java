@@ -0,0 +1,923 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.GuardiaoDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.model.entity.Cluster;
+import com.example.saltitantes.model.entity.Criaturas;
+import com.example.saltitantes.model.entity.Guardiao;
+import com.example.saltitantes.monitoramento.FaseSimulacaoEvento;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import jdk.jfr.EventType;
+
+/**
+ * Motor "enxuto" da simulação: executa as mesmas regras do
+ * {@link SimuladorService}, na mesma ordem e consumindo o gerador aleatório
+ * na mesma sequência, mas sobre vetores primitivos reaproveitados entre
+ * iterações.
+ *
+ * Todos os vetores de trabalho são alocados no construtor; depois disso
+ * {@link #avancarIteracao(int)} não aloca memória (sem cópias de listas,
+ * mapas, streams ou boxing). Só o snapshot de saída
+ * ({@link #criarSnapshot(int)}) e a formação de um cluster novo (lista de
+ * IDs exposta na resposta) alocam. Com uma gravação JFR habilitando as
+ * fases, os eventos de fase também alocam, assim como o crescimento das
+ * arestas com o {@link GrafoRoubos} habilitado.
+ *
+ * O snapshot também pode ser escrito direto em um {@link JsonGenerator}
+ * ({@link #escreverSnapshot(JsonGenerator, int, boolean)}), sem montar os
+ * DTOs, no mesmo formato que o Jackson gera para {@link SimularResponseDTO},
+ * ou no formato colunar ({@link #escreverSnapshotColunar(JsonGenerator, int, boolean)}).
+ *
+ * Uma instância atende uma única chamada de simulação e não é thread-safe.
+ */
+public final class MotorSimulacaoEnxuto {
+
+    private static final int OURO_MINIMO = 300000;
+    private static final double DISTANCIA_AGRUPAMENTO = 5000.0;
+    private static final double ALCANCE_GUARDIAO = 500000.0;
+
+    private static final EventType EVENTO_FASE = EventType.getEventType(FaseSimulacaoEvento.class);
+
+    // Nomes dos campos JSON, na ordem de declaração dos DTOs (a mesma do Jackson)
+    private static final SerializableString CAMPO_ITERACAO = new SerializedString("iteracao");
+    private static final SerializableString CAMPO_CRIATURAS = new SerializedString("criaturas");
+    private static final SerializableString CAMPO_CLUSTERS = new SerializedString("clusters");
+    private static final SerializableString CAMPO_GUARDIAO = new SerializedString("guardiao");
+    private static final SerializableString CAMPO_BEM_SUCEDIDA = new SerializedString("simulacaoBemSucedida");
+    private static final SerializableString CAMPO_ID = new SerializedString("id");
+    private static final SerializableString CAMPO_OURO = new SerializedString("ouro");
+    private static final SerializableString CAMPO_POSICAO = new SerializedString("posicaox");
+    private static final SerializableString CAMPO_ROUBADA = new SerializedString("idCriaturaRoubada");
+    private static final SerializableString CAMPO_ID_CLUSTER = new SerializedString("idCluster");
+    private static final SerializableString CAMPO_IDS_CRIATURAS = new SerializedString("idsCriaturas");
+    private static final SerializableString CAMPO_OURO_TOTAL = new SerializedString("ouroTotal");
+    private static final SerializableString CAMPO_CLUSTER_ELIMINADO = new SerializedString("idClusterEliminado");
+    // Campos exclusivos do formato colunar
+    private static final SerializableString CAMPO_IDS = new SerializedString("ids");
+    private static final SerializableString CAMPO_ROUBOU = new SerializedString("roubou");
+
+    private final RandomGenerator gerador;
+    private final int quantidadeInicial;
+
+    // Criaturas, indexadas pelo slot (posição na lista no carregamento)
+    private final Criaturas[] entidades;
+    private final int[] idCriatura;
+    private final int[] ouroCriatura;
+    private final double[] posCriatura;
+    private final boolean[] removida;
+    // Slots das criaturas vivas, na ordem da lista de criaturas
+    private final int[] vivas;
+    private int totalVivas;
+
+    // Vetores de trabalho do agrupamento
+    private final int[] restantes;
+    private final boolean[] processada;
+    private final int[] membros;
+    private final int[] inicioGrupo;
+    private final int[] tamanhoGrupo;
+
+    // Clusters, indexados pelo slot de criação
+    private final Cluster[] entidadesCluster;
+    private final int[] idCluster;
+    private final int[] ouroCluster;
+    private final double[] posCluster;
+    private final List<Integer>[] idsCluster;
+    private final int[] primeiroMembro;
+    private final int[] segundoMembro;
+    // Slots dos clusters vivos, na ordem da lista de clusters
+    private final int[] clustersVivos;
+    private int totalClusters;
+    private int proximoSlotCluster;
+
+    private final Guardiao guardiao;
+    private int ouroGuardiao;
+    private double posGuardiao;
+    private int clusterEliminado = -1;
+
+    private final MapaRoubos roubos;
+    // Arestas de todos os roubos da execução (null quando desabilitado)
+    private GrafoRoubos grafoRoubos;
+    private int iteracaoAtual;
+
+    /**
+     * Carrega o estado atual da simulação nos vetores do motor.
+     *
+     * @param criaturas         criaturas vivas, na ordem da simulação
+     * @param clusters          clusters existentes, na ordem da simulação
+     * @param guardiao          guardião da simulação
+     * @param gerador           gerador aleatório da simulação
+     * @param quantidadeInicial quantidade inicial de criaturas (para eventos)
+     */
+    @SuppressWarnings("unchecked")
+    public MotorSimulacaoEnxuto(List<Criaturas> criaturas, List<Cluster> clusters, Guardiao guardiao,
+            RandomGenerator gerador, int quantidadeInicial) {
+        this.gerador = gerador;
+        this.quantidadeInicial = quantidadeInicial;
+
+        int n = criaturas.size();
+        entidades = criaturas.toArray(new Criaturas[0]);
+        idCriatura = new int[n];
+        ouroCriatura = new int[n];
+        posCriatura = new double[n];
+        removida = new boolean[n];
+        vivas = new int[n];
+        for (int s = 0; s < n; s++) {
+            idCriatura[s] = entidades[s].getId();
+            ouroCriatura[s] = entidades[s].getOuro();
+            posCriatura[s] = entidades[s].getPosicaox();
+            vivas[s] = s;
+        }
+        totalVivas = n;
+
+        restantes = new int[n];
+        processada = new boolean[n];
+        membros = new int[n];
+        inicioGrupo = new int[n];
+        tamanhoGrupo = new int[n];
+
+        // Cada cluster novo consome pelo menos duas criaturas
+        int capacidadeClusters = clusters.size() + n / 2 + 1;
+        entidadesCluster = new Cluster[capacidadeClusters];
+        idCluster = new int[capacidadeClusters];
+        ouroCluster = new int[capacidadeClusters];
+        posCluster = new double[capacidadeClusters];
+        idsCluster = new List[capacidadeClusters];
+        primeiroMembro = new int[capacidadeClusters];
+        segundoMembro = new int[capacidadeClusters];
+        clustersVivos = new int[capacidadeClusters];
+        for (Cluster cluster : clusters) {
+            int slot = proximoSlotCluster++;
+            entidadesCluster[slot] = cluster;
+            idCluster[slot] = cluster.getIdCluster();
+            ouroCluster[slot] = cluster.getOuroTotal();
+            posCluster[slot] = cluster.getPosicaox();
+            idsCluster[slot] = cluster.getIdscriaturas();
+            clustersVivos[totalClusters++] = slot;
+        }
+
+        this.guardiao = guardiao;
+        ouroGuardiao = guardiao.getOuro();
+        posGuardiao = guardiao.getPosicaox();
+
+        roubos = new MapaRoubos(n + capacidadeClusters);
+    }
+
+    // Cópia do estado entre iterações; os vetores de trabalho e os roubos da
+    // iteração são refeitos na próxima, e as listas de IDs dos clusters não
+    // mudam depois de formadas
+    private MotorSimulacaoEnxuto(MotorSimulacaoEnxuto origem, RandomGenerator gerador) {
+        this.gerador = gerador;
+        quantidadeInicial = origem.quantidadeInicial;
+
+        int n = origem.entidades.length;
+        entidades = origem.entidades;
+        idCriatura = origem.idCriatura;
+        ouroCriatura = origem.ouroCriatura.clone();
+        posCriatura = origem.posCriatura.clone();
+        removida = origem.removida.clone();
+        vivas = origem.vivas.clone();
+        totalVivas = origem.totalVivas;
+
+        restantes = new int[n];
+        processada = new boolean[n];
+        membros = new int[n];
+        inicioGrupo = new int[n];
+        tamanhoGrupo = new int[n];
+
+        entidadesCluster = origem.entidadesCluster.clone();
+        idCluster = origem.idCluster.clone();
+        ouroCluster = origem.ouroCluster.clone();
+        posCluster = origem.posCluster.clone();
+        idsCluster = origem.idsCluster.clone();
+        primeiroMembro = origem.primeiroMembro.clone();
+        segundoMembro = origem.segundoMembro.clone();
+        clustersVivos = origem.clustersVivos.clone();
+        totalClusters = origem.totalClusters;
+        proximoSlotCluster = origem.proximoSlotCluster;
+
+        guardiao = origem.guardiao;
+        ouroGuardiao = origem.ouroGuardiao;
+        posGuardiao = origem.posGuardiao;
+        clusterEliminado = origem.clusterEliminado;
+        iteracaoAtual = origem.iteracaoAtual;
+
+        roubos = new MapaRoubos(n + idCluster.length);
+    }
+
+    /**
+     * Executa uma iteração: movimento, roubos, eliminação, agrupamento,
+     * clusters e guardião. Não aloca memória fora dos eventos JFR.
+     *
+     * @param iteracao número da iteração (para eventos)
+     */
+    public void avancarIteracao(int iteracao) {
+        boolean eventos = EVENTO_FASE.isEnabled();
+        roubos.limpar();
+        iteracaoAtual = iteracao;
+
+        // Movimento das criaturas
+        FaseSimulacaoEvento fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            double r = gerador.nextDouble(-1, 1);
+            posCriatura[s] += r * ouroCriatura[s];
+        }
+        concluirFase(fase, FaseSimulacaoEvento.MOVIMENTO, iteracao, totalVivas);
+
+        // Cada criatura rouba metade do ouro da mais próxima
+        fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            int vizinha = maisProxima(posCriatura[s], s);
+            if (vizinha >= 0 && ouroCriatura[vizinha] > 0) {
+                int ouroRoubado = ouroCriatura[vizinha] / 2;
+                ouroCriatura[vizinha] -= ouroRoubado;
+                ouroCriatura[s] += ouroRoubado;
+                roubos.colocar(idCriatura[s], idCriatura[vizinha]);
+                if (grafoRoubos != null) {
+                    grafoRoubos.adicionar(GrafoRoubos.ENTRE_CRIATURAS, idCriatura[s], idCriatura[vizinha], iteracao,
+                            ouroRoubado);
+                }
+            } else {
+                roubos.colocar(idCriatura[s], -1);
+            }
+        }
+        concluirFase(fase, FaseSimulacaoEvento.ROUBO, iteracao, totalVivas);
+
+        // Eliminação das criaturas com pouco ouro
+        fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        int antesEliminacao = totalVivas;
+        int mantidas = 0;
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            if (ouroCriatura[s] >= OURO_MINIMO) {
+                vivas[mantidas++] = s;
+            } else {
+                removida[s] = true;
+            }
+        }
+        totalVivas = mantidas;
+        concluirFase(fase, FaseSimulacaoEvento.ELIMINACAO, iteracao, antesEliminacao);
+
+        fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        int totalRestantes = agrupar();
+        concluirFase(fase, FaseSimulacaoEvento.AGRUPAMENTO, iteracao, totalRestantes);
+
+        // Clusters existentes (inclusive os recém-formados) se movem e roubam
+        fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        for (int k = 0; k < totalClusters; k++) {
+            int slot = clustersVivos[k];
+            double r = gerador.nextDouble(-1.0, 1.0);
+            posCluster[slot] += r * ouroCluster[slot];
+            roubarParaCluster(slot);
+        }
+        concluirFase(fase, FaseSimulacaoEvento.CLUSTERS, iteracao, totalClusters);
+
+        fase = eventos ? FaseSimulacaoEvento.iniciar() : null;
+        int clustersAvaliados = totalClusters;
+        processarGuardiao();
+        concluirFase(fase, FaseSimulacaoEvento.GUARDIAO, iteracao, clustersAvaliados);
+    }
+
+    /**
+     * Cria o snapshot da iteração a partir do estado atual. É a única parte
+     * do laço que aloca: os DTOs da resposta.
+     *
+     * @param iteracao número da iteração
+     * @return DTO da iteração
+     */
+    public SimularResponseDTO criarSnapshot(int iteracao) {
+        CriaturasDTO[] criaturasDTO = new CriaturasDTO[totalVivas];
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            criaturasDTO[k] = new CriaturasDTO(idCriatura[s], ouroCriatura[s], posCriatura[s],
+                    roubos.obter(idCriatura[s], -1));
+        }
+
+        List<ClusterDTO> clustersDTO = new ArrayList<>(totalClusters);
+        for (int k = 0; k < totalClusters; k++) {
+            int slot = clustersVivos[k];
+            clustersDTO.add(new ClusterDTO(idCluster[slot], idsCluster[slot], ouroCluster[slot], posCluster[slot],
+                    roubos.obter(idCluster[slot], -1)));
+        }
+
+        GuardiaoDTO guardiaoDTO = new GuardiaoDTO(guardiao.getId(), ouroGuardiao, posGuardiao, clusterEliminado);
+        return new SimularResponseDTO(iteracao, criaturasDTO, clustersDTO, guardiaoDTO, false);
+    }
+
+    /**
+     * Escreve o snapshot da iteração direto no gerador JSON, sem criar DTOs.
+     * A saída é byte a byte igual à serialização pelo Jackson do DTO
+     * retornado por {@link #criarSnapshot(int)}.
+     *
+     * @param json        gerador de destino
+     * @param iteracao    número da iteração
+     * @param bemSucedida valor do campo simulacaoBemSucedida
+     * @throws IOException se a escrita falhar
+     */
+    public void escreverSnapshot(JsonGenerator json, int iteracao, boolean bemSucedida) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ITERACAO);
+        json.writeNumber(iteracao);
+
+        json.writeFieldName(CAMPO_CRIATURAS);
+        json.writeStartArray();
+        for (int k = 0; k < totalVivas; k++) {
+            escreverCriatura(json, vivas[k]);
+        }
+        json.writeEndArray();
+
+        json.writeFieldName(CAMPO_CLUSTERS);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            escreverCluster(json, clustersVivos[k]);
+        }
+        json.writeEndArray();
+
+        escreverFinalSnapshot(json, bemSucedida);
+    }
+
+    /**
+     * Escreve a iteração no formato padrão, mas só com as K criaturas e os
+     * K clusters com mais ouro ({@link SelecaoMaiores}), do maior para o
+     * menor.
+     *
+     * @param json        gerador de destino
+     * @param iteracao    número da iteração
+     * @param bemSucedida valor do campo simulacaoBemSucedida
+     * @param maiores     seleção a refazer (reaproveitada entre iterações)
+     * @throws IOException se a escrita falhar
+     */
+    public void escreverSnapshotMaiores(JsonGenerator json, int iteracao, boolean bemSucedida,
+            SelecaoMaiores maiores) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ITERACAO);
+        json.writeNumber(iteracao);
+
+        json.writeFieldName(CAMPO_CRIATURAS);
+        json.writeStartArray();
+        int selecionadas = maiores.selecionar(ouroCriatura, idCriatura, vivas, totalVivas);
+        for (int k = 0; k < selecionadas; k++) {
+            escreverCriatura(json, maiores.slot(k));
+        }
+        json.writeEndArray();
+
+        json.writeFieldName(CAMPO_CLUSTERS);
+        json.writeStartArray();
+        selecionadas = maiores.selecionar(ouroCluster, idCluster, clustersVivos, totalClusters);
+        for (int k = 0; k < selecionadas; k++) {
+            escreverCluster(json, maiores.slot(k));
+        }
+        json.writeEndArray();
+
+        escreverFinalSnapshot(json, bemSucedida);
+    }
+
+    private void escreverCriatura(JsonGenerator json, int s) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ID);
+        json.writeNumber(idCriatura[s]);
+        json.writeFieldName(CAMPO_OURO);
+        json.writeNumber(ouroCriatura[s]);
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeNumber(posCriatura[s]);
+        json.writeFieldName(CAMPO_ROUBADA);
+        json.writeNumber(roubos.obter(idCriatura[s], -1));
+        json.writeEndObject();
+    }
+
+    private void escreverCluster(JsonGenerator json, int slot) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ID_CLUSTER);
+        json.writeNumber(idCluster[slot]);
+        json.writeFieldName(CAMPO_IDS_CRIATURAS);
+        json.writeStartArray();
+        List<Integer> ids = idsCluster[slot];
+        for (int m = 0; m < ids.size(); m++) {
+            json.writeNumber(ids.get(m));
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_OURO_TOTAL);
+        json.writeNumber(ouroCluster[slot]);
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeNumber(posCluster[slot]);
+        json.writeFieldName(CAMPO_ROUBADA);
+        json.writeNumber(roubos.obter(idCluster[slot], -1));
+        json.writeEndObject();
+    }
+
+    /**
+     * Escreve o snapshot da iteração no formato colunar: em vez de um objeto
+     * por criatura (e por cluster), vetores paralelos com um campo cada, sem
+     * repetir os nomes dos campos. O guardião e os demais campos seguem o
+     * formato padrão.
+     *
+     * <pre>
+     * {"iteracao":1,
+     *  "criaturas":{"ids":[..],"ouro":[..],"posicaox":[..],"roubou":[..]},
+     *  "clusters":{"ids":[..],"idsCriaturas":[[..],..],"ouro":[..],"posicaox":[..],"roubou":[..]},
+     *  "guardiao":{..},"simulacaoBemSucedida":false}
+     * </pre>
+     *
+     * @param json        gerador de destino
+     * @param iteracao    número da iteração
+     * @param bemSucedida valor do campo simulacaoBemSucedida
+     * @throws IOException se a escrita falhar
+     */
+    public void escreverSnapshotColunar(JsonGenerator json, int iteracao, boolean bemSucedida) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ITERACAO);
+        json.writeNumber(iteracao);
+
+        json.writeFieldName(CAMPO_CRIATURAS);
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_IDS);
+        json.writeStartArray();
+        for (int k = 0; k < totalVivas; k++) {
+            json.writeNumber(idCriatura[vivas[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_OURO);
+        json.writeStartArray();
+        for (int k = 0; k < totalVivas; k++) {
+            json.writeNumber(ouroCriatura[vivas[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeStartArray();
+        for (int k = 0; k < totalVivas; k++) {
+            json.writeNumber(posCriatura[vivas[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_ROUBOU);
+        json.writeStartArray();
+        for (int k = 0; k < totalVivas; k++) {
+            json.writeNumber(roubos.obter(idCriatura[vivas[k]], -1));
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+
+        json.writeFieldName(CAMPO_CLUSTERS);
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_IDS);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            json.writeNumber(idCluster[clustersVivos[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_IDS_CRIATURAS);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            List<Integer> ids = idsCluster[clustersVivos[k]];
+            json.writeStartArray();
+            for (int m = 0; m < ids.size(); m++) {
+                json.writeNumber(ids.get(m));
+            }
+            json.writeEndArray();
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_OURO);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            json.writeNumber(ouroCluster[clustersVivos[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            json.writeNumber(posCluster[clustersVivos[k]]);
+        }
+        json.writeEndArray();
+        json.writeFieldName(CAMPO_ROUBOU);
+        json.writeStartArray();
+        for (int k = 0; k < totalClusters; k++) {
+            json.writeNumber(roubos.obter(idCluster[clustersVivos[k]], -1));
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+
+        escreverFinalSnapshot(json, bemSucedida);
+    }
+
+    /**
+     * Escreve a iteração como histogramas das posições de criaturas e de
+     * clusters ({@link HistogramaPosicoes}), calculados direto das colunas,
+     * sem ids nem roubos. O guardião e os demais campos seguem o formato
+     * padrão.
+     *
+     * <pre>
+     * {"iteracao":1,
+     *  "criaturas":{"inicio":..,"largura":..,"contagem":[..],"ouro":[..],"abaixo":0,"acima":0},
+     *  "clusters":{..},
+     *  "guardiao":{..},"simulacaoBemSucedida":false}
+     * </pre>
+     *
+     * @param json        gerador de destino
+     * @param iteracao    número da iteração
+     * @param bemSucedida valor do campo simulacaoBemSucedida
+     * @param histograma  faixas a recalcular (reaproveitadas entre iterações)
+     * @throws IOException se a escrita falhar
+     */
+    public void escreverSnapshotHistograma(JsonGenerator json, int iteracao, boolean bemSucedida,
+            HistogramaPosicoes histograma) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ITERACAO);
+        json.writeNumber(iteracao);
+
+        json.writeFieldName(CAMPO_CRIATURAS);
+        histograma.acumular(posCriatura, ouroCriatura, vivas, totalVivas);
+        histograma.escrever(json);
+
+        json.writeFieldName(CAMPO_CLUSTERS);
+        histograma.acumular(posCluster, ouroCluster, clustersVivos, totalClusters);
+        histograma.escrever(json);
+
+        escreverFinalSnapshot(json, bemSucedida);
+    }
+
+    /**
+     * Passa a registrar cada roubo no grafo, a partir da próxima iteração.
+     *
+     * @param grafo arestas de destino (null para parar de registrar)
+     */
+    public void registrarRoubos(GrafoRoubos grafo) {
+        this.grafoRoubos = grafo;
+    }
+
+    /**
+     * Acrescenta o estado da iteração às séries de cada entidade viva, com
+     * os mesmos valores do snapshot da iteração.
+     *
+     * @param trajetorias séries da execução
+     * @param iteracao    número da iteração
+     */
+    public void registrarTrajetorias(TrajetoriasExecucao trajetorias, int iteracao) {
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            trajetorias.registrar(TrajetoriasExecucao.Tipo.CRIATURA, idCriatura[s], iteracao, posCriatura[s],
+                    ouroCriatura[s], roubos.obter(idCriatura[s], -1));
+        }
+        for (int k = 0; k < totalClusters; k++) {
+            int slot = clustersVivos[k];
+            trajetorias.registrar(TrajetoriasExecucao.Tipo.CLUSTER, idCluster[slot], iteracao, posCluster[slot],
+                    ouroCluster[slot], roubos.obter(idCluster[slot], -1));
+        }
+        trajetorias.registrar(TrajetoriasExecucao.Tipo.GUARDIAO, guardiao.getId(), iteracao, posGuardiao,
+                ouroGuardiao, clusterEliminado);
+    }
+
+    /**
+     * Cria o motor de uma nova execução, no mesmo estado inicial de
+     * {@link SimuladorService#inicializar(int, Long)}, sem usar o contador
+     * global de ids nem o estado do serviço (pode rodar em paralelo com
+     * outras simulações).
+     *
+     * @param quantidade quantidade inicial de criaturas
+     * @param semente    semente do gerador aleatório
+     * @return motor pronto para a primeira iteração
+     */
+    public static MotorSimulacaoEnxuto novaExecucao(int quantidade, long semente) {
+        List<Criaturas> criaturas = new ArrayList<>(quantidade);
+        for (int id = 1; id <= quantidade; id++) {
+            criaturas.add(new Criaturas(id));
+        }
+        return new MotorSimulacaoEnxuto(criaturas, new ArrayList<>(), new Guardiao(quantidade + 1),
+                new SplittableRandom(semente), quantidade);
+    }
+
+    /**
+     * Igual a {@link #novaExecucao(int, long)}, com um gerador que permite
+     * copiar o motor ({@link #copiar}) entre iterações.
+     *
+     * @param quantidade quantidade inicial de criaturas
+     * @param semente    semente do gerador aleatório
+     * @return motor pronto para a primeira iteração
+     */
+    public static MotorSimulacaoEnxuto novaExecucaoCopiavel(int quantidade, long semente) {
+        List<Criaturas> criaturas = new ArrayList<>(quantidade);
+        for (int id = 1; id <= quantidade; id++) {
+            criaturas.add(new Criaturas(id));
+        }
+        return new MotorSimulacaoEnxuto(criaturas, new ArrayList<>(), new Guardiao(quantidade + 1),
+                new GeradorReproduzivel(semente), quantidade);
+    }
+
+    /**
+     * Copia o motor entre duas iterações: a cópia avança a partir da última
+     * iteração executada, com a mesma sequência aleatória, sem afetar este
+     * motor. As duas compartilham as entidades de origem, então nenhuma deve
+     * ser descarregada ({@link #descarregar}). Os roubos da última iteração
+     * e o registro no {@link GrafoRoubos} não são copiados.
+     *
+     * @return motor independente no mesmo ponto da execução
+     * @throws IllegalStateException se o motor não foi criado por
+     *                               {@link #novaExecucaoCopiavel}
+     */
+    public MotorSimulacaoEnxuto copiar() {
+        if (!(gerador instanceof GeradorReproduzivel reproduzivel)) {
+            throw new IllegalStateException("O gerador aleatório deste motor não pode ser copiado.");
+        }
+        return new MotorSimulacaoEnxuto(this, reproduzivel.copiar());
+    }
+
+    /**
+     * @return ouro atual do guardião
+     */
+    public int ouroGuardiao() {
+        return ouroGuardiao;
+    }
+
+    /**
+     * Quantidade de entidades vivas: criaturas, clusters e o guardião.
+     *
+     * @return total de entidades do snapshot
+     */
+    public int entidadesVivas() {
+        return totalVivas + totalClusters + 1;
+    }
+
+    /**
+     * Verifica a condição de vitória: só o guardião vivo, ou o guardião e
+     * uma única criatura, sem clusters.
+     *
+     * @return true se a simulação terminou
+     */
+    public boolean temGanhador() {
+        return totalVivas <= 1 && totalClusters == 0;
+    }
+
+    /**
+     * Grava o estado final de volta nas entidades e listas da simulação.
+     *
+     * @param criaturas lista de criaturas a ser substituída pelas vivas
+     * @param clusters  lista de clusters a ser substituída pelos vivos
+     */
+    public void descarregar(List<Criaturas> criaturas, List<Cluster> clusters) {
+        criaturas.clear();
+        for (int s = 0; s < entidades.length; s++) {
+            entidades[s].setOuro(ouroCriatura[s]);
+            entidades[s].setPosicaox(posCriatura[s]);
+        }
+        for (int k = 0; k < totalVivas; k++) {
+            criaturas.add(entidades[vivas[k]]);
+        }
+
+        clusters.clear();
+        for (int k = 0; k < totalClusters; k++) {
+            int slot = clustersVivos[k];
+            Cluster cluster = entidadesCluster[slot];
+            if (cluster == null) {
+                cluster = new Cluster(entidades[primeiroMembro[slot]], entidades[segundoMembro[slot]]);
+                cluster.setIdscriaturas(idsCluster[slot]);
+                cluster.setIdCluster(idCluster[slot]);
+            }
+            cluster.setOuroTotal(ouroCluster[slot]);
+            cluster.setPosicaox(posCluster[slot]);
+            clusters.add(cluster);
+        }
+
+        guardiao.setOuro(ouroGuardiao);
+        guardiao.setPosicaox(posGuardiao);
+    }
+
+    /**
+     * Escreve o guardião e o flag de sucesso e fecha o objeto do snapshot;
+     * igual nos dois formatos.
+     */
+    private void escreverFinalSnapshot(JsonGenerator json, boolean bemSucedida) throws IOException {
+        json.writeFieldName(CAMPO_GUARDIAO);
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_ID);
+        json.writeNumber(guardiao.getId());
+        json.writeFieldName(CAMPO_OURO);
+        json.writeNumber(ouroGuardiao);
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeNumber(posGuardiao);
+        json.writeFieldName(CAMPO_CLUSTER_ELIMINADO);
+        json.writeNumber(clusterEliminado);
+        json.writeEndObject();
+
+        json.writeFieldName(CAMPO_BEM_SUCEDIDA);
+        json.writeBoolean(bemSucedida);
+        json.writeEndObject();
+    }
+
+    /**
+     * Forma clusters com as criaturas que ficaram a até 5000 de distância da
+     * primeira criatura de cada grupo, na mesma ordem do modo padrão.
+     *
+     * @return quantidade de criaturas avaliadas
+     */
+    private int agrupar() {
+        int totalRestantes = totalVivas;
+        System.arraycopy(vivas, 0, restantes, 0, totalRestantes);
+        Arrays.fill(processada, 0, totalRestantes, false);
+
+        int totalGrupos = 0;
+        int totalMembros = 0;
+        for (int i = 0; i < totalRestantes; i++) {
+            if (processada[i]) {
+                continue;
+            }
+            int c1 = restantes[i];
+            int inicio = totalMembros;
+            membros[totalMembros++] = c1;
+            processada[i] = true;
+
+            for (int j = i + 1; j < totalRestantes; j++) {
+                if (processada[j]) {
+                    continue;
+                }
+                int c2 = restantes[j];
+                if (Math.abs(posCriatura[c1] - posCriatura[c2]) <= DISTANCIA_AGRUPAMENTO) {
+                    membros[totalMembros++] = c2;
+                    processada[j] = true;
+                }
+            }
+
+            if (totalMembros - inicio > 1) {
+                inicioGrupo[totalGrupos] = inicio;
+                tamanhoGrupo[totalGrupos] = totalMembros - inicio;
+                totalGrupos++;
+            } else {
+                totalMembros = inicio;
+            }
+        }
+
+        for (int g = 0; g < totalGrupos; g++) {
+            formarCluster(inicioGrupo[g], tamanhoGrupo[g]);
+        }
+        return totalRestantes;
+    }
+
+    private void formarCluster(int inicio, int tamanho) {
+        int a = membros[inicio];
+        int b = membros[inicio + 1];
+        int slot = proximoSlotCluster++;
+
+        // Mesmo ID do modo padrão: hashCode da lista com os dois primeiros IDs
+        idCluster[slot] = 31 * (31 + idCriatura[a]) + idCriatura[b];
+        posCluster[slot] = posCriatura[a];
+        primeiroMembro[slot] = a;
+        segundoMembro[slot] = b;
+
+        int ouro = 0;
+        List<Integer> ids = new ArrayList<>(tamanho);
+        for (int m = inicio; m < inicio + tamanho; m++) {
+            int s = membros[m];
+            ouro += ouroCriatura[s];
+            ids.add(idCriatura[s]);
+            removida[s] = true;
+        }
+        ouroCluster[slot] = ouro;
+        idsCluster[slot] = ids;
+
+        int mantidas = 0;
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            if (!removida[s]) {
+                vivas[mantidas++] = s;
+            }
+        }
+        totalVivas = mantidas;
+
+        clustersVivos[totalClusters++] = slot;
+        roubarParaCluster(slot);
+    }
+
+    private void roubarParaCluster(int slot) {
+        int alvo = maisProxima(posCluster[slot], -1);
+        if (alvo >= 0 && ouroCriatura[alvo] > 0) {
+            int ouroRoubado = ouroCriatura[alvo] / 2;
+            ouroCriatura[alvo] -= ouroRoubado;
+            ouroCluster[slot] += ouroRoubado;
+            roubos.colocar(idCluster[slot], idCriatura[alvo]);
+            if (grafoRoubos != null) {
+                grafoRoubos.adicionar(GrafoRoubos.CLUSTER_CRIATURA, idCluster[slot], idCriatura[alvo], iteracaoAtual,
+                        ouroRoubado);
+            }
+        } else {
+            roubos.colocar(idCluster[slot], -1);
+        }
+    }
+
+    private void processarGuardiao() {
+        double r = gerador.nextDouble(-1.0, 1.0);
+        posGuardiao += r * ouroGuardiao;
+
+        clusterEliminado = -1;
+        for (int k = 0; k < totalClusters; k++) {
+            int slot = clustersVivos[k];
+            if (Math.abs(posGuardiao - posCluster[slot]) <= ALCANCE_GUARDIAO) {
+                ouroGuardiao += ouroCluster[slot];
+                clusterEliminado = idCluster[slot];
+                if (grafoRoubos != null) {
+                    grafoRoubos.adicionar(GrafoRoubos.GUARDIAO_CLUSTER, guardiao.getId(), idCluster[slot],
+                            iteracaoAtual, ouroCluster[slot]);
+                }
+                System.arraycopy(clustersVivos, k + 1, clustersVivos, k, totalClusters - k - 1);
+                totalClusters--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Encontra a criatura viva mais próxima de uma posição; empates ficam com
+     * o menor ID.
+     *
+     * @param posicao posição de referência
+     * @param ignorar slot a ignorar (-1 para nenhum)
+     * @return slot da criatura mais próxima ou -1 se não houver
+     */
+    private int maisProxima(double posicao, int ignorar) {
+        int melhor = -1;
+        double melhorDistancia = 0;
+        for (int k = 0; k < totalVivas; k++) {
+            int s = vivas[k];
+            if (s == ignorar) {
+                continue;
+            }
+            double distancia = Math.abs(posicao - posCriatura[s]);
+            if (melhor < 0 || distancia < melhorDistancia
+                    || (distancia == melhorDistancia && idCriatura[s] < idCriatura[melhor])) {
+                melhor = s;
+                melhorDistancia = distancia;
+            }
+        }
+        return melhor;
+    }
+
+    private void concluirFase(FaseSimulacaoEvento fase, String nome, int iteracao, int entidadesProcessadas) {
+        if (fase != null) {
+            fase.concluir(nome, quantidadeInicial, iteracao, entidadesProcessadas);
+        }
+    }
+
+    /**
+     * Mapa int -> int de quem cada entidade roubou na iteração, com
+     * endereçamento aberto e limpeza em O(1) por geração. Como o HashMap do
+     * modo padrão, a última escrita de uma chave prevalece (IDs de cluster
+     * podem coincidir com IDs de criatura ou de outro cluster).
+     */
+    private static final class MapaRoubos {
+        private final int[] chaves;
+        private final int[] valores;
+        private final int[] geracaoDaPosicao;
+        private final int mascara;
+        private int geracao = 1;
+
+        private MapaRoubos(int entradasMaximas) {
+            int capacidade = Integer.highestOneBit(Math.max(entradasMaximas, 2) * 2) * 2;
+            chaves = new int[capacidade];
+            valores = new int[capacidade];
+            geracaoDaPosicao = new int[capacidade];
+            mascara = capacidade - 1;
+        }
+
+        private void limpar() {
+            geracao++;
+            if (geracao == 0) {
+                Arrays.fill(geracaoDaPosicao, 0);
+                geracao = 1;
+            }
+        }
+
+        private void colocar(int chave, int valor) {
+            int i = posicaoInicial(chave);
+            while (geracaoDaPosicao[i] == geracao && chaves[i] != chave) {
+                i = (i + 1) & mascara;
+            }
+            chaves[i] = chave;
+            valores[i] = valor;
+            geracaoDaPosicao[i] = geracao;
+        }
+
+        private int obter(int chave, int padrao) {
+            int i = posicaoInicial(chave);
+            while (geracaoDaPosicao[i] == geracao) {
+                if (chaves[i] == chave) {
+                    return valores[i];
+                }
+                i = (i + 1) & mascara;
+            }
+            return padrao;
+        }
+
+        private int posicaoInicial(int chave) {
+            int h = chave * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mascara;
+        }
+    }
+}
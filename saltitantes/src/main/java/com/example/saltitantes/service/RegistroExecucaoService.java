@@ -0,0 +1,170 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.dto.SimulacaoExecucaoDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que guarda o catálogo de execuções de simulação.
+ *
+ * As execuções são enfileiradas em memória durante a requisição e gravadas
+ * em lotes por uma tarefa agendada, de modo que o /simular não faz INSERT
+ * síncrono.
+ *
+ * Se a gravação de um lote falha (ex.: banco fora do ar), o ciclo para e o
+ * mesmo lote é tentado de novo no próximo, antes dos pendentes; só depois
+ * de {@code tentativas-lote} falhas seguidas ele é descartado. Enquanto
+ * isso, a fila limitada continua recebendo até encher.
+ *
+ * É criado na partida mesmo com inicialização preguiçosa, para que o flush
+ * agendado rode desde o início.
+ */
+@Service
+@Lazy(false)
+public class RegistroExecucaoService {
+
+    @Autowired
+    private SimulacaoExecucaoRepository execucaoRepository;
+
+    @Value("${saltitantes.execucoes.tamanho-lote:50}")
+    private int tamanhoLote = 50;
+
+    @Value("${saltitantes.execucoes.tentativas-lote:5}")
+    private int tentativasLote = 5;
+
+    private final BlockingQueue<SimulacaoExecucao> pendentes;
+    private final AtomicLong descartadas = new AtomicLong();
+
+    // Lote cuja gravação falhou, tentado de novo antes dos pendentes
+    private volatile List<SimulacaoExecucao> loteComFalha = List.of();
+    private int falhasSeguidas;
+
+    public RegistroExecucaoService(@Value("${saltitantes.execucoes.capacidade-fila:10000}") int capacidadeFila) {
+        this.pendentes = new LinkedBlockingQueue<>(capacidadeFila);
+    }
+
+    /**
+     * Enfileira uma execução para gravação posterior.
+     *
+     * @param execucao execução a ser registrada
+     * @return true se foi enfileirada, false se a fila estava cheia
+     */
+    public boolean registrar(SimulacaoExecucao execucao) {
+        if (pendentes.offer(execucao)) {
+            return true;
+        }
+        descartadas.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Grava em lotes todas as execuções pendentes, começando pelo lote que
+     * falhou no ciclo anterior. Uma falha encerra o ciclo e guarda o lote
+     * para o próximo.
+     *
+     * @return quantidade de execuções gravadas
+     */
+    @Scheduled(fixedDelayString = "${saltitantes.execucoes.intervalo-flush-ms:500}")
+    public synchronized int descarregar() {
+        int gravadas = 0;
+        List<SimulacaoExecucao> lote = new ArrayList<>(Math.max(tamanhoLote, loteComFalha.size()));
+        lote.addAll(loteComFalha);
+        loteComFalha = List.of();
+
+        while (!lote.isEmpty() || pendentes.drainTo(lote, tamanhoLote) > 0) {
+            try {
+                execucaoRepository.saveAll(lote);
+                gravadas += lote.size();
+                falhasSeguidas = 0;
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao gravar lote de execuções: " + e.getMessage());
+                if (++falhasSeguidas < tentativasLote) {
+                    loteComFalha = List.copyOf(lote);
+                    return gravadas;
+                }
+                descartadas.addAndGet(lote.size());
+                falhasSeguidas = 0;
+            }
+            lote.clear();
+        }
+
+        return gravadas;
+    }
+
+    /**
+     * Garante que as execuções pendentes sejam gravadas ao desligar a aplicação.
+     */
+    @PreDestroy
+    public void encerrar() {
+        descarregar();
+    }
+
+    /**
+     * Lista as execuções de um usuário de forma paginada.
+     *
+     * @param login   login do usuário
+     * @param pagina  número da página (começando em 0)
+     * @param tamanho tamanho da página (entre 1 e 100)
+     * @return página de DTOs das execuções
+     * @throws IllegalArgumentException se a página ou o tamanho forem inválidos
+     */
+    public Page<SimulacaoExecucaoDTO> listarPorUsuario(String login, int pagina, int tamanho) {
+        if (pagina < 0) {
+            throw new IllegalArgumentException("A página deve ser maior ou igual a zero.");
+        }
+        if (tamanho <= 0 || tamanho > 100) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e 100.");
+        }
+
+        return execucaoRepository.findByLoginUsuarioOrderByIdDesc(login, PageRequest.of(pagina, tamanho))
+                .map(this::converterParaDTO);
+    }
+
+    /**
+     * @return execuções ainda não gravadas, inclusive as do lote que falhou
+     */
+    public int getPendentes() {
+        return pendentes.size() + loteComFalha.size();
+    }
+
+    /**
+     * Define quantas falhas seguidas um lote aguenta antes de ser descartado.
+     *
+     * @param tentativas tentativas por lote
+     */
+    public void setTentativasLote(int tentativas) {
+        this.tentativasLote = tentativas;
+    }
+
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+
+    private SimulacaoExecucaoDTO converterParaDTO(SimulacaoExecucao execucao) {
+        return new SimulacaoExecucaoDTO(
+                execucao.getId(),
+                execucao.getQuantidade(),
+                execucao.getIteracoesSolicitadas(),
+                execucao.getSemente(),
+                execucao.isBemSucedida(),
+                execucao.getIteracoesExecutadas(),
+                execucao.getDuracaoMs(),
+                execucao.getOuroFinalGuardiao(),
+                execucao.getExecutadaEm());
+    }
+}
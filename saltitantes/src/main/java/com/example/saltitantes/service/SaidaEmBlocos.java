@@ -0,0 +1,112 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Saída da resposta de uma simulação que junta os bytes em blocos em
+ * memória antes de passá-los à conexão do cliente.
+ *
+ * Enquanto retém ({@link #reter}), os bytes ficam no bloco e só seguem no
+ * {@link #descarregar} explícito: é assim que a {@link VezEmBlocos} calcula
+ * sob a vaga do escalonador e escreve no cliente fora dela. Sem reter, o
+ * bloco segue para o destino ao encher e no flush, como um buffer comum.
+ */
+public final class SaidaEmBlocos extends OutputStream {
+
+    private final OutputStream destino;
+    private final int tamanhoBloco;
+    private final ByteArrayOutputStream bloco;
+    private boolean retendo;
+
+    /**
+     * @param destino      saída da resposta HTTP
+     * @param tamanhoBloco bytes acumulados antes de escrever no destino
+     * @throws IllegalArgumentException se o tamanho do bloco não for
+     *                                  positivo
+     */
+    public SaidaEmBlocos(OutputStream destino, int tamanhoBloco) {
+        if (tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser maior que zero.");
+        }
+        this.destino = destino;
+        this.tamanhoBloco = tamanhoBloco;
+        this.bloco = new ByteArrayOutputStream(tamanhoBloco);
+    }
+
+    /**
+     * Obtém a saída em blocos sob o gerador, se houver.
+     *
+     * @param json gerador da resposta
+     * @return saída em blocos, ou null se o gerador escrever em outro destino
+     */
+    public static SaidaEmBlocos de(JsonGenerator json) {
+        return json.getOutputTarget() instanceof SaidaEmBlocos saida ? saida : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        bloco.write(b);
+        descarregarSeCheio();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        bloco.write(b, off, len);
+        descarregarSeCheio();
+    }
+
+    /**
+     * Retendo, o flush não escreve no destino.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!retendo) {
+            descarregar();
+            destino.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        retendo = false;
+        flush();
+        destino.close();
+    }
+
+    /**
+     * @param reter true para acumular os bytes até o próximo
+     *              {@link #descarregar}
+     */
+    void reter(boolean reter) {
+        this.retendo = reter;
+    }
+
+    /**
+     * @return true se o bloco atingiu o tamanho
+     */
+    boolean cheio() {
+        return bloco.size() >= tamanhoBloco;
+    }
+
+    /**
+     * Escreve o bloco no destino e o esvazia.
+     *
+     * @throws IOException se a escrita falhar
+     */
+    void descarregar() throws IOException {
+        if (bloco.size() > 0) {
+            bloco.writeTo(destino);
+            bloco.reset();
+        }
+    }
+
+    private void descarregarSeCheio() throws IOException {
+        if (!retendo && cheio()) {
+            descarregar();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Seleção das K entidades com mais ouro de um grupo, direto das colunas do
+ * {@link MotorSimulacaoEnxuto}, sem ordenar o grupo inteiro.
+ *
+ * Um heap de mínimo com no máximo K slots guarda as maiores vistas até o
+ * momento, com a menor na raiz: cada entidade custa uma comparação com a
+ * raiz e, só se entrar, O(log K). Ao final o próprio heap é ordenado (heap
+ * sort), do maior para o menor ouro; empates ficam com o menor id. Total
+ * O(n log K), perto de uma leitura das colunas para K pequeno.
+ *
+ * O vetor do heap é reaproveitado entre iterações; uma instância atende a
+ * uma única simulação por vez (não é thread-safe).
+ */
+public final class SelecaoMaiores implements FormatoIteracao {
+
+    public static final int K_PADRAO = 10;
+    public static final int K_MAXIMO = 1000;
+
+    private final int k;
+    private final int[] heap;
+    private int tamanho;
+
+    private int[] ouros;
+    private int[] ids;
+
+    private SelecaoMaiores(int k) {
+        this.k = k;
+        this.heap = new int[k];
+    }
+
+    /**
+     * Cria a seleção a partir do parâmetro da requisição.
+     *
+     * @param k quantidade de entidades por grupo (null para {@link #K_PADRAO})
+     * @return seleção vazia
+     * @throws IllegalArgumentException se k estiver fora de 1..{@link #K_MAXIMO}
+     */
+    public static SelecaoMaiores criar(Integer k) {
+        int quantidade = k != null ? k : K_PADRAO;
+        if (quantidade < 1 || quantidade > K_MAXIMO) {
+            throw new IllegalArgumentException("O valor de k deve estar entre 1 e " + K_MAXIMO + ".");
+        }
+        return new SelecaoMaiores(quantidade);
+    }
+
+    @Override
+    public void escreverIteracao(MotorSimulacaoEnxuto motor, JsonGenerator json, int iteracao, boolean bemSucedida)
+            throws IOException {
+        motor.escreverSnapshotMaiores(json, iteracao, bemSucedida, this);
+    }
+
+    /**
+     * Seleciona as K entidades com mais ouro, descartando a seleção
+     * anterior.
+     *
+     * @param ouros colunas de ouro do motor
+     * @param ids   colunas de id do motor (desempate)
+     * @param slots slots das entidades vivas
+     * @param total quantidade de slots válidos
+     * @return quantidade selecionada, até K; os slots ficam em
+     *         {@link #slot(int)}, do maior para o menor ouro
+     */
+    int selecionar(int[] ouros, int[] ids, int[] slots, int total) {
+        this.ouros = ouros;
+        this.ids = ids;
+        tamanho = 0;
+        for (int i = 0; i < total; i++) {
+            int slot = slots[i];
+            if (tamanho < k) {
+                heap[tamanho] = slot;
+                subir(tamanho++);
+            } else if (antes(slot, heap[0])) {
+                heap[0] = slot;
+                descer(0, tamanho);
+            }
+        }
+
+        // Heap sort: a menor vai para o fim, deixando o vetor em ordem decrescente
+        for (int fim = tamanho - 1; fim > 0; fim--) {
+            int menor = heap[0];
+            heap[0] = heap[fim];
+            heap[fim] = menor;
+            descer(0, fim);
+        }
+        this.ouros = null;
+        this.ids = null;
+        return tamanho;
+    }
+
+    /**
+     * @param posicao posição na seleção (0 é a de mais ouro)
+     * @return slot da entidade selecionada
+     */
+    int slot(int posicao) {
+        return heap[posicao];
+    }
+
+    /**
+     * @return quantidade máxima por grupo
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * MC/DC para a condição: (ouros[a] > ouros[b] || (ouros[a] == ouros[b] &&
+     * ids[a] < ids[b]))
+     * ---------------------------------------------------------
+     * Caso | ouro maior | ouro igual | id menor | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | (não avaliado) | (não avaliado) | true | Testa a 1ª condição
+     * 2 | false | true | true | true | Empate decidido pelo id
+     * 3 | false | true | false | false | Testa a 3ª condição
+     * 4 | false | false | (não avaliado) | false | Testa a 2ª condição
+     * ---------------------------------------------------------
+     */
+    private boolean antes(int a, int b) {
+        return ouros[a] > ouros[b] || (ouros[a] == ouros[b] && ids[a] < ids[b]);
+    }
+
+    private void subir(int posicao) {
+        int slot = heap[posicao];
+        while (posicao > 0) {
+            int pai = (posicao - 1) >>> 1;
+            if (!antes(heap[pai], slot)) {
+                break;
+            }
+            heap[posicao] = heap[pai];
+            posicao = pai;
+        }
+        heap[posicao] = slot;
+    }
+
+    private void descer(int posicao, int limite) {
+        int slot = heap[posicao];
+        while (true) {
+            int filho = 2 * posicao + 1;
+            if (filho >= limite) {
+                break;
+            }
+            if (filho + 1 < limite && antes(heap[filho], heap[filho + 1])) {
+                filho++;
+            }
+            if (!antes(slot, heap[filho])) {
+                break;
+            }
+            heap[posicao] = heap[filho];
+            posicao = filho;
+        }
+        heap[posicao] = slot;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.monitoramento.SimulacaoEvento;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Execução única de simulações idênticas em andamento.
+ *
+ * Requisições concorrentes com a mesma chave determinística (quantidade,
+ * iterações, semente, formato e codificação) se juntam à execução que já
+ * está em andamento e recebem os mesmos bytes de resposta, em vez de
+ * recalcular. Só a primeira calcula, num {@link MotorSimulacaoEnxuto}
+ * próprio, sem usar o estado do {@link SimuladorService}. O registro no
+ * catálogo e a pontuação do usuário são aplicados uma vez por chamada.
+ * Terminada a execução a chave sai do mapa: não é um cache de resultados.
+ *
+ * A primeira escreve direto na própria resposta, como o /simular sem
+ * coalescência, e guarda uma cópia dos bytes para quem se juntar só até o
+ * limite configurado. Passado dele, a execução deixa de ser compartilhada:
+ * quem estava esperando calcula a própria, e a memória por requisição fica
+ * limitada mesmo em execuções grandes.
+ */
+@Service
+public class SimulacoesCompartilhadas {
+
+    @Autowired
+    private SimuladorService simuladorService;
+
+    @Autowired
+    private EscalonadorSimulacoes escalonador;
+
+    @Value("${saltitantes.simulacao.coalescencia.limite-kb:1024}")
+    private int limiteCompartilhadoKb = 1024;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Resultado>> emAndamento = new ConcurrentHashMap<>();
+    private final LongAdder calculadas = new LongAdder();
+    private final LongAdder compartilhadas = new LongAdder();
+
+    /**
+     * Cria o gerador da codificação da resposta sobre a saída dada.
+     */
+    @FunctionalInterface
+    public interface FabricaGerador {
+        JsonGenerator criar(OutputStream saida) throws IOException;
+    }
+
+    // Resposta codificada e dados da execução para o registro de cada chamada
+    private static final class Resultado {
+        private final byte[] corpo;
+        private final int executadas;
+        private final boolean bemSucedida;
+        private final int ouroFinalGuardiao;
+
+        private Resultado(byte[] corpo, int executadas, boolean bemSucedida, int ouroFinalGuardiao) {
+            this.corpo = corpo;
+            this.executadas = executadas;
+            this.bemSucedida = bemSucedida;
+            this.ouroFinalGuardiao = ouroFinalGuardiao;
+        }
+    }
+
+    /**
+     * Simula, ou se junta a uma simulação idêntica em andamento, escreve a
+     * resposta na saída e registra a execução para quem chamou.
+     *
+     * @param quantidade   quantidade inicial de criaturas (já validada)
+     * @param iteracoes    quantidade de iterações (já validada)
+     * @param semente      semente da simulação
+     * @param loginUsuario login do usuário (null para simulação anônima)
+     * @param colunar      true para o formato colunar
+     * @param codificacao  identificador da codificação (ex.: o Content-Type)
+     * @param saida        saída da resposta (não é fechada)
+     * @param fabrica      cria o gerador dessa codificação
+     * @throws IOException se a escrita falhar
+     */
+    public void simular(int quantidade, int iteracoes, long semente, String loginUsuario, boolean colunar,
+            String codificacao, OutputStream saida, FabricaGerador fabrica) throws IOException {
+        simular(quantidade, iteracoes, semente, loginUsuario, null, colunar, codificacao, saida, fabrica);
+    }
+
+    /**
+     * Igual a {@link #simular(int, int, long, String, boolean, String,
+     * OutputStream, FabricaGerador)}, com o id do usuário vindo do token de
+     * sessão.
+     *
+     * @param quantidade   quantidade inicial de criaturas (já validada)
+     * @param iteracoes    quantidade de iterações (já validada)
+     * @param semente      semente da simulação
+     * @param loginUsuario login do usuário (null para simulação anônima)
+     * @param idUsuario    id do usuário (null sem sessão)
+     * @param colunar      true para o formato colunar
+     * @param codificacao  identificador da codificação (ex.: o Content-Type)
+     * @param saida        saída da resposta (não é fechada); numa
+     *                     {@link SaidaEmBlocos}, a vaga é devolvida enquanto
+     *                     cada bloco vai para o cliente
+     * @param fabrica      cria o gerador dessa codificação
+     * @throws IOException se a escrita falhar
+     */
+    public void simular(int quantidade, int iteracoes, long semente, String loginUsuario, Long idUsuario,
+            boolean colunar, String codificacao, OutputStream saida, FabricaGerador fabrica) throws IOException {
+        SimulacaoEvento evento = SimulacaoEvento.iniciar();
+        long inicio = System.nanoTime();
+        String chave = quantidade + ":" + iteracoes + ":" + semente + ":" + (colunar ? "colunar" : "objetos")
+                + ":" + codificacao;
+
+        CompletableFuture<Resultado> novo = new CompletableFuture<>();
+        CompletableFuture<Resultado> existente = emAndamento.putIfAbsent(chave, novo);
+        Resultado resultado;
+        if (existente == null) {
+            calculadas.increment();
+            resultado = calcular(quantidade, iteracoes, semente, loginUsuario, colunar, saida, fabrica, chave, novo);
+        } else {
+            compartilhadas.increment();
+            // Sem cópia (resposta acima do limite ou falha de quem calculava),
+            // calcula a própria
+            resultado = existente.join();
+            if (resultado != null) {
+                saida.write(resultado.corpo);
+            } else {
+                calculadas.increment();
+                resultado = calcular(quantidade, iteracoes, semente, loginUsuario, colunar, saida, fabrica, null,
+                        null);
+            }
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        simuladorService.registrarExecucao(evento, loginUsuario, idUsuario, quantidade, iteracoes, semente,
+                resultado.executadas, resultado.bemSucedida, duracaoMs, resultado.ouroFinalGuardiao);
+    }
+
+    /**
+     * @return execuções calculadas desde a partida
+     */
+    public long calculadas() {
+        return calculadas.sum();
+    }
+
+    /**
+     * @return chamadas que se juntaram a uma execução já em andamento (as
+     *         que não receberam a cópia entram também em
+     *         {@link #calculadas()})
+     */
+    public long compartilhadas() {
+        return compartilhadas.sum();
+    }
+
+    /**
+     * Define o tamanho máximo da resposta copiada para quem se junta a uma
+     * execução em andamento.
+     *
+     * @param limiteKb limite em KB (0 para não compartilhar)
+     */
+    public void setLimiteCompartilhadoKb(int limiteKb) {
+        this.limiteCompartilhadoKb = limiteKb;
+    }
+
+    // Calcula escrevendo na saída; com a chave, guarda a cópia da resposta
+    // para quem se juntar e a entrega ao terminar
+    private Resultado calcular(int quantidade, int iteracoes, long semente, String loginUsuario, boolean colunar,
+            OutputStream saida, FabricaGerador fabrica, String chave, CompletableFuture<Resultado> compartilhada)
+            throws IOException {
+        Espelho espelho = chave != null
+                ? new Espelho(saida, limiteCompartilhadoKb * 1024L, () -> encerrar(chave, compartilhada, null))
+                : null;
+        Resultado resultado = null;
+        try {
+            MotorSimulacaoEnxuto motor = MotorSimulacaoEnxuto.novaExecucao(quantidade, semente);
+            int executadas;
+            // Só quem calcula ocupa uma vaga; quem se junta apenas espera o resultado
+            try (VezEmBlocos vez = VezEmBlocos.aguardar(escalonador, loginUsuario, quantidade, iteracoes, saida);
+                    JsonGenerator json = fabrica.criar(espelho != null ? espelho : saida)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                executadas = SimuladorService.escreverIteracoes(motor, iteracoes, json, colunar, null, quantidade,
+                        vez);
+            }
+            resultado = new Resultado(espelho != null ? espelho.copia() : null, executadas, motor.temGanhador(),
+                    motor.ouroGuardiao());
+            return resultado;
+        } finally {
+            if (chave != null) {
+                // Em falha, quem estava esperando calcula a própria
+                encerrar(chave, compartilhada, resultado != null && resultado.corpo != null ? resultado : null);
+            }
+        }
+    }
+
+    private void encerrar(String chave, CompletableFuture<Resultado> compartilhada, Resultado resultado) {
+        emAndamento.remove(chave, compartilhada);
+        compartilhada.complete(resultado);
+    }
+
+    /**
+     * Repassa os bytes à saída de quem calcula e guarda uma cópia até o
+     * limite; passado dele, descarta a cópia e avisa uma vez.
+     */
+    private static final class Espelho extends OutputStream {
+
+        private final OutputStream saida;
+        private final long limite;
+        private final Runnable aoExceder;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+
+        private Espelho(OutputStream saida, long limite, Runnable aoExceder) {
+            this.saida = saida;
+            this.limite = limite;
+            this.aoExceder = aoExceder;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            saida.write(b, off, len);
+            if (copia == null) {
+                return;
+            }
+            if (copia.size() + len > limite) {
+                copia = null;
+                aoExceder.run();
+            } else {
+                copia.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            saida.flush();
+        }
+
+        private byte[] copia() {
+            return copia != null ? copia.toByteArray() : null;
+        }
+    }
+}
@@ -3,18 +3,32 @@ package com.example.saltitantes.service;
 import com.example.saltitantes.model.dto.ClusterDTO;
 import com.example.saltitantes.model.dto.CriaturasDTO;
 import com.example.saltitantes.model.dto.GuardiaoDTO;
+import com.example.saltitantes.model.dto.MetricasHistoricoDTO;
 import com.example.saltitantes.model.dto.SimularResponseDTO;
 import com.example.saltitantes.model.entity.Cluster;
 import com.example.saltitantes.model.entity.Criaturas;
 import com.example.saltitantes.model.entity.Guardiao;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.monitoramento.FaseSimulacaoEvento;
+import com.example.saltitantes.monitoramento.SimulacaoEvento;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,10 +37,38 @@ public class SimuladorService {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private RegistroExecucaoService registroExecucaoService;
+
+    @Autowired
+    private EscalonadorSimulacoes escalonador;
+
     private final List<Criaturas> criaturas = new ArrayList<>();
     private final List<Cluster> clusters = new ArrayList<>();
     private Guardiao guardiao;
-    private final List<SimularResponseDTO> historicoSimulacoes = new ArrayList<>();
+    private List<SimularResponseDTO> historicoSimulacoes = new ArrayList<>();
+    private int quantidadeInicial;
+    private long semente;
+    private RandomGenerator gerador = ThreadLocalRandom.current();
+
+    @Value("${saltitantes.simulacao.modo-enxuto:false}")
+    private boolean modoEnxuto;
+
+    @Value("${saltitantes.simulacao.historico-orcamento-mb:0}")
+    private long historicoOrcamentoMb;
+
+    @Value("${saltitantes.simulacao.historico-diretorio:${java.io.tmpdir}/saltitantes-historico}")
+    private String historicoDiretorio;
+
+    // Configuração do histórico fora do heap, repetida em cada execução isolada
+    private long orcamentoHistoricoBytes;
+    private Path diretorioHistorico;
+
+    // Ocupação do histórico da última execução isolada, medida ao fim dela
+    private volatile MetricasHistoricoDTO metricasUltimaExecucao;
+
+    // Iterações lidas para estimar a ocupação em DTOs de uma execução isolada
+    private static final int AMOSTRAS_METRICAS = 16;
 
     // apenas para teste
     public List<Criaturas> getCriaturasParaTeste() {
@@ -48,17 +90,29 @@ public class SimuladorService {
      *                                  igual a 1 ou maior que 1000
      */
     public void inicializar(int n) {
-        if (n <= 1) {
-            throw new IllegalArgumentException("A quantidade de criaturas deve ser maior que zero.");
-        }
-        if (n > 1000) {
-            throw new IllegalArgumentException("A quantidade de criaturas deve ser menor ou igual a 1000.");
-        }
+        inicializar(n, null);
+    }
+
+    /**
+     * Inicia a simulação com a quantidade especificada de criaturas e uma
+     * semente para o gerador aleatório. Duas simulações com a mesma semente e
+     * os mesmos parâmetros produzem o mesmo resultado.
+     *
+     * @param n       a quantidade de criaturas a serem simulada
+     * @param semente semente do gerador (null para sortear uma)
+     * @throws IllegalArgumentException se a quantidade de criaturas for menor ou
+     *                                  igual a 1 ou maior que 1000
+     */
+    public void inicializar(int n, Long semente) {
+        validarQuantidade(n);
 
         criaturas.clear();
         clusters.clear();
         Criaturas.resetarContador();
         historicoSimulacoes.clear();
+        quantidadeInicial = n;
+        this.semente = semente != null ? semente : ThreadLocalRandom.current().nextLong();
+        gerador = new SplittableRandom(this.semente);
 
         for (int i = 0; i < n; i++) {
             criaturas.add(new Criaturas());
@@ -68,6 +122,22 @@ public class SimuladorService {
         guardiao = new Guardiao(n + 1);
     }
 
+    /**
+     * Valida a quantidade de criaturas de uma simulação.
+     *
+     * @param n a quantidade de criaturas a serem simulada
+     * @throws IllegalArgumentException se a quantidade de criaturas for menor ou
+     *                                  igual a 1 ou maior que 1000
+     */
+    public void validarQuantidade(int n) {
+        if (n <= 1) {
+            throw new IllegalArgumentException("A quantidade de criaturas deve ser maior que zero.");
+        }
+        if (n > 1000) {
+            throw new IllegalArgumentException("A quantidade de criaturas deve ser menor ou igual a 1000.");
+        }
+    }
+
     /**
      * simula todas as iterações do simulador
      *
@@ -82,33 +152,36 @@ public class SimuladorService {
      *                                  igual a 1 ou maior que 1000
      */
     public List<SimularResponseDTO> simular(int iteracoes) {
-        if (iteracoes <= 0) {
-            throw new IllegalArgumentException("A quantidade de iterações deve ser maior que zero.");
-        }
-        if (iteracoes > 1000) {
-            throw new IllegalArgumentException("A quantidade de iterações deve ser menor ou igual a 1000.");
-        }
+        validarIteracoes(iteracoes);
 
         historicoSimulacoes.clear();
+        if (modoEnxuto) {
+            return simularEnxuto(iteracoes);
+        }
         boolean simulacaoFinalizada = false;
 
         for (int i = 0; i < iteracoes; i++) {
+            int iteracao = i + 1;
+
             // Processar criaturas individuais e formar clusters
-            Map<Integer, Integer> roubosCriaturas = processarCriaturas();
+            Map<Integer, Integer> roubosCriaturas = processarCriaturas(iteracao);
 
             // Processar clusters existentes
-            Map<Integer, Integer> roubosClusters = processarClusters();
+            Map<Integer, Integer> roubosClusters = processarClusters(iteracao);
 
             // Combinar todos os roubos
             Map<Integer, Integer> todosRoubos = new HashMap<>(roubosCriaturas);
             todosRoubos.putAll(roubosClusters);
 
             // Processar o guardião (após as criaturas/clusters)
-            int clusterEliminado = processarGuardiao();
+            int clusterEliminado = processarGuardiao(iteracao);
 
             // Criar snapshot da iteração atual usando estado ATUAL (após processamento)
-            SimularResponseDTO iteracaoAtual = criarSnapshotIteracao(i + 1, clusterEliminado, todosRoubos);
+            FaseSimulacaoEvento faseSnapshot = FaseSimulacaoEvento.iniciar();
+            SimularResponseDTO iteracaoAtual = criarSnapshotIteracao(iteracao, clusterEliminado, todosRoubos);
             historicoSimulacoes.add(iteracaoAtual);
+            faseSnapshot.concluir(FaseSimulacaoEvento.SNAPSHOT, quantidadeInicial, iteracao,
+                    criaturas.size() + clusters.size() + 1);
 
             // Verificar condições de vitória
             if (verificarGanhador()) {
@@ -119,13 +192,307 @@ public class SimuladorService {
 
         // Definir o flag de sucesso apenas na ÚLTIMA iteração se a simulação foi
         // finalizada
-        SimularResponseDTO ultimaIteracao = historicoSimulacoes.get(historicoSimulacoes.size() - 1);
-        ultimaIteracao.setSimulacaoBemSucedida(simulacaoFinalizada);
+        marcarUltimaIteracao(simulacaoFinalizada);
 
         return historicoSimulacoes;
     }
 
     /**
+     * Valida a quantidade de iterações de uma simulação.
+     *
+     * @param iteracoes a quantidade de iterações a serem simuladas
+     * @throws IllegalArgumentException se a quantidade de iterações for menor ou
+     *                                  igual a 0 ou maior que 1000
+     */
+    public void validarIteracoes(int iteracoes) {
+        if (iteracoes <= 0) {
+            throw new IllegalArgumentException("A quantidade de iterações deve ser maior que zero.");
+        }
+        if (iteracoes > 1000) {
+            throw new IllegalArgumentException("A quantidade de iterações deve ser menor ou igual a 1000.");
+        }
+    }
+
+    /**
+     * Executa as iterações no {@link MotorSimulacaoEnxuto} e grava o estado
+     * final de volta nas criaturas, clusters e guardião.
+     *
+     * @param iteracoes a quantidade de iterações a serem simuladas
+     * @return histórico com as iterações simuladas
+     */
+    private List<SimularResponseDTO> simularEnxuto(int iteracoes) {
+        MotorSimulacaoEnxuto motor = new MotorSimulacaoEnxuto(criaturas, clusters, guardiao, gerador,
+                quantidadeInicial);
+        boolean simulacaoFinalizada = false;
+
+        for (int i = 0; i < iteracoes; i++) {
+            int iteracao = i + 1;
+            motor.avancarIteracao(iteracao);
+
+            FaseSimulacaoEvento faseSnapshot = FaseSimulacaoEvento.iniciar();
+            SimularResponseDTO iteracaoAtual = motor.criarSnapshot(iteracao);
+            historicoSimulacoes.add(iteracaoAtual);
+            faseSnapshot.concluir(FaseSimulacaoEvento.SNAPSHOT, quantidadeInicial, iteracao,
+                    motor.entidadesVivas());
+
+            if (motor.temGanhador()) {
+                simulacaoFinalizada = true;
+                break;
+            }
+        }
+        motor.descarregar(criaturas, clusters);
+
+        marcarUltimaIteracao(simulacaoFinalizada);
+        return historicoSimulacoes;
+    }
+
+    // No histórico fora do heap os DTOs lidos são cópias; o flag é gravado nele
+    private void marcarUltimaIteracao(boolean simulacaoFinalizada) {
+        int ultima = historicoSimulacoes.size() - 1;
+        if (historicoSimulacoes instanceof HistoricoForaDoHeap foraDoHeap) {
+            foraDoHeap.definirBemSucedida(ultima, simulacaoFinalizada);
+        } else {
+            historicoSimulacoes.get(ultima).setSimulacaoBemSucedida(simulacaoFinalizada);
+        }
+    }
+
+    /**
+     * Simula e registra uma execução isolada para o usuário. O estado da
+     * execução (criaturas, clusters, guardião, gerador aleatório e
+     * histórico) é criado dentro da vez no {@link EscalonadorSimulacoes} a
+     * partir dos parâmetros, sem ler nem alterar o estado do serviço
+     * ({@link #inicializar}); requisições simultâneas não interferem umas nas
+     * outras, nem com a espera na fila. Usa o mesmo modo (enxuto ou não) e o
+     * mesmo tipo de histórico configurados no serviço.
+     *
+     * Um histórico fora do heap ({@link HistoricoForaDoHeap}) é só desta
+     * execução e deve ser devolvido com {@link #liberarHistorico} depois de
+     * escrito na resposta.
+     *
+     * @param quantidade   a quantidade de criaturas
+     * @param semente      semente do gerador (null para sortear uma)
+     * @param iteracoes    a quantidade de iterações a serem simuladas
+     * @param loginUsuario login do usuário (null para simulação anônima)
+     * @param idUsuario    id do usuário (null sem sessão)
+     * @return histórico com as iterações simuladas
+     * @throws IllegalArgumentException se a quantidade de criaturas ou de
+     *                                  iterações for inválida
+     */
+    public List<SimularResponseDTO> simular(int quantidade, Long semente, int iteracoes, String loginUsuario,
+            Long idUsuario) {
+        validarQuantidade(quantidade);
+        validarIteracoes(iteracoes);
+        long sementeExecucao = semente != null ? semente : ThreadLocalRandom.current().nextLong();
+        SimulacaoEvento evento;
+        long inicio;
+        SimuladorService execucao;
+        List<SimularResponseDTO> resultado;
+        try (EscalonadorSimulacoes.Vez vez = aguardarVez(loginUsuario, quantidade, iteracoes)) {
+            evento = SimulacaoEvento.iniciar();
+            inicio = System.nanoTime();
+            execucao = novaExecucao(quantidade, sementeExecucao);
+            resultado = execucao.simular(iteracoes);
+        }
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        boolean bemSucedida = resultado.get(resultado.size() - 1).isSimulacaoBemSucedida();
+        registrarExecucao(evento, loginUsuario, idUsuario, quantidade, iteracoes, sementeExecucao, resultado.size(),
+                bemSucedida, duracaoMs, execucao.guardiao.getOuro());
+        metricasUltimaExecucao = metricas(resultado, AMOSTRAS_METRICAS);
+        return resultado;
+    }
+
+    /**
+     * Devolve o histórico de uma execução isolada depois que a resposta foi
+     * escrita: fora do heap, libera na hora a memória e o arquivo de
+     * transbordo; em DTOs, não faz nada (fica para o GC).
+     *
+     * @param historico histórico retornado por {@link #simular(int, Long, int,
+     *                  String, Long)}
+     */
+    public void liberarHistorico(List<SimularResponseDTO> historico) {
+        if (historico instanceof HistoricoForaDoHeap foraDoHeap) {
+            foraDoHeap.close();
+        }
+    }
+
+    // Serviço só com o estado de uma execução, no mesmo modo e com o mesmo
+    // tipo de histórico deste; os ids são explícitos porque o contador global
+    // de criaturas é compartilhado com as outras simulações
+    private SimuladorService novaExecucao(int quantidade, long semente) {
+        SimuladorService execucao = new SimuladorService();
+        execucao.modoEnxuto = modoEnxuto;
+        execucao.historicoSimulacoes = historicoSimulacoes instanceof HistoricoForaDoHeap
+                ? new HistoricoForaDoHeap(orcamentoHistoricoBytes, diretorioHistorico)
+                : new ArrayList<>();
+        execucao.quantidadeInicial = quantidade;
+        execucao.semente = semente;
+        execucao.gerador = new SplittableRandom(semente);
+        for (int id = 1; id <= quantidade; id++) {
+            execucao.criaturas.add(new Criaturas(id));
+        }
+        execucao.guardiao = new Guardiao(quantidade + 1);
+        return execucao;
+    }
+
+    /**
+     * Simula uma execução isolada escrevendo cada iteração direto no gerador
+     * JSON, assim que ela é calculada, sem montar os DTOs da resposta nem
+     * guardar o histórico, e registra a execução para o usuário. O JSON
+     * gerado é igual, byte a byte, ao da serialização pelo Jackson da lista
+     * retornada por {@link #simular(int, Long, int, String, Long)}; cada
+     * iteração pode também ser escrita no formato colunar
+     * ({@link MotorSimulacaoEnxuto#escreverSnapshotColunar}) ou num formato
+     * resumido ({@link FormatoIteracao}: histogramas das posições, K maiores).
+     * O motor é criado dentro da vez no escalonador a partir dos parâmetros,
+     * sem ler nem alterar o estado do serviço ({@link #inicializar});
+     * requisições simultâneas não interferem umas nas outras, nem com a
+     * espera na fila. Com o gerador sobre uma
+     * {@link SaidaEmBlocos}, a vaga é devolvida enquanto cada bloco da
+     * resposta é escrito no cliente ({@link VezEmBlocos}).
+     *
+     * @param quantidade   a quantidade de criaturas
+     * @param semente      semente do gerador (null para sortear uma)
+     * @param iteracoes    a quantidade de iterações a serem simuladas
+     * @param loginUsuario login do usuário (null para simulação anônima)
+     * @param idUsuario    id do usuário (null sem sessão)
+     * @param json         gerador de destino (não é fechado)
+     * @param colunar      true para o formato colunar
+     * @param resumo       formato resumido (null para objetos ou colunar)
+     * @return quantidade de iterações executadas
+     * @throws IOException              se a escrita falhar
+     * @throws IllegalArgumentException se a quantidade de criaturas ou de
+     *                                  iterações for inválida
+     */
+    public int simular(int quantidade, Long semente, int iteracoes, String loginUsuario, Long idUsuario,
+            JsonGenerator json, boolean colunar, FormatoIteracao resumo) throws IOException {
+        validarQuantidade(quantidade);
+        validarIteracoes(iteracoes);
+        long sementeExecucao = semente != null ? semente : ThreadLocalRandom.current().nextLong();
+        SimulacaoEvento evento;
+        long inicio;
+        MotorSimulacaoEnxuto motor;
+        int executadas;
+        try (VezEmBlocos vez = VezEmBlocos.aguardar(escalonador, loginUsuario, quantidade, iteracoes, json)) {
+            evento = SimulacaoEvento.iniciar();
+            inicio = System.nanoTime();
+
+            motor = MotorSimulacaoEnxuto.novaExecucao(quantidade, sementeExecucao);
+            executadas = escreverIteracoes(motor, iteracoes, json, colunar, resumo, quantidade, vez);
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        registrarExecucao(evento, loginUsuario, idUsuario, quantidade, iteracoes, sementeExecucao, executadas,
+                motor.temGanhador(), duracaoMs, motor.ouroGuardiao());
+        return executadas;
+    }
+
+    // Espera a vez no escalonador; a espera não entra na duração registrada
+    private EscalonadorSimulacoes.Vez aguardarVez(String loginUsuario, int quantidade, int iteracoes) {
+        return EscalonadorSimulacoes.aguardarVez(escalonador, loginUsuario, (long) quantidade * iteracoes);
+    }
+
+    /**
+     * Avança o motor escrevendo cada iteração no gerador, como um vetor, até
+     * o limite de iterações ou até haver ganhador.
+     *
+     * @param motor             motor da simulação
+     * @param iteracoes         limite de iterações
+     * @param json              gerador de destino (não é fechado)
+     * @param colunar           true para o formato colunar
+     * @param quantidadeInicial quantidade inicial de criaturas (para eventos)
+     * @return quantidade de iterações executadas
+     * @throws IOException se a escrita falhar
+     */
+    static int escreverIteracoes(MotorSimulacaoEnxuto motor, int iteracoes, JsonGenerator json, boolean colunar,
+            int quantidadeInicial) throws IOException {
+        return escreverIteracoes(motor, iteracoes, json, colunar, null, quantidadeInicial);
+    }
+
+    /**
+     * Igual a {@link #escreverIteracoes(MotorSimulacaoEnxuto, int,
+     * JsonGenerator, boolean, int)}, podendo usar um formato resumido.
+     *
+     * @param motor             motor da simulação
+     * @param iteracoes         limite de iterações
+     * @param json              gerador de destino (não é fechado)
+     * @param colunar           true para o formato colunar
+     * @param resumo            formato resumido (null para objetos ou
+     *                          colunar; tem prioridade sobre o colunar)
+     * @param quantidadeInicial quantidade inicial de criaturas (para eventos)
+     * @return quantidade de iterações executadas
+     * @throws IOException se a escrita falhar
+     */
+    static int escreverIteracoes(MotorSimulacaoEnxuto motor, int iteracoes, JsonGenerator json, boolean colunar,
+            FormatoIteracao resumo, int quantidadeInicial) throws IOException {
+        return escreverIteracoes(motor, iteracoes, json, colunar, resumo, quantidadeInicial, null);
+    }
+
+    /**
+     * Igual a {@link #escreverIteracoes(MotorSimulacaoEnxuto, int,
+     * JsonGenerator, boolean, FormatoIteracao, int)}, devolvendo a vaga a
+     * cada bloco da resposta escrito no cliente.
+     *
+     * @param motor             motor da simulação
+     * @param iteracoes         limite de iterações
+     * @param json              gerador de destino (não é fechado)
+     * @param colunar           true para o formato colunar
+     * @param resumo            formato resumido (null para objetos ou
+     *                          colunar; tem prioridade sobre o colunar)
+     * @param quantidadeInicial quantidade inicial de criaturas (para eventos)
+     * @param vez               vez da simulação (null se a vaga fica ocupada
+     *                          até o fim)
+     * @return quantidade de iterações executadas
+     * @throws IOException se a escrita falhar
+     */
+    static int escreverIteracoes(MotorSimulacaoEnxuto motor, int iteracoes, JsonGenerator json, boolean colunar,
+            FormatoIteracao resumo, int quantidadeInicial, VezEmBlocos vez) throws IOException {
+        boolean simulacaoFinalizada = false;
+        int executadas = 0;
+
+        json.writeStartArray();
+        while (executadas < iteracoes && !simulacaoFinalizada) {
+            int iteracao = ++executadas;
+            motor.avancarIteracao(iteracao);
+            simulacaoFinalizada = motor.temGanhador();
+
+            // O flag de sucesso só pode ser verdadeiro na última iteração
+            FaseSimulacaoEvento faseSnapshot = FaseSimulacaoEvento.iniciar();
+            if (resumo != null) {
+                resumo.escreverIteracao(motor, json, iteracao, simulacaoFinalizada);
+            } else if (colunar) {
+                motor.escreverSnapshotColunar(json, iteracao, simulacaoFinalizada);
+            } else {
+                motor.escreverSnapshot(json, iteracao, simulacaoFinalizada);
+            }
+            faseSnapshot.concluir(FaseSimulacaoEvento.SNAPSHOT, quantidadeInicial, iteracao,
+                    motor.entidadesVivas());
+            if (vez != null && !simulacaoFinalizada) {
+                vez.aposIteracao(json, iteracoes - executadas);
+            }
+        }
+        json.writeEndArray();
+        return executadas;
+    }
+
+    /**
+     * Registra uma execução: catálogo, pontuação do usuário e evento JFR.
+     * Também usado para execuções calculadas fora do estado do serviço (ex.:
+     * compartilhadas por {@link SimulacoesCompartilhadas}), uma vez por
+     * chamada.
+     *
+     * @param evento            evento JFR iniciado no começo da chamada
+     * @param loginUsuario      login do usuário (null para simulação anônima)
+     * @param idUsuario         id do usuário do token de sessão (null sem
+     *                          sessão: localiza pelo login)
+     * @param quantidade        quantidade inicial de criaturas
+     * @param iteracoes         iterações pedidas
+     * @param semente           semente da simulação
+     * @param executadas        iterações executadas
+     * @param bemSucedida       se a simulação terminou com ganhador
+     * @param duracaoMs         duração para quem chamou, em milissegundos
+     * @param ouroFinalGuardiao ouro do guardião ao final
+     *
      * MC/DC para a condição: (loginUsuario != null &&
      * !loginUsuario.trim().isEmpty())
      * -------------------------------------------------------------------------------------------------
@@ -137,24 +504,31 @@ public class SimuladorService {
      * 3 | false | (não avaliado) | false | Testa a 1ª condição (login nulo)
      * -------------------------------------------------------------------------------------------------
      */
-    public List<SimularResponseDTO> simular(int iteracoes, String loginUsuario) {
-        List<SimularResponseDTO> resultado = simular(iteracoes);
-
-        // Verifica se a simulação foi bem-sucedida
-        boolean bemSucedida = resultado.stream()
-                .anyMatch(SimularResponseDTO::isSimulacaoBemSucedida);
+    public void registrarExecucao(SimulacaoEvento evento, String loginUsuario, Long idUsuario, int quantidade,
+            int iteracoes, long semente, int executadas, boolean bemSucedida, long duracaoMs,
+            int ouroFinalGuardiao) {
+        // Enfileira o registro da execução (gravado em lote, fora da requisição)
+        if (registroExecucaoService != null) {
+            registroExecucaoService.registrar(new SimulacaoExecucao(
+                    loginUsuario, quantidade, iteracoes, semente, bemSucedida,
+                    executadas, duracaoMs, ouroFinalGuardiao));
+        }
 
         // Registra a simulação para o usuário (se o login foi fornecido)
         if (loginUsuario != null && !loginUsuario.trim().isEmpty()) {
             try {
-                usuarioService.registrarSimulacao(loginUsuario, bemSucedida);
+                if (idUsuario != null) {
+                    usuarioService.registrarSimulacao(idUsuario, loginUsuario, bemSucedida);
+                } else {
+                    usuarioService.registrarSimulacao(loginUsuario, bemSucedida);
+                }
             } catch (IllegalArgumentException e) {
                 // Log de erro, mas não interrompe a simulação
                 System.err.println("Erro ao registrar simulação para usuário " + loginUsuario + ": " + e.getMessage());
             }
         }
 
-        return resultado;
+        evento.concluir(quantidade, iteracoes, executadas, semente, bemSucedida, loginUsuario);
     }
 
     /**
@@ -167,15 +541,18 @@ public class SimuladorService {
      * 3 | false | (não avaliado) | false | Testa a 1ª condição (não há vizinha)
      * -------------------------------------------------------------------------------------
      */
-    private Map<Integer, Integer> processarCriaturas() {
+    private Map<Integer, Integer> processarCriaturas(int iteracao) {
         Map<Integer, Integer> roubos = new HashMap<>();
 
         // PRIMEIRO: Mover todas as criaturas
+        FaseSimulacaoEvento fase = FaseSimulacaoEvento.iniciar();
         for (Criaturas criatura : criaturas) {
-            criatura.moverX();
+            criatura.moverX(gerador);
         }
+        fase.concluir(FaseSimulacaoEvento.MOVIMENTO, quantidadeInicial, iteracao, criaturas.size());
 
         // SEGUNDO: Processar roubo das criaturas individuais
+        fase = FaseSimulacaoEvento.iniciar();
         List<Criaturas> criaturasParaProcessamento = new ArrayList<>(criaturas);
         for (Criaturas criatura : criaturasParaProcessamento) {
             // Apenas processa criaturas que ainda existem na lista principal
@@ -191,11 +568,16 @@ public class SimuladorService {
                 roubos.put(criatura.getId(), -1);
             }
         }
+        fase.concluir(FaseSimulacaoEvento.ROUBO, quantidadeInicial, iteracao, criaturasParaProcessamento.size());
 
         // Bloco para eliminar criaturas com menos de 300 mil de ouro
+        fase = FaseSimulacaoEvento.iniciar();
+        int antesEliminacao = criaturas.size();
         eliminarCriaturasPoucoOuro(criaturas);
+        fase.concluir(FaseSimulacaoEvento.ELIMINACAO, quantidadeInicial, iteracao, antesEliminacao);
 
         // TERCEIRO: Formar clusters baseado na proximidade após movimento
+        fase = FaseSimulacaoEvento.iniciar();
         List<Criaturas> criaturasRestantes = new ArrayList<>(criaturas);
         List<List<Criaturas>> gruposProximos = new ArrayList<>();
         boolean[] jaProcessada = new boolean[criaturasRestantes.size()];
@@ -243,6 +625,7 @@ public class SimuladorService {
             roubos.put(novoCluster.getIdCluster(), criaturaSendoRoubada);
 
         }
+        fase.concluir(FaseSimulacaoEvento.AGRUPAMENTO, quantidadeInicial, iteracao, criaturasRestantes.size());
 
         return roubos;
     }
@@ -251,14 +634,16 @@ public class SimuladorService {
      * Processa os clusters existentes, movendo-os e fazendo-os roubar.
      * * @return mapa com clusters e IDs das criaturas roubadas
      */
-    private Map<Integer, Integer> processarClusters() {
+    private Map<Integer, Integer> processarClusters(int iteracao) {
         Map<Integer, Integer> roubosDosClusters = new HashMap<>();
 
+        FaseSimulacaoEvento fase = FaseSimulacaoEvento.iniciar();
         for (Cluster cluster : clusters) {
-            cluster.moverX();
+            cluster.moverX(gerador);
             int criaturaSendoRoubada = roubarDaCriaturaMaisProxima(cluster);
             roubosDosClusters.put(cluster.getIdCluster(), criaturaSendoRoubada);
         }
+        fase.concluir(FaseSimulacaoEvento.CLUSTERS, quantidadeInicial, iteracao, clusters.size());
 
         return roubosDosClusters;
     }
@@ -267,8 +652,18 @@ public class SimuladorService {
      * Processa o guardião, movendo-o e eliminando clusters se necessário.
      * * @return ID do cluster eliminado ou -1 se nenhum foi eliminado
      */
-    private int processarGuardiao() {
-        guardiao.moverX();
+    private int processarGuardiao(int iteracao) {
+        FaseSimulacaoEvento fase = FaseSimulacaoEvento.iniciar();
+        int clustersAvaliados = clusters.size();
+        try {
+            return eliminarClusterProximoDoGuardiao();
+        } finally {
+            fase.concluir(FaseSimulacaoEvento.GUARDIAO, quantidadeInicial, iteracao, clustersAvaliados);
+        }
+    }
+
+    private int eliminarClusterProximoDoGuardiao() {
+        guardiao.moverX(gerador);
 
         // Verificar se o guardião está próximo o suficiente de algum cluster para
         // eliminá-lo
@@ -471,4 +866,114 @@ public class SimuladorService {
     public List<SimularResponseDTO> getHistoricoSimulacoes() {
         return historicoSimulacoes;
     }
+
+    /**
+     * Escolhe onde o histórico da simulação fica guardado: em DTOs no heap
+     * (padrão) ou em buffers diretos ({@link HistoricoForaDoHeap}). O
+     * histórico atual é descartado.
+     *
+     * @param foraDoHeap true para guardar o histórico fora do heap
+     */
+    @Value("${saltitantes.simulacao.historico-fora-do-heap:false}")
+    public void setHistoricoForaDoHeap(boolean foraDoHeap) {
+        historicoSimulacoes.clear();
+        historicoSimulacoes = foraDoHeap ? new HistoricoForaDoHeap() : new ArrayList<>();
+        orcamentoHistoricoBytes = 0;
+        diretorioHistorico = null;
+    }
+
+    /**
+     * Obtém a ocupação de memória do histórico retido da última simulação:
+     * a do estado do serviço ({@link #inicializar}) ou, sem ele, a da última
+     * execução isolada, medida quando ela terminou (o histórico dela é
+     * liberado depois de escrito). No heap, o valor é uma estimativa pelo
+     * tamanho dos objetos; na execução isolada, para não percorrer o
+     * histórico a cada /simular, só algumas iterações espaçadas são medidas
+     * e o total é extrapolado.
+     *
+     * @return bytes no heap e fora dele
+     */
+    public MetricasHistoricoDTO metricasHistorico() {
+        MetricasHistoricoDTO ultimaExecucao = metricasUltimaExecucao;
+        if (historicoSimulacoes.isEmpty() && ultimaExecucao != null) {
+            return ultimaExecucao;
+        }
+        return metricas(historicoSimulacoes, Integer.MAX_VALUE);
+    }
+
+    // Em DTOs, mede no máximo a quantidade de iterações dada, igualmente
+    // espaçadas, e extrapola para o histórico todo
+    private static MetricasHistoricoDTO metricas(List<SimularResponseDTO> historico, int amostras) {
+        if (historico instanceof HistoricoForaDoHeap foraDoHeap) {
+            long leituras = foraDoHeap.leiturasTransbordadas();
+            return new MetricasHistoricoDTO(true, foraDoHeap.size(), foraDoHeap.bytesHeap(),
+                    foraDoHeap.bytesForaDoHeap(), foraDoHeap.bytesTransbordados(),
+                    foraDoHeap.totalBytesTransbordados(), leituras,
+                    leituras > 0 ? foraDoHeap.nanosLeituraTransbordada() / leituras : 0,
+                    foraDoHeap.maiorLeituraTransbordadaNanos());
+        }
+        int tamanho = historico.size();
+        int medidas = Math.min(tamanho, amostras);
+        long bytesHeap = 0;
+        for (int i = 0; i < medidas; i++) {
+            bytesHeap += HistoricoForaDoHeap.estimarBytesHeap(historico.get((int) ((long) i * tamanho / medidas)));
+        }
+        if (medidas > 0 && medidas < tamanho) {
+            bytesHeap = bytesHeap * tamanho / medidas;
+        }
+        return new MetricasHistoricoDTO(false, tamanho, bytesHeap, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Limita a memória do histórico de cada execução: passado o orçamento, as
+     * iterações mais antigas transbordam para um arquivo temporário mapeado
+     * em memória e são lidas de volta de forma transparente. O orçamento
+     * implica o histórico fora do heap ({@link HistoricoForaDoHeap}). O
+     * histórico atual é descartado.
+     *
+     * @param orcamentoBytes bytes em memória por execução (0 = sem limite)
+     * @param diretorio      diretório dos arquivos temporários
+     */
+    public void setOrcamentoHistorico(long orcamentoBytes, Path diretorio) {
+        historicoSimulacoes.clear();
+        historicoSimulacoes = new HistoricoForaDoHeap(orcamentoBytes, diretorio);
+        orcamentoHistoricoBytes = orcamentoBytes;
+        diretorioHistorico = diretorio;
+    }
+
+    @PostConstruct
+    void configurarTransbordoHistorico() {
+        if (historicoOrcamentoMb > 0) {
+            Path diretorio = Paths.get(historicoDiretorio);
+            // Arquivos deixados por um processo anterior que caiu
+            int apagados = HistoricoForaDoHeap.limparArquivosOrfaos(diretorio);
+            if (apagados > 0) {
+                System.err.println("Arquivos de transbordo órfãos apagados: " + apagados);
+            }
+            setOrcamentoHistorico(historicoOrcamentoMb * 1024 * 1024, diretorio);
+        }
+    }
+
+    /**
+     * Libera o histórico retido (memória fora do heap e arquivo temporário)
+     * no encerramento da aplicação.
+     */
+    @PreDestroy
+    public void encerrar() {
+        historicoSimulacoes.clear();
+    }
+
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Liga ou desliga o modo enxuto ({@link MotorSimulacaoEnxuto}). O
+     * resultado da simulação é o mesmo nos dois modos.
+     *
+     * @param modoEnxuto true para usar o motor enxuto
+     */
+    public void setModoEnxuto(boolean modoEnxuto) {
+        this.modoEnxuto = modoEnxuto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.example.saltitantes.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tokens de sessão assinados, sem estado no servidor.
+ *
+ * O token leva o id e o login do usuário e o instante de expiração,
+ * assinados com HMAC-SHA256: {@code carga.assinatura}, ambas em Base64 URL.
+ * Validar é recalcular a assinatura e conferir a expiração, sem acesso ao
+ * banco. Sem segredo configurado, um aleatório é gerado na partida e os
+ * tokens deixam de valer quando a aplicação reinicia.
+ */
+@Service
+public class TokensSessao {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final SecretKeySpec chave;
+    private final long validadeSegundos;
+    private final Clock relogio;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Sessão de um token válido.
+     */
+    public static final class Sessao {
+        private final long idUsuario;
+        private final String login;
+        private final long expiraEm; // Segundos desde a época
+
+        private Sessao(long idUsuario, String login, long expiraEm) {
+            this.idUsuario = idUsuario;
+            this.login = login;
+            this.expiraEm = expiraEm;
+        }
+
+        public long getIdUsuario() {
+            return idUsuario;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public long getExpiraEm() {
+            return expiraEm;
+        }
+    }
+
+    @Autowired
+    public TokensSessao(@Value("${saltitantes.sessao.segredo:}") String segredo,
+            @Value("${saltitantes.sessao.validade-minutos:60}") long validadeMinutos) {
+        this(segredo, validadeMinutos, Clock.systemUTC());
+    }
+
+    public TokensSessao(String segredo, long validadeMinutos, Clock relogio) {
+        if (validadeMinutos <= 0) {
+            throw new IllegalArgumentException("A validade do token de sessão deve ser maior que zero.");
+        }
+        byte[] bytesChave;
+        if (segredo == null || segredo.isBlank()) {
+            System.err.println("Segredo dos tokens de sessão não configurado: "
+                    + "usando um aleatório, os tokens valem até a aplicação reiniciar.");
+            bytesChave = new byte[32];
+            new SecureRandom().nextBytes(bytesChave);
+        } else {
+            bytesChave = segredo.getBytes(StandardCharsets.UTF_8);
+        }
+        this.chave = new SecretKeySpec(bytesChave, ALGORITMO);
+        this.validadeSegundos = validadeMinutos * 60;
+        this.relogio = relogio;
+        this.macs = ThreadLocal.withInitial(this::novoMac);
+    }
+
+    /**
+     * Emite um token para o usuário autenticado.
+     *
+     * @param idUsuario id do usuário
+     * @param login     login do usuário
+     * @return token assinado
+     */
+    public String emitir(long idUsuario, String login) {
+        long expiraEm = relogio.instant().getEpochSecond() + validadeSegundos;
+        String carga = CODIFICADOR.encodeToString(
+                (idUsuario + ":" + expiraEm + ":" + login).getBytes(StandardCharsets.UTF_8));
+        return carga + "." + CODIFICADOR.encodeToString(assinar(carga));
+    }
+
+    /**
+     * Valida um token, sem acessar o banco.
+     *
+     * @param token token recebido
+     * @return sessão do token, ou null se ele for malformado, tiver
+     *         assinatura inválida ou estiver expirado
+     */
+    public Sessao validar(String token) {
+        int ponto = token.indexOf('.');
+        if (ponto <= 0) {
+            return null;
+        }
+        String carga = token.substring(0, ponto);
+        try {
+            byte[] assinatura = DECODIFICADOR.decode(token.substring(ponto + 1));
+            if (!MessageDigest.isEqual(assinatura, assinar(carga))) {
+                return null;
+            }
+
+            String[] campos = new String(DECODIFICADOR.decode(carga), StandardCharsets.UTF_8).split(":", 3);
+            if (campos.length != 3) {
+                return null;
+            }
+            long expiraEm = Long.parseLong(campos[1]);
+            if (expiraEm <= relogio.instant().getEpochSecond()) {
+                return null;
+            }
+            return new Sessao(Long.parseLong(campos[0]), campos[2], expiraEm);
+        } catch (IllegalArgumentException e) {
+            // Base64 ou número inválido
+            return null;
+        }
+    }
+
+    private byte[] assinar(String carga) {
+        return macs.get().doFinal(carga.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível.", e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trajetórias de todas as entidades de uma execução, uma série por
+ * entidade: posição, ouro e alvo do roubo em cada iteração em que ela
+ * esteve viva.
+ *
+ * Uma entidade fica viva num intervalo contínuo de iterações (a criatura
+ * até entrar num cluster, o cluster até ser eliminado, o guardião sempre),
+ * então cada série guarda só a primeira iteração e vetores primitivos
+ * paralelos. Consultar uma entidade custa o tamanho da série, e não
+ * entidades x iterações.
+ *
+ * Preenchida por {@link MotorSimulacaoEnxuto#registrarTrajetorias} a cada
+ * iteração e depois só lida; a leitura concorrente é segura após
+ * {@link #concluir()}.
+ */
+public final class TrajetoriasExecucao {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+    // Estimativa do objeto da série, dos vetores e da entrada no mapa
+    private static final int BYTES_POR_SERIE = 160;
+    private static final int BYTES_POR_PONTO = 16;
+
+    private static final SerializableString CAMPO_TIPO = new SerializedString("tipo");
+    private static final SerializableString CAMPO_ID = new SerializedString("id");
+    private static final SerializableString CAMPO_DE = new SerializedString("de");
+    private static final SerializableString CAMPO_ATE = new SerializedString("ate");
+    private static final SerializableString CAMPO_POSICAO = new SerializedString("posicaox");
+    private static final SerializableString CAMPO_OURO = new SerializedString("ouro");
+    private static final SerializableString CAMPO_ALVO = new SerializedString("alvo");
+
+    /**
+     * Tipo de entidade. O alvo é a criatura roubada (criatura e cluster) ou
+     * o cluster eliminado (guardião); -1 quando não houve.
+     */
+    public enum Tipo {
+        CRIATURA, CLUSTER, GUARDIAO;
+
+        /**
+         * @param nome criatura, cluster ou guardiao
+         * @return tipo correspondente
+         * @throws IllegalArgumentException se o nome for inválido
+         */
+        public static Tipo doNome(String nome) {
+            for (Tipo tipo : values()) {
+                if (tipo.nome().equals(nome)) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Tipo de entidade inválido: use criatura, cluster ou guardiao.");
+        }
+
+        /**
+         * @return nome usado na URL e na resposta
+         */
+        public String nome() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Série de uma entidade, da iteração {@link #getInicio()} em diante.
+     */
+    public static final class Serie {
+        private final int inicio;
+        private int tamanho;
+        private double[] posicao = new double[CAPACIDADE_INICIAL];
+        private int[] ouro = new int[CAPACIDADE_INICIAL];
+        private int[] alvo = new int[CAPACIDADE_INICIAL];
+
+        private Serie(int inicio) {
+            this.inicio = inicio;
+        }
+
+        private void adicionar(double x, int ouroAtual, int alvoAtual) {
+            if (tamanho == posicao.length) {
+                int capacidade = tamanho * 2;
+                posicao = Arrays.copyOf(posicao, capacidade);
+                ouro = Arrays.copyOf(ouro, capacidade);
+                alvo = Arrays.copyOf(alvo, capacidade);
+            }
+            posicao[tamanho] = x;
+            ouro[tamanho] = ouroAtual;
+            alvo[tamanho] = alvoAtual;
+            tamanho++;
+        }
+
+        private void compactar() {
+            posicao = Arrays.copyOf(posicao, tamanho);
+            ouro = Arrays.copyOf(ouro, tamanho);
+            alvo = Arrays.copyOf(alvo, tamanho);
+        }
+
+        public int getInicio() {
+            return inicio;
+        }
+
+        public int getFim() {
+            return inicio + tamanho - 1;
+        }
+
+        public int getTamanho() {
+            return tamanho;
+        }
+
+        public double posicao(int iteracao) {
+            return posicao[iteracao - inicio];
+        }
+
+        public int ouro(int iteracao) {
+            return ouro[iteracao - inicio];
+        }
+
+        public int alvo(int iteracao) {
+            return alvo[iteracao - inicio];
+        }
+    }
+
+    private final Map<Integer, Serie> criaturas;
+    private final Map<Integer, Serie> clusters = new HashMap<>();
+    private final Map<Integer, Serie> guardiao = new HashMap<>(2);
+    private long pontos;
+    private long series;
+
+    /**
+     * @param quantidade quantidade inicial de criaturas (dimensiona o mapa)
+     */
+    public TrajetoriasExecucao(int quantidade) {
+        this.criaturas = new HashMap<>(Math.max(16, quantidade * 4 / 3 + 1));
+    }
+
+    /**
+     * Acrescenta o estado de uma entidade na iteração.
+     *
+     * Os ids de cluster vêm dos ids das duas primeiras criaturas e podem se
+     * repetir numa execução; um segundo cluster com o mesmo id não
+     * continua a série do primeiro e é ignorado.
+     *
+     * @param tipo     tipo da entidade
+     * @param id       id da entidade
+     * @param iteracao número da iteração
+     * @param x        posição
+     * @param ouro     ouro
+     * @param alvo     alvo do roubo, ou -1
+     */
+    void registrar(Tipo tipo, int id, int iteracao, double x, int ouro, int alvo) {
+        Map<Integer, Serie> mapa = mapa(tipo);
+        Serie serie = mapa.get(id);
+        if (serie == null) {
+            serie = new Serie(iteracao);
+            mapa.put(id, serie);
+            series++;
+        } else if (serie.getFim() + 1 != iteracao) {
+            return;
+        }
+        serie.adicionar(x, ouro, alvo);
+        pontos++;
+    }
+
+    /**
+     * Ajusta os vetores ao tamanho das séries; chamado quando a execução
+     * termina de ser registrada.
+     */
+    public void concluir() {
+        for (Tipo tipo : Tipo.values()) {
+            mapa(tipo).values().forEach(Serie::compactar);
+        }
+    }
+
+    /**
+     * @param tipo tipo da entidade
+     * @param id   id da entidade
+     * @return série da entidade, ou null se ela não existiu na execução
+     */
+    public Serie serie(Tipo tipo, int id) {
+        return mapa(tipo).get(id);
+    }
+
+    /**
+     * Escreve um trecho da série no formato colunar.
+     *
+     * <pre>
+     * {"tipo":"criatura","id":17,"de":1,"ate":12,"posicaox":[..],"ouro":[..],"alvo":[..]}
+     * </pre>
+     *
+     * @param json  gerador de destino
+     * @param tipo  tipo da entidade
+     * @param id    id da entidade
+     * @param serie série da entidade
+     * @param de    primeira iteração, dentro da série
+     * @param ate   última iteração, dentro da série
+     * @throws IOException se a escrita falhar
+     */
+    public static void escrever(JsonGenerator json, Tipo tipo, int id, Serie serie, int de, int ate)
+            throws IOException {
+        int inicio = de - serie.inicio;
+        int quantidade = ate - de + 1;
+        json.writeStartObject();
+        json.writeFieldName(CAMPO_TIPO);
+        json.writeString(tipo.nome());
+        json.writeFieldName(CAMPO_ID);
+        json.writeNumber(id);
+        json.writeFieldName(CAMPO_DE);
+        json.writeNumber(de);
+        json.writeFieldName(CAMPO_ATE);
+        json.writeNumber(ate);
+        json.writeFieldName(CAMPO_POSICAO);
+        json.writeArray(serie.posicao, inicio, quantidade);
+        json.writeFieldName(CAMPO_OURO);
+        json.writeArray(serie.ouro, inicio, quantidade);
+        json.writeFieldName(CAMPO_ALVO);
+        json.writeArray(serie.alvo, inicio, quantidade);
+        json.writeEndObject();
+    }
+
+    /**
+     * @return estimativa da memória ocupada, em bytes
+     */
+    public long bytesEstimados() {
+        return series * BYTES_POR_SERIE + pontos * BYTES_POR_PONTO;
+    }
+
+    private Map<Integer, Serie> mapa(Tipo tipo) {
+        switch (tipo) {
+            case CRIATURA:
+                return criaturas;
+            case CLUSTER:
+                return clusters;
+            default:
+                return guardiao;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.saltitantes.service;
+
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.example.saltitantes.service.TrajetoriasExecucao.Serie;
+import com.example.saltitantes.service.TrajetoriasExecucao.Tipo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que responde a trajetória de uma entidade (criatura, cluster ou
+ * guardião) ao longo de uma execução registrada.
+ *
+ * Na primeira consulta a uma execução ela é reproduzida uma vez a partir da
+ * semente, como em {@link HistoricoIteracoesService}, registrando as séries
+ * de todas as entidades ({@link TrajetoriasExecucao}). As consultas
+ * seguintes à mesma execução, de qualquer entidade, custam só o tamanho da
+ * série. As execuções reproduzidas ficam num cache limitado por um
+ * orçamento de memória, despejando as usadas há mais tempo; consultas
+ * simultâneas à mesma execução compartilham a reprodução.
+ */
+@Service
+public class TrajetoriasService {
+
+    @Autowired
+    private SimulacaoExecucaoRepository execucaoRepository;
+
+    @Autowired
+    private EscalonadorSimulacoes escalonador;
+
+    @Value("${saltitantes.simulacoes.trajetorias.orcamento-mb:64}")
+    private long orcamentoMb = 64;
+
+    // Ordem de acesso: a primeira entrada é a usada há mais tempo
+    private final LinkedHashMap<Long, CompletableFuture<TrajetoriasExecucao>> cache = new LinkedHashMap<>(16,
+            0.75f, true);
+    private long bytesEmCache;
+
+    /**
+     * Trecho validado da série de uma entidade.
+     */
+    public static final class TrechoTrajetoria {
+        private final SimulacaoExecucao execucao;
+        private final Tipo tipo;
+        private final int id;
+        private final Serie serie;
+        private final int de;
+        private final int ate;
+
+        public TrechoTrajetoria(SimulacaoExecucao execucao, Tipo tipo, int id, Serie serie, int de, int ate) {
+            this.execucao = execucao;
+            this.tipo = tipo;
+            this.id = id;
+            this.serie = serie;
+            this.de = de;
+            this.ate = ate;
+        }
+
+        public SimulacaoExecucao getExecucao() {
+            return execucao;
+        }
+
+        public Tipo getTipo() {
+            return tipo;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Serie getSerie() {
+            return serie;
+        }
+
+        public int getDe() {
+            return de;
+        }
+
+        public int getAte() {
+            return ate;
+        }
+    }
+
+    /**
+     * Busca o trecho [de, ate] da trajetória de uma entidade, limitado às
+     * iterações em que ela esteve viva.
+     *
+     * @param idExecucao id da execução no catálogo
+     * @param tipo       tipo da entidade
+     * @param id         id da entidade
+     * @param de         primeira iteração (null para o início da série)
+     * @param ate        última iteração (null para o fim da série)
+     * @return trecho da série, ou vazio se a execução ou a entidade não
+     *         existirem
+     * @throws IllegalArgumentException se a faixa for inválida ou não
+     *                                  alcançar a série
+     *
+     * MC/DC para a condição: (inicio > fim)
+     * ---------------------------------------------------------
+     * Caso | inicio > fim | Resultado | Justificativa
+     * ---------------------------------------------------------
+     * 1 | true | exceção | Faixa invertida ou fora da vida da entidade
+     * 2 | false | trecho | Faixa válida
+     * ---------------------------------------------------------
+     */
+    public Optional<TrechoTrajetoria> buscar(long idExecucao, Tipo tipo, int id, Integer de, Integer ate) {
+        Optional<SimulacaoExecucao> execucao = execucaoRepository.findById(idExecucao);
+        if (execucao.isEmpty()) {
+            return Optional.empty();
+        }
+        Serie serie = trajetorias(idExecucao, execucao.get()).serie(tipo, id);
+        if (serie == null) {
+            return Optional.empty();
+        }
+
+        int inicio = Math.max(de != null ? de : serie.getInicio(), serie.getInicio());
+        int fim = Math.min(ate != null ? ate : serie.getFim(), serie.getFim());
+        if (inicio > fim) {
+            throw new IllegalArgumentException("A entidade só existe da iteração " + serie.getInicio()
+                    + " à " + serie.getFim() + ".");
+        }
+        return Optional.of(new TrechoTrajetoria(execucao.get(), tipo, id, serie, inicio, fim));
+    }
+
+    /**
+     * Obtém as séries da execução, do cache ou reproduzindo-a.
+     *
+     * @param idExecucao id da execução no catálogo
+     * @param execucao   execução registrada
+     * @return séries de todas as entidades
+     */
+    TrajetoriasExecucao trajetorias(long idExecucao, SimulacaoExecucao execucao) {
+        CompletableFuture<TrajetoriasExecucao> futura;
+        boolean reproduzir = false;
+        synchronized (cache) {
+            futura = cache.get(idExecucao);
+            if (futura == null) {
+                futura = new CompletableFuture<>();
+                cache.put(idExecucao, futura);
+                reproduzir = true;
+            }
+        }
+
+        if (reproduzir) {
+            try {
+                TrajetoriasExecucao trajetorias = reproduzir(execucao);
+                futura.complete(trajetorias);
+                guardar(idExecucao, trajetorias.bytesEstimados());
+            } catch (RuntimeException | Error e) {
+                synchronized (cache) {
+                    cache.remove(idExecucao, futura);
+                }
+                futura.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return futura.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a reprodução da execução.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao reproduzir a execução " + idExecucao + ".",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * @return quantidade de execuções no cache
+     */
+    public int execucoesEmCache() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return estimativa da memória das execuções no cache, em bytes
+     */
+    public long bytesEmCache() {
+        synchronized (cache) {
+            return bytesEmCache;
+        }
+    }
+
+    private TrajetoriasExecucao reproduzir(SimulacaoExecucao execucao) {
+        int executadas = execucao.getIteracoesExecutadas();
+        try (EscalonadorSimulacoes.Vez vez = EscalonadorSimulacoes.aguardarReproducao(escalonador, execucao,
+                executadas)) {
+            MotorSimulacaoEnxuto motor = MotorSimulacaoEnxuto.novaExecucao(execucao.getQuantidade(),
+                    execucao.getSemente());
+            TrajetoriasExecucao trajetorias = new TrajetoriasExecucao(execucao.getQuantidade());
+            for (int iteracao = 1; iteracao <= executadas; iteracao++) {
+                motor.avancarIteracao(iteracao);
+                motor.registrarTrajetorias(trajetorias, iteracao);
+            }
+            trajetorias.concluir();
+            return trajetorias;
+        }
+    }
+
+    // Despeja as execuções usadas há mais tempo até caber no orçamento; a
+    // recém-guardada fica mesmo sozinha acima dele
+    private void guardar(long idExecucao, long bytes) {
+        long orcamento = orcamentoMb * 1024 * 1024;
+        synchronized (cache) {
+            bytesEmCache += bytes;
+            Iterator<Map.Entry<Long, CompletableFuture<TrajetoriasExecucao>>> entradas = cache.entrySet()
+                    .iterator();
+            while (bytesEmCache > orcamento && entradas.hasNext()) {
+                Map.Entry<Long, CompletableFuture<TrajetoriasExecucao>> entrada = entradas.next();
+                CompletableFuture<TrajetoriasExecucao> futura = entrada.getValue();
+                // Reproduções em andamento ainda não contam no orçamento
+                if (entrada.getKey() == idExecucao || !futura.isDone() || futura.isCompletedExceptionally()) {
+                    continue;
+                }
+                bytesEmCache -= futura.join().bytesEstimados();
+                entradas.remove();
+            }
+        }
+    }
+}
@@ -2,16 +2,27 @@ package com.example.saltitantes.service;
 
 import com.example.saltitantes.model.dto.CriarUsuarioDTO;
 import com.example.saltitantes.model.dto.EstatisticasDTO;
+import com.example.saltitantes.model.dto.LinhaUsuarioDTO;
 import com.example.saltitantes.model.dto.LoginDTO;
+import com.example.saltitantes.model.dto.PaginaUsuariosDTO;
+import com.example.saltitantes.model.dto.ResumoUsuariosDTO;
+import com.example.saltitantes.model.dto.UsuarioAutenticadoDTO;
 import com.example.saltitantes.model.dto.UsuarioDTO;
 import com.example.saltitantes.model.entity.Usuario;
+import com.example.saltitantes.monitoramento.OperacaoUsuarioEvento;
 import com.example.saltitantes.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 /**
@@ -20,9 +31,27 @@ import org.springframework.stereotype.Service;
 @Service
 public class UsuarioService {
 
+    static final int TAMANHO_MAXIMO_PAGINA = 1000;
+    static final String ORDENACAO_LOGIN = "login";
+    static final String ORDENACAO_ID = "id";
+
+    @Value("${saltitantes.usuarios.listagem.tamanho-pagina:100}")
+    private int tamanhoPaginaPadrao = 100;
+
+    @Value("${saltitantes.usuarios.listagem.limite-sem-paginacao:1000}")
+    private int limiteSemPaginacao = 1000;
+
     @Autowired
     private UserRepository userRepository;
 
+    // Presente apenas com saltitantes.usuarios.write-behind.habilitado=true
+    @Autowired(required = false)
+    private BufferRegistroSimulacoes bufferRegistro;
+
+    // Ausente com saltitantes.usuarios.cache.habilitado=false
+    @Autowired(required = false)
+    private CacheUsuarios cacheUsuarios;
+
     /**
      * MC/DC para a condição de validação do login: (criarUsuarioDTO.getLogin() ==
      * null || criarUsuarioDTO.getLogin().trim().isEmpty())
@@ -56,7 +85,8 @@ public class UsuarioService {
         }
 
         // Verifica se o login já existe
-        Optional<Usuario> usuarioExistente = userRepository.findByLogin(criarUsuarioDTO.getLogin());
+        Optional<Usuario> usuarioExistente = noBanco("findByLogin", criarUsuarioDTO.getLogin(),
+                () -> userRepository.findByLogin(criarUsuarioDTO.getLogin()));
         if (usuarioExistente.isPresent()) {
             throw new IllegalArgumentException("Login já existe.");
         }
@@ -68,7 +98,9 @@ public class UsuarioService {
                 criarUsuarioDTO.getAvatar());
 
         // Salva no banco de dados
-        usuario = userRepository.save(usuario);
+        Usuario novo = usuario;
+        usuario = noBanco("save", novo.getLogin(), () -> userRepository.save(novo));
+        invalidarCache(usuario.getLogin());
 
         return converterParaDTO(usuario);
     }
@@ -81,18 +113,39 @@ public class UsuarioService {
      * @throws IllegalArgumentException se credenciais inválidas
      */
     public UsuarioDTO login(LoginDTO loginDTO) {
-        Optional<Usuario> usuarioOpt = userRepository.findByLogin(loginDTO.getLogin());
-
-        if (usuarioOpt.isEmpty()) {
-            throw new IllegalArgumentException("Usuário não encontrado.");
-        }
-
-        Usuario usuario = usuarioOpt.get();
-        if (!usuario.verificarSenha(loginDTO.getSenha())) {
-            throw new IllegalArgumentException("Senha incorreta.");
-        }
+        return autenticar(loginDTO).getUsuario();
+    }
 
-        return converterParaDTO(usuario);
+    /**
+     * Realiza login do usuário, retornando também o id para o token de
+     * sessão.
+     *
+     * @param loginDTO dados de login
+     * @return DTO do usuário logado com o id
+     * @throws IllegalArgumentException se credenciais inválidas
+     */
+    public UsuarioAutenticadoDTO autenticar(LoginDTO loginDTO) {
+        return lerComPendentes(() -> {
+            Optional<Usuario> usuarioOpt = buscarPorLogin(loginDTO.getLogin());
+
+            if (usuarioOpt.isEmpty()) {
+                throw new IllegalArgumentException("Usuário não encontrado.");
+            }
+
+            Usuario usuario = usuarioOpt.get();
+            if (!usuario.verificarSenha(loginDTO.getSenha()) && cacheUsuarios != null) {
+                // A senha do cache pode estar desatualizada: confirma no banco
+                invalidarCache(loginDTO.getLogin());
+                usuario = noBanco("findByLogin", loginDTO.getLogin(),
+                        () -> userRepository.findByLogin(loginDTO.getLogin()))
+                        .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado."));
+            }
+            if (!usuario.verificarSenha(loginDTO.getSenha())) {
+                throw new IllegalArgumentException("Senha incorreta.");
+            }
+
+            return new UsuarioAutenticadoDTO(usuario.getId(), converterComPendentes(usuario));
+        });
     }
 
     /**
@@ -102,73 +155,195 @@ public class UsuarioService {
      * @throws IllegalArgumentException se usuário não existe
      */
     public void excluirUsuario(String login) {
-        Optional<Usuario> usuarioOpt = userRepository.findByLogin(login);
+        Optional<Usuario> usuarioOpt = buscarPorLogin(login);
         if (usuarioOpt.isEmpty()) {
             throw new IllegalArgumentException("Usuário não encontrado.");
         }
 
-        userRepository.delete(usuarioOpt.get());
+        noBanco("delete", login, () -> {
+            userRepository.delete(usuarioOpt.get());
+            return 1;
+        });
+        invalidarCache(login);
     }
 
     /**
-     * Lista todos os usuários cadastrados.
+     * Lista todos os usuários, em ordem de id, numa única consulta limitada:
+     * busca no máximo uma linha além do limite sem paginação, só para saber
+     * se ele foi ultrapassado.
      *
-     * @return lista de DTOs dos usuários
+     * @return lista de DTOs de todos os usuários
+     * @throws IllegalStateException se houver mais usuários que o limite; a
+     *                               listagem deve então ser paginada
      */
     public List<UsuarioDTO> listarUsuarios() {
-        return userRepository.findAll().stream()
+        PageRequest limite = PageRequest.of(0, limiteSemPaginacao + 1);
+        List<LinhaUsuarioDTO> linhas = noBanco("listarAposId", null, () -> userRepository.listarAposId(0L, limite));
+        if (linhas.size() > limiteSemPaginacao) {
+            throw new IllegalStateException("Há mais de " + limiteSemPaginacao
+                    + " usuários; use a listagem paginada (parâmetros tamanho e cursor).");
+        }
+        return linhas.stream()
+                .map(this::converterParaDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lista usuários com paginação por keyset: cada página começa depois da
+     * última chave (login ou id) da anterior, sem OFFSET e sem carregar
+     * entidades.
+     *
+     * @param ordenacao "login" ou "id" (ignorada quando há cursor)
+     * @param cursor    cursor retornado pela página anterior (null para a
+     *                  primeira)
+     * @param tamanho   quantidade de usuários por página
+     * @return página de usuários e cursor da próxima
+     * @throws IllegalArgumentException se a ordenação, o cursor ou o tamanho
+     *                                  forem inválidos
+     */
+    public PaginaUsuariosDTO listarUsuarios(String ordenacao, String cursor, int tamanho) {
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException(
+                    "O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+        }
+
+        String chave = cursor != null ? decodificarCursor(cursor) : null;
+        boolean porLogin = chave != null ? chave.startsWith(ORDENACAO_LOGIN + ":") : ORDENACAO_LOGIN.equals(ordenacao);
+        if (chave == null && !porLogin && !ORDENACAO_ID.equals(ordenacao)) {
+            throw new IllegalArgumentException("Ordenação deve ser 'login' ou 'id'.");
+        }
+
+        PageRequest limite = PageRequest.of(0, tamanho);
+        List<LinhaUsuarioDTO> linhas;
+        if (porLogin) {
+            String ultimoLogin = chave != null ? chave.substring(ORDENACAO_LOGIN.length() + 1) : "";
+            linhas = noBanco("listarAposLogin", null, () -> userRepository.listarAposLogin(ultimoLogin, limite));
+        } else {
+            long ultimoId = chave != null ? lerIdCursor(chave) : 0L;
+            linhas = noBanco("listarAposId", null, () -> userRepository.listarAposId(ultimoId, limite));
+        }
+
+        List<UsuarioDTO> usuarios = linhas.stream()
                 .map(this::converterParaDTO)
                 .collect(Collectors.toList());
+
+        String proximoCursor = null;
+        if (linhas.size() == tamanho) {
+            LinhaUsuarioDTO ultima = linhas.get(linhas.size() - 1);
+            proximoCursor = codificarCursor(porLogin
+                    ? ORDENACAO_LOGIN + ":" + ultima.getLogin()
+                    : ORDENACAO_ID + ":" + ultima.getId());
+        }
+
+        return new PaginaUsuariosDTO(usuarios, proximoCursor);
     }
 
     /**
-     * Registra uma simulação executada por um usuário.
+     * @return tamanho da página quando a listagem paginada não o informa
+     */
+    public int getTamanhoPaginaPadrao() {
+        return tamanhoPaginaPadrao;
+    }
+
+    /**
+     * Define quantos usuários a listagem sem paginação aceita devolver.
+     *
+     * @param limite máximo de usuários
+     */
+    public void setLimiteSemPaginacao(int limite) {
+        this.limiteSemPaginacao = limite;
+    }
+
+    /**
+     * Registra uma simulação executada por um usuário. Os contadores são
+     * incrementados por um único UPDATE no banco, sem perder incrementos de
+     * simulações concorrentes do mesmo usuário.
+     *
+     * No modo write-behind o incremento apenas é acumulado em memória e gravado
+     * em lote depois; nesse modo um login inexistente é descartado no flush.
      *
      * @param login       login do usuário
      * @param bemSucedida se a simulação foi bem-sucedida
      * @throws IllegalArgumentException se usuário não existe
      */
     public void registrarSimulacao(String login, boolean bemSucedida) {
-        Optional<Usuario> usuarioOpt = userRepository.findByLogin(login);
+        if (bufferRegistro != null) {
+            bufferRegistro.registrar(login, bemSucedida);
+            return;
+        }
 
-        if (usuarioOpt.isEmpty()) {
+        int atualizados = noBanco("incrementarSimulacoes", login,
+                () -> userRepository.incrementarSimulacoes(login, bemSucedida ? 1 : 0));
+
+        if (atualizados == 0) {
             throw new IllegalArgumentException("Usuário não encontrado.");
         }
+        invalidarCache(login);
+    }
 
-        Usuario usuario = usuarioOpt.get();
-        usuario.incrementarTotalSimulacoes();
-        if (bemSucedida) {
-            usuario.incrementarPontuacao();
+    /**
+     * Igual a {@link #registrarSimulacao(String, boolean)}, com o id do
+     * usuário vindo do token de sessão: o UPDATE localiza a linha pela chave
+     * primária. No modo write-behind o incremento é acumulado pelo login.
+     *
+     * @param idUsuario   id do usuário (null para localizar pelo login)
+     * @param login       login do usuário
+     * @param bemSucedida se a simulação foi bem-sucedida
+     * @throws IllegalArgumentException se usuário não existe
+     */
+    public void registrarSimulacao(Long idUsuario, String login, boolean bemSucedida) {
+        if (idUsuario == null || bufferRegistro != null) {
+            registrarSimulacao(login, bemSucedida);
+            return;
         }
 
-        // Salva as alterações no banco
-        userRepository.save(usuario);
+        int atualizados = noBanco("incrementarSimulacoesPorId", login,
+                () -> userRepository.incrementarSimulacoesPorId(idUsuario, bemSucedida ? 1 : 0));
+
+        if (atualizados == 0) {
+            throw new IllegalArgumentException("Usuário não encontrado.");
+        }
+        invalidarCache(login);
     }
 
     /**
-     * Obtém as estatísticas do sistema.
+     * Obtém as estatísticas do sistema com a primeira página de pontuações.
      *
      * @return DTO com as estatísticas
      */
     public EstatisticasDTO obterEstatisticas() {
-        List<Usuario> usuarios = userRepository.findAll();
-        List<UsuarioDTO> usuariosDTO = usuarios.stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        return obterEstatisticas(0, TAMANHO_MAXIMO_PAGINA);
+    }
 
-        int totalSimulacoes = usuarios.stream()
-                .mapToInt(Usuario::getTotalSimulacoes)
-                .sum();
+    /**
+     * Obtém as estatísticas do sistema. Totais e médias são agregados no
+     * banco; a lista de pontuações vem paginada, já projetada em DTO.
+     *
+     * @param pagina  página da lista de pontuações (começando em 0)
+     * @param tamanho tamanho da página de pontuações
+     * @return DTO com as estatísticas
+     * @throws IllegalArgumentException se a página ou o tamanho forem inválidos
+     */
+    public EstatisticasDTO obterEstatisticas(int pagina, int tamanho) {
+        if (pagina < 0) {
+            throw new IllegalArgumentException("A página deve ser maior ou igual a zero.");
+        }
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException(
+                    "O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+        }
 
-        int totalSimulacoesSucesso = usuarios.stream()
-                .mapToInt(Usuario::getPontuacao)
-                .sum();
+        // Grava os incrementos pendentes para que os agregados os incluam
+        if (bufferRegistro != null) {
+            bufferRegistro.descarregar();
+        }
 
-        double mediaSimulacoesSucessoUsuario = usuarios.isEmpty() ? 0.0
-                : usuarios.stream()
-                        .mapToDouble(Usuario::getTaxaSucesso)
-                        .average()
-                        .orElse(0.0);
+        ResumoUsuariosDTO resumo = noBanco("calcularResumo", null, userRepository::calcularResumo);
+        List<UsuarioDTO> usuariosDTO = noBanco("listarPontuacoes", null,
+                () -> userRepository.listarPontuacoes(PageRequest.of(pagina, tamanho)));
+
+        int totalSimulacoes = resumo.getTotalSimulacoes().intValue();
+        int totalSimulacoesSucesso = resumo.getTotalSimulacoesSucesso().intValue();
 
         double mediaTotalSimulacoesSucesso = totalSimulacoes == 0 ? 0.0
                 : (double) totalSimulacoesSucesso / totalSimulacoes * 100.0;
@@ -176,9 +351,9 @@ public class UsuarioService {
         return new EstatisticasDTO(
                 usuariosDTO,
                 totalSimulacoes,
-                mediaSimulacoesSucessoUsuario,
+                resumo.getMediaTaxaSucesso(),
                 mediaTotalSimulacoesSucesso,
-                usuarios.size());
+                resumo.getTotalUsuarios().intValue());
     }
 
     /**
@@ -189,13 +364,141 @@ public class UsuarioService {
      * @throws IllegalArgumentException se usuário não existe
      */
     public UsuarioDTO obterEstatisticasUsuario(String login) {
-        Optional<Usuario> usuarioOpt = userRepository.findByLogin(login);
+        return lerComPendentes(() -> {
+            Optional<Usuario> usuarioOpt = buscarPorLogin(login);
 
-        if (usuarioOpt.isEmpty()) {
-            throw new IllegalArgumentException("Usuário não encontrado.");
+            if (usuarioOpt.isEmpty()) {
+                throw new IllegalArgumentException("Usuário não encontrado.");
+            }
+
+            return converterComPendentes(usuarioOpt.get());
+        });
+    }
+
+    /**
+     * Busca um usuário pelo login, passando pelo cache quando habilitado.
+     *
+     * @param login login do usuário
+     * @return usuário encontrado ou vazio
+     */
+    private Optional<Usuario> buscarPorLogin(String login) {
+        return cacheUsuarios != null
+                ? cacheUsuarios.buscar(login, chave -> noBanco("findByLogin", chave,
+                        () -> userRepository.findByLogin(chave)))
+                : noBanco("findByLogin", login, () -> userRepository.findByLogin(login));
+    }
+
+    /**
+     * Executa uma operação no banco emitindo um {@link OperacaoUsuarioEvento}
+     * para o JFR.
+     *
+     * @param operacao nome da operação do repositório
+     * @param login    login envolvido (null se não houver)
+     * @param execucao operação a ser executada
+     * @return resultado da operação
+     */
+    private <T> T noBanco(String operacao, String login, Supplier<T> execucao) {
+        OperacaoUsuarioEvento evento = OperacaoUsuarioEvento.iniciar();
+        T resultado = execucao.get();
+        evento.concluir(operacao, login, contarLinhas(resultado));
+        return resultado;
+    }
+
+    private static int contarLinhas(Object resultado) {
+        if (resultado instanceof Integer linhas) {
+            return linhas;
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
         }
+        return resultado != null ? 1 : 0;
+    }
 
-        return converterParaDTO(usuarioOpt.get());
+    private void invalidarCache(String login) {
+        if (cacheUsuarios != null) {
+            cacheUsuarios.invalidar(login);
+        }
+    }
+
+    /**
+     * Executa uma leitura que combina banco e incrementos pendentes do modo
+     * write-behind de forma consistente.
+     *
+     * @param leitura leitura a ser executada
+     * @return resultado da leitura
+     */
+    private <T> T lerComPendentes(Supplier<T> leitura) {
+        return bufferRegistro != null ? bufferRegistro.lerConsistente(leitura) : leitura.get();
+    }
+
+    /**
+     * Converte para DTO somando os incrementos ainda não gravados do usuário,
+     * para que ele veja as próprias simulações imediatamente.
+     *
+     * @param usuario entidade a ser convertida
+     * @return DTO com os contadores atualizados
+     */
+    private UsuarioDTO converterComPendentes(Usuario usuario) {
+        UsuarioDTO dto = converterParaDTO(usuario);
+        if (bufferRegistro == null) {
+            return dto;
+        }
+
+        long[] pendentes = bufferRegistro.pendentes(usuario.getLogin());
+        if (pendentes[0] == 0 && pendentes[1] == 0) {
+            return dto;
+        }
+
+        int total = dto.getTotalSimulacoes() + (int) pendentes[0];
+        int pontuacao = dto.getPontuacao() + (int) pendentes[1];
+        dto.setTotalSimulacoes(total);
+        dto.setPontuacao(pontuacao);
+        dto.setTaxaSucesso(total == 0 ? 0.0 : (double) pontuacao / total * 100.0);
+        return dto;
+    }
+
+    private static String codificarCursor(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificarCursor(String cursor) {
+        String chave;
+        try {
+            chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        if (!chave.startsWith(ORDENACAO_LOGIN + ":") && !chave.startsWith(ORDENACAO_ID + ":")) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        return chave;
+    }
+
+    private static long lerIdCursor(String chave) {
+        try {
+            return Long.parseLong(chave.substring(ORDENACAO_ID.length() + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+
+    /**
+     * Converte uma linha projetada da listagem para DTO.
+     *
+     * @param linha linha a ser convertida
+     * @return DTO correspondente
+     */
+    private UsuarioDTO converterParaDTO(LinhaUsuarioDTO linha) {
+        return new UsuarioDTO(
+                linha.getLogin(),
+                linha.getAvatar(),
+                linha.getPontuacao(),
+                linha.getTotalSimulacoes(),
+                linha.getTotalSimulacoes() == 0 ? 0.0
+                        : (double) linha.getPontuacao() / linha.getTotalSimulacoes() * 100.0);
     }
 
     /**
@@ -0,0 +1,113 @@
+package com.example.saltitantes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Vez no {@link EscalonadorSimulacoes} de uma simulação que escreve a
+ * resposta enquanto calcula.
+ *
+ * Com a resposta numa {@link SaidaEmBlocos}, as iterações são calculadas e
+ * codificadas num bloco em memória com a vaga ocupada. Com o bloco cheio a
+ * vaga é devolvida, o bloco segue para o cliente e a simulação volta à fila
+ * do usuário com o custo das iterações que faltam. Um cliente que lê devagar
+ * atrasa só a própria resposta, sem prender uma vaga. Em outra saída (ex.:
+ * memória) a vaga fica ocupada até o fim.
+ */
+public final class VezEmBlocos implements AutoCloseable {
+
+    private final EscalonadorSimulacoes escalonador;
+    private final String loginUsuario;
+    private final int quantidade;
+    private final SaidaEmBlocos saida;
+    private EscalonadorSimulacoes.Vez vez;
+
+    private VezEmBlocos(EscalonadorSimulacoes escalonador, String loginUsuario, int quantidade,
+            SaidaEmBlocos saida) {
+        this.escalonador = escalonador;
+        this.loginUsuario = loginUsuario;
+        this.quantidade = quantidade;
+        this.saida = saida;
+    }
+
+    /**
+     * Espera a vez de uma simulação que escreve no gerador. Use com
+     * try-with-resources e chame {@link #aposIteracao} a cada iteração.
+     *
+     * @param escalonador  escalonador (pode ser null)
+     * @param loginUsuario login do usuário (null para anônimo)
+     * @param quantidade   quantidade de criaturas
+     * @param iteracoes    iterações a calcular
+     * @param json         gerador da resposta
+     * @return vez concedida
+     */
+    public static VezEmBlocos aguardar(EscalonadorSimulacoes escalonador, String loginUsuario, int quantidade,
+            int iteracoes, JsonGenerator json) {
+        return aguardar(escalonador, loginUsuario, quantidade, iteracoes, SaidaEmBlocos.de(json));
+    }
+
+    /**
+     * Igual a {@link #aguardar(EscalonadorSimulacoes, String, int, int,
+     * JsonGenerator)}, para um gerador que escreve na saída dada (ex.: por
+     * um espelho dela).
+     *
+     * @param escalonador  escalonador (pode ser null)
+     * @param loginUsuario login do usuário (null para anônimo)
+     * @param quantidade   quantidade de criaturas
+     * @param iteracoes    iterações a calcular
+     * @param saida        saída da resposta
+     * @return vez concedida
+     */
+    public static VezEmBlocos aguardar(EscalonadorSimulacoes escalonador, String loginUsuario, int quantidade,
+            int iteracoes, OutputStream saida) {
+        VezEmBlocos vez = new VezEmBlocos(escalonador, loginUsuario, quantidade,
+                saida instanceof SaidaEmBlocos blocos ? blocos : null);
+        vez.ocupar(iteracoes);
+        return vez;
+    }
+
+    /**
+     * Com o bloco cheio, devolve a vaga, escreve o bloco no cliente e espera
+     * a vez de novo para o que falta.
+     *
+     * @param json      gerador da resposta
+     * @param restantes iterações que ainda podem ser calculadas
+     * @throws IOException se a escrita falhar
+     */
+    public void aposIteracao(JsonGenerator json, int restantes) throws IOException {
+        if (saida == null || restantes <= 0) {
+            return;
+        }
+        json.flush();
+        if (!saida.cheio()) {
+            return;
+        }
+        desocupar();
+        saida.descarregar();
+        ocupar(restantes);
+    }
+
+    @Override
+    public void close() {
+        desocupar();
+    }
+
+    private void ocupar(int iteracoes) {
+        vez = EscalonadorSimulacoes.aguardarVez(escalonador, loginUsuario, (long) quantidade * iteracoes);
+        if (saida != null) {
+            saida.reter(true);
+        }
+    }
+
+    private void desocupar() {
+        if (saida != null) {
+            saida.reter(false);
+        }
+        if (vez != null) {
+            vez.close();
+            vez = null;
+        }
+    }
+}
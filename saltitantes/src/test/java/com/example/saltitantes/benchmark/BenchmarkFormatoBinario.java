@@ -0,0 +1,138 @@
+package com.example.saltitantes.benchmark;
+
+import com.example.saltitantes.model.entity.Criaturas;
+import com.example.saltitantes.model.entity.Guardiao;
+import com.example.saltitantes.service.MotorSimulacaoEnxuto;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark de codificação e decodificação da resposta do /simular em JSON,
+ * JSON com gzip, CBOR e Smile, para execuções 100x100 e 1000x1000
+ * (criaturas x iterações, semente fixa).
+ *
+ * {@link #codificar()} inclui a simulação, porque a escrita direta acontece
+ * durante ela; {@link #somenteSimulacao()} dá o custo a descontar.
+ * {@link #decodificar()} percorre todos os tokens lendo os números, como um
+ * consumidor faria. O tamanho de cada corpo é impresso na preparação. Rode
+ * com mvn test -Pbenchmark -Dbenchmark.filtro=BenchmarkFormatoBinario.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkFormatoBinario {
+
+    private static final long SEMENTE = 42L;
+
+    @Param({ "100", "1000" })
+    int tamanho;
+
+    @Param({ "json", "json-gzip", "cbor", "smile" })
+    String formato;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    private byte[] corpo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        escrever(saida);
+        corpo = saida.toByteArray();
+        System.out.println(tamanho + "x" + tamanho + " " + formato + ": " + corpo.length + " bytes");
+    }
+
+    @Benchmark
+    public int codificar() throws IOException {
+        return escrever(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long decodificar() throws IOException {
+        long soma = 0;
+        try (JsonParser parser = criarParser()) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    soma += parser.getIntValue();
+                } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    soma += (long) parser.getDoubleValue();
+                }
+            }
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public int somenteSimulacao() {
+        Criaturas.resetarContador();
+        List<Criaturas> criaturas = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            criaturas.add(new Criaturas());
+        }
+        MotorSimulacaoEnxuto motor = new MotorSimulacaoEnxuto(criaturas, new ArrayList<>(),
+                new Guardiao(tamanho + 1), new SplittableRandom(SEMENTE), tamanho);
+        int iteracao = 0;
+        while (iteracao < tamanho && !motor.temGanhador()) {
+            motor.avancarIteracao(++iteracao);
+        }
+        return iteracao;
+    }
+
+    private int escrever(OutputStream destino) throws IOException {
+        OutputStream saida = "json-gzip".equals(formato) ? new GZIPOutputStream(destino) : destino;
+        try (JsonGenerator json = criarGerador(saida)) {
+            return new SimuladorService().simular(tamanho, SEMENTE, tamanho, null, null, json, false, null);
+        }
+    }
+
+    private JsonGenerator criarGerador(OutputStream saida) throws IOException {
+        switch (formato) {
+            case "cbor":
+                return cborFactory.createGenerator(saida);
+            case "smile":
+                return smileFactory.createGenerator(saida);
+            default:
+                return jsonFactory.createGenerator(saida, JsonEncoding.UTF8);
+        }
+    }
+
+    private JsonParser criarParser() throws IOException {
+        switch (formato) {
+            case "json-gzip":
+                InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(corpo));
+                return jsonFactory.createParser(entrada);
+            case "cbor":
+                return cborFactory.createParser(corpo);
+            case "smile":
+                return smileFactory.createParser(corpo);
+            default:
+                return jsonFactory.createParser(corpo);
+        }
+    }
+}
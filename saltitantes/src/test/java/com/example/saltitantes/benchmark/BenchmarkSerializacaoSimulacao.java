@@ -0,0 +1,74 @@
+package com.example.saltitantes.benchmark;
+
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark da resposta do POST /simular: serialização reflexiva do Jackson
+ * sobre os DTOs (caminho anterior) contra a escrita direta do estado do
+ * motor enxuto no JsonGenerator.
+ *
+ * Cada medição inclui a simulação; {@link #enxutoComJackson()} separa o
+ * ganho do motor do ganho da serialização. Rode com mvn test -Pbenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkSerializacaoSimulacao {
+
+    private static final long SEMENTE = 42L;
+
+    @Param({ "100", "1000" })
+    int quantidade;
+
+    @Param({ "1000" })
+    int iteracoes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Caminho anterior: motor padrão e Jackson sobre a lista de DTOs.
+     */
+    @Benchmark
+    public int jackson() throws IOException {
+        List<SimularResponseDTO> historico = new SimuladorService().simular(quantidade, SEMENTE, iteracoes, null,
+                null);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), historico);
+        return historico.size();
+    }
+
+    /**
+     * Motor enxuto, ainda com DTOs e Jackson.
+     */
+    @Benchmark
+    public int enxutoComJackson() throws IOException {
+        SimuladorService simulador = new SimuladorService();
+        simulador.setModoEnxuto(true);
+        List<SimularResponseDTO> historico = simulador.simular(quantidade, SEMENTE, iteracoes, null, null);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), historico);
+        return historico.size();
+    }
+
+    /**
+     * Caminho novo: estado do motor escrito direto no JsonGenerator.
+     */
+    @Benchmark
+    public int direta() throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(OutputStream.nullOutputStream(), JsonEncoding.UTF8)) {
+            return new SimuladorService().simular(quantidade, SEMENTE, iteracoes, null, null, json, false, null);
+        }
+    }
+}
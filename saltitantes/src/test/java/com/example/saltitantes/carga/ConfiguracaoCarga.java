@@ -0,0 +1,106 @@
+package com.example.saltitantes.carga;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros de uma execução do gerador de carga, lidos de propriedades de
+ * sistema ({@code -Dcarga.xxx=...} na linha de comando do Maven).
+ *
+ * <ul>
+ * <li>{@code carga.duracao-s}: duração da medição (padrão 30)</li>
+ * <li>{@code carga.aquecimento-s}: aquecimento descartado (padrão 5)</li>
+ * <li>{@code carga.taxa}: requisições por segundo, somando todas as operações
+ * (padrão 200)</li>
+ * <li>{@code carga.clientes}: clientes concorrentes (padrão 32)</li>
+ * <li>{@code carga.mix}: pesos por operação, ex.
+ * {@code simular:20,login:50,estatisticas:10,criar:20}</li>
+ * <li>{@code carga.usuarios-iniciais}: usuários criados antes da medição
+ * (padrão 100)</li>
+ * <li>{@code carga.criaturas} e {@code carga.iteracoes}: parâmetros de cada
+ * simulação (padrão 50 e 100)</li>
+ * <li>{@code carga.semente}: semente do sorteio das operações (padrão 42)</li>
+ * <li>{@code carga.max-taxa-erro}: taxa de erro máxima aceita, em % (padrão 1)</li>
+ * <li>{@code carga.rotulo}: nome da execução no relatório (padrão "local")</li>
+ * </ul>
+ */
+final class ConfiguracaoCarga {
+
+    static final String MIX_PADRAO = "simular:20,login:50,estatisticas:10,criar:20";
+
+    final int duracaoS;
+    final int aquecimentoS;
+    final double taxa;
+    final int clientes;
+    final Map<OperacaoCarga, Integer> mix;
+    final int usuariosIniciais;
+    final int criaturas;
+    final int iteracoes;
+    final long semente;
+    final double maxTaxaErro;
+    final String rotulo;
+
+    private ConfiguracaoCarga(int duracaoS, int aquecimentoS, double taxa, int clientes,
+            Map<OperacaoCarga, Integer> mix, int usuariosIniciais, int criaturas, int iteracoes,
+            long semente, double maxTaxaErro, String rotulo) {
+        if (duracaoS <= 0 || aquecimentoS < 0 || taxa <= 0 || clientes <= 0 || usuariosIniciais <= 0) {
+            throw new IllegalArgumentException("Parâmetros de carga inválidos.");
+        }
+        this.duracaoS = duracaoS;
+        this.aquecimentoS = aquecimentoS;
+        this.taxa = taxa;
+        this.clientes = clientes;
+        this.mix = mix;
+        this.usuariosIniciais = usuariosIniciais;
+        this.criaturas = criaturas;
+        this.iteracoes = iteracoes;
+        this.semente = semente;
+        this.maxTaxaErro = maxTaxaErro;
+        this.rotulo = rotulo;
+    }
+
+    /**
+     * Lê a configuração das propriedades de sistema.
+     *
+     * @return configuração com os padrões para o que não foi informado
+     */
+    static ConfiguracaoCarga daPropriedades() {
+        return new ConfiguracaoCarga(
+                Integer.getInteger("carga.duracao-s", 30),
+                Integer.getInteger("carga.aquecimento-s", 5),
+                Double.parseDouble(System.getProperty("carga.taxa", "200")),
+                Integer.getInteger("carga.clientes", 32),
+                lerMix(System.getProperty("carga.mix", MIX_PADRAO)),
+                Integer.getInteger("carga.usuarios-iniciais", 100),
+                Integer.getInteger("carga.criaturas", 50),
+                Integer.getInteger("carga.iteracoes", 100),
+                Long.getLong("carga.semente", 42L),
+                Double.parseDouble(System.getProperty("carga.max-taxa-erro", "1")),
+                System.getProperty("carga.rotulo", "local"));
+    }
+
+    /**
+     * Converte "operacao:peso,..." em um mapa de pesos.
+     *
+     * @param texto mix no formato da propriedade {@code carga.mix}
+     * @return pesos por operação (somente pesos positivos)
+     * @throws IllegalArgumentException se o formato ou a operação forem inválidos
+     */
+    static Map<OperacaoCarga, Integer> lerMix(String texto) {
+        Map<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        for (String parte : texto.split(",")) {
+            String[] chaveValor = parte.trim().split(":");
+            if (chaveValor.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + parte);
+            }
+            int peso = Integer.parseInt(chaveValor[1].trim());
+            if (peso > 0) {
+                pesos.put(OperacaoCarga.porNome(chaveValor[0].trim()), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("O mix deve ter ao menos uma operação com peso positivo.");
+        }
+        return pesos;
+    }
+}
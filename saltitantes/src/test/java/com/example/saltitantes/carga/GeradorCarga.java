@@ -0,0 +1,227 @@
+package com.example.saltitantes.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta para a API REST.
+ *
+ * As requisições são agendadas em instantes fixos, conforme a taxa alvo, e
+ * despachadas para um pool de clientes concorrentes. A latência é medida a
+ * partir do instante agendado (e não do envio), para que filas causadas por
+ * um servidor lento apareçam nos percentis em vez de reduzirem a taxa
+ * ("coordinated omission").
+ */
+final class GeradorCarga {
+
+    static final String SENHA_CARGA = "senha-carga";
+
+    // Latências registradas em nanossegundos, de 1 us a 1 min, com 3 dígitos
+    private static final long LATENCIA_MAXIMA_NS = TimeUnit.MINUTES.toNanos(1);
+
+    private final URI base;
+    private final ConfiguracaoCarga configuracao;
+    private final HttpClient cliente;
+    private final Map<OperacaoCarga, EstatisticaOperacao> estatisticas = new EnumMap<>(OperacaoCarga.class);
+    private final AtomicInteger usuariosCriados = new AtomicInteger();
+    private final OperacaoCarga[] roleta;
+
+    GeradorCarga(URI base, ConfiguracaoCarga configuracao) {
+        this.base = base;
+        this.configuracao = configuracao;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        configuracao.mix.keySet().forEach(operacao -> estatisticas.put(operacao, new EstatisticaOperacao()));
+        this.roleta = montarRoleta(configuracao.mix);
+    }
+
+    /**
+     * Cria os usuários usados pelas operações de login e simulação.
+     *
+     * @throws IllegalStateException se algum usuário não puder ser criado
+     */
+    void prepararUsuarios() throws IOException, InterruptedException {
+        for (int i = 0; i < configuracao.usuariosIniciais; i++) {
+            HttpResponse<Void> resposta = cliente.send(
+                    criarUsuario("carga-base-" + i), HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() != 201) {
+                throw new IllegalStateException("Falha ao criar usuário inicial: HTTP " + resposta.statusCode());
+            }
+        }
+    }
+
+    /**
+     * Executa o aquecimento e a medição.
+     *
+     * @return estatísticas por operação, só do período de medição
+     */
+    ResultadoCarga executar() throws InterruptedException {
+        SplittableRandom sorteio = new SplittableRandom(configuracao.semente);
+        ExecutorService clientes = Executors.newFixedThreadPool(configuracao.clientes, r -> {
+            Thread thread = new Thread(r, "cliente-carga");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        double intervaloNs = TimeUnit.SECONDS.toNanos(1) / configuracao.taxa;
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + TimeUnit.SECONDS.toNanos(configuracao.aquecimentoS);
+        long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(configuracao.duracaoS);
+
+        for (long k = 0;; k++) {
+            long agendado = inicio + (long) (k * intervaloNs);
+            if (agendado - fim >= 0) {
+                break;
+            }
+            OperacaoCarga operacao = roleta[sorteio.nextInt(roleta.length)];
+            HttpRequest requisicao = montarRequisicao(operacao, sorteio);
+            boolean medir = agendado - inicioMedicao >= 0;
+
+            esperarAte(agendado);
+            clientes.execute(() -> enviar(operacao, requisicao, agendado, medir));
+        }
+
+        clientes.shutdown();
+        boolean concluiu = clientes.awaitTermination(1, TimeUnit.MINUTES);
+        long duracaoNs = System.nanoTime() - inicioMedicao;
+        int pendentes = concluiu ? 0 : clientes.shutdownNow().size();
+
+        return new ResultadoCarga(configuracao, estatisticas, duracaoNs, pendentes);
+    }
+
+    private void enviar(OperacaoCarga operacao, HttpRequest requisicao, long agendado, boolean medir) {
+        long envio = System.nanoTime();
+        boolean sucesso;
+        try {
+            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            sucesso = resposta.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            sucesso = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (medir) {
+            long agora = System.nanoTime();
+            estatisticas.get(operacao).registrar(agora - agendado, agora - envio, sucesso);
+        }
+    }
+
+    private HttpRequest montarRequisicao(OperacaoCarga operacao, SplittableRandom sorteio) {
+        String usuario = "carga-base-" + sorteio.nextInt(configuracao.usuariosIniciais);
+        switch (operacao) {
+            case SIMULAR:
+                return post("/api/v1/simular", "{\"quantidade\":" + configuracao.criaturas
+                        + ",\"iteracoes\":" + configuracao.iteracoes
+                        + ",\"loginUsuario\":\"" + usuario + "\""
+                        + ",\"semente\":" + sorteio.nextLong() + "}");
+            case LOGIN:
+                return post("/api/v1/usuarios/login",
+                        "{\"login\":\"" + usuario + "\",\"senha\":\"" + SENHA_CARGA + "\"}");
+            case ESTATISTICAS:
+                return HttpRequest.newBuilder(base.resolve("/api/v1/usuarios/estatisticas?tamanho=100"))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+            default:
+                return criarUsuario("carga-" + configuracao.rotulo + "-" + System.nanoTime() + "-"
+                        + usuariosCriados.incrementAndGet());
+        }
+    }
+
+    private HttpRequest criarUsuario(String login) {
+        return post("/api/v1/usuarios", "{\"login\":\"" + login + "\",\"senha\":\"" + SENHA_CARGA
+                + "\",\"avatar\":\"avatar.png\"}");
+    }
+
+    private HttpRequest post(String caminho, String json) {
+        return HttpRequest.newBuilder(base.resolve(caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static OperacaoCarga[] montarRoleta(Map<OperacaoCarga, Integer> mix) {
+        OperacaoCarga[] roleta = new OperacaoCarga[mix.values().stream().mapToInt(Integer::intValue).sum()];
+        int posicao = 0;
+        for (Map.Entry<OperacaoCarga, Integer> peso : mix.entrySet()) {
+            for (int i = 0; i < peso.getValue(); i++) {
+                roleta[posicao++] = peso.getKey();
+            }
+        }
+        return roleta;
+    }
+
+    private static void esperarAte(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    /**
+     * Contadores e histogramas de uma operação, seguros para vários clientes.
+     */
+    static final class EstatisticaOperacao {
+        // Latência desde o instante agendado (inclui espera por cliente livre)
+        final Histogram latencia = new ConcurrentHistogram(1_000, LATENCIA_MAXIMA_NS, 3);
+        // Tempo desde o envio até a resposta
+        final Histogram servico = new ConcurrentHistogram(1_000, LATENCIA_MAXIMA_NS, 3);
+        final LongAdder requisicoes = new LongAdder();
+        final LongAdder erros = new LongAdder();
+
+        void registrar(long latenciaNs, long servicoNs, boolean sucesso) {
+            latencia.recordValue(Math.min(Math.max(latenciaNs, 1_000), LATENCIA_MAXIMA_NS));
+            servico.recordValue(Math.min(Math.max(servicoNs, 1_000), LATENCIA_MAXIMA_NS));
+            requisicoes.increment();
+            if (!sucesso) {
+                erros.increment();
+            }
+        }
+    }
+
+    /**
+     * Resultado de uma execução.
+     */
+    static final class ResultadoCarga {
+        final ConfiguracaoCarga configuracao;
+        final Map<OperacaoCarga, EstatisticaOperacao> estatisticas;
+        final long duracaoNs;
+        final int naoEnviadas;
+
+        ResultadoCarga(ConfiguracaoCarga configuracao, Map<OperacaoCarga, EstatisticaOperacao> estatisticas,
+                long duracaoNs, int naoEnviadas) {
+            this.configuracao = configuracao;
+            this.estatisticas = estatisticas;
+            this.duracaoNs = duracaoNs;
+            this.naoEnviadas = naoEnviadas;
+        }
+
+        long totalRequisicoes() {
+            return estatisticas.values().stream().mapToLong(e -> e.requisicoes.sum()).sum();
+        }
+
+        long totalErros() {
+            return estatisticas.values().stream().mapToLong(e -> e.erros.sum()).sum();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.saltitantes.carga;
+
+/**
+ * Operações da API exercitadas pelo gerador de carga.
+ */
+enum OperacaoCarga {
+
+    SIMULAR("simular", "POST /api/v1/simular"),
+    LOGIN("login", "POST /api/v1/usuarios/login"),
+    ESTATISTICAS("estatisticas", "GET /api/v1/usuarios/estatisticas"),
+    CRIAR("criar", "POST /api/v1/usuarios");
+
+    final String nome;
+    final String descricao;
+
+    OperacaoCarga(String nome, String descricao) {
+        this.nome = nome;
+        this.descricao = descricao;
+    }
+
+    static OperacaoCarga porNome(String nome) {
+        for (OperacaoCarga operacao : values()) {
+            if (operacao.nome.equals(nome)) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação de carga desconhecida: " + nome);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.saltitantes.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Grava o resultado de uma execução de carga em {@code target/carga/}.
+ *
+ * Para cada execução são gerados:
+ * <ul>
+ * <li>{@code <instante>-<rotulo>.json}: configuração e, por operação, vazão,
+ * taxa de erro e percentis de latência em ms</li>
+ * <li>{@code <instante>-<rotulo>-<operacao>.hgrm}: distribuição completa da
+ * latência, no formato do HdrHistogram (pode ser plotada e sobreposta a
+ * outras execuções)</li>
+ * <li>uma linha por operação em {@code historico.csv}, acumulando as
+ * execuções para comparação</li>
+ * </ul>
+ */
+final class RelatorioCarga {
+
+    static final String CABECALHO_HISTORICO = "instante,rotulo,operacao,taxa_alvo,clientes,requisicoes,erros,"
+            + "taxa_erro_pct,vazao_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private static final DateTimeFormatter FORMATO_INSTANTE = DateTimeFormatter
+            .ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path diretorio;
+
+    RelatorioCarga(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Grava os arquivos da execução.
+     *
+     * @param resultado resultado da execução
+     * @return caminho do relatório JSON
+     */
+    Path gravar(GeradorCarga.ResultadoCarga resultado) throws IOException {
+        Files.createDirectories(diretorio);
+        ConfiguracaoCarga configuracao = resultado.configuracao;
+        String instante = FORMATO_INSTANTE.format(Instant.now());
+        String prefixo = instante + "-" + configuracao.rotulo;
+        double duracaoS = resultado.duracaoNs / 1e9;
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("instante", instante);
+        relatorio.put("rotulo", configuracao.rotulo);
+        relatorio.put("duracaoS", configuracao.duracaoS);
+        relatorio.put("aquecimentoS", configuracao.aquecimentoS);
+        relatorio.put("taxaAlvo", configuracao.taxa);
+        relatorio.put("clientes", configuracao.clientes);
+        relatorio.put("criaturas", configuracao.criaturas);
+        relatorio.put("iteracoes", configuracao.iteracoes);
+        relatorio.put("semente", configuracao.semente);
+        relatorio.put("processadores", Runtime.getRuntime().availableProcessors());
+        relatorio.put("naoEnviadas", resultado.naoEnviadas);
+
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        StringBuilder historico = new StringBuilder();
+        for (Map.Entry<OperacaoCarga, GeradorCarga.EstatisticaOperacao> entrada : resultado.estatisticas.entrySet()) {
+            OperacaoCarga operacao = entrada.getKey();
+            GeradorCarga.EstatisticaOperacao estatistica = entrada.getValue();
+            long requisicoes = estatistica.requisicoes.sum();
+            long erros = estatistica.erros.sum();
+            double taxaErro = requisicoes == 0 ? 0.0 : (double) erros / requisicoes * 100.0;
+            double vazao = requisicoes / duracaoS;
+
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("endpoint", operacao.descricao);
+            dados.put("peso", configuracao.mix.get(operacao));
+            dados.put("requisicoes", requisicoes);
+            dados.put("erros", erros);
+            dados.put("taxaErroPct", arredondar(taxaErro));
+            dados.put("vazaoRps", arredondar(vazao));
+            dados.put("latenciaMs", percentis(estatistica.latencia));
+            dados.put("servicoMs", percentis(estatistica.servico));
+            operacoes.put(operacao.nome, dados);
+
+            try (PrintStream saida = new PrintStream(
+                    Files.newOutputStream(diretorio.resolve(prefixo + "-" + operacao.nome + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                // Valores em ns, exibidos em ms
+                estatistica.latencia.outputPercentileDistribution(saida, 1_000_000.0);
+            }
+
+            Histogram latencia = estatistica.latencia;
+            historico.append(String.format(Locale.ROOT, "%s,%s,%s,%.1f,%d,%d,%d,%.3f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    instante, configuracao.rotulo, operacao.nome, configuracao.taxa, configuracao.clientes,
+                    requisicoes, erros, taxaErro, vazao,
+                    ms(latencia.getValueAtPercentile(50)), ms(latencia.getValueAtPercentile(90)),
+                    ms(latencia.getValueAtPercentile(99)), ms(latencia.getValueAtPercentile(99.9)),
+                    ms(latencia.getMaxValue())));
+        }
+        relatorio.put("operacoes", operacoes);
+
+        Path json = diretorio.resolve(prefixo + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), relatorio);
+
+        Path csv = diretorio.resolve("historico.csv");
+        if (Files.notExists(csv)) {
+            Files.writeString(csv, CABECALHO_HISTORICO + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        Files.writeString(csv, historico, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        return json;
+    }
+
+    private static Map<String, Object> percentis(Histogram histograma) {
+        Map<String, Object> percentis = new LinkedHashMap<>();
+        percentis.put("p50", ms(histograma.getValueAtPercentile(50)));
+        percentis.put("p90", ms(histograma.getValueAtPercentile(90)));
+        percentis.put("p99", ms(histograma.getValueAtPercentile(99)));
+        percentis.put("p999", ms(histograma.getValueAtPercentile(99.9)));
+        percentis.put("max", ms(histograma.getMaxValue()));
+        percentis.put("media", arredondar(histograma.getMean() / 1_000_000.0));
+        return percentis;
+    }
+
+    private static double ms(long nanos) {
+        return arredondar(nanos / 1_000_000.0);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1000.0) / 1000.0;
+    }
+}
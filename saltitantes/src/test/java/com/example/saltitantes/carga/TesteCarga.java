@@ -0,0 +1,72 @@
+package com.example.saltitantes.carga;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Teste de Carga - Sobe a aplicação com banco H2 em memória e dispara uma
+ * mistura configurável de simulações, logins, estatísticas e cadastros a uma
+ * taxa alvo, gravando vazão, erros e percentis de latência por endpoint.
+ *
+ * Não roda no build padrão. Para executar:
+ *
+ * <pre>
+ * mvn test -Pcarga -Dcarga.taxa=300 -Dcarga.clientes=64 -Dcarga.duracao-s=60 -Dcarga.rotulo=baseline
+ * </pre>
+ *
+ * Os parâmetros estão descritos em {@link ConfiguracaoCarga} e os arquivos
+ * gerados em {@link RelatorioCarga}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.hikari.maximum-pool-size=32",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.sql.init.mode=never",
+                "spring.devtools.restart.enabled=false",
+                "server.tomcat.threads.max=200"
+})
+public class TesteCarga {
+
+        @LocalServerPort
+        private int porta;
+
+        /**
+         * Executa a carga configurada e grava o relatório.
+         *
+         * @pre Aplicação no ar com banco vazio
+         * @post Relatório gravado em target/carga e taxa de erro de cada
+         *       operação abaixo de carga.max-taxa-erro
+         */
+        @Test
+        void testCargaMista() throws Exception {
+                ConfiguracaoCarga configuracao = ConfiguracaoCarga.daPropriedades();
+                GeradorCarga gerador = new GeradorCarga(URI.create("http://localhost:" + porta), configuracao);
+
+                gerador.prepararUsuarios();
+                GeradorCarga.ResultadoCarga resultado = gerador.executar();
+                Path relatorio = new RelatorioCarga(Path.of("target", "carga")).gravar(resultado);
+
+                System.out.println("Relatório de carga: " + relatorio.toAbsolutePath());
+
+                assertThat(resultado.totalRequisicoes())
+                                .as("A medição deve ter enviado requisições")
+                                .isPositive();
+                resultado.estatisticas.forEach((operacao, estatistica) -> {
+                        long requisicoes = estatistica.requisicoes.sum();
+                        double taxaErro = requisicoes == 0 ? 0.0
+                                        : (double) estatistica.erros.sum() / requisicoes * 100.0;
+                        assertThat(taxaErro)
+                                        .as("Taxa de erro de %s", operacao.descricao)
+                                        .isLessThanOrEqualTo(configuracao.maxTaxaErro);
+                });
+        }
+}
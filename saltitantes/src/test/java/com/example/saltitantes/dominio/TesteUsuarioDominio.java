@@ -1,9 +1,13 @@
 package com.example.saltitantes.dominio;
 
+import com.example.saltitantes.controller.UsuarioController;
 import com.example.saltitantes.model.dto.CriarUsuarioDTO;
+import com.example.saltitantes.model.dto.LinhaUsuarioDTO;
 import com.example.saltitantes.model.dto.LoginDTO;
+import com.example.saltitantes.model.dto.PaginaUsuariosDTO;
 import com.example.saltitantes.model.dto.UsuarioDTO;
 import com.example.saltitantes.model.dto.EstatisticasDTO;
+import com.example.saltitantes.model.dto.ResumoUsuariosDTO;
 import com.example.saltitantes.model.entity.Usuario;
 import com.example.saltitantes.repository.UserRepository;
 import com.example.saltitantes.service.UsuarioService;
@@ -18,6 +22,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +34,8 @@ import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.params.provider.Arguments.of;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -253,6 +262,7 @@ public class TesteUsuarioDominio {
                 // Configurar mock para encontrar o usuário durante as operações
                 Usuario usuarioSalvo = new Usuario("usuario1", "senha123", "avatar.png");
                 when(userRepository.findByLogin("usuario1")).thenReturn(Optional.of(usuarioSalvo));
+                simularUpdateAtomico(usuarioSalvo);
 
                 // When
                 for (boolean resultado : resultados) {
@@ -359,20 +369,14 @@ public class TesteUsuarioDominio {
                 criarUsuarioComSimulacoes("usuario2", new boolean[] { true, false }); // 1/2 = 50%
                 criarUsuarioComSimulacoes("usuario3", new boolean[] { false, false }); // 0/2 = 0%
 
-                // Configurar mock para listar todos os usuários
-                List<Usuario> todosUsuarios = List.of(
-                                new Usuario("usuario1", "senha123", "avatar.png"),
-                                new Usuario("usuario2", "senha123", "avatar.png"),
-                                new Usuario("usuario3", "senha123", "avatar.png"));
-                // Simular pontuações e simulações dos usuários
-                todosUsuarios.get(0).setPontuacao(2);
-                todosUsuarios.get(0).setTotalSimulacoes(3);
-                todosUsuarios.get(1).setPontuacao(1);
-                todosUsuarios.get(1).setTotalSimulacoes(2);
-                todosUsuarios.get(2).setPontuacao(0);
-                todosUsuarios.get(2).setTotalSimulacoes(2);
-
-                when(userRepository.findAll()).thenReturn(todosUsuarios);
+                // Configurar mock com os agregados calculados pelo banco
+                // (totais: 3 usuários, 7 simulações, 3 sucessos; média das taxas 38.89%)
+                when(userRepository.calcularResumo())
+                                .thenReturn(new ResumoUsuariosDTO(3L, 7L, 3L, (200.0 / 3 + 50.0 + 0.0) / 3));
+                when(userRepository.listarPontuacoes(any())).thenReturn(List.of(
+                                new UsuarioDTO("usuario1", "avatar.png", 2, 3, 200.0 / 3),
+                                new UsuarioDTO("usuario2", "avatar.png", 1, 2, 50.0),
+                                new UsuarioDTO("usuario3", "avatar.png", 0, 2, 0.0)));
 
                 // When
                 EstatisticasDTO stats = usuarioService.obterEstatisticas();
@@ -393,6 +397,10 @@ public class TesteUsuarioDominio {
                 assertThat(stats.getMediaTotalSimulacoesSucesso())
                                 .as("Média total de sucessos: 3/7 = 42.86%")
                                 .isCloseTo(42.86, within(0.1));
+
+                assertThat(stats.getPontuacaoUsuarios())
+                                .extracting(UsuarioDTO::getLogin)
+                                .containsExactly("usuario1", "usuario2", "usuario3");
         }
 
         /**
@@ -405,12 +413,27 @@ public class TesteUsuarioDominio {
                 // Configurar mock para encontrar o usuário criado
                 Usuario usuarioSalvo = new Usuario(login, "senha123", "avatar.png");
                 when(userRepository.findByLogin(login)).thenReturn(Optional.of(usuarioSalvo));
+                simularUpdateAtomico(usuarioSalvo);
 
                 for (boolean resultado : resultados) {
                         usuarioService.registrarSimulacao(login, resultado);
                 }
         }
 
+        /**
+         * Helper que faz o mock do UPDATE atômico aplicar os incrementos no usuário.
+         */
+        private void simularUpdateAtomico(Usuario usuario) {
+                when(userRepository.incrementarSimulacoes(eq(usuario.getLogin()), anyInt()))
+                                .thenAnswer(invocation -> {
+                                        usuario.incrementarTotalSimulacoes();
+                                        if ((int) invocation.getArgument(1) == 1) {
+                                                usuario.incrementarPontuacao();
+                                        }
+                                        return 1;
+                                });
+        }
+
         /**
          * Testa listagem de usuários.
          * 
@@ -424,12 +447,12 @@ public class TesteUsuarioDominio {
                 usuarioService.criarUsuario(new CriarUsuarioDTO("user2", "pass2", "av2.png"));
                 usuarioService.criarUsuario(new CriarUsuarioDTO("user3", "pass3", "av3.png"));
 
-                // Configurar mock para retornar todos os usuários
-                List<Usuario> todosUsuarios = List.of(
-                                new Usuario("user1", "pass1", "av1.png"),
-                                new Usuario("user2", "pass2", "av2.png"),
-                                new Usuario("user3", "pass3", "av3.png"));
-                when(userRepository.findAll()).thenReturn(todosUsuarios);
+                // Configurar mock para retornar a primeira página por id
+                List<LinhaUsuarioDTO> todosUsuarios = List.of(
+                                new LinhaUsuarioDTO(1L, "user1", "av1.png", 0, 0),
+                                new LinhaUsuarioDTO(2L, "user2", "av2.png", 0, 0),
+                                new LinhaUsuarioDTO(3L, "user3", "av3.png", 0, 0));
+                when(userRepository.listarAposId(eq(0L), any(Pageable.class))).thenReturn(todosUsuarios);
 
                 // When
                 List<UsuarioDTO> usuarios = usuarioService.listarUsuarios();
@@ -444,6 +467,89 @@ public class TesteUsuarioDominio {
                                 .containsExactlyInAnyOrder("user1", "user2", "user3");
         }
 
+        /**
+         * Testa a paginação por keyset ordenada por login.
+         * 
+         * @pre Página cheia (2 usuários) seguida de página parcial
+         * @post Primeira página traz cursor; a segunda continua após o último
+         *       login e não traz cursor
+         */
+        @Test
+        void testListagemUsuariosPorCursor() {
+                when(userRepository.listarAposLogin(eq(""), any(Pageable.class))).thenReturn(List.of(
+                                new LinhaUsuarioDTO(7L, "ana", "av1.png", 1, 2),
+                                new LinhaUsuarioDTO(3L, "bia", "av2.png", 0, 0)));
+                when(userRepository.listarAposLogin(eq("bia"), any(Pageable.class))).thenReturn(List.of(
+                                new LinhaUsuarioDTO(5L, "caio", "av3.png", 0, 0)));
+
+                PaginaUsuariosDTO primeira = usuarioService.listarUsuarios("login", null, 2);
+                PaginaUsuariosDTO segunda = usuarioService.listarUsuarios("login", primeira.getProximoCursor(), 2);
+
+                assertThat(primeira.getUsuarios()).extracting(UsuarioDTO::getLogin).containsExactly("ana", "bia");
+                assertThat(primeira.getUsuarios().get(0).getTaxaSucesso()).isEqualTo(50.0);
+                assertThat(primeira.getProximoCursor()).isNotNull();
+                assertThat(segunda.getUsuarios()).extracting(UsuarioDTO::getLogin).containsExactly("caio");
+                assertThat(segunda.getProximoCursor()).isNull();
+                verify(userRepository, never()).findAll();
+        }
+
+        /**
+         * Testa parâmetros inválidos da listagem.
+         * 
+         * @pre Tamanho fora do limite, ordenação desconhecida ou cursor corrompido
+         * @post IllegalArgumentException lançada
+         */
+        @Test
+        void testListagemUsuariosParametrosInvalidos() {
+                assertThatThrownBy(() -> usuarioService.listarUsuarios("id", null, 0))
+                                .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> usuarioService.listarUsuarios("pontuacao", null, 10))
+                                .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> usuarioService.listarUsuarios("id", "%%%", 10))
+                                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        /**
+         * Testa GET /api/v1/usuarios com e sem parâmetros de paginação.
+         * 
+         * @pre Três usuários cadastrados
+         * @post Sem parâmetros, todos em um array, buscando só uma linha além
+         *       do limite; acima do limite, 400 com mensagem; com tamanho,
+         *       uma página e o cursor da próxima no cabeçalho
+         */
+        @Test
+        void testListagemUsuariosNoControlador() {
+                when(userRepository.listarAposId(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                                new LinhaUsuarioDTO(1L, "user1", "av1.png", 0, 0),
+                                new LinhaUsuarioDTO(2L, "user2", "av2.png", 0, 0),
+                                new LinhaUsuarioDTO(3L, "user3", "av3.png", 0, 0)));
+                when(userRepository.listarAposLogin(eq(""), any(Pageable.class))).thenReturn(List.of(
+                                new LinhaUsuarioDTO(1L, "user1", "av1.png", 0, 0),
+                                new LinhaUsuarioDTO(2L, "user2", "av2.png", 0, 0)));
+                UsuarioController controller = new UsuarioController(usuarioService, null, null, null);
+
+                ResponseEntity<?> todos = controller.listarUsuarios(null, null, null);
+
+                assertThat(todos.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat((List<?>) todos.getBody()).hasSize(3);
+                assertThat(todos.getHeaders().containsKey("X-Proximo-Cursor")).isFalse();
+                verify(userRepository).listarAposId(eq(0L), argThat(limite -> limite.getPageSize() == 1001));
+
+                usuarioService.setLimiteSemPaginacao(2);
+                ResponseEntity<?> acimaDoLimite = controller.listarUsuarios(null, null, null);
+
+                assertThat(acimaDoLimite.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat((String) acimaDoLimite.getBody()).contains("2", "paginada");
+
+                ResponseEntity<?> pagina = controller.listarUsuarios("login", null, 2);
+
+                assertThat(pagina.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat((List<?>) pagina.getBody()).hasSize(2);
+                assertThat(pagina.getHeaders().getFirst("X-Proximo-Cursor")).isNotNull();
+                assertThat(controller.listarUsuarios(null, null, 0).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
         @Test
         void testVerificarSenhaComSenhaArmazenadaNula() {
                 // Arrange
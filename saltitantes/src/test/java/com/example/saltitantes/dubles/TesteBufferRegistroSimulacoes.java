@@ -0,0 +1,97 @@
+package com.example.saltitantes.dubles;
+
+import com.example.saltitantes.service.BufferRegistroSimulacoes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes com Dublês do buffer write-behind de registros de simulação.
+ *
+ * Focam em:
+ * - Coalescência dos incrementos por login
+ * - Um único UPDATE em lote por flush
+ * - Manutenção dos pendentes quando a gravação falha
+ */
+@ExtendWith(MockitoExtension.class)
+public class TesteBufferRegistroSimulacoes {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        private BufferRegistroSimulacoes buffer;
+
+        @BeforeEach
+        void setUp() {
+                buffer = new BufferRegistroSimulacoes(jdbcTemplate, 1000);
+        }
+
+        /**
+         * Testa que vários registros do mesmo login viram uma linha do lote.
+         *
+         * @pre 3 simulações de "user1" (2 sucessos) e 1 de "user2"
+         * @post Um batchUpdate com 2 linhas e pendentes zerados após o flush
+         */
+        @Test
+        @SuppressWarnings("unchecked")
+        void testCoalescenciaEmUmUnicoLote() {
+                when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 1 });
+
+                buffer.registrar("user1", true);
+                buffer.registrar("user1", false);
+                buffer.registrar("user1", true);
+                buffer.registrar("user2", false);
+
+                assertThat(buffer.pendentes("user1")).containsExactly(3L, 2L);
+
+                int gravados = buffer.descarregar();
+
+                ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+                verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+                assertThat(gravados).isEqualTo(2);
+                assertThat(captor.getValue())
+                                .extracting(linha -> linha[2])
+                                .containsExactlyInAnyOrder("user1", "user2");
+                assertThat(buffer.pendentes("user1")).containsExactly(0L, 0L);
+                assertThat(buffer.pendentes("user2")).containsExactly(0L, 0L);
+        }
+
+        /**
+         * Testa que uma falha no banco não perde incrementos.
+         *
+         * @pre batchUpdate lança exceção
+         * @post Incrementos continuam pendentes para a próxima tentativa
+         */
+        @Test
+        void testFalhaNaGravacaoMantemPendentes() {
+                when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                                .thenThrow(new RuntimeException("Erro de conexão com o banco"));
+
+                buffer.registrar("user1", true);
+
+                assertThat(buffer.descarregar()).isZero();
+                assertThat(buffer.pendentes("user1")).containsExactly(1L, 1L);
+        }
+
+        /**
+         * Testa flush sem pendentes.
+         *
+         * @pre Nenhum registro acumulado
+         * @post Nenhum acesso ao banco
+         */
+        @Test
+        void testFlushSemPendentesNaoAcessaBanco() {
+                assertThat(buffer.descarregar()).isZero();
+                verifyNoInteractions(jdbcTemplate);
+        }
+}
@@ -0,0 +1,134 @@
+package com.example.saltitantes.dubles;
+
+import com.example.saltitantes.model.entity.Usuario;
+import com.example.saltitantes.service.CacheUsuarios;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes com Stubs do cache de usuários por login.
+ *
+ * Focam em:
+ * - Acertos, faltas e expiração
+ * - Invalidação após escrita
+ * - Uma única consulta ao banco para buscas simultâneas do mesmo login
+ */
+public class TesteCacheUsuarios {
+
+        /**
+         * Testa que a segunda busca é atendida pelo cache.
+         *
+         * @pre Cache vazio
+         * @post Uma consulta ao banco, um acerto e uma falta
+         */
+        @Test
+        void testSegundaBuscaUsaCache() {
+                CacheUsuarios cache = new CacheUsuarios(10, 60_000);
+                AtomicInteger consultas = new AtomicInteger();
+
+                cache.buscar("user1", login -> stub(login, consultas));
+                Optional<Usuario> segunda = cache.buscar("user1", login -> stub(login, consultas));
+
+                assertThat(segunda).isPresent();
+                assertThat(consultas.get()).isEqualTo(1);
+                assertThat(cache.metricas().getAcertos()).isEqualTo(1);
+                assertThat(cache.metricas().getFaltas()).isEqualTo(1);
+                assertThat(cache.metricas().getTaxaAcerto()).isEqualTo(50.0);
+        }
+
+        /**
+         * Testa invalidação e expiração.
+         *
+         * @pre Usuário em cache
+         * @post Nova consulta após invalidação e após o TTL
+         */
+        @Test
+        void testInvalidacaoEExpiracao() throws InterruptedException {
+                CacheUsuarios cache = new CacheUsuarios(10, 50);
+                AtomicInteger consultas = new AtomicInteger();
+
+                cache.buscar("user1", login -> stub(login, consultas));
+                cache.invalidar("user1");
+                cache.buscar("user1", login -> stub(login, consultas));
+                assertThat(consultas.get()).isEqualTo(2);
+
+                Thread.sleep(100);
+                cache.buscar("user1", login -> stub(login, consultas));
+                assertThat(consultas.get()).isEqualTo(3);
+        }
+
+        /**
+         * Testa o limite de capacidade.
+         *
+         * @pre Capacidade 3, 10 logins distintos buscados
+         * @post O cache nunca passa da capacidade
+         */
+        @Test
+        void testCapacidadeLimitada() {
+                CacheUsuarios cache = new CacheUsuarios(3, 60_000);
+                AtomicInteger consultas = new AtomicInteger();
+
+                for (int i = 0; i < 10; i++) {
+                        cache.buscar("user" + i, login -> stub(login, consultas));
+                }
+
+                assertThat(cache.metricas().getTamanho()).isLessThanOrEqualTo(3);
+                assertThat(cache.metricas().getRemocoes()).isGreaterThanOrEqualTo(7);
+        }
+
+        /**
+         * Testa que buscas simultâneas do mesmo login geram uma só consulta.
+         *
+         * @pre 32 threads buscando o mesmo login enquanto a consulta está bloqueada
+         * @post Apenas uma consulta ao banco e todas as threads recebem o usuário
+         */
+        @Test
+        void testBuscasSimultaneasCoalescem() throws Exception {
+                CacheUsuarios cache = new CacheUsuarios(10, 60_000);
+                AtomicInteger consultas = new AtomicInteger();
+                CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+                ExecutorService executor = Executors.newFixedThreadPool(32);
+                List<Future<Optional<Usuario>>> buscas = new ArrayList<>();
+                try {
+                        for (int i = 0; i < 32; i++) {
+                                buscas.add(executor.submit(() -> cache.buscar("popular", login -> {
+                                        consultas.incrementAndGet();
+                                        try {
+                                                liberarConsulta.await(5, TimeUnit.SECONDS);
+                                        } catch (InterruptedException e) {
+                                                Thread.currentThread().interrupt();
+                                        }
+                                        return Optional.of(new Usuario(login, "senha", "avatar.png"));
+                                })));
+                        }
+                        Thread.sleep(200);
+                        liberarConsulta.countDown();
+
+                        for (Future<Optional<Usuario>> busca : buscas) {
+                                assertThat(busca.get(5, TimeUnit.SECONDS)).isPresent();
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertThat(consultas.get()).isEqualTo(1);
+        }
+
+        private Optional<Usuario> stub(String login, AtomicInteger consultas) {
+                consultas.incrementAndGet();
+                return Optional.of(new Usuario(login, "senha", "avatar.png"));
+        }
+}
@@ -7,6 +7,7 @@ import com.example.saltitantes.model.dto.UsuarioDTO;
 import com.example.saltitantes.model.dto.EstatisticasDTO;
 import com.example.saltitantes.model.dto.LoginDTO;
 import com.example.saltitantes.model.dto.CriarUsuarioDTO;
+import com.example.saltitantes.model.dto.ResumoUsuariosDTO;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,25 +55,25 @@ public class TesteComDubles {
 
         /**
          * Teste com Spy: Verifica se a lógica de registro de simulação
-         * corretamente invoca a busca e o salvamento do usuário.
+         * corretamente invoca o UPDATE atômico, sem buscar nem salvar a entidade.
          *
          * @pre Spy do service, repository mockado
-         * @post Métodos de busca e salvamento chamados corretamente
+         * @post UPDATE atômico chamado com o incremento de sucesso correto
          */
         @Test
         void testSpyRegistroSimulacao() {
                 // Arrange
                 UsuarioService spyUsuarioService = spy(usuarioService);
-                when(usuarioRepository.findByLogin("user1")).thenReturn(Optional.of(usuarioMock));
-                when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioMock);
+                when(usuarioRepository.incrementarSimulacoes("user1", 1)).thenReturn(1);
 
                 // Act
                 spyUsuarioService.registrarSimulacao("user1", true);
 
                 // Verify
                 verify(spyUsuarioService).registrarSimulacao("user1", true);
-                verify(usuarioRepository).findByLogin("user1");
-                verify(usuarioRepository).save(any(Usuario.class));
+                verify(usuarioRepository).incrementarSimulacoes("user1", 1);
+                verify(usuarioRepository, never()).findByLogin(anyString());
+                verify(usuarioRepository, never()).save(any(Usuario.class));
         }
 
         /**
@@ -85,7 +86,7 @@ public class TesteComDubles {
         @Test
         void testMockErroRepositorioAoListar() {
                 // Arrange
-                when(usuarioRepository.findAll()).thenThrow(new RuntimeException("Erro de conexão com o banco"));
+                when(usuarioRepository.calcularResumo()).thenThrow(new RuntimeException("Erro de conexão com o banco"));
 
                 // Act & Assert
                 assertThatThrownBy(() -> usuarioService.obterEstatisticas())
@@ -103,7 +104,8 @@ public class TesteComDubles {
         @Test
         void testStubEstatisticasComBancoVazio() {
                 // Arrange
-                when(usuarioRepository.findAll()).thenReturn(Collections.emptyList());
+                when(usuarioRepository.calcularResumo()).thenReturn(new ResumoUsuariosDTO(0L, 0L, 0L, 0.0));
+                when(usuarioRepository.listarPontuacoes(any())).thenReturn(Collections.emptyList());
 
                 // Act
                 EstatisticasDTO estatisticas = usuarioService.obterEstatisticas();
@@ -0,0 +1,190 @@
+package com.example.saltitantes.dubles;
+
+import com.example.saltitantes.controller.UsuarioController;
+import com.example.saltitantes.model.dto.SimulacaoExecucaoDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.example.saltitantes.service.RegistroExecucaoService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes com Dublês do catálogo de execuções gravado em lotes.
+ *
+ * Focam em:
+ * - Fila esvaziada em lotes do tamanho configurado
+ * - Linhas gravadas listadas por usuário, da mais recente, em páginas
+ * - Lote que falha tentado de novo no próximo ciclo, sem perder linhas
+ * - Descarte do lote só depois das tentativas
+ */
+public class TesteRegistroExecucoes {
+
+        @Mock
+        private SimulacaoExecucaoRepository execucaoRepository;
+
+        @InjectMocks
+        private RegistroExecucaoService registroExecucaoService = new RegistroExecucaoService(1000);
+
+        // "Banco" do dublê: linhas gravadas e tamanho de cada saveAll
+        private final List<SimulacaoExecucao> banco = new ArrayList<>();
+        private final List<Integer> lotes = new ArrayList<>();
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+                when(execucaoRepository.findByLoginUsuarioOrderByIdDesc(anyString(), any(Pageable.class)))
+                                .thenAnswer(this::buscarPorUsuario);
+        }
+
+        /**
+         * Testa a gravação em lotes e a listagem do que foi gravado.
+         *
+         * @pre 120 execuções enfileiradas, 75 de "ana" e 45 de "bia"; lote de
+         *      50
+         * @post Três saveAll (50, 50 e 20) e fila vazia; a página 1 de "ana"
+         *       traz as execuções 21 a 40 dela, da mais recente; tamanho de
+         *       página inválido retorna 400
+         */
+        @Test
+        @SuppressWarnings("unchecked")
+        void testDescarregarGravaEmLotesEListaEmPaginas() {
+                when(execucaoRepository.saveAll(anyList())).thenAnswer(this::gravar);
+                for (int i = 0; i < 120; i++) {
+                        assertThat(registroExecucaoService.registrar(execucao(i % 8 < 5 ? "ana" : "bia", i))).isTrue();
+                }
+                assertThat(registroExecucaoService.getPendentes()).isEqualTo(120);
+
+                assertThat(registroExecucaoService.descarregar()).isEqualTo(120);
+
+                assertThat(lotes).containsExactly(50, 50, 20);
+                assertThat(registroExecucaoService.getPendentes()).isZero();
+                assertThat(banco).extracting(SimulacaoExecucao::getQuantidade)
+                                .containsExactlyElementsOf(quantidades(0, 120));
+
+                UsuarioController controller = new UsuarioController(null, registroExecucaoService, null, null);
+                ResponseEntity<?> resposta = controller.listarSimulacoes("ana", 1, 20);
+
+                assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+                PagedModel<SimulacaoExecucaoDTO> pagina = (PagedModel<SimulacaoExecucaoDTO>) resposta.getBody();
+                assertThat(pagina.getMetadata().totalElements()).isEqualTo(75);
+                assertThat(pagina.getMetadata().totalPages()).isEqualTo(4);
+                assertThat(pagina.getMetadata().number()).isEqualTo(1);
+                List<Long> idsDaAna = banco.stream().filter(e -> e.getLoginUsuario().equals("ana"))
+                                .map(SimulacaoExecucao::getId).sorted(Comparator.reverseOrder()).toList();
+                assertThat(pagina.getContent()).extracting(SimulacaoExecucaoDTO::getId)
+                                .containsExactlyElementsOf(idsDaAna.subList(20, 40));
+
+                assertThat(controller.listarSimulacoes("ana", 0, 101).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        /**
+         * Testa que um lote que falha é gravado no ciclo seguinte.
+         *
+         * @pre 60 execuções enfileiradas; saveAll falha duas vezes e depois
+         *      volta
+         * @post Os dois primeiros ciclos não gravam nem descartam nada e o
+         *       lote continua pendente; o terceiro grava as 60, na ordem
+         */
+        @Test
+        void testLoteComFalhaGravadoNoProximoCiclo() {
+                when(execucaoRepository.saveAll(anyList()))
+                                .thenThrow(new RuntimeException("Banco fora do ar"))
+                                .thenThrow(new RuntimeException("Banco fora do ar"))
+                                .thenAnswer(this::gravar);
+                for (int i = 0; i < 60; i++) {
+                        registroExecucaoService.registrar(execucao("ana", i));
+                }
+
+                assertThat(registroExecucaoService.descarregar()).isZero();
+                assertThat(registroExecucaoService.descarregar()).isZero();
+                assertThat(registroExecucaoService.getPendentes()).isEqualTo(60);
+                assertThat(registroExecucaoService.getDescartadas()).isZero();
+
+                assertThat(registroExecucaoService.descarregar()).isEqualTo(60);
+
+                assertThat(lotes).containsExactly(50, 10);
+                assertThat(banco).extracting(SimulacaoExecucao::getQuantidade)
+                                .containsExactlyElementsOf(quantidades(0, 60));
+                assertThat(registroExecucaoService.getPendentes()).isZero();
+                assertThat(registroExecucaoService.getDescartadas()).isZero();
+        }
+
+        /**
+         * Testa o limite de tentativas de um lote.
+         *
+         * @pre Duas tentativas por lote; saveAll sempre falha; 10 execuções
+         *      enfileiradas
+         * @post A primeira falha guarda o lote; a segunda o descarta e conta
+         *       as 10 execuções como descartadas
+         */
+        @Test
+        void testLoteDescartadoAposTentativas() {
+                registroExecucaoService.setTentativasLote(2);
+                when(execucaoRepository.saveAll(anyList())).thenThrow(new RuntimeException("Banco fora do ar"));
+                for (int i = 0; i < 10; i++) {
+                        registroExecucaoService.registrar(execucao("ana", i));
+                }
+
+                registroExecucaoService.descarregar();
+                assertThat(registroExecucaoService.getPendentes()).isEqualTo(10);
+                assertThat(registroExecucaoService.getDescartadas()).isZero();
+
+                registroExecucaoService.descarregar();
+                assertThat(registroExecucaoService.getPendentes()).isZero();
+                assertThat(registroExecucaoService.getDescartadas()).isEqualTo(10);
+                verify(execucaoRepository, times(2)).saveAll(anyList());
+        }
+
+        private static SimulacaoExecucao execucao(String login, int i) {
+                return new SimulacaoExecucao(login, i + 2, 10, i, false, 10, 1, 0);
+        }
+
+        private static List<Integer> quantidades(int de, int ate) {
+                List<Integer> quantidades = new ArrayList<>();
+                for (int i = de; i < ate; i++) {
+                        quantidades.add(i + 2);
+                }
+                return quantidades;
+        }
+
+        // saveAll do dublê: atribui ids em sequência e guarda cópia do tamanho
+        // do lote (a lista é reaproveitada pelo serviço)
+        private List<SimulacaoExecucao> gravar(InvocationOnMock invocacao) {
+                List<SimulacaoExecucao> lote = invocacao.getArgument(0);
+                lotes.add(lote.size());
+                for (SimulacaoExecucao execucao : lote) {
+                        execucao.setId((long) banco.size() + 1);
+                        banco.add(execucao);
+                }
+                return lote;
+        }
+
+        private PageImpl<SimulacaoExecucao> buscarPorUsuario(InvocationOnMock invocacao) {
+                String login = invocacao.getArgument(0);
+                Pageable pagina = invocacao.getArgument(1);
+                List<SimulacaoExecucao> doUsuario = banco.stream().filter(e -> login.equals(e.getLoginUsuario()))
+                                .sorted(Comparator.comparing(SimulacaoExecucao::getId).reversed()).toList();
+                int inicio = (int) Math.min(pagina.getOffset(), doUsuario.size());
+                int fim = Math.min(inicio + pagina.getPageSize(), doUsuario.size());
+                return new PageImpl<>(doUsuario.subList(inicio, fim), pagina, doUsuario.size());
+        }
+}
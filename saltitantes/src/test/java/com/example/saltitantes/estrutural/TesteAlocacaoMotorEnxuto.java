@@ -0,0 +1,77 @@
+package com.example.saltitantes.estrutural;
+
+import com.example.saltitantes.model.entity.Criaturas;
+import com.example.saltitantes.model.entity.Guardiao;
+import com.example.saltitantes.service.MotorSimulacaoEnxuto;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes Estruturais - Alocação de memória do motor enxuto.
+ *
+ * Focam em:
+ * - Iterações em regime não alocam memória (medido por
+ *   com.sun.management.ThreadMXBean.getThreadAllocatedBytes)
+ */
+public class TesteAlocacaoMotorEnxuto {
+
+        private static final int CRIATURAS = 1000;
+        private static final int ITERACOES_AQUECIMENTO = 10;
+        private static final int ITERACOES_MEDIDAS = 150;
+
+        /**
+         * Testa que as iterações depois da formação inicial dos clusters não
+         * alocam memória.
+         *
+         * @pre 1000 criaturas, motor já executado antes (classes carregadas)
+         * @post Menos de 1 KB alocado em 150 iterações (um cluster novo
+         *       ocasional aloca só a lista de IDs)
+         */
+        @Test
+        void testIteracaoEmRegimeNaoAloca() {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                                .getThreadMXBean();
+                assumeTrue(threads.isThreadAllocatedMemorySupported());
+                threads.setThreadAllocatedMemoryEnabled(true);
+                long thread = Thread.currentThread().getId();
+
+                // Primeira execução só carrega as classes usadas no laço
+                executar(criarMotor(1L), ITERACOES_AQUECIMENTO + ITERACOES_MEDIDAS);
+
+                MotorSimulacaoEnxuto motor = criarMotor(42L);
+                executar(motor, ITERACOES_AQUECIMENTO);
+
+                long antes = threads.getThreadAllocatedBytes(thread);
+                long custoMedicao = threads.getThreadAllocatedBytes(thread) - antes;
+
+                antes = threads.getThreadAllocatedBytes(thread);
+                executar(motor, ITERACOES_MEDIDAS);
+                long alocado = threads.getThreadAllocatedBytes(thread) - antes - custoMedicao;
+
+                assertThat(alocado).isLessThan(1024);
+        }
+
+        private MotorSimulacaoEnxuto criarMotor(long semente) {
+                Criaturas.resetarContador();
+                List<Criaturas> criaturas = new ArrayList<>();
+                for (int i = 0; i < CRIATURAS; i++) {
+                        criaturas.add(new Criaturas());
+                }
+                return new MotorSimulacaoEnxuto(criaturas, new ArrayList<>(), new Guardiao(CRIATURAS + 1),
+                                new SplittableRandom(semente), CRIATURAS);
+        }
+
+        private void executar(MotorSimulacaoEnxuto motor, int iteracoes) {
+                for (int i = 1; i <= iteracoes && !motor.temGanhador(); i++) {
+                        motor.avancarIteracao(i);
+                }
+        }
+}
@@ -23,7 +23,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -309,12 +308,10 @@ public class TesteEstrutural {
         void simularComUsuario_DeveRegistrarComSucesso_QuandoLoginValido() {
                 // Arrange
                 String login = "admin";
-                // Força o método simular(int) a retornar um resultado BEM-SUCEDIDO
-                SimularResponseDTO sucessoDTO = new SimularResponseDTO(1, null, null, null, true);
-                doReturn(List.of(sucessoDTO)).when(simuladorService).simular(anyInt());
+                // 4 criaturas com a semente 6 terminam com ganhador na 11ª iteração
 
                 // Act
-                simuladorService.simular(10, login);
+                simuladorService.simular(4, 6L, 1000, login, null);
 
                 // Assert: Verifica se o registro foi chamado com 'true'
                 verify(usuarioService).registrarSimulacao(login, true);
@@ -325,12 +322,10 @@ public class TesteEstrutural {
         void simularComUsuario_DeveRegistrarComFalha_QuandoLoginValido() {
                 // Arrange
                 String login = "admin";
-                // Força o método simular(int) a retornar um resultado SEM SUCESSO
-                SimularResponseDTO falhaDTO = new SimularResponseDTO(1, null, null, null, false);
-                doReturn(List.of(falhaDTO)).when(simuladorService).simular(anyInt());
+                // Uma iteração com 100 criaturas não chega a um ganhador
 
                 // Act
-                simuladorService.simular(10, login);
+                simuladorService.simular(100, 1L, 1, login, null);
 
                 // Assert: Verifica se o registro foi chamado com 'false'
                 verify(usuarioService).registrarSimulacao(login, false);
@@ -341,11 +336,9 @@ public class TesteEstrutural {
         void simularComUsuario_NaoDeveRegistrar_QuandoLoginForNulo() {
                 // Arrange
                 String loginNulo = null;
-                SimularResponseDTO falhaDTO = new SimularResponseDTO(1, null, null, null, false);
-                doReturn(List.of(falhaDTO)).when(simuladorService).simular(anyInt());
 
                 // Act
-                simuladorService.simular(10, loginNulo);
+                simuladorService.simular(100, 1L, 1, loginNulo, null);
 
                 // Assert: Verifica que NENHUM método foi chamado em usuarioService
                 verifyNoInteractions(usuarioService);
@@ -356,11 +349,9 @@ public class TesteEstrutural {
         void simularComUsuario_NaoDeveRegistrar_QuandoLoginForVazio() {
                 // Arrange
                 String loginVazio = "   "; // Espaços em branco
-                SimularResponseDTO falhaDTO = new SimularResponseDTO(1, null, null, null, false);
-                doReturn(List.of(falhaDTO)).when(simuladorService).simular(anyInt());
 
                 // Act
-                simuladorService.simular(10, loginVazio);
+                simuladorService.simular(100, 1L, 1, loginVazio, null);
 
                 // Assert: Verifica que NENHUM método foi chamado em usuarioService
                 verifyNoInteractions(usuarioService);
@@ -371,8 +362,6 @@ public class TesteEstrutural {
         void simularComUsuario_DeveLidarComExcecaoDoRegistro() {
                 // Arrange
                 String login = "admin";
-                SimularResponseDTO falhaDTO = new SimularResponseDTO(1, null, null, null, false);
-                doReturn(List.of(falhaDTO)).when(simuladorService).simular(anyInt());
 
                 // Força o método do mock a lançar a exceção esperada
                 doThrow(new IllegalArgumentException("Erro forçado"))
@@ -380,7 +369,7 @@ public class TesteEstrutural {
 
                 // Act
                 // Não precisa de asserção de exceção, pois o método a captura e apenas loga
-                simuladorService.simular(10, login);
+                simuladorService.simular(100, 1L, 1, login, null);
 
                 // Assert: Apenas verificamos que a chamada que causa a exceção foi tentada
                 verify(usuarioService).registrarSimulacao(login, false);
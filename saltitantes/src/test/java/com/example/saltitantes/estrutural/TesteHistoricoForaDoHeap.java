@@ -0,0 +1,192 @@
+package com.example.saltitantes.estrutural;
+
+import com.example.saltitantes.controller.SimuladorController;
+import com.example.saltitantes.model.dto.MetricasHistoricoDTO;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.HistoricoForaDoHeap;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Estruturais - Histórico da simulação guardado fora do heap.
+ *
+ * Focam em:
+ * - Mesmo histórico do guardado em DTOs, nos dois motores
+ * - Liberação imediata da memória ao descartar a execução
+ * - Um histórico por execução isolada, liberado depois de escrito
+ * - Ocupação de memória reportada
+ * - Ocupação da execução isolada estimada por amostragem
+ */
+public class TesteHistoricoForaDoHeap {
+
+        /**
+         * Testa que o histórico lido de fora do heap é igual ao em DTOs.
+         *
+         * @pre Mesma semente e parâmetros, com e sem o histórico fora do heap
+         * @post Iterações iguais campo a campo, inclusive o flag de sucesso
+         */
+        @ParameterizedTest
+        @ValueSource(booleans = { false, true })
+        void testMesmoHistoricoDosDtos(boolean modoEnxuto) {
+                SimuladorService heap = new SimuladorService();
+                heap.setModoEnxuto(modoEnxuto);
+                List<SimularResponseDTO> esperado = heap.simular(300, 23L, 400, null, null);
+
+                SimuladorService foraDoHeap = new SimuladorService();
+                foraDoHeap.setModoEnxuto(modoEnxuto);
+                foraDoHeap.setHistoricoForaDoHeap(true);
+                List<SimularResponseDTO> historico = foraDoHeap.simular(300, 23L, 400, null, null);
+
+                assertThat(historico).isInstanceOf(HistoricoForaDoHeap.class);
+                assertThat(historico).usingRecursiveFieldByFieldElementComparator().isEqualTo(esperado);
+        }
+
+        /**
+         * Testa a liberação da memória quando a execução é descartada.
+         *
+         * @pre Histórico fora do heap de uma simulação de 1000 criaturas
+         * @post Nova inicialização zera os bytes fora do heap e o histórico antigo
+         */
+        @Test
+        void testLiberacaoAoDescartar() {
+                SimuladorService simulador = new SimuladorService();
+                simulador.setHistoricoForaDoHeap(true);
+                simulador.inicializar(1000, 5L);
+                List<SimularResponseDTO> historico = simulador.simular(50);
+                assertThat(simulador.metricasHistorico().getBytesForaDoHeap()).isPositive();
+
+                simulador.inicializar(10, 5L);
+
+                assertThat(simulador.metricasHistorico().getBytesForaDoHeap()).isZero();
+                assertThat(historico).isEmpty();
+                assertThatThrownBy(() -> historico.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        /**
+         * Testa a ocupação reportada nos dois modos.
+         *
+         * @pre Mesma simulação com histórico em DTOs e fora do heap
+         * @post Fora do heap quase nada fica no heap; em DTOs nada fica fora
+         */
+        @Test
+        void testOcupacaoReportada() {
+                SimuladorService heap = new SimuladorService();
+                heap.inicializar(500, 3L);
+                heap.simular(200);
+                MetricasHistoricoDTO emDtos = heap.metricasHistorico();
+
+                SimuladorService foraDoHeap = new SimuladorService();
+                foraDoHeap.setHistoricoForaDoHeap(true);
+                foraDoHeap.inicializar(500, 3L);
+                foraDoHeap.simular(200);
+                MetricasHistoricoDTO emBuffers = foraDoHeap.metricasHistorico();
+
+                assertThat(emDtos.isForaDoHeap()).isFalse();
+                assertThat(emDtos.getBytesForaDoHeap()).isZero();
+                assertThat(emBuffers.isForaDoHeap()).isTrue();
+                assertThat(emBuffers.getIteracoes()).isEqualTo(emDtos.getIteracoes());
+                assertThat(emBuffers.getBytesHeap()).isLessThan(emDtos.getBytesHeap() / 100);
+                assertThat(emBuffers.getBytesForaDoHeap()).isLessThan(emDtos.getBytesHeap());
+        }
+
+        /**
+         * Testa a ocupação em DTOs reportada para uma execução isolada.
+         *
+         * @pre Mesma simulação isolada e pelo estado do serviço, em DTOs
+         * @post Mesma quantidade de iterações; bytes estimados pelas amostras
+         *       a menos de 10% dos medidos em todas as iterações
+         */
+        @Test
+        void testOcupacaoAmostradaDaExecucaoIsolada() {
+                SimuladorService isolado = new SimuladorService();
+                isolado.simular(500, 3L, 200, null, null);
+                MetricasHistoricoDTO amostrada = isolado.metricasHistorico();
+
+                SimuladorService completo = new SimuladorService();
+                completo.inicializar(500, 3L);
+                completo.simular(200);
+                MetricasHistoricoDTO medida = completo.metricasHistorico();
+
+                assertThat(amostrada.isForaDoHeap()).isFalse();
+                assertThat(amostrada.getIteracoes()).isEqualTo(medida.getIteracoes());
+                assertThat(amostrada.getBytesHeap()).isCloseTo(medida.getBytesHeap(), withinPercentage(10));
+        }
+
+        /**
+         * Testa o histórico de uma execução isolada.
+         *
+         * @pre Execução de 1000 criaturas e, antes de liberá-la, outra execução
+         *      no mesmo serviço
+         * @post A outra execução não toca o histórico; liberar zera os bytes
+         *       fora do heap, e a ocupação medida ao fim da execução continua
+         *       reportada
+         */
+        @Test
+        void testHistoricoDaExecucaoIsolada() {
+                SimuladorService simulador = new SimuladorService();
+                simulador.setHistoricoForaDoHeap(true);
+                List<SimularResponseDTO> historico = simulador.simular(1000, 5L, 50, null, null);
+                HistoricoForaDoHeap foraDoHeap = (HistoricoForaDoHeap) historico;
+                int iteracoes = foraDoHeap.size();
+                SimularResponseDTO primeira = foraDoHeap.get(0);
+
+                simulador.simular(10, 5L, 50, null, null);
+
+                assertThat(foraDoHeap).hasSize(iteracoes);
+                assertThat(foraDoHeap.get(0)).usingRecursiveComparison().isEqualTo(primeira);
+                simulador.liberarHistorico(historico);
+                assertThat(foraDoHeap.bytesForaDoHeap()).isZero();
+                assertThat(foraDoHeap).isEmpty();
+                assertThat(simulador.metricasHistorico().getBytesForaDoHeap()).isPositive();
+        }
+
+        /**
+         * Testa a resposta do /simular com o histórico fora do heap.
+         *
+         * @pre Controlador sem serialização direta; outra requisição passa pelo
+         *      serviço antes de a primeira resposta ser escrita
+         * @post Resposta igual ao JSON da simulação isolada em DTOs
+         */
+        @Test
+        void testRespostaEscritaAntesDeLiberar() throws IOException {
+                ObjectMapper objectMapper = new ObjectMapper();
+                SimuladorService isolado = new SimuladorService();
+                isolado.inicializar(300, 23L);
+                byte[] esperado = objectMapper.writeValueAsBytes(isolado.simular(100));
+
+                SimuladorService simulador = new SimuladorService();
+                simulador.setHistoricoForaDoHeap(true);
+                SimuladorController controller = new SimuladorController(simulador, false);
+                EscritorSimulacao corpo = (EscritorSimulacao) controller.simular(parametros(300, 100, 23L), null, null)
+                                .getBody();
+                controller.simular(parametros(50, 100, 7L), null, null);
+
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        corpo.escrever(json);
+                }
+                assertThat(saida.toByteArray()).isEqualTo(esperado);
+        }
+
+        private static ParametrosDTO parametros(int quantidade, int iteracoes, long semente) {
+                ParametrosDTO parametros = new ParametrosDTO();
+                parametros.setQuantidade(quantidade);
+                parametros.setIteracoes(iteracoes);
+                parametros.setSemente(semente);
+                return parametros;
+        }
+}
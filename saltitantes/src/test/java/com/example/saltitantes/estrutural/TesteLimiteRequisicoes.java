@@ -0,0 +1,238 @@
+package com.example.saltitantes.estrutural;
+
+import com.example.saltitantes.config.FiltroLimiteRequisicoes;
+import com.example.saltitantes.config.FiltroTokenSessao;
+import com.example.saltitantes.model.dto.MetricasLimiteDTO;
+import com.example.saltitantes.service.BaldesTokens;
+import com.example.saltitantes.service.LimitadorRequisicoes;
+import com.example.saltitantes.service.TokensSessao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Estruturais - Limite de requisições por balde de tokens.
+ *
+ * Focam em:
+ * - Rajada até a capacidade e reposição com o tempo
+ * - Tabela de tamanho fixo com despejo de baldes
+ * - Filtro: 429 antes do controlador, por endereço e por login
+ * - Endpoint reconhecido por caminho codificado ou com context path
+ * - Recusa pelo login sem gastar o token do endereço
+ * - Login do corpo no endpoint de login, da sessão no /simular
+ * - Corpo entregue intacto ao controlador
+ */
+public class TesteLimiteRequisicoes {
+
+        private static final long SEGUNDO = 1_000_000_000L;
+
+        /**
+         * Testa a rajada e a reposição de tokens.
+         *
+         * @pre Balde de capacidade 3 com reposição de 60 por minuto
+         * @post Três consumos imediatos; o quarto espera 1 s e passa depois
+         *       dele
+         */
+        @Test
+        void testRajadaEReposicao() {
+                BaldesTokens baldes = new BaldesTokens(64, 3, 60);
+
+                assertThat(baldes.consumir("ana", 0)).isZero();
+                assertThat(baldes.consumir("ana", 0)).isZero();
+                assertThat(baldes.consumir("ana", 0)).isZero();
+                assertThat(baldes.consumir("ana", 0)).isEqualTo(SEGUNDO);
+                assertThat(baldes.consumir("bia", 0)).isZero();
+                assertThat(baldes.consumir("ana", SEGUNDO)).isZero();
+                assertThat(baldes.ativos(10 * SEGUNDO)).isZero();
+        }
+
+        /**
+         * Testa o tamanho fixo da tabela.
+         *
+         * @pre Tabela de 8 baldes e 100 chaves diferentes
+         * @post A tabela não cresce; as chaves excedentes despejam baldes
+         */
+        @Test
+        void testTabelaLimitada() {
+                BaldesTokens baldes = new BaldesTokens(8, 2, 60);
+
+                for (int i = 0; i < 100; i++) {
+                        assertThat(baldes.consumir("chave" + i, i)).isZero();
+                }
+
+                assertThat(baldes.tamanho()).isEqualTo(8);
+                assertThat(baldes.ativos(100)).isEqualTo(8);
+                assertThat(baldes.despejos()).isEqualTo(92);
+        }
+
+        /**
+         * Testa a recusa por login vindo de endereços diferentes.
+         *
+         * @pre Login limitado a 2 tentativas; três tentativas do mesmo login
+         *      de endereços diferentes
+         * @post A terceira recebe 429 com Retry-After sem chegar ao
+         *       controlador; a recusa é contada nas métricas
+         */
+        @Test
+        void testLoginLimitadoEntreEnderecos() throws Exception {
+                LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, 64, 20, 60, 2, 10);
+                FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador);
+                String corpo = "{\"login\":\"ana\",\"senha\":\"errada\"}";
+
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", corpo).getStatus())
+                                .isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.2", corpo).getStatus())
+                                .isEqualTo(200);
+
+                MockFilterChain cadeia = new MockFilterChain();
+                MockHttpServletResponse recusada = new MockHttpServletResponse();
+                filtro.doFilter(requisicao("/api/v1/usuarios/login", "10.0.0.3", corpo), recusada, cadeia);
+
+                assertThat(recusada.getStatus()).isEqualTo(429);
+                assertThat(recusada.getHeader("Retry-After")).isEqualTo("6");
+                assertThat(cadeia.getRequest()).isNull();
+
+                List<MetricasLimiteDTO> metricas = limitador.metricas();
+                assertThat(metricas).extracting(MetricasLimiteDTO::getEndpoint)
+                                .containsExactly("POST /api/v1/simular", "POST /api/v1/usuarios/login");
+                assertThat(metricas.get(1).getPermitidas()).isEqualTo(2);
+                assertThat(metricas.get(1).getRejeitadas()).isEqualTo(1);
+        }
+
+        /**
+         * Testa o limite por endereço e a entrega do corpo ao controlador.
+         *
+         * @pre /simular limitado a 1 requisição por endereço, corpo sem login
+         *      maior que o trecho lido pelo filtro
+         * @post A primeira chega ao controlador com o corpo intacto; a
+         *       segunda do mesmo endereço é recusada
+         */
+        @Test
+        void testSimularLimitadoPorEndereco() throws Exception {
+                LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, 64, 1, 60, 5, 10);
+                FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador);
+                String corpo = "{\"quantidade\":10,\"iteracoes\":5,\"extra\":\"" + "x".repeat(20_000) + "\"}";
+
+                MockFilterChain cadeia = new MockFilterChain();
+                filtro.doFilter(requisicao("/api/v1/simular", "10.0.0.1", corpo), new MockHttpServletResponse(),
+                                cadeia);
+
+                assertThat(cadeia.getRequest()).isNotNull();
+                assertThat(new String(cadeia.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                                .isEqualTo(corpo);
+                assertThat(executar(filtro, "/api/v1/simular", "10.0.0.1", corpo).getStatus()).isEqualTo(429);
+                assertThat(executar(filtro, "/api/v1/simular", "10.0.0.2", corpo).getStatus()).isEqualTo(200);
+        }
+
+        /**
+         * Testa variantes do caminho que o Spring MVC roteia para o /simular.
+         *
+         * @pre /simular limitado a 1 requisição por endereço, já consumida
+         * @post Caminho codificado, com segmento ".", com parâmetro de caminho
+         *       e com context path também são recusados
+         */
+        @Test
+        void testCaminhoCodificadoLimitado() throws Exception {
+                LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, 64, 1, 60, 5, 10);
+                FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador);
+                String corpo = "{\"quantidade\":10,\"iteracoes\":5}";
+
+                assertThat(executar(filtro, "/api/v1/simular", "10.0.0.1", corpo).getStatus()).isEqualTo(200);
+
+                assertThat(executar(filtro, "/api/v1/%73imular", "10.0.0.1", corpo).getStatus()).isEqualTo(429);
+                assertThat(executar(filtro, "/api/v1/./simular", "10.0.0.1", corpo).getStatus()).isEqualTo(429);
+                assertThat(executar(filtro, "/api/v1/simular;x=1", "10.0.0.1", corpo).getStatus()).isEqualTo(429);
+
+                MockHttpServletRequest comContexto = requisicao("/app/api/v1/simular", "10.0.0.1", corpo);
+                comContexto.setContextPath("/app");
+                MockHttpServletResponse resposta = new MockHttpServletResponse();
+                filtro.doFilter(comContexto, resposta, new MockFilterChain());
+                assertThat(resposta.getStatus()).isEqualTo(429);
+        }
+
+        /**
+         * Testa que a recusa pelo login não cobra o endereço.
+         *
+         * @pre Login limitado a 2 requisições; "ana" esgotada por dois
+         *      endereços e recusada de novo no primeiro
+         * @post O primeiro endereço ainda tem o segundo token, usado por
+         *       "bia"; só a terceira requisição dele é recusada pelo endereço
+         */
+        @Test
+        void testRecusaPeloLoginNaoCobraEndereco() throws Exception {
+                LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, 64, 20, 60, 2, 10);
+                FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador);
+                String ana = "{\"login\":\"ana\",\"senha\":\"errada\"}";
+
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", ana).getStatus()).isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.2", ana).getStatus()).isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", ana).getStatus()).isEqualTo(429);
+
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", "{\"login\":\"bia\"}")
+                                .getStatus()).isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", "{\"login\":\"caio\"}")
+                                .getStatus()).isEqualTo(429);
+        }
+
+        /**
+         * Testa de onde vem o login com uma sessão válida na requisição.
+         *
+         * @pre Login e /simular limitados a 1 por login; sessão de "bia" em
+         *      todas as requisições, de endereços diferentes
+         * @post No login, conta o login do corpo: "ana" é recusada na segunda
+         *       tentativa e "caio" ainda passa. No /simular, conta a sessão:
+         *       a segunda de "bia" é recusada, qualquer que seja o corpo
+         */
+        @Test
+        void testLoginDoCorpoNoLoginEDaSessaoNoSimular() throws Exception {
+                LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, 64, 1, 60, 1, 10);
+                FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador);
+                TokensSessao tokens = new TokensSessao("segredo-de-teste", 60, Clock.systemUTC());
+                TokensSessao.Sessao bia = tokens.validar(tokens.emitir(2L, "bia"));
+                String ana = "{\"login\":\"ana\",\"senha\":\"errada\"}";
+
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.1", ana, bia).getStatus())
+                                .isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.2", ana, bia).getStatus())
+                                .isEqualTo(429);
+                assertThat(executar(filtro, "/api/v1/usuarios/login", "10.0.0.3", "{\"login\":\"caio\"}", bia)
+                                .getStatus()).isEqualTo(200);
+
+                assertThat(executar(filtro, "/api/v1/simular", "10.0.0.4", "{\"loginUsuario\":\"ana\"}", bia)
+                                .getStatus()).isEqualTo(200);
+                assertThat(executar(filtro, "/api/v1/simular", "10.0.0.5", "{\"loginUsuario\":\"caio\"}", bia)
+                                .getStatus()).isEqualTo(429);
+        }
+
+        private static MockHttpServletResponse executar(FiltroLimiteRequisicoes filtro, String uri, String endereco,
+                        String corpo, TokensSessao.Sessao sessao) throws Exception {
+                MockHttpServletRequest requisicao = requisicao(uri, endereco, corpo);
+                requisicao.setAttribute(FiltroTokenSessao.ATRIBUTO_SESSAO, sessao);
+                MockHttpServletResponse resposta = new MockHttpServletResponse();
+                filtro.doFilter(requisicao, resposta, new MockFilterChain());
+                return resposta;
+        }
+
+        private static MockHttpServletResponse executar(FiltroLimiteRequisicoes filtro, String uri, String endereco,
+                        String corpo) throws Exception {
+                MockHttpServletResponse resposta = new MockHttpServletResponse();
+                filtro.doFilter(requisicao(uri, endereco, corpo), resposta, new MockFilterChain());
+                return resposta;
+        }
+
+        private static MockHttpServletRequest requisicao(String uri, String endereco, String corpo) {
+                MockHttpServletRequest requisicao = new MockHttpServletRequest("POST", uri);
+                requisicao.setRemoteAddr(endereco);
+                requisicao.setContentType("application/json");
+                requisicao.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+                return requisicao;
+        }
+}
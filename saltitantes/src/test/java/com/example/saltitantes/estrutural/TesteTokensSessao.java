@@ -0,0 +1,140 @@
+package com.example.saltitantes.estrutural;
+
+import com.example.saltitantes.config.FiltroTokenSessao;
+import com.example.saltitantes.repository.UserRepository;
+import com.example.saltitantes.service.TokensSessao;
+import com.example.saltitantes.service.TokensSessao.Sessao;
+import com.example.saltitantes.service.UsuarioService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Estruturais - Tokens de sessão assinados.
+ *
+ * Focam em:
+ * - Id e login recuperados do token sem acesso ao banco
+ * - Recusa de tokens adulterados, de outro segredo ou expirados
+ * - Filtro: sessão no atributo da requisição ou 401
+ * - Registro da simulação pela chave primária
+ */
+public class TesteTokensSessao {
+
+        private static final Instant AGORA = Instant.parse("2025-01-01T12:00:00Z");
+
+        private final TokensSessao tokens = new TokensSessao("segredo-de-teste", 60,
+                        Clock.fixed(AGORA, ZoneOffset.UTC));
+
+        @Mock
+        private UserRepository userRepository;
+
+        @InjectMocks
+        private UsuarioService usuarioService;
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        /**
+         * Testa a ida e volta do token.
+         *
+         * @pre Token emitido para o usuário 42 com login contendo ":"
+         * @post Sessão com o mesmo id, login e expiração em 60 minutos
+         */
+        @Test
+        void testTokenValidoRecuperaSessao() {
+                Sessao sessao = tokens.validar(tokens.emitir(42L, "ana:silva"));
+
+                assertThat(sessao).isNotNull();
+                assertThat(sessao.getIdUsuario()).isEqualTo(42L);
+                assertThat(sessao.getLogin()).isEqualTo("ana:silva");
+                assertThat(sessao.getExpiraEm()).isEqualTo(AGORA.plus(Duration.ofMinutes(60)).getEpochSecond());
+        }
+
+        /**
+         * Testa a recusa de tokens inválidos.
+         *
+         * @pre Token com carga trocada, token de outro segredo, token vencido
+         *      e texto sem formato de token
+         * @post Todos recusados
+         */
+        @Test
+        void testTokensInvalidosRecusados() {
+                String token = tokens.emitir(42L, "ana");
+                String outroToken = tokens.emitir(7L, "bia");
+                String trocado = outroToken.substring(0, outroToken.indexOf('.'))
+                                + token.substring(token.indexOf('.'));
+                TokensSessao outroSegredo = new TokensSessao("outro", 60, Clock.fixed(AGORA, ZoneOffset.UTC));
+                TokensSessao depois = new TokensSessao("segredo-de-teste", 60,
+                                Clock.fixed(AGORA.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+
+                assertThat(tokens.validar(trocado)).isNull();
+                assertThat(outroSegredo.validar(token)).isNull();
+                assertThat(depois.validar(token)).isNull();
+                assertThat(tokens.validar("sem-ponto")).isNull();
+                assertThat(tokens.validar("!!.??")).isNull();
+        }
+
+        /**
+         * Testa o filtro do cabeçalho Authorization.
+         *
+         * @pre Requisição com token válido e outra com token adulterado
+         * @post A válida segue com a sessão no atributo; a adulterada recebe
+         *       401 sem chegar ao controlador
+         */
+        @Test
+        void testFiltroDeixaSessaoOuRecusa() throws Exception {
+                FiltroTokenSessao filtro = new FiltroTokenSessao(tokens);
+
+                MockHttpServletRequest valida = new MockHttpServletRequest("POST", "/api/v1/simular");
+                valida.addHeader("Authorization", "Bearer " + tokens.emitir(42L, "ana"));
+                MockFilterChain cadeia = new MockFilterChain();
+                filtro.doFilter(valida, new MockHttpServletResponse(), cadeia);
+
+                assertThat(cadeia.getRequest()).isNotNull();
+                Sessao sessao = (Sessao) valida.getAttribute(FiltroTokenSessao.ATRIBUTO_SESSAO);
+                assertThat(sessao.getIdUsuario()).isEqualTo(42L);
+
+                MockHttpServletRequest adulterada = new MockHttpServletRequest("POST", "/api/v1/simular");
+                adulterada.addHeader("Authorization", "Bearer " + tokens.emitir(42L, "ana") + "x");
+                MockHttpServletResponse recusada = new MockHttpServletResponse();
+                MockFilterChain bloqueada = new MockFilterChain();
+                filtro.doFilter(adulterada, recusada, bloqueada);
+
+                assertThat(recusada.getStatus()).isEqualTo(401);
+                assertThat(bloqueada.getRequest()).isNull();
+        }
+
+        /**
+         * Testa o registro da simulação pelo id do token.
+         *
+         * @pre Usuário 42 existente
+         * @post Um UPDATE pela chave primária, sem busca nem UPDATE pelo login
+         */
+        @Test
+        void testRegistroPeloId() {
+                when(userRepository.incrementarSimulacoesPorId(42L, 1)).thenReturn(1);
+
+                usuarioService.registrarSimulacao(42L, "ana", true);
+
+                verify(userRepository).incrementarSimulacoesPorId(42L, 1);
+                verify(userRepository, never()).findByLogin(anyString());
+                verify(userRepository, never()).incrementarSimulacoes(anyString(), anyInt());
+        }
+}
@@ -0,0 +1,101 @@
+package com.example.saltitantes.estrutural;
+
+import com.example.saltitantes.model.dto.MetricasHistoricoDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.HistoricoForaDoHeap;
+import com.example.saltitantes.service.SimuladorService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Estruturais - Transbordo do histórico para o disco.
+ *
+ * Focam em:
+ * - Histórico acima do orçamento lido de volta sem diferenças
+ * - Memória limitada ao orçamento e bytes transbordados reportados
+ * - Limpeza dos arquivos temporários
+ */
+public class TesteTransbordoHistorico {
+
+        private static final long ORCAMENTO = 1 << 20;
+
+        @TempDir
+        Path diretorio;
+
+        /**
+         * Testa que o histórico transbordado é igual ao guardado em DTOs.
+         *
+         * @pre Simulação 1000x300 com orçamento de 1 MB
+         * @post Iterações iguais, memória dentro do orçamento, bytes
+         *       transbordados e leituras do disco contabilizados
+         */
+        @Test
+        void testHistoricoTransbordadoIgualAoEmDtos() {
+                SimuladorService heap = new SimuladorService();
+                List<SimularResponseDTO> esperado = heap.simular(1000, 8L, 300, null, null);
+
+                SimuladorService limitado = new SimuladorService();
+                limitado.setOrcamentoHistorico(ORCAMENTO, diretorio);
+                limitado.inicializar(1000, 8L);
+                List<SimularResponseDTO> historico = limitado.simular(300);
+
+                assertThat(historico).usingRecursiveFieldByFieldElementComparator().isEqualTo(esperado);
+
+                MetricasHistoricoDTO metricas = limitado.metricasHistorico();
+                assertThat(metricas.getBytesForaDoHeap()).isLessThanOrEqualTo(ORCAMENTO);
+                assertThat(metricas.getBytesTransbordados()).isPositive();
+                assertThat(metricas.getLeiturasTransbordadas()).isPositive();
+                assertThat(metricas.getLatenciaMaximaLeituraNs())
+                                .isGreaterThanOrEqualTo(metricas.getLatenciaMediaLeituraNs());
+        }
+
+        /**
+         * Testa a limpeza ao descartar a execução.
+         *
+         * @pre Execução com parte do histórico transbordada
+         * @post Nova inicialização apaga o arquivo e zera os bytes da execução,
+         *       mantendo o total acumulado
+         */
+        @Test
+        void testLimpezaAoDescartar() throws IOException {
+                SimuladorService simulador = new SimuladorService();
+                simulador.setOrcamentoHistorico(ORCAMENTO, diretorio);
+                simulador.inicializar(1000, 8L);
+                simulador.simular(300);
+                long transbordados = simulador.metricasHistorico().getBytesTransbordados();
+
+                simulador.inicializar(10, 8L);
+
+                MetricasHistoricoDTO metricas = simulador.metricasHistorico();
+                assertThat(metricas.getBytesTransbordados()).isZero();
+                assertThat(metricas.getTotalBytesTransbordados()).isEqualTo(transbordados);
+                try (var arquivos = Files.list(diretorio)) {
+                        assertThat(arquivos).isEmpty();
+                }
+        }
+
+        /**
+         * Testa a limpeza de arquivos deixados por processos que terminaram.
+         *
+         * @pre Arquivo de um pid inexistente e arquivo do processo atual
+         * @post Só o arquivo do processo que terminou é apagado
+         */
+        @Test
+        void testLimpezaDeArquivosOrfaos() throws IOException {
+                Path orfao = Files.createFile(diretorio.resolve("historico-999999999-1.bin"));
+                Path atual = Files.createFile(
+                                diretorio.resolve("historico-" + ProcessHandle.current().pid() + "-2.bin"));
+
+                assertThat(HistoricoForaDoHeap.limparArquivosOrfaos(diretorio)).isEqualTo(1);
+                assertThat(orfao).doesNotExist();
+                assertThat(atual).exists();
+        }
+}
@@ -0,0 +1,232 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.SimulacoesController;
+import com.example.saltitantes.model.dto.AnaliseRoubosDTO;
+import com.example.saltitantes.model.dto.RoubosEntidadeDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.example.saltitantes.service.AnaliseRoubosService;
+import com.example.saltitantes.service.SimuladorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Funcionais - Análise dos roubos de uma execução registrada.
+ *
+ * Focam em:
+ * - Fluxo de ouro coerente com a execução original
+ * - Ordenação e limite dos maiores ladrões e vítimas
+ * - Uma única reprodução por execução, mesmo com consultas simultâneas
+ * - Reproduções em andamento não despejadas do cache
+ * - Códigos de erro do endpoint
+ */
+public class TesteAnaliseRoubos {
+
+        private static final long SEMENTE = 23L;
+
+        @Mock
+        private SimulacaoExecucaoRepository execucaoRepository;
+
+        @InjectMocks
+        private AnaliseRoubosService analiseRoubosService;
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        /**
+         * Testa o fluxo de ouro contra a execução original.
+         *
+         * @pre Execução de 150 criaturas com semente fixa registrada no catálogo
+         * @post O ouro que o guardião ganha em cada iteração é o fluxo para o
+         *       guardião; os fluxos somam o ouro roubado e as contagens somam o
+         *       total de roubos
+         */
+        @Test
+        void testFluxoIgualAExecucaoOriginal() {
+                SimuladorService simulador = new SimuladorService();
+                List<SimularResponseDTO> original = simulador.simular(150, SEMENTE, 200, null, null);
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(150, original.size())));
+
+                AnaliseRoubosDTO analise = analiseRoubosService.analisar(1L, null).orElseThrow();
+
+                assertThat(analise.getIteracoes()).isEqualTo(original.size());
+                assertThat(analise.getTotalRoubos()).isPositive();
+                for (int i = 1; i < original.size(); i++) {
+                        long ganho = original.get(i).getGuardiao().getOuro()
+                                        - original.get(i - 1).getGuardiao().getOuro();
+                        assertThat(analise.getOuroParaGuardiao()[i]).isEqualTo(ganho);
+                }
+                long fluxo = Arrays.stream(analise.getOuroEntreCriaturas()).sum()
+                                + Arrays.stream(analise.getOuroParaClusters()).sum()
+                                + Arrays.stream(analise.getOuroParaGuardiao()).sum();
+                assertThat(fluxo).isEqualTo(analise.getOuroRoubado());
+                assertThat(Arrays.stream(analise.getRoubosPorIteracao()).sum()).isEqualTo(analise.getTotalRoubos());
+        }
+
+        /**
+         * Testa a ordenação e o limite das listas.
+         *
+         * @pre Mesma execução consultada com 3 e com o padrão de maiores
+         * @post Listas do tamanho pedido, do maior para o menor ouro, com a de
+         *       3 sendo o começo da padrão; a execução é reproduzida uma vez
+         */
+        @Test
+        void testMaioresOrdenadosELimitados() {
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(150, 200)));
+
+                AnaliseRoubosDTO tres = analiseRoubosService.analisar(1L, 3).orElseThrow();
+                AnaliseRoubosDTO padrao = analiseRoubosService.analisar(1L, null).orElseThrow();
+
+                assertThat(tres.getMaioresLadroes()).hasSize(3);
+                assertThat(tres.getMaioresVitimas()).hasSize(3);
+                assertThat(padrao.getMaioresLadroes()).hasSize(AnaliseRoubosService.MAIORES_PADRAO);
+                assertThat(padrao.getMaioresLadroes()).startsWithElementsOf(tres.getMaioresLadroes());
+                assertThat(padrao.getMaioresLadroes()).extracting(RoubosEntidadeDTO::getOuro)
+                                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+                assertThat(padrao.getMaioresVitimas()).extracting(RoubosEntidadeDTO::getOuro)
+                                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+                // O guardião só rouba clusters, e clusters só são roubados por ele
+                assertThat(padrao.getMaioresVitimas()).extracting(RoubosEntidadeDTO::getTipo)
+                                .doesNotContain("guardiao");
+
+                verify(execucaoRepository, times(1)).findById(1L);
+        }
+
+        /**
+         * Testa consultas simultâneas à mesma execução ainda fora do cache.
+         *
+         * @pre Oito consultas à execução 1 iniciadas enquanto a primeira
+         *      ainda busca a execução no catálogo
+         * @post Todas recebem a mesma análise; a execução é buscada e
+         *       reproduzida uma vez
+         */
+        @Test
+        void testConsultasSimultaneasReproduzemUmaVez() throws Exception {
+                int consultas = 8;
+                CountDownLatch iniciadas = new CountDownLatch(consultas);
+                CountDownLatch liberar = new CountDownLatch(1);
+                when(execucaoRepository.findById(1L)).thenAnswer(chamada -> {
+                        liberar.await(10, TimeUnit.SECONDS);
+                        return Optional.of(execucao(150, 200));
+                });
+
+                ExecutorService executor = Executors.newFixedThreadPool(consultas);
+                try {
+                        List<Future<AnaliseRoubosDTO>> analises = new ArrayList<>();
+                        for (int i = 0; i < consultas; i++) {
+                                analises.add(executor.submit(() -> {
+                                        iniciadas.countDown();
+                                        return analiseRoubosService.analisar(1L, null).orElseThrow();
+                                }));
+                        }
+                        iniciadas.await(10, TimeUnit.SECONDS);
+                        Thread.sleep(50);
+                        liberar.countDown();
+
+                        AnaliseRoubosDTO primeira = analises.get(0).get(30, TimeUnit.SECONDS);
+                        for (Future<AnaliseRoubosDTO> analise : analises) {
+                                assertThat(analise.get(30, TimeUnit.SECONDS).getOuroRoubado())
+                                                .isEqualTo(primeira.getOuroRoubado());
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                verify(execucaoRepository, times(1)).findById(1L);
+        }
+
+        /**
+         * Testa que o despejo do cache pula reproduções em andamento.
+         *
+         * @pre Cache de uma execução; execução 1 presa na busca enquanto as
+         *      execuções 2 e 3 são analisadas; nova consulta à 1 depois delas
+         * @post A 1 continua no cache enquanto reproduz, e a segunda consulta
+         *       a aguarda em vez de reproduzir de novo; ao terminar, só ela
+         *       fica no cache
+         */
+        @Test
+        void testReproducaoEmAndamentoNaoDespejada() throws Exception {
+                analiseRoubosService.setExecucoesEmCache(1);
+                CountDownLatch buscando = new CountDownLatch(1);
+                CountDownLatch liberar = new CountDownLatch(1);
+                when(execucaoRepository.findById(1L)).thenAnswer(chamada -> {
+                        buscando.countDown();
+                        liberar.await(10, TimeUnit.SECONDS);
+                        return Optional.of(execucao(150, 200));
+                });
+                when(execucaoRepository.findById(2L)).thenReturn(Optional.of(execucao(20, 30)));
+                when(execucaoRepository.findById(3L)).thenReturn(Optional.of(execucao(20, 30)));
+
+                ExecutorService executor = Executors.newFixedThreadPool(2);
+                try {
+                        Future<AnaliseRoubosDTO> primeira = executor
+                                        .submit(() -> analiseRoubosService.analisar(1L, null).orElseThrow());
+                        assertThat(buscando.await(10, TimeUnit.SECONDS)).isTrue();
+
+                        analiseRoubosService.analisar(2L, null).orElseThrow();
+                        analiseRoubosService.analisar(3L, null).orElseThrow();
+                        assertThat(analiseRoubosService.execucoesEmCache()).isEqualTo(2);
+
+                        Future<AnaliseRoubosDTO> segunda = executor
+                                        .submit(() -> analiseRoubosService.analisar(1L, null).orElseThrow());
+                        liberar.countDown();
+
+                        assertThat(segunda.get(30, TimeUnit.SECONDS).getOuroRoubado())
+                                        .isEqualTo(primeira.get(30, TimeUnit.SECONDS).getOuroRoubado());
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertThat(analiseRoubosService.execucoesEmCache()).isEqualTo(1);
+                analiseRoubosService.analisar(1L, null).orElseThrow();
+                verify(execucaoRepository, times(1)).findById(1L);
+        }
+
+        /**
+         * Testa os códigos de erro do endpoint.
+         *
+         * @pre Execução 1 registrada; execução 2 inexistente
+         * @post 200 imutável para a execução existente; 404 para a
+         *       inexistente; 400 para maiores fora de 1..100
+         */
+        @Test
+        void testCodigos() {
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(20, 30)));
+                when(execucaoRepository.findById(2L)).thenReturn(Optional.empty());
+                SimulacoesController controller = new SimulacoesController(null, null, analiseRoubosService);
+
+                assertThat(controller.analisarRoubos(1L, null).getHeaders().getCacheControl()).contains("immutable");
+                assertThat(controller.analisarRoubos(1L, 100).getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(controller.analisarRoubos(2L, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+                assertThat(controller.analisarRoubos(1L, 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(controller.analisarRoubos(1L, 101).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        private SimulacaoExecucao execucao(int quantidade, int executadas) {
+                SimulacaoExecucao execucao = new SimulacaoExecucao(null, quantidade, executadas, SEMENTE, false,
+                                executadas, 0, 0);
+                execucao.setId(1L);
+                return execucao;
+        }
+}
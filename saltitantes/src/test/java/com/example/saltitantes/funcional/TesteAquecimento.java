@@ -0,0 +1,57 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.dto.AquecimentoDTO;
+import com.example.saltitantes.service.AquecimentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais do aquecimento executado na partida.
+ *
+ * Focam em:
+ * - Simulação e serialização pelo caminho real, sem banco
+ * - Respeito ao orçamento de tempo e ao limite de execuções
+ */
+public class TesteAquecimento {
+
+        /**
+         * Testa o limite de execuções.
+         *
+         * @pre Orçamento amplo, limite de 5 execuções
+         * @post Exatamente 5 simulações, sem esgotar o orçamento
+         */
+        @Test
+        void testAquecimentoParaNoLimiteDeExecucoes() {
+                AquecimentoService aquecimento = new AquecimentoService(new ObjectMapper(), 60_000, 5);
+
+                AquecimentoDTO resultado = aquecimento.aquecer();
+
+                assertThat(resultado.getExecucoes()).isEqualTo(5);
+                assertThat(resultado.getIteracoes()).isGreaterThanOrEqualTo(5);
+                assertThat(resultado.isOrcamentoEsgotado()).isFalse();
+                assertThat(aquecimento.getUltimoResultado()).isSameAs(resultado);
+        }
+
+        /**
+         * Testa o orçamento de tempo.
+         *
+         * @pre Orçamento de 300 ms e limite de execuções inalcançável
+         * @post Para por tempo, com pelo menos uma simulação, sem exceder
+         *       muito o orçamento
+         */
+        @Test
+        void testAquecimentoRespeitaOrcamento() {
+                AquecimentoService aquecimento = new AquecimentoService(new ObjectMapper(), 300, Integer.MAX_VALUE);
+
+                AquecimentoDTO resultado = aquecimento.aquecer();
+
+                assertThat(resultado.getExecucoes()).isPositive();
+                assertThat(resultado.isOrcamentoEsgotado()).isTrue();
+                assertThat(resultado.getDuracaoMs())
+                                .as("A última simulação pode ultrapassar o orçamento, mas pouco")
+                                .isLessThan(5_000);
+        }
+}
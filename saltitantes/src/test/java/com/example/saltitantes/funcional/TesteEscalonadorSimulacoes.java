@@ -0,0 +1,210 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.dto.MetricasEscalonadorDTO;
+import com.example.saltitantes.model.dto.MetricasFilaUsuarioDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.service.EscalonadorSimulacoes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais - Escalonamento justo das simulações entre usuários.
+ *
+ * Focam em:
+ * - Usuário com muitas execuções grandes não atrasa os demais
+ * - Fila prioritária para execuções pequenas
+ * - Vez concedida na hora com o sistema ocioso
+ * - Profundidade da fila e tempo de espera por usuário
+ * - Reprodução na fila de quem fez a execução
+ */
+public class TesteEscalonadorSimulacoes {
+
+        private static final long GRANDE = 1_000_000; // 1000 criaturas x 1000 iterações
+        private static final long MEDIA = 200_000;
+        private static final long PEQUENA = 100;
+
+        private EscalonadorSimulacoes escalonador;
+        private ExecutorService executor;
+        private final List<String> ordem = Collections.synchronizedList(new ArrayList<>());
+
+        @BeforeEach
+        void setUp() {
+                escalonador = new EscalonadorSimulacoes(true, 1, 100_000, 10_000);
+                executor = Executors.newCachedThreadPool();
+        }
+
+        @AfterEach
+        void tearDown() {
+                executor.shutdownNow();
+        }
+
+        /**
+         * Testa que um usuário pesado não monopoliza a capacidade.
+         *
+         * @pre Vaga ocupada; quatro execuções grandes de "pesado" na fila antes
+         *      de duas médias de "leve"
+         * @post As de "leve" rodam antes das de "pesado", que cobram mais
+         *       crédito por execução
+         */
+        @Test
+        void testUsuarioPesadoNaoMonopoliza() throws Exception {
+                List<Future<?>> pedidos = new ArrayList<>();
+                try (EscalonadorSimulacoes.Vez ocupada = escalonador.aguardarVez("pesado", GRANDE)) {
+                        for (int i = 0; i < 4; i++) {
+                                pedidos.add(enfileirar("pesado", GRANDE, i + 1));
+                        }
+                        pedidos.add(enfileirar("leve", MEDIA, 5));
+                        pedidos.add(enfileirar("leve", MEDIA, 6));
+                }
+                aguardarTodos(pedidos);
+
+                assertThat(ordem).containsExactly("leve", "leve", "pesado", "pesado", "pesado", "pesado");
+        }
+
+        /**
+         * Testa a fila prioritária das execuções pequenas.
+         *
+         * @pre Vaga ocupada; execução grande na fila antes de uma pequena
+         * @post A pequena roda primeiro
+         */
+        @Test
+        void testExecucaoPequenaFuraFilaGrande() throws Exception {
+                List<Future<?>> pedidos = new ArrayList<>();
+                try (EscalonadorSimulacoes.Vez ocupada = escalonador.aguardarVez("pesado", GRANDE)) {
+                        pedidos.add(enfileirar("pesado", GRANDE, 1));
+                        pedidos.add(enfileirar("casual", PEQUENA, 2));
+                }
+                aguardarTodos(pedidos);
+
+                assertThat(ordem).containsExactly("casual", "pesado");
+        }
+
+        /**
+         * Testa o caminho sem espera.
+         *
+         * @pre Escalonador ocioso
+         * @post Vez concedida sem criar fila nem registrar espera; fechar
+         *       devolve a vaga
+         */
+        @Test
+        void testSistemaOciosoNaoEspera() {
+                try (EscalonadorSimulacoes.Vez vez = escalonador.aguardarVez("ana", GRANDE)) {
+                        assertThat(escalonador.metricas().getEmExecucao()).isEqualTo(1);
+                }
+
+                MetricasEscalonadorDTO metricas = escalonador.metricas();
+                assertThat(metricas.getEmExecucao()).isZero();
+                assertThat(metricas.getAguardando()).isZero();
+                assertThat(metricas.getUsuarios()).isEmpty();
+        }
+
+        /**
+         * Testa as métricas por usuário.
+         *
+         * @pre Vaga ocupada; duas execuções de "ana" e uma anônima na fila
+         * @post Profundidade por usuário durante a espera; depois, filas vazias
+         *       e espera registrada para quem esperou
+         */
+        @Test
+        void testMetricasPorUsuario() throws Exception {
+                List<Future<?>> pedidos = new ArrayList<>();
+                try (EscalonadorSimulacoes.Vez ocupada = escalonador.aguardarVez("bia", GRANDE)) {
+                        pedidos.add(enfileirar("ana", MEDIA, 1));
+                        pedidos.add(enfileirar("ana", PEQUENA, 2));
+                        pedidos.add(enfileirar(null, MEDIA, 3));
+                        Thread.sleep(20);
+
+                        MetricasEscalonadorDTO metricas = escalonador.metricas();
+                        assertThat(metricas.getAguardando()).isEqualTo(3);
+                        assertThat(metricas.getAguardandoPequenas()).isEqualTo(1);
+                        assertThat(metricas.getUsuarios())
+                                        .extracting(MetricasFilaUsuarioDTO::getLoginUsuario,
+                                                        MetricasFilaUsuarioDTO::getAguardando)
+                                        .containsExactlyInAnyOrder(tuple("ana", 2), tuple(null, 1));
+                }
+                aguardarTodos(pedidos);
+
+                MetricasEscalonadorDTO metricas = escalonador.metricas();
+                assertThat(metricas.getAguardando()).isZero();
+                assertThat(metricas.getUsuarios()).allSatisfy(usuario -> {
+                        assertThat(usuario.getAguardando()).isZero();
+                        assertThat(usuario.getEsperaMaximaMs()).isGreaterThanOrEqualTo(usuario.getEsperaMediaMs());
+                        assertThat(usuario.getEsperaMediaMs()).isPositive();
+                });
+                assertThat(metricas.getUsuarios())
+                                .extracting(MetricasFilaUsuarioDTO::getLoginUsuario,
+                                                MetricasFilaUsuarioDTO::getAtendidosAposEspera)
+                                .containsExactlyInAnyOrder(tuple("ana", 2L), tuple(null, 1L));
+        }
+
+        /**
+         * Testa a vez de reproduzir uma execução registrada.
+         *
+         * @pre Vaga ocupada; execução grande de "pesado" na fila antes da
+         *      reprodução de 5 iterações de uma execução de 10 criaturas de
+         *      "ana"
+         * @post A reprodução entra na fila de "ana" com o custo das iterações
+         *       reproduzidas (pequena) e roda antes; sem escalonador, não há
+         *       espera
+         */
+        @Test
+        void testReproducaoNaFilaDeQuemExecutou() throws Exception {
+                SimulacaoExecucao execucao = new SimulacaoExecucao("ana", 10, 5000, 1L, true, 5000, 0, 0);
+                List<Future<?>> pedidos = new ArrayList<>();
+                try (EscalonadorSimulacoes.Vez ocupada = escalonador.aguardarVez("ocupante", GRANDE)) {
+                        pedidos.add(enfileirar("pesado", GRANDE, 1));
+                        pedidos.add(executor.submit(() -> {
+                                try (EscalonadorSimulacoes.Vez vez = EscalonadorSimulacoes
+                                                .aguardarReproducao(escalonador, execucao, 5)) {
+                                        ordem.add(execucao.getLoginUsuario());
+                                }
+                        }));
+                        aguardarNaFila(2);
+                        assertThat(escalonador.metricas().getUsuarios())
+                                        .extracting(MetricasFilaUsuarioDTO::getLoginUsuario)
+                                        .contains("ana");
+                }
+                aguardarTodos(pedidos);
+
+                assertThat(ordem).containsExactly("ana", "pesado");
+                assertThat(EscalonadorSimulacoes.aguardarReproducao(null, execucao, 5))
+                                .isSameAs(EscalonadorSimulacoes.SEM_ESPERA);
+        }
+
+        // Pedido em outra thread; retorna quando ele já está na fila
+        private Future<?> enfileirar(String login, long custo, int naFila) throws InterruptedException {
+                Future<?> pedido = executor.submit(() -> {
+                        try (EscalonadorSimulacoes.Vez vez = escalonador.aguardarVez(login, custo)) {
+                                ordem.add(login);
+                        }
+                });
+                aguardarNaFila(naFila);
+                return pedido;
+        }
+
+        private void aguardarNaFila(int naFila) throws InterruptedException {
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (escalonador.metricas().getAguardando() < naFila && System.nanoTime() < limite) {
+                        Thread.sleep(1);
+                }
+                assertThat(escalonador.metricas().getAguardando()).isEqualTo(naFila);
+        }
+
+        private static void aguardarTodos(List<Future<?>> pedidos) throws Exception {
+                for (Future<?> pedido : pedidos) {
+                        pedido.get(10, TimeUnit.SECONDS);
+                }
+        }
+}
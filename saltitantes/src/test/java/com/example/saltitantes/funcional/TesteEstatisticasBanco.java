@@ -0,0 +1,119 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.dto.EstatisticasDTO;
+import com.example.saltitantes.model.dto.UsuarioDTO;
+import com.example.saltitantes.model.entity.Usuario;
+import com.example.saltitantes.repository.UserRepository;
+import com.example.saltitantes.service.UsuarioService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes de Integração com banco H2 - Validam que as estatísticas agregadas no
+ * banco produzem o mesmo resultado do cálculo em memória sobre todos os
+ * usuários.
+ */
+@DataJpaTest(properties = {
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.sql.init.mode=never"
+})
+@Import(UsuarioService.class)
+public class TesteEstatisticasBanco {
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private UsuarioService usuarioService;
+
+        /**
+         * Testa estatísticas com banco vazio.
+         *
+         * @pre Nenhum usuário cadastrado
+         * @post Todos os totais e médias zerados, lista vazia
+         */
+        @Test
+        void testEstatisticasBancoVazio() {
+                EstatisticasDTO stats = usuarioService.obterEstatisticas();
+
+                assertThat(stats.getTotalUsuarios()).isZero();
+                assertThat(stats.getQuantidadeTotalSimulacoes()).isZero();
+                assertThat(stats.getMediaSimulacoesSucessoUsuario()).isZero();
+                assertThat(stats.getMediaTotalSimulacoesSucesso()).isZero();
+                assertThat(stats.getPontuacaoUsuarios()).isEmpty();
+        }
+
+        /**
+         * Testa que os agregados do banco coincidem com o cálculo em memória.
+         *
+         * @pre Usuários com pontuações aleatórias, incluindo usuários sem
+         *      simulações
+         * @post Totais, médias e lista de pontuações iguais ao cálculo em memória
+         */
+        @Test
+        void testEstatisticasIguaisAoCalculoEmMemoria() {
+                Random random = new Random(42);
+                List<Usuario> usuarios = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                        Usuario usuario = new Usuario("usuario" + i, "senha", "avatar.png");
+                        int total = i % 7 == 0 ? 0 : random.nextInt(100) + 1;
+                        usuario.setTotalSimulacoes(total);
+                        usuario.setPontuacao(total == 0 ? 0 : random.nextInt(total + 1));
+                        usuarios.add(usuario);
+                }
+                userRepository.saveAll(usuarios);
+
+                // Cálculo de referência em memória (comportamento anterior)
+                int totalSimulacoes = usuarios.stream().mapToInt(Usuario::getTotalSimulacoes).sum();
+                int totalSucessos = usuarios.stream().mapToInt(Usuario::getPontuacao).sum();
+                double mediaPorUsuario = usuarios.stream().mapToDouble(Usuario::getTaxaSucesso).average().orElse(0.0);
+                double mediaTotal = (double) totalSucessos / totalSimulacoes * 100.0;
+
+                EstatisticasDTO stats = usuarioService.obterEstatisticas();
+
+                assertThat(stats.getTotalUsuarios()).isEqualTo(50);
+                assertThat(stats.getQuantidadeTotalSimulacoes()).isEqualTo(totalSimulacoes);
+                assertThat(stats.getMediaSimulacoesSucessoUsuario()).isCloseTo(mediaPorUsuario, within(1e-9));
+                assertThat(stats.getMediaTotalSimulacoesSucesso()).isCloseTo(mediaTotal, within(1e-9));
+
+                assertThat(stats.getPontuacaoUsuarios()).hasSize(50);
+                for (int i = 0; i < usuarios.size(); i++) {
+                        UsuarioDTO dto = stats.getPontuacaoUsuarios().get(i);
+                        Usuario usuario = usuarios.get(i);
+                        assertThat(dto.getLogin()).isEqualTo(usuario.getLogin());
+                        assertThat(dto.getPontuacao()).isEqualTo(usuario.getPontuacao());
+                        assertThat(dto.getTotalSimulacoes()).isEqualTo(usuario.getTotalSimulacoes());
+                        assertThat(dto.getTaxaSucesso()).isCloseTo(usuario.getTaxaSucesso(), within(1e-9));
+                }
+        }
+
+        /**
+         * Testa a paginação da lista de pontuações.
+         *
+         * @pre 5 usuários cadastrados
+         * @post Página de tamanho 2 traz apenas os usuários da página, mas os
+         *       totais consideram todos
+         */
+        @Test
+        void testPaginacaoPontuacoes() {
+                for (int i = 0; i < 5; i++) {
+                        userRepository.save(new Usuario("pagina" + i, "senha", "avatar.png"));
+                }
+
+                EstatisticasDTO stats = usuarioService.obterEstatisticas(1, 2);
+
+                assertThat(stats.getTotalUsuarios()).isEqualTo(5);
+                assertThat(stats.getPontuacaoUsuarios())
+                                .extracting(UsuarioDTO::getLogin)
+                                .containsExactly("pagina2", "pagina3");
+        }
+}
@@ -0,0 +1,95 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.dto.GravacaoJfrDTO;
+import com.example.saltitantes.monitoramento.FaseSimulacaoEvento;
+import com.example.saltitantes.monitoramento.SimulacaoEvento;
+import com.example.saltitantes.service.GravacaoJfrService;
+import com.example.saltitantes.service.SimuladorService;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais dos eventos JFR da simulação e da gravação em arquivo.
+ */
+public class TesteEventosJfr {
+
+        @TempDir
+        Path diretorio;
+
+        /**
+         * Testa que uma simulação gravada gera um evento de execução e um evento
+         * por fase de cada iteração.
+         *
+         * @pre Gravação iniciada, simulação com semente fixa
+         * @post Arquivo .jfr com 1 evento de simulação e, para cada fase, um
+         *       evento por iteração executada
+         */
+        @Test
+        void testSimulacaoGeraEventosPorFase() throws Exception {
+                GravacaoJfrService gravacao = new GravacaoJfrService(diretorio.toString(), 64);
+                gravacao.iniciar("default");
+
+                SimuladorService simulador = new SimuladorService();
+                int iteracoes = simulador.simular(50, 7L, 20, null, null).size();
+
+                GravacaoJfrDTO resultado = gravacao.parar();
+                assertThat(resultado.isEmAndamento()).isFalse();
+                assertThat(resultado.getTamanhoBytes()).isPositive();
+
+                List<RecordedEvent> eventos = RecordingFile.readAllEvents(Path.of(resultado.getArquivo()));
+                List<RecordedEvent> simulacoes = eventos.stream()
+                                .filter(e -> e.getEventType().getName().equals(SimulacaoEvento.NOME))
+                                .collect(Collectors.toList());
+                Map<String, Long> fases = eventos.stream()
+                                .filter(e -> e.getEventType().getName().equals(FaseSimulacaoEvento.NOME))
+                                .collect(Collectors.groupingBy(e -> e.getString("fase"), Collectors.counting()));
+
+                assertThat(simulacoes).hasSize(1);
+                assertThat(simulacoes.get(0).getInt("quantidade")).isEqualTo(50);
+                assertThat(simulacoes.get(0).getLong("semente")).isEqualTo(7L);
+                assertThat(simulacoes.get(0).getInt("iteracoesExecutadas")).isEqualTo(iteracoes);
+                assertThat(fases).containsOnlyKeys(
+                                FaseSimulacaoEvento.MOVIMENTO, FaseSimulacaoEvento.ROUBO,
+                                FaseSimulacaoEvento.ELIMINACAO, FaseSimulacaoEvento.AGRUPAMENTO,
+                                FaseSimulacaoEvento.CLUSTERS, FaseSimulacaoEvento.GUARDIAO,
+                                FaseSimulacaoEvento.SNAPSHOT);
+                assertThat(fases.values()).allMatch(total -> total == iteracoes);
+        }
+
+        /**
+         * Testa o controle de estado da gravação.
+         *
+         * @pre Nenhuma gravação em andamento
+         * @post Parar sem iniciar, iniciar duas vezes ou usar configuração
+         *       desconhecida são rejeitados
+         */
+        @Test
+        void testEstadosInvalidosDaGravacao() {
+                GravacaoJfrService gravacao = new GravacaoJfrService(diretorio.toString(), 64);
+
+                assertThatThrownBy(gravacao::parar).isInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(() -> gravacao.iniciar("inexistente"))
+                                .isInstanceOf(IllegalArgumentException.class);
+
+                gravacao.iniciar("default");
+                try {
+                        assertThat(gravacao.status().isEmAndamento()).isTrue();
+                        assertThatThrownBy(() -> gravacao.iniciar("default"))
+                                        .isInstanceOf(IllegalStateException.class);
+                } finally {
+                        gravacao.encerrar();
+                }
+                assertThat(gravacao.status().isEmAndamento()).isFalse();
+        }
+}
@@ -0,0 +1,119 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.ConversorSimulacao;
+import com.example.saltitantes.controller.SimuladorController;
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais - Formato colunar da resposta do /simular.
+ *
+ * Focam em:
+ * - Mesmo conteúdo do formato padrão, em vetores paralelos
+ * - Escolha do formato pelo parâmetro ou pelo cabeçalho Accept
+ */
+public class TesteFormatoColunar {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        /**
+         * Testa que o formato colunar traz os mesmos valores do formato padrão.
+         *
+         * @pre Mesma semente e parâmetros nos dois formatos
+         * @post Cada posição dos vetores corresponde ao objeto de mesmo índice
+         */
+        @Test
+        void testColunarEquivaleAoPadrao() throws IOException {
+                SimuladorService padrao = new SimuladorService();
+                List<SimularResponseDTO> esperado = padrao.simular(200, 7L, 100, null, null);
+
+                SimuladorService colunar = new SimuladorService();
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        colunar.simular(200, 7L, 100, null, null, json, true, null);
+                }
+                JsonNode iteracoes = objectMapper.readTree(saida.toByteArray());
+
+                assertThat(iteracoes).hasSize(esperado.size());
+                for (int i = 0; i < esperado.size(); i++) {
+                        SimularResponseDTO dto = esperado.get(i);
+                        JsonNode iteracao = iteracoes.get(i);
+                        assertThat(iteracao.get("iteracao").asInt()).isEqualTo(dto.getIteracao());
+                        assertThat(iteracao.get("simulacaoBemSucedida").asBoolean())
+                                        .isEqualTo(dto.isSimulacaoBemSucedida());
+                        assertThat(iteracao.get("guardiao").get("ouro").asInt())
+                                        .isEqualTo(dto.getGuardiao().getOuro());
+
+                        JsonNode criaturas = iteracao.get("criaturas");
+                        assertThat(criaturas.get("ids")).hasSize(dto.getCriaturas().length);
+                        for (int c = 0; c < dto.getCriaturas().length; c++) {
+                                CriaturasDTO criatura = dto.getCriaturas()[c];
+                                assertThat(criaturas.get("ids").get(c).asInt()).isEqualTo(criatura.getId());
+                                assertThat(criaturas.get("ouro").get(c).asInt()).isEqualTo(criatura.getOuro());
+                                assertThat(criaturas.get("posicaox").get(c).asDouble())
+                                                .isEqualTo(criatura.getPosicaox());
+                                assertThat(criaturas.get("roubou").get(c).asInt())
+                                                .isEqualTo(criatura.getIdCriaturaRoubada());
+                        }
+
+                        JsonNode clusters = iteracao.get("clusters");
+                        assertThat(clusters.get("ids")).hasSize(dto.getClusters().size());
+                        for (int c = 0; c < dto.getClusters().size(); c++) {
+                                ClusterDTO cluster = dto.getClusters().get(c);
+                                assertThat(clusters.get("ids").get(c).asInt()).isEqualTo(cluster.getIdCluster());
+                                assertThat(clusters.get("idsCriaturas").get(c)).hasSize(cluster.getIdsCriaturas().size());
+                                assertThat(clusters.get("ouro").get(c).asInt()).isEqualTo(cluster.getOuroTotal());
+                                assertThat(clusters.get("roubou").get(c).asInt())
+                                                .isEqualTo(cluster.getIdCriaturaRoubada());
+                        }
+                }
+
+                // Sem nomes de campo repetidos por criatura, o corpo é bem menor
+                assertThat(saida.size()).isLessThan(objectMapper.writeValueAsBytes(esperado).length);
+        }
+
+        /**
+         * Testa a escolha do formato no controlador.
+         *
+         * @pre Controlador com serialização direta
+         * @post Parâmetro e Accept selecionam o colunar; formato inválido retorna 400
+         */
+        @Test
+        void testEscolhaDoFormato() {
+                SimuladorController controller = new SimuladorController(new SimuladorService(), true);
+                ParametrosDTO parametros = new ParametrosDTO();
+                parametros.setQuantidade(10);
+                parametros.setIteracoes(5);
+
+                ResponseEntity<?> porParametro = controller.simular(parametros, "colunar", null);
+                ResponseEntity<?> porAccept = controller.simular(parametros, null,
+                                "application/vnd.saltitantes.colunar+json, application/json;q=0.5");
+                ResponseEntity<?> padrao = controller.simular(parametros, null, "*/*");
+                ResponseEntity<?> invalido = controller.simular(parametros, "linhas", null);
+
+                assertThat(porParametro.getHeaders().getContentType())
+                                .isEqualTo(ConversorSimulacao.APPLICATION_COLUNAR_JSON);
+                assertThat(porAccept.getHeaders().getContentType())
+                                .isEqualTo(ConversorSimulacao.APPLICATION_COLUNAR_JSON);
+                assertThat(padrao.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(invalido.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+}
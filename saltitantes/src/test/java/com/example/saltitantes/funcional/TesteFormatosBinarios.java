@@ -0,0 +1,109 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.ConversorSimulacao;
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais - Respostas do /simular em CBOR e Smile.
+ *
+ * Focam em:
+ * - Mesmo conteúdo do JSON nos formatos binários
+ * - Posições escritas como double, não como texto
+ * - Negociação pelo cabeçalho Accept
+ */
+public class TesteFormatosBinarios {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final ConversorSimulacao conversor = new ConversorSimulacao(objectMapper);
+
+        /**
+         * Testa que CBOR e Smile decodificam para a mesma árvore do JSON.
+         *
+         * @pre Mesma semente e parâmetros nos três formatos
+         * @post Árvores iguais e corpos binários menores que o JSON
+         */
+        @Test
+        void testBinariosEquivalemAoJson() throws IOException {
+                byte[] json = escrever(MediaType.APPLICATION_JSON);
+                byte[] cbor = escrever(MediaType.APPLICATION_CBOR);
+                byte[] smile = escrever(ConversorSimulacao.APPLICATION_SMILE);
+
+                JsonNode esperado = objectMapper.readTree(json);
+                assertThat(new CBORMapper().readTree(cbor)).isEqualTo(esperado);
+                assertThat(new SmileMapper().readTree(smile)).isEqualTo(esperado);
+
+                assertThat(cbor.length).isLessThan(json.length);
+                assertThat(smile.length).isLessThan(json.length);
+        }
+
+        /**
+         * Testa que as posições vão como double de 64 bits no CBOR.
+         *
+         * @pre Resposta em CBOR
+         * @post Todo campo posicaox é um número de ponto flutuante double
+         */
+        @Test
+        void testPosicoesComoDouble() throws IOException {
+                byte[] cbor = escrever(MediaType.APPLICATION_CBOR);
+
+                int posicoes = 0;
+                try (JsonParser parser = new CBORFactory().createParser(cbor)) {
+                        JsonToken token;
+                        while ((token = parser.nextToken()) != null) {
+                                if (token == JsonToken.FIELD_NAME && "posicaox".equals(parser.currentName())) {
+                                        assertThat(parser.nextToken()).isEqualTo(JsonToken.VALUE_NUMBER_FLOAT);
+                                        assertThat(parser.getNumberType()).isEqualTo(JsonParser.NumberType.DOUBLE);
+                                        posicoes++;
+                                }
+                        }
+                }
+                assertThat(posicoes).isPositive();
+        }
+
+        /**
+         * Testa a escolha da codificação pelo Accept.
+         *
+         * @pre Cabeçalhos Accept variados
+         * @post Maior qualidade vence; sem tipo suportado responde JSON
+         */
+        @Test
+        void testNegociacao() {
+                assertThat(ConversorSimulacao.negociar(null, false)).isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(ConversorSimulacao.negociar("application/cbor", false))
+                                .isEqualTo(MediaType.APPLICATION_CBOR);
+                assertThat(ConversorSimulacao.negociar("application/json, application/cbor;q=0.5", false))
+                                .isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(ConversorSimulacao.negociar("application/cbor;q=0.8, application/x-jackson-smile;q=0.9",
+                                false)).isEqualTo(ConversorSimulacao.APPLICATION_SMILE);
+                assertThat(ConversorSimulacao.negociar("text/html", false)).isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(ConversorSimulacao.negociar("*/*", true))
+                                .isEqualTo(ConversorSimulacao.APPLICATION_COLUNAR_JSON);
+                assertThat(ConversorSimulacao.negociar("application/cbor", true))
+                                .isEqualTo(MediaType.APPLICATION_CBOR);
+        }
+
+        private byte[] escrever(MediaType tipo) throws IOException {
+                SimuladorService simulador = new SimuladorService();
+                EscritorSimulacao corpo = json -> simulador.simular(100, 11L, 100, null, null, json, false, null);
+
+                MockHttpOutputMessage saida = new MockHttpOutputMessage();
+                conversor.write(corpo, tipo, saida);
+                return saida.getBodyAsBytes();
+        }
+}
@@ -0,0 +1,173 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.SimuladorController;
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.HistogramaPosicoes;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais - Formato histograma da resposta do /simular.
+ *
+ * Focam em:
+ * - Faixas fixas iguais às contadas a partir do formato padrão
+ * - Faixas adaptativas cobrindo todas as entidades
+ * - Validação dos parâmetros do histograma
+ */
+public class TesteHistogramaPosicoes {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        /**
+         * Testa as faixas fixas contra o formato padrão.
+         *
+         * @pre Mesma semente e parâmetros; 10 faixas em [-2e6, 2e6]
+         * @post Contagem e ouro de cada faixa, abaixo e acima iguais aos
+         *       calculados com as posições das criaturas do formato padrão
+         */
+        @Test
+        void testFaixasFixasEquivalemAoPadrao() throws IOException {
+                double minimo = -2_000_000.0;
+                double maximo = 2_000_000.0;
+                int faixas = 10;
+
+                SimuladorService padrao = new SimuladorService();
+                List<SimularResponseDTO> esperado = padrao.simular(200, 7L, 50, null, null);
+
+                JsonNode iteracoes = simularHistograma(7L, HistogramaPosicoes.criar(faixas, minimo, maximo));
+
+                assertThat(iteracoes).hasSize(esperado.size());
+                double largura = (maximo - minimo) / faixas;
+                for (int i = 0; i < esperado.size(); i++) {
+                        SimularResponseDTO dto = esperado.get(i);
+                        long[] contagem = new long[faixas];
+                        long[] ouro = new long[faixas];
+                        long abaixo = 0;
+                        long acima = 0;
+                        for (CriaturasDTO criatura : dto.getCriaturas()) {
+                                double x = criatura.getPosicaox();
+                                if (x < minimo) {
+                                        abaixo++;
+                                } else if (x > maximo) {
+                                        acima++;
+                                } else {
+                                        int faixa = Math.min((int) ((x - minimo) * (1.0 / largura)), faixas - 1);
+                                        contagem[faixa]++;
+                                        ouro[faixa] += criatura.getOuro();
+                                }
+                        }
+
+                        JsonNode criaturas = iteracoes.get(i).get("criaturas");
+                        assertThat(criaturas.get("inicio").asDouble()).isEqualTo(minimo);
+                        assertThat(criaturas.get("largura").asDouble()).isEqualTo(largura);
+                        assertThat(criaturas.get("abaixo").asLong()).isEqualTo(abaixo);
+                        assertThat(criaturas.get("acima").asLong()).isEqualTo(acima);
+                        for (int f = 0; f < faixas; f++) {
+                                assertThat(criaturas.get("contagem").get(f).asLong()).isEqualTo(contagem[f]);
+                                assertThat(criaturas.get("ouro").get(f).asLong()).isEqualTo(ouro[f]);
+                        }
+                        assertThat(iteracoes.get(i).get("guardiao").get("ouro").asInt())
+                                        .isEqualTo(dto.getGuardiao().getOuro());
+                }
+        }
+
+        /**
+         * Testa as faixas adaptativas.
+         *
+         * @pre Faixas adaptativas padrão
+         * @post Em toda iteração as faixas somam a quantidade e o ouro de
+         *       criaturas e de clusters, sem nada fora do intervalo
+         */
+        @Test
+        void testFaixasAdaptativasCobremTodas() throws IOException {
+                SimuladorService padrao = new SimuladorService();
+                List<SimularResponseDTO> esperado = padrao.simular(200, 11L, 50, null, null);
+
+                JsonNode iteracoes = simularHistograma(11L, HistogramaPosicoes.criar(null, null, null));
+
+                assertThat(iteracoes).hasSize(esperado.size());
+                for (int i = 0; i < esperado.size(); i++) {
+                        SimularResponseDTO dto = esperado.get(i);
+                        JsonNode criaturas = iteracoes.get(i).get("criaturas");
+                        JsonNode clusters = iteracoes.get(i).get("clusters");
+
+                        assertThat(criaturas.get("contagem")).hasSize(HistogramaPosicoes.FAIXAS_PADRAO);
+                        assertThat(soma(criaturas.get("contagem"))).isEqualTo(dto.getCriaturas().length);
+                        assertThat(soma(criaturas.get("ouro"))).isEqualTo(ouroCriaturas(dto));
+                        assertThat(criaturas.get("abaixo").asLong() + criaturas.get("acima").asLong()).isZero();
+                        assertThat(soma(clusters.get("contagem"))).isEqualTo(dto.getClusters().size());
+                        assertThat(soma(clusters.get("ouro"))).isEqualTo(
+                                        dto.getClusters().stream().mapToLong(ClusterDTO::getOuroTotal).sum());
+                }
+        }
+
+        /**
+         * Testa a validação dos parâmetros no controlador.
+         *
+         * @pre Controlador com serialização direta
+         * @post Histograma válido retorna 200; faixas fora do limite, só um
+         *       dos limites ou intervalo vazio retornam 400
+         */
+        @Test
+        void testParametrosDoHistograma() {
+                SimuladorController controller = new SimuladorController(new SimuladorService(), true);
+                ParametrosDTO parametros = new ParametrosDTO();
+                parametros.setQuantidade(10);
+                parametros.setIteracoes(5);
+
+                assertThat(status(controller, parametros, 16, null, null)).isEqualTo(HttpStatus.OK);
+                assertThat(status(controller, parametros, 0, null, null)).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(status(controller, parametros, HistogramaPosicoes.FAIXAS_MAXIMAS + 1, null, null))
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(status(controller, parametros, null, 0.0, null)).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(status(controller, parametros, null, 5.0, 5.0)).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        private JsonNode simularHistograma(long semente, HistogramaPosicoes histograma) throws IOException {
+                SimuladorService service = new SimuladorService();
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        service.simular(200, semente, 50, null, null, json, false, histograma);
+                }
+                return objectMapper.readTree(saida.toByteArray());
+        }
+
+        private static HttpStatus status(SimuladorController controller, ParametrosDTO parametros, Integer faixas,
+                        Double minimo, Double maximo) {
+                ResponseEntity<?> resposta = controller.simular(parametros, "histograma", faixas, minimo, maximo, null,
+                                null, null);
+                return HttpStatus.valueOf(resposta.getStatusCode().value());
+        }
+
+        private static long soma(JsonNode valores) {
+                long total = 0;
+                for (JsonNode valor : valores) {
+                        total += valor.asLong();
+                }
+                return total;
+        }
+
+        private static long ouroCriaturas(SimularResponseDTO dto) {
+                long total = 0;
+                for (CriaturasDTO criatura : dto.getCriaturas()) {
+                        total += criatura.getOuro();
+                }
+                return total;
+        }
+}
@@ -0,0 +1,190 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.ConversorSimulacao;
+import com.example.saltitantes.controller.SimulacoesController;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.example.saltitantes.service.HistoricoIteracoesService;
+import com.example.saltitantes.service.HistoricoIteracoesService.FaixaIteracoes;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Funcionais - Faixas de iterações de uma execução registrada.
+ *
+ * Focam em:
+ * - Mesmas iterações da execução original, só na faixa pedida
+ * - Validação e limite de tamanho da faixa
+ * - Retomada a partir dos pontos guardados da execução
+ * - Cabeçalhos de cache da resposta
+ */
+public class TesteIteracoesExecucao {
+
+        private static final long SEMENTE = 19L;
+
+        @Mock
+        private SimulacaoExecucaoRepository execucaoRepository;
+
+        @InjectMocks
+        private HistoricoIteracoesService historicoIteracoesService;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        /**
+         * Testa que a faixa reproduzida é igual ao trecho da execução original.
+         *
+         * @pre Execução de 150 criaturas com semente fixa registrada no catálogo
+         * @post Iterações 40 a 75 iguais às da resposta original do /simular
+         */
+        @Test
+        void testFaixaIgualAExecucaoOriginal() throws IOException {
+                SimuladorService simulador = new SimuladorService();
+                JsonNode original = objectMapper.valueToTree(simulador.simular(150, SEMENTE, 200, null, null));
+                SimulacaoExecucao execucao = execucao(150, original.size());
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao));
+
+                FaixaIteracoes faixa = historicoIteracoesService.buscarFaixa(1L, 40, 75).orElseThrow();
+                JsonNode iteracoes = escrever(faixa);
+
+                assertThat(iteracoes).hasSize(36);
+                for (int i = 0; i < iteracoes.size(); i++) {
+                        assertThat(iteracoes.get(i)).isEqualTo(original.get(39 + i));
+                }
+        }
+
+        /**
+         * Testa faixas retomadas dos pontos guardados de execuções anteriores.
+         *
+         * @pre Pontos a cada 25 iterações; faixas 60-90, 130-160 e 10-20 lidas
+         *      nessa ordem
+         * @post Pontos guardados só até onde a reprodução chegou; todas as
+         *       faixas iguais ao trecho da execução original
+         */
+        @Test
+        void testFaixasRetomamDosPontosGuardados() throws IOException {
+                historicoIteracoesService.setIntervaloCheckpoint(25);
+                SimuladorService simulador = new SimuladorService();
+                JsonNode original = objectMapper.valueToTree(simulador.simular(150, SEMENTE, 200, null, null));
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(150, original.size())));
+
+                JsonNode primeira = escrever(historicoIteracoesService.buscarFaixa(1L, 60, 90).orElseThrow());
+                assertThat(historicoIteracoesService.checkpoints(1L)).containsExactly(25, 50, 75);
+
+                JsonNode segunda = escrever(historicoIteracoesService.buscarFaixa(1L, 130, 160).orElseThrow());
+                assertThat(historicoIteracoesService.checkpoints(1L)).containsExactly(25, 50, 75, 100, 125, 150);
+
+                JsonNode terceira = escrever(historicoIteracoesService.buscarFaixa(1L, 10, 20).orElseThrow());
+
+                verificarTrecho(primeira, original, 60, 31);
+                verificarTrecho(segunda, original, 130, 31);
+                verificarTrecho(terceira, original, 10, 11);
+        }
+
+        /**
+         * Testa a validação e os valores padrão da faixa.
+         *
+         * @pre Execução com 30 iterações executadas e página máxima de 100
+         * @post Fim padrão e fim além do executado limitados a 30; faixas
+         *       invertidas, fora da execução ou maiores que a página rejeitadas
+         */
+        @Test
+        void testValidacaoDaFaixa() {
+                SimulacaoExecucao curta = execucao(10, 30);
+                SimulacaoExecucao longa = execucao(10, 500);
+
+                assertThat(historicoIteracoesService.validarFaixa(curta, null, null).getAte()).isEqualTo(30);
+                assertThat(historicoIteracoesService.validarFaixa(curta, 5, 900).getAte()).isEqualTo(30);
+                assertThat(historicoIteracoesService.validarFaixa(longa, 201, null).getAte()).isEqualTo(300);
+
+                assertThatThrownBy(() -> historicoIteracoesService.validarFaixa(curta, 0, null))
+                                .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> historicoIteracoesService.validarFaixa(curta, 31, null))
+                                .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> historicoIteracoesService.validarFaixa(curta, 10, 9))
+                                .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> historicoIteracoesService.validarFaixa(longa, 1, 101))
+                                .isInstanceOf(IllegalArgumentException.class)
+                                .hasMessageContaining("100");
+        }
+
+        /**
+         * Testa os cabeçalhos e os códigos de erro do endpoint.
+         *
+         * @pre Execução 1 registrada; execução 2 inexistente
+         * @post Resposta imutável com ETag por representação; 404 e 400 nos erros
+         */
+        @Test
+        void testCabecalhosECodigos() {
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(10, 30)));
+                when(execucaoRepository.findById(2L)).thenReturn(Optional.empty());
+                SimulacoesController controller = new SimulacoesController(historicoIteracoesService, null, null);
+
+                ResponseEntity<?> json = controller.listarIteracoes(1L, 1, 10, null, null);
+                ResponseEntity<?> cbor = controller.listarIteracoes(1L, 1, 10, null, "application/cbor");
+
+                assertThat(json.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(json.getHeaders().getCacheControl()).contains("max-age=31536000", "public", "immutable");
+                assertThat(json.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+                assertThat(json.getHeaders().getFirst("X-Total-Iteracoes")).isEqualTo("30");
+                assertThat(json.getHeaders().getETag()).isNotBlank();
+                assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+                assertThat(cbor.getHeaders().getETag()).isNotEqualTo(json.getHeaders().getETag());
+
+                assertThat(controller.listarIteracoes(2L, null, null, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.NOT_FOUND);
+                assertThat(controller.listarIteracoes(1L, 20, 10, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(controller.listarIteracoes(1L, null, null, "linhas", null).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(controller.listarIteracoes(1L, null, null, "colunar", null).getHeaders().getContentType())
+                                .isEqualTo(ConversorSimulacao.APPLICATION_COLUNAR_JSON);
+        }
+
+        private SimulacaoExecucao execucao(int quantidade, int executadas) {
+                SimulacaoExecucao execucao = new SimulacaoExecucao(null, quantidade, executadas, SEMENTE, false,
+                                executadas, 0, 0);
+                execucao.setId(1L);
+                return execucao;
+        }
+
+        private static void verificarTrecho(JsonNode iteracoes, JsonNode original, int de, int tamanho) {
+                assertThat(iteracoes).hasSize(tamanho);
+                for (int i = 0; i < tamanho; i++) {
+                        assertThat(iteracoes.get(i)).isEqualTo(original.get(de - 1 + i));
+                }
+        }
+
+        private JsonNode escrever(FaixaIteracoes faixa) throws IOException {
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        historicoIteracoesService.escrever(faixa, json, false);
+                }
+                return objectMapper.readTree(saida.toByteArray());
+        }
+}
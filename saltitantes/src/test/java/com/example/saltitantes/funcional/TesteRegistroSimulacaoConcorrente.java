@@ -0,0 +1,110 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.entity.Usuario;
+import com.example.saltitantes.repository.UserRepository;
+import com.example.saltitantes.service.UsuarioService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes de Integração com banco H2 - Validam que registros de simulação
+ * concorrentes para o mesmo usuário não perdem incrementos.
+ *
+ * Os testes rodam fora da transação do teste para que cada registro seja
+ * confirmado (commit) de forma independente, como em produção.
+ */
+@DataJpaTest(properties = {
+                "spring.datasource.url=jdbc:h2:mem:concorrencia;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "spring.datasource.hikari.maximum-pool-size=16",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UsuarioService.class)
+public class TesteRegistroSimulacaoConcorrente {
+
+        private static final int REGISTROS = 400;
+        private static final int THREADS = 16;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private UsuarioService usuarioService;
+
+        @AfterEach
+        void limpar() {
+                userRepository.deleteAll();
+        }
+
+        /**
+         * Testa centenas de registros paralelos para o mesmo usuário.
+         *
+         * @pre Usuário com contadores zerados
+         * @post Total igual ao número de registros e pontuação igual ao número de
+         *       sucessos (nenhum incremento perdido)
+         */
+        @Test
+        void testRegistrosConcorrentesNaoPerdemIncrementos() throws Exception {
+                userRepository.save(new Usuario("concorrente", "senha", "avatar.png"));
+
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<?>> tarefas = new ArrayList<>();
+                try {
+                        for (int i = 0; i < REGISTROS; i++) {
+                                boolean sucesso = i % 2 == 0;
+                                tarefas.add(executor.submit(() -> {
+                                        largada.await();
+                                        usuarioService.registrarSimulacao("concorrente", sucesso);
+                                        return null;
+                                }));
+                        }
+                        largada.countDown();
+                        for (Future<?> tarefa : tarefas) {
+                                tarefa.get();
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                Usuario usuario = userRepository.findByLogin("concorrente").orElseThrow();
+                assertThat(usuario.getTotalSimulacoes())
+                                .as("Nenhum incremento do total pode ser perdido")
+                                .isEqualTo(REGISTROS);
+                assertThat(usuario.getPontuacao())
+                                .as("Nenhum incremento da pontuação pode ser perdido")
+                                .isEqualTo(REGISTROS / 2);
+        }
+
+        /**
+         * Testa registro para usuário inexistente usando a contagem de linhas
+         * afetadas.
+         *
+         * @pre Nenhum usuário com o login informado
+         * @post IllegalArgumentException lançada
+         */
+        @Test
+        void testRegistroUsuarioInexistente() {
+                assertThatThrownBy(() -> usuarioService.registrarSimulacao("fantasma", true))
+                                .isInstanceOf(IllegalArgumentException.class)
+                                .hasMessageContaining("Usuário não encontrado");
+        }
+}
@@ -0,0 +1,117 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.SimuladorController;
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.SelecaoMaiores;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes Funcionais - Formato maiores (K entidades com mais ouro) do /simular.
+ *
+ * Focam em:
+ * - Mesmas entidades e ordem de uma ordenação completa do formato padrão
+ * - Validação do parâmetro k
+ */
+public class TesteSelecaoMaiores {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        /**
+         * Testa a seleção contra a ordenação completa do formato padrão.
+         *
+         * @pre Mesma semente e parâmetros; k = 5
+         * @post Em toda iteração, as 5 primeiras criaturas e clusters por ouro
+         *       decrescente (empate pelo menor id), com os mesmos campos
+         */
+        @Test
+        void testMaioresEquivalemAOrdenacaoCompleta() throws IOException {
+                int k = 5;
+                SimuladorService padrao = new SimuladorService();
+                List<SimularResponseDTO> esperado = padrao.simular(200, 3L, 60, null, null);
+
+                SimuladorService maiores = new SimuladorService();
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        maiores.simular(200, 3L, 60, null, null, json, false, SelecaoMaiores.criar(k));
+                }
+                JsonNode iteracoes = objectMapper.readTree(saida.toByteArray());
+
+                assertThat(iteracoes).hasSize(esperado.size());
+                for (int i = 0; i < esperado.size(); i++) {
+                        SimularResponseDTO dto = esperado.get(i);
+                        CriaturasDTO[] criaturas = Arrays.stream(dto.getCriaturas())
+                                        .sorted(Comparator.comparingInt(CriaturasDTO::getOuro).reversed()
+                                                        .thenComparingInt(CriaturasDTO::getId))
+                                        .limit(k)
+                                        .toArray(CriaturasDTO[]::new);
+                        List<ClusterDTO> clusters = dto.getClusters().stream()
+                                        .sorted(Comparator.comparingInt(ClusterDTO::getOuroTotal).reversed()
+                                                        .thenComparingInt(ClusterDTO::getIdCluster))
+                                        .limit(k)
+                                        .toList();
+
+                        JsonNode iteracao = iteracoes.get(i);
+                        assertThat(iteracao.get("criaturas")).hasSize(criaturas.length);
+                        for (int c = 0; c < criaturas.length; c++) {
+                                JsonNode criatura = iteracao.get("criaturas").get(c);
+                                assertThat(criatura.get("id").asInt()).isEqualTo(criaturas[c].getId());
+                                assertThat(criatura.get("ouro").asInt()).isEqualTo(criaturas[c].getOuro());
+                                assertThat(criatura.get("posicaox").asDouble()).isEqualTo(criaturas[c].getPosicaox());
+                                assertThat(criatura.get("idCriaturaRoubada").asInt())
+                                                .isEqualTo(criaturas[c].getIdCriaturaRoubada());
+                        }
+                        assertThat(iteracao.get("clusters")).hasSize(clusters.size());
+                        for (int c = 0; c < clusters.size(); c++) {
+                                JsonNode cluster = iteracao.get("clusters").get(c);
+                                assertThat(cluster.get("idCluster").asInt()).isEqualTo(clusters.get(c).getIdCluster());
+                                assertThat(cluster.get("ouroTotal").asInt()).isEqualTo(clusters.get(c).getOuroTotal());
+                        }
+                        assertThat(iteracao.get("guardiao").get("ouro").asInt())
+                                        .isEqualTo(dto.getGuardiao().getOuro());
+                }
+        }
+
+        /**
+         * Testa a validação de k no controlador.
+         *
+         * @pre Controlador com serialização direta
+         * @post k padrão e k maior que a população retornam 200; k fora de
+         *       1..1000 retorna 400
+         */
+        @Test
+        void testParametroK() {
+                SimuladorController controller = new SimuladorController(new SimuladorService(), true);
+                ParametrosDTO parametros = new ParametrosDTO();
+                parametros.setQuantidade(10);
+                parametros.setIteracoes(5);
+
+                assertThat(status(controller, parametros, null)).isEqualTo(HttpStatus.OK);
+                assertThat(status(controller, parametros, 50)).isEqualTo(HttpStatus.OK);
+                assertThat(status(controller, parametros, 0)).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(status(controller, parametros, SelecaoMaiores.K_MAXIMO + 1))
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        private static HttpStatus status(SimuladorController controller, ParametrosDTO parametros, Integer k) {
+                return HttpStatus.valueOf(controller.simular(parametros, "maiores", null, null, null, k, null, null)
+                                .getStatusCode().value());
+        }
+}
@@ -0,0 +1,189 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.service.SimulacoesCompartilhadas;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Funcionais - Execução única de simulações idênticas simultâneas.
+ *
+ * Focam em:
+ * - Uma só execução para requisições idênticas ao mesmo tempo
+ * - Mesma resposta da serialização direta
+ * - Registro da execução uma vez por chamada
+ * - Resposta acima do limite não é copiada: cada chamada calcula a sua
+ */
+public class TesteSimulacoesCompartilhadas {
+
+        private static final int SEGUIDORAS = 5;
+
+        @Mock
+        private SimuladorService simuladorService;
+
+        @InjectMocks
+        private SimulacoesCompartilhadas simulacoesCompartilhadas;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        /**
+         * Testa que chamadas simultâneas idênticas compartilham a execução.
+         *
+         * @pre Limite de cópia de 4 MB (a resposta tem perto de 1 MB);
+         *      primeira chamada retida enquanto outras cinco chegam
+         * @post Uma execução calculada, seis respostas iguais à do /simular e
+         *       seis registros, um por chamada
+         */
+        @Test
+        void testChamadasSimultaneasCompartilhamExecucao() throws Exception {
+                simulacoesCompartilhadas.setLimiteCompartilhadoKb(4096);
+                CountDownLatch calculando = new CountDownLatch(1);
+                CountDownLatch liberar = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(SEGUIDORAS + 1);
+                try {
+                        Future<byte[]> primeira = executor.submit(() -> simular(200, 150, 31L, "ana", saida -> {
+                                calculando.countDown();
+                                aguardar(liberar);
+                                return objectMapper.createGenerator(saida, JsonEncoding.UTF8);
+                        }));
+                        assertThat(calculando.await(10, TimeUnit.SECONDS)).isTrue();
+
+                        List<Future<byte[]>> seguidoras = new ArrayList<>();
+                        for (int i = 0; i < SEGUIDORAS; i++) {
+                                seguidoras.add(executor.submit(() -> simular(200, 150, 31L, "ana", this::gerador)));
+                        }
+                        while (simulacoesCompartilhadas.compartilhadas() < SEGUIDORAS) {
+                                Thread.sleep(5);
+                        }
+                        liberar.countDown();
+
+                        byte[] esperado = simularDireto(200, 150, 31L);
+                        assertThat(primeira.get(10, TimeUnit.SECONDS)).isEqualTo(esperado);
+                        for (Future<byte[]> seguidora : seguidoras) {
+                                assertThat(seguidora.get(10, TimeUnit.SECONDS)).isEqualTo(esperado);
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertThat(simulacoesCompartilhadas.calculadas()).isEqualTo(1);
+                verify(simuladorService, times(SEGUIDORAS + 1)).registrarExecucao(any(), eq("ana"), isNull(),
+                                eq(200), eq(150), eq(31L), anyInt(), anyBoolean(), anyLong(), anyInt());
+        }
+
+        /**
+         * Testa uma resposta maior que o limite de cópia.
+         *
+         * @pre Limite de 1 KB; primeira chamada retida enquanto outras cinco
+         *      chegam
+         * @post A primeira escreve só na própria resposta; as outras, sem
+         *       cópia, calculam cada uma a sua, com a mesma resposta
+         */
+        @Test
+        void testRespostaAcimaDoLimiteNaoECopiada() throws Exception {
+                simulacoesCompartilhadas.setLimiteCompartilhadoKb(1);
+                CountDownLatch calculando = new CountDownLatch(1);
+                CountDownLatch liberar = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(SEGUIDORAS + 1);
+                try {
+                        Future<byte[]> primeira = executor.submit(() -> simular(100, 80, 5L, null, saida -> {
+                                calculando.countDown();
+                                aguardar(liberar);
+                                return objectMapper.createGenerator(saida, JsonEncoding.UTF8);
+                        }));
+                        assertThat(calculando.await(10, TimeUnit.SECONDS)).isTrue();
+
+                        List<Future<byte[]>> seguidoras = new ArrayList<>();
+                        for (int i = 0; i < SEGUIDORAS; i++) {
+                                seguidoras.add(executor.submit(() -> simular(100, 80, 5L, null, this::gerador)));
+                        }
+                        while (simulacoesCompartilhadas.compartilhadas() < SEGUIDORAS) {
+                                Thread.sleep(5);
+                        }
+                        liberar.countDown();
+
+                        byte[] esperado = simularDireto(100, 80, 5L);
+                        assertThat(esperado.length).isGreaterThan(1024);
+                        assertThat(primeira.get(10, TimeUnit.SECONDS)).isEqualTo(esperado);
+                        for (Future<byte[]> seguidora : seguidoras) {
+                                assertThat(seguidora.get(10, TimeUnit.SECONDS)).isEqualTo(esperado);
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertThat(simulacoesCompartilhadas.calculadas()).isEqualTo(SEGUIDORAS + 1);
+        }
+
+        /**
+         * Testa que chamadas em sequência não reaproveitam resultados.
+         *
+         * @pre Duas chamadas idênticas, a segunda depois da primeira terminar
+         * @post Duas execuções calculadas, nenhuma compartilhada
+         */
+        @Test
+        void testChamadasSequenciaisNaoCompartilham() throws IOException {
+                simulacoesCompartilhadas.simular(50, 20, 2L, null, true, "application/json",
+                                new ByteArrayOutputStream(), this::gerador);
+                simulacoesCompartilhadas.simular(50, 20, 2L, null, true, "application/json",
+                                new ByteArrayOutputStream(), this::gerador);
+
+                assertThat(simulacoesCompartilhadas.calculadas()).isEqualTo(2);
+                assertThat(simulacoesCompartilhadas.compartilhadas()).isZero();
+        }
+
+        private byte[] simular(int quantidade, int iteracoes, long semente, String login,
+                        SimulacoesCompartilhadas.FabricaGerador fabrica) throws IOException {
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                simulacoesCompartilhadas.simular(quantidade, iteracoes, semente, login, false, "application/json",
+                                saida, fabrica);
+                return saida.toByteArray();
+        }
+
+        private JsonGenerator gerador(OutputStream saida) throws IOException {
+                return objectMapper.createGenerator(saida, JsonEncoding.UTF8);
+        }
+
+        private static void aguardar(CountDownLatch latch) {
+                try {
+                        latch.await();
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+
+        private byte[] simularDireto(int quantidade, int iteracoes, long semente) throws IOException {
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        new SimuladorService().simular(quantidade, semente, iteracoes, null, null, json, false, null);
+                }
+                return saida.toByteArray();
+        }
+}
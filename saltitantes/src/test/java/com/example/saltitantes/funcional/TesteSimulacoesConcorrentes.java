@@ -0,0 +1,210 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.service.EscalonadorSimulacoes;
+import com.example.saltitantes.service.RegistroExecucaoService;
+import com.example.saltitantes.service.SaidaEmBlocos;
+import com.example.saltitantes.service.SimuladorService;
+import com.example.saltitantes.service.UsuarioService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Funcionais - Simulações simultâneas no mesmo serviço.
+ *
+ * Focam em:
+ * - Cada resposta igual à simulação isolada dos próprios parâmetros
+ * - Catálogo com a quantidade e a semente de cada requisição
+ * - Custo no escalonador calculado pelos parâmetros da requisição
+ * - Cliente que não lê a resposta não prende a vaga
+ */
+public class TesteSimulacoesConcorrentes {
+
+        private static final int REQUISICOES = 6;
+
+        // Uma vaga: as requisições esperam juntas na fila
+        private final EscalonadorSimulacoes fila = new EscalonadorSimulacoes(true, 1, 100_000, 10_000);
+
+        @Mock
+        private EscalonadorSimulacoes escalonador;
+
+        @Mock
+        private RegistroExecucaoService registroExecucaoService;
+
+        @Mock
+        private UsuarioService usuarioService;
+
+        @InjectMocks
+        private SimuladorService simuladorService;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+                when(escalonador.aguardarVez(any(), anyLong()))
+                                .thenAnswer(chamada -> fila.aguardarVez(chamada.getArgument(0), chamada.getArgument(1)));
+                executor = Executors.newFixedThreadPool(REQUISICOES);
+        }
+
+        @AfterEach
+        void tearDown() {
+                executor.shutdownNow();
+        }
+
+        /**
+         * Testa requisições com parâmetros diferentes esperando juntas na fila.
+         *
+         * @pre Vaga ocupada enquanto seis requisições, metade em DTOs e metade
+         *      na serialização direta, entram na fila
+         * @post Cada resposta igual à de uma simulação isolada com a própria
+         *       semente; catálogo e custo com os parâmetros de cada uma
+         */
+        @Test
+        void testCadaRespostaComAPropriaSemente() throws Exception {
+                List<Future<byte[]>> respostas = new ArrayList<>();
+                try (EscalonadorSimulacoes.Vez ocupada = fila.aguardarVez("outro", 1)) {
+                        for (int i = 0; i < REQUISICOES; i++) {
+                                int requisicao = i;
+                                respostas.add(executor.submit(() -> simular(requisicao)));
+                                aguardarNaFila(i + 1);
+                        }
+                }
+
+                for (int i = 0; i < REQUISICOES; i++) {
+                        assertThat(respostas.get(i).get(30, TimeUnit.SECONDS))
+                                        .as("requisição %d", i)
+                                        .isEqualTo(esperado(i));
+                        verify(escalonador).aguardarVez("usuario" + i, (long) quantidade(i) * iteracoes(i));
+                }
+
+                ArgumentCaptor<SimulacaoExecucao> catalogo = ArgumentCaptor.forClass(SimulacaoExecucao.class);
+                verify(registroExecucaoService, times(REQUISICOES)).registrar(catalogo.capture());
+                for (SimulacaoExecucao execucao : catalogo.getAllValues()) {
+                        int i = Integer.parseInt(execucao.getLoginUsuario().substring("usuario".length()));
+                        assertThat(execucao.getQuantidade()).isEqualTo(quantidade(i));
+                        assertThat(execucao.getSemente()).isEqualTo(semente(i));
+                }
+        }
+
+        /**
+         * Testa um cliente que para de ler a resposta.
+         *
+         * @pre Uma vaga; resposta em blocos de 4 KB para um cliente que trava
+         *      na primeira escrita
+         * @post Com o cliente travado a vaga fica livre e outra simulação
+         *       roda até o fim; liberado o cliente, a resposta chega inteira
+         */
+        @Test
+        void testClienteLentoNaoPrendeVaga() throws Exception {
+                CountDownLatch travado = new CountDownLatch(1);
+                CountDownLatch liberar = new CountDownLatch(1);
+                ByteArrayOutputStream recebido = new ByteArrayOutputStream();
+                OutputStream cliente = new OutputStream() {
+                        @Override
+                        public void write(int b) throws IOException {
+                                write(new byte[] { (byte) b }, 0, 1);
+                        }
+
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                                travado.countDown();
+                                try {
+                                        liberar.await();
+                                } catch (InterruptedException e) {
+                                        throw new InterruptedIOException();
+                                }
+                                recebido.write(b, off, len);
+                        }
+                };
+
+                Future<Integer> lenta = executor.submit(() -> {
+                        try (JsonGenerator json = objectMapper.createGenerator(new SaidaEmBlocos(cliente, 4096),
+                                        JsonEncoding.UTF8)) {
+                                return simuladorService.simular(200, 7L, 50, "lento", null, json, false, null);
+                        }
+                });
+                assertThat(travado.await(10, TimeUnit.SECONDS)).isTrue();
+                assertThat(fila.metricas().getEmExecucao()).isZero();
+
+                Future<List<SimularResponseDTO>> outra = executor.submit(
+                                () -> simuladorService.simular(quantidade(0), semente(0), iteracoes(0), "rapido", null));
+                assertThat(objectMapper.writeValueAsBytes(outra.get(10, TimeUnit.SECONDS))).isEqualTo(esperado(0));
+
+                liberar.countDown();
+                lenta.get(30, TimeUnit.SECONDS);
+                assertThat(recebido.toByteArray()).isEqualTo(esperado(200, 7L, 50));
+        }
+
+        // Requisições pares pelos DTOs, ímpares pela serialização direta
+        private byte[] simular(int i) throws Exception {
+                if (i % 2 == 0) {
+                        List<SimularResponseDTO> historico = simuladorService.simular(quantidade(i), semente(i),
+                                        iteracoes(i), "usuario" + i, null);
+                        return objectMapper.writeValueAsBytes(historico);
+                }
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        simuladorService.simular(quantidade(i), semente(i), iteracoes(i), "usuario" + i, null, json,
+                                        false, null);
+                }
+                return saida.toByteArray();
+        }
+
+        private byte[] esperado(int i) throws Exception {
+                return esperado(quantidade(i), semente(i), iteracoes(i));
+        }
+
+        private byte[] esperado(int quantidade, long semente, int iteracoes) throws Exception {
+                SimuladorService isolado = new SimuladorService();
+                isolado.inicializar(quantidade, semente);
+                return objectMapper.writeValueAsBytes(isolado.simular(iteracoes));
+        }
+
+        private void aguardarNaFila(int quantidade) throws InterruptedException {
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (fila.metricas().getAguardando() < quantidade && System.nanoTime() < limite) {
+                        Thread.sleep(1);
+                }
+                assertThat(fila.metricas().getAguardando()).isEqualTo(quantidade);
+        }
+
+        private static int quantidade(int i) {
+                return 20 + 30 * i;
+        }
+
+        private static int iteracoes(int i) {
+                return 40 + 10 * i;
+        }
+
+        private static long semente(int i) {
+                return 1000L + i;
+        }
+}
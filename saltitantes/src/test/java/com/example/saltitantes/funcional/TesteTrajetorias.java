@@ -0,0 +1,173 @@
+package com.example.saltitantes.funcional;
+
+import com.example.saltitantes.controller.SimulacoesController;
+import com.example.saltitantes.model.dto.ClusterDTO;
+import com.example.saltitantes.model.dto.CriaturasDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.model.entity.SimulacaoExecucao;
+import com.example.saltitantes.repository.SimulacaoExecucaoRepository;
+import com.example.saltitantes.service.SimuladorService;
+import com.example.saltitantes.service.TrajetoriasExecucao;
+import com.example.saltitantes.service.TrajetoriasExecucao.Serie;
+import com.example.saltitantes.service.TrajetoriasExecucao.Tipo;
+import com.example.saltitantes.service.TrajetoriasService;
+import com.example.saltitantes.service.TrajetoriasService.TrechoTrajetoria;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Funcionais - Trajetória de uma entidade numa execução registrada.
+ *
+ * Focam em:
+ * - Mesmos valores da execução original, iteração a iteração
+ * - Uma única reprodução por execução, compartilhada pelas consultas
+ * - Códigos de erro do endpoint
+ */
+public class TesteTrajetorias {
+
+        private static final long SEMENTE = 23L;
+
+        @Mock
+        private SimulacaoExecucaoRepository execucaoRepository;
+
+        @InjectMocks
+        private TrajetoriasService trajetoriasService;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        /**
+         * Testa as séries de criatura, cluster e guardião contra a execução
+         * original.
+         *
+         * @pre Execução de 150 criaturas com semente fixa registrada no catálogo
+         * @post Posição, ouro e alvo iguais aos do /simular em cada iteração em
+         *       que a entidade existe; a criatura some ao entrar num cluster
+         */
+        @Test
+        void testSeriesIguaisAExecucaoOriginal() {
+                SimuladorService simulador = new SimuladorService();
+                List<SimularResponseDTO> original = simulador.simular(150, SEMENTE, 120, null, null);
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(150, original.size())));
+
+                Serie criatura = trajetoriasService.buscar(1L, Tipo.CRIATURA, 17, null, null).orElseThrow().getSerie();
+                Serie guardiao = trajetoriasService.buscar(1L, Tipo.GUARDIAO, 151, null, null).orElseThrow()
+                                .getSerie();
+                assertThat(guardiao.getInicio()).isEqualTo(1);
+                assertThat(guardiao.getFim()).isEqualTo(original.size());
+
+                ClusterDTO primeiroCluster = null;
+                for (SimularResponseDTO iteracao : original) {
+                        int numero = iteracao.getIteracao();
+                        CriaturasDTO viva = null;
+                        for (CriaturasDTO c : iteracao.getCriaturas()) {
+                                if (c.getId() == 17) {
+                                        viva = c;
+                                }
+                        }
+                        if (viva != null) {
+                                assertThat(criatura.posicao(numero)).isEqualTo(viva.getPosicaox());
+                                assertThat(criatura.ouro(numero)).isEqualTo(viva.getOuro());
+                                assertThat(criatura.alvo(numero)).isEqualTo(viva.getIdCriaturaRoubada());
+                        } else {
+                                assertThat(numero).isNotBetween(criatura.getInicio(), criatura.getFim());
+                        }
+                        assertThat(guardiao.ouro(numero)).isEqualTo(iteracao.getGuardiao().getOuro());
+                        assertThat(guardiao.alvo(numero)).isEqualTo(iteracao.getGuardiao().getIdClusterEliminado());
+                        if (primeiroCluster == null && !iteracao.getClusters().isEmpty()) {
+                                primeiroCluster = iteracao.getClusters().get(0);
+                                Serie cluster = trajetoriasService.buscar(1L, Tipo.CLUSTER,
+                                                primeiroCluster.getIdCluster(), null, null).orElseThrow().getSerie();
+                                assertThat(cluster.getInicio()).isEqualTo(numero);
+                                assertThat(cluster.ouro(numero)).isEqualTo(primeiroCluster.getOuroTotal());
+                        }
+                }
+
+                // Todas as consultas usaram a mesma reprodução
+                assertThat(trajetoriasService.execucoesEmCache()).isEqualTo(1);
+                assertThat(trajetoriasService.bytesEmCache()).isPositive();
+        }
+
+        /**
+         * Testa a escrita de um trecho da série.
+         *
+         * @pre Guardião consultado nas iterações 5 a 9
+         * @post Cinco valores em cada vetor, com a faixa efetiva no corpo
+         */
+        @Test
+        void testTrechoEscrito() throws IOException {
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(20, 30)));
+
+                TrechoTrajetoria trecho = trajetoriasService.buscar(1L, Tipo.GUARDIAO, 21, 5, 9).orElseThrow();
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+                        TrajetoriasExecucao.escrever(json, trecho.getTipo(), trecho.getId(), trecho.getSerie(),
+                                        trecho.getDe(), trecho.getAte());
+                }
+                JsonNode corpo = objectMapper.readTree(saida.toByteArray());
+
+                assertThat(corpo.get("tipo").asText()).isEqualTo("guardiao");
+                assertThat(corpo.get("de").asInt()).isEqualTo(5);
+                assertThat(corpo.get("ate").asInt()).isEqualTo(9);
+                assertThat(corpo.get("posicaox")).hasSize(5);
+                assertThat(corpo.get("ouro").get(0).asInt()).isEqualTo(trecho.getSerie().ouro(5));
+                assertThat(corpo.get("alvo")).hasSize(5);
+        }
+
+        /**
+         * Testa os códigos de erro do endpoint.
+         *
+         * @pre Execução 1 registrada; execução 2 inexistente
+         * @post 200 imutável para entidade existente; 404 para execução ou
+         *       entidade inexistente; 400 para tipo ou faixa inválidos
+         */
+        @Test
+        void testCodigos() {
+                when(execucaoRepository.findById(1L)).thenReturn(Optional.of(execucao(20, 30)));
+                when(execucaoRepository.findById(2L)).thenReturn(Optional.empty());
+                SimulacoesController controller = new SimulacoesController(null, trajetoriasService, null);
+
+                assertThat(controller.obterTrajetoria(1L, "guardiao", 21, null, null, null).getHeaders()
+                                .getCacheControl()).contains("immutable");
+                assertThat(controller.obterTrajetoria(1L, "criatura", 3, null, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.OK);
+                assertThat(controller.obterTrajetoria(2L, "criatura", 3, null, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.NOT_FOUND);
+                assertThat(controller.obterTrajetoria(1L, "criatura", 999, null, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.NOT_FOUND);
+                assertThat(controller.obterTrajetoria(1L, "dragao", 3, null, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(controller.obterTrajetoria(1L, "guardiao", 21, 10, 5, null).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(controller.obterTrajetoria(1L, "guardiao", 21, 31, null, null).getStatusCode())
+                                .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        private SimulacaoExecucao execucao(int quantidade, int executadas) {
+                SimulacaoExecucao execucao = new SimulacaoExecucao(null, quantidade, executadas, SEMENTE, false,
+                                executadas, 0, 0);
+                execucao.setId(1L);
+                return execucao;
+        }
+}
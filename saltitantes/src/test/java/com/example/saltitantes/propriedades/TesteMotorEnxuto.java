@@ -0,0 +1,135 @@
+package com.example.saltitantes.propriedades;
+
+import com.example.saltitantes.controller.SimuladorController;
+import com.example.saltitantes.model.dto.ParametrosDTO;
+import com.example.saltitantes.model.dto.SimularResponseDTO;
+import com.example.saltitantes.service.EscritorSimulacao;
+import com.example.saltitantes.service.SimuladorService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de propriedade do modo enxuto da simulação.
+ *
+ * Focam em:
+ * - Mesmo histórico do modo padrão para a mesma semente
+ * - Mesmo estado final das entidades
+ * - JSON da serialização direta igual, byte a byte, ao do Jackson
+ * - Corpo da resposta independente de outras requisições ao serviço
+ */
+public class TesteMotorEnxuto {
+
+    /**
+     * PROPRIEDADE: Para a mesma semente e os mesmos parâmetros, o modo enxuto
+     * produz exatamente o mesmo histórico que o modo padrão.
+     *
+     * @param n         Número de criaturas
+     * @param iteracoes Número de iterações
+     * @param semente   Semente do gerador
+     * @pre Parâmetros válidos
+     * @post Históricos iguais campo a campo e mesmo estado final
+     */
+    @Property(tries = 50)
+    void modoEnxutoReproduzModoPadrao(@ForAll @IntRange(min = 2, max = 300) int n,
+            @ForAll @IntRange(min = 1, max = 200) int iteracoes,
+            @ForAll long semente) {
+        SimuladorService padrao = new SimuladorService();
+        padrao.inicializar(n, semente);
+        List<SimularResponseDTO> historicoPadrao = padrao.simular(iteracoes);
+
+        SimuladorService enxuto = new SimuladorService();
+        enxuto.setModoEnxuto(true);
+        enxuto.inicializar(n, semente);
+        List<SimularResponseDTO> historicoEnxuto = enxuto.simular(iteracoes);
+
+        assertThat(historicoEnxuto).usingRecursiveComparison().isEqualTo(historicoPadrao);
+        assertThat(enxuto.getCriaturasParaTeste()).usingRecursiveComparison()
+                .isEqualTo(padrao.getCriaturasParaTeste());
+        assertThat(enxuto.getGuardiaoParaTeste()).usingRecursiveComparison()
+                .isEqualTo(padrao.getGuardiaoParaTeste());
+    }
+
+    /**
+     * PROPRIEDADE: A escrita direta no JsonGenerator gera os mesmos bytes que
+     * a serialização pelo Jackson da lista de DTOs do modo padrão.
+     *
+     * @param n         Número de criaturas
+     * @param iteracoes Número de iterações
+     * @param semente   Semente do gerador
+     * @pre Parâmetros válidos
+     * @post JSONs idênticos
+     */
+    @Property(tries = 50)
+    void serializacaoDiretaIgualAoJackson(@ForAll @IntRange(min = 2, max = 300) int n,
+            @ForAll @IntRange(min = 1, max = 200) int iteracoes,
+            @ForAll long semente) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        byte[] esperado = objectMapper.writeValueAsBytes(
+                new SimuladorService().simular(n, semente, iteracoes, null, null));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+            new SimuladorService().simular(n, semente, iteracoes, null, null, json, false, null);
+        }
+
+        assertThat(saida.toByteArray()).isEqualTo(esperado);
+    }
+
+    /**
+     * PROPRIEDADE: O corpo da resposta do /simular, escrito depois que outra
+     * requisição passou pelo mesmo serviço, traz a simulação dos próprios
+     * parâmetros.
+     *
+     * @param n         Número de criaturas
+     * @param iteracoes Número de iterações
+     * @param semente   Semente do gerador
+     * @param outroN    Número de criaturas da outra requisição
+     * @pre Corpo criado e escrito só depois da outra requisição
+     * @post JSON igual ao de uma simulação isolada com os mesmos parâmetros
+     */
+    @Property(tries = 20)
+    void corpoNaoDependeDeOutraRequisicao(@ForAll @IntRange(min = 2, max = 200) int n,
+            @ForAll @IntRange(min = 1, max = 100) int iteracoes,
+            @ForAll long semente,
+            @ForAll @IntRange(min = 2, max = 200) int outroN) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] esperado = objectMapper.writeValueAsBytes(
+                new SimuladorService().simular(n, semente, iteracoes, null, null));
+
+        SimuladorController controller = new SimuladorController(new SimuladorService(), true);
+        EscritorSimulacao corpo = (EscritorSimulacao) controller.simular(parametros(n, iteracoes, semente), null,
+                null).getBody();
+        EscritorSimulacao outro = (EscritorSimulacao) controller.simular(parametros(outroN, 100, semente + 1),
+                null, null).getBody();
+        escrever(objectMapper, outro);
+
+        assertThat(escrever(objectMapper, corpo)).isEqualTo(esperado);
+    }
+
+    private static ParametrosDTO parametros(int quantidade, int iteracoes, long semente) {
+        ParametrosDTO parametros = new ParametrosDTO();
+        parametros.setQuantidade(quantidade);
+        parametros.setIteracoes(iteracoes);
+        parametros.setSemente(semente);
+        return parametros;
+    }
+
+    private static byte[] escrever(ObjectMapper objectMapper, EscritorSimulacao corpo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.createGenerator(saida, JsonEncoding.UTF8)) {
+            corpo.escrever(json);
+        }
+        return saida.toByteArray();
+    }
+}